@@ -31,6 +31,7 @@ import org.apache.fineract.accounting.financialactivityaccount.exception.Financi
 import org.apache.fineract.accounting.financialactivityaccount.serialization.FinancialActivityAccountDataValidator;
 import org.apache.fineract.accounting.glaccount.domain.GLAccount;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
+import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToGLAccountMappingResolver;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -49,20 +50,24 @@ public class FinancialActivityAccountWritePlatformServiceImpl implements Financi
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
     private final FinancialActivityAccountDataValidator fromApiJsonDeserializer;
     private final GLAccountRepositoryWrapper glAccountRepositoryWrapper;
+    private final ProductToGLAccountMappingResolver productToGLAccountMappingResolver;
     private static final Logger LOG = LoggerFactory.getLogger(FinancialActivityAccountWritePlatformServiceImpl.class);
 
     @Autowired
     public FinancialActivityAccountWritePlatformServiceImpl(
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository,
             final FinancialActivityAccountDataValidator fromApiJsonDeserializer,
-            final GLAccountRepositoryWrapper glAccountRepositoryWrapper) {
+            final GLAccountRepositoryWrapper glAccountRepositoryWrapper,
+            final ProductToGLAccountMappingResolver productToGLAccountMappingResolver) {
         this.financialActivityAccountRepository = financialActivityAccountRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.glAccountRepositoryWrapper = glAccountRepositoryWrapper;
+        this.productToGLAccountMappingResolver = productToGLAccountMappingResolver;
     }
 
     @Override
     public CommandProcessingResult createFinancialActivityAccountMapping(JsonCommand command) {
+        this.productToGLAccountMappingResolver.mappingsChanged();
         try {
 
             this.fromApiJsonDeserializer.validateForCreate(command.json());
@@ -102,6 +107,7 @@ public class FinancialActivityAccountWritePlatformServiceImpl implements Financi
 
     @Override
     public CommandProcessingResult updateGLAccountActivityMapping(Long financialActivityAccountId, JsonCommand command) {
+        this.productToGLAccountMappingResolver.mappingsChanged();
         try {
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
             final FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
@@ -141,6 +147,7 @@ public class FinancialActivityAccountWritePlatformServiceImpl implements Financi
 
     @Override
     public CommandProcessingResult deleteGLAccountActivityMapping(Long financialActivityAccountId, JsonCommand command) {
+        this.productToGLAccountMappingResolver.mappingsChanged();
         final FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
                 .findOneWithNotFoundDetection(financialActivityAccountId);
         this.financialActivityAccountRepository.delete(financialActivityAccount);
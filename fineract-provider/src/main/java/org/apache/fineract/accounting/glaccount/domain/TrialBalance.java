@@ -81,6 +81,10 @@ public class TrialBalance extends AbstractPersistableCustom {
         return amount;
     }
 
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
     public void setClosingBalance(final BigDecimal closingBalance) {
         this.closingBalance = closingBalance;
     }
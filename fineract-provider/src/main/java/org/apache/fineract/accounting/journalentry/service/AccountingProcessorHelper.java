@@ -35,8 +35,7 @@ import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsFor
 import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsForSavings;
 import org.apache.fineract.accounting.common.AccountingConstants.CashAccountsForShares;
 import org.apache.fineract.accounting.common.AccountingConstants.FinancialActivity;
-import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccount;
-import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.financialactivityaccount.exception.FinancialActivityAccountNotFoundException;
 import org.apache.fineract.accounting.glaccount.domain.GLAccount;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
 import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
@@ -55,9 +54,8 @@ import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException;
 import org.apache.fineract.accounting.journalentry.exception.JournalEntryInvalidException.GlJournalEntryInvalidReason;
 import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
-import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
-import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
 import org.apache.fineract.accounting.producttoaccountmapping.exception.ProductToGLAccountMappingNotFoundException;
+import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToGLAccountMappingResolver;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -93,8 +91,7 @@ public class AccountingProcessorHelper {
     public static final String PROVISIONING_TRANSACTION_IDENTIFIER = "P";
     public static final String SHARE_TRANSACTION_IDENTIFIER = "SH";
     private final JournalEntryRepository glJournalEntryRepository;
-    private final ProductToGLAccountMappingRepository accountMappingRepository;
-    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
+    private final ProductToGLAccountMappingResolver accountMappingResolver;
     private final GLClosureRepository closureRepository;
     private final GLAccountRepositoryWrapper accountRepositoryWrapper;
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
@@ -109,22 +106,20 @@ public class AccountingProcessorHelper {
 
     @Autowired
     public AccountingProcessorHelper(final JournalEntryRepository glJournalEntryRepository,
-            final ProductToGLAccountMappingRepository accountMappingRepository, final GLClosureRepository closureRepository,
+            final ProductToGLAccountMappingResolver accountMappingResolver, final GLClosureRepository closureRepository,
             final OfficeRepositoryWrapper officeRepositoryWrapper, final LoanTransactionRepository loanTransactionRepository,
             final SavingsAccountTransactionRepository savingsAccountTransactionRepository,
-            final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository,
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService,
             final GLAccountRepositoryWrapper accountRepositoryWrapper,
             final ClientTransactionRepositoryWrapper clientTransactionRepositoryWrapper,
             final ChargeRepositoryWrapper chargeRepositoryWrapper, final RoutingDataSource dataSource) {
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.dataSource = dataSource;
-        this.accountMappingRepository = accountMappingRepository;
+        this.accountMappingResolver = accountMappingResolver;
         this.closureRepository = closureRepository;
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.loanTransactionRepository = loanTransactionRepository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
-        this.financialActivityAccountRepository = financialActivityAccountRepository;
         this.accountTransfersReadPlatformService = accountTransfersReadPlatformService;
         this.accountRepositoryWrapper = accountRepositoryWrapper;
         this.clientTransactionRepository = clientTransactionRepositoryWrapper;
@@ -1121,40 +1116,30 @@ public class AccountingProcessorHelper {
     }
 
     public GLAccount getLinkedGLAccountForLoanProduct(final Long loanProductId, final int accountMappingTypeId, final Long paymentTypeId) {
-        GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
-        } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
-                    PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
-
-            /****
-             * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
-             * placeholder ID would be same for both cash and accrual accounts
-             ***/
-            if (accountMappingTypeId == CashAccountsForLoan.FUND_SOURCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(loanProductId,
-                                PortfolioProductType.LOAN.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
-                }
-            }
-
-            if (accountMapping == null) {
-                throw new ProductToGLAccountMappingNotFoundException(PortfolioProductType.LOAN, loanProductId,
-                        AccrualAccountsForLoan.OVERPAYMENT.toString());
-            }
-            glAccount = accountMapping.getGlAccount();
+            return getFinancialActivityGLAccount(accountMappingTypeId);
+        }
+        Long glAccountId = null;
+        /****
+         * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
+         * placeholder ID would be same for both cash and accrual accounts
+         ***/
+        if (accountMappingTypeId == CashAccountsForLoan.FUND_SOURCE.getValue()) {
+            glAccountId = this.accountMappingResolver.resolvePaymentTypeMapping(PortfolioProductType.LOAN, loanProductId,
+                    accountMappingTypeId, paymentTypeId);
+        }
+        if (glAccountId == null) {
+            glAccountId = this.accountMappingResolver.resolveCoreMapping(PortfolioProductType.LOAN, loanProductId, accountMappingTypeId);
         }
-        return glAccount;
+        if (glAccountId == null) {
+            throw new ProductToGLAccountMappingNotFoundException(PortfolioProductType.LOAN, loanProductId,
+                    AccrualAccountsForLoan.OVERPAYMENT.toString());
+        }
+        return getGLAccountById(glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForLoanCharges(final Long loanProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
-                PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
+        Long glAccountId = null;
         /*****
          * Get more specific mappings for Charges and penalties (based on the actual charge /penalty coupled with the
          * loan product). Note the income from fees and income from penalties placeholder ID would be the same for both
@@ -1164,21 +1149,18 @@ public class AccountingProcessorHelper {
         // Vishwas TODO: remove this condition as it should always be true
         if (accountMappingTypeId == CashAccountsForLoan.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CashAccountsForLoan.INCOME_FROM_PENALTIES.getValue()) {
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(loanProductId, PortfolioProductType.LOAN.getValue(),
-                            accountMappingTypeId, chargeId);
-            if (chargeSpecificIncomeAccountMapping != null) {
-                accountMapping = chargeSpecificIncomeAccountMapping;
-            }
+            glAccountId = this.accountMappingResolver.resolveChargeMapping(PortfolioProductType.LOAN, loanProductId, accountMappingTypeId,
+                    chargeId);
         }
-        return accountMapping.getGlAccount();
+        if (glAccountId == null) {
+            glAccountId = this.accountMappingResolver.resolveCoreMapping(PortfolioProductType.LOAN, loanProductId, accountMappingTypeId);
+        }
+        return getMappedGLAccount(PortfolioProductType.LOAN, loanProductId, accountMappingTypeId, glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForSavingsCharges(final Long savingsProductId, final int accountMappingTypeId,
             final Long chargeId) {
-
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
-                PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
+        Long glAccountId = null;
         /*****
          * Get more specific mappings for Charges and penalties (based on the actual charge /penalty coupled with the
          * loan product). Note the income from fees and income from penalties placeholder ID would be the same for both
@@ -1193,85 +1175,83 @@ public class AccountingProcessorHelper {
             if (glAccount != null) {
                 return glAccount;
             }
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(savingsProductId, PortfolioProductType.SAVING.getValue(),
-                            accountMappingTypeId, chargeId);
-            if (chargeSpecificIncomeAccountMapping != null) {
-
-                accountMapping = chargeSpecificIncomeAccountMapping;
-            }
+            glAccountId = this.accountMappingResolver.resolveChargeMapping(PortfolioProductType.SAVING, savingsProductId,
+                    accountMappingTypeId, chargeId);
         }
-
-        return accountMapping.getGlAccount();
+        if (glAccountId == null) {
+            glAccountId = this.accountMappingResolver.resolveCoreMapping(PortfolioProductType.SAVING, savingsProductId,
+                    accountMappingTypeId);
+        }
+        return getMappedGLAccount(PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId, glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForSavingsProduct(final Long savingsProductId, final int accountMappingTypeId,
             final Long paymentTypeId) {
-        GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
-        } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
-                    PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
-            /****
-             * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
-             * placeholder ID would be same for both cash and accrual accounts
-             ***/
-            if (accountMappingTypeId == CashAccountsForSavings.SAVINGS_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(savingsProductId,
-                                PortfolioProductType.SAVING.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
-                }
-            }
-            glAccount = accountMapping.getGlAccount();
+            return getFinancialActivityGLAccount(accountMappingTypeId);
+        }
+        Long glAccountId = null;
+        /****
+         * Get more specific mapping for FUND source accounts (based on payment channels). Note that fund source
+         * placeholder ID would be same for both cash and accrual accounts
+         ***/
+        if (accountMappingTypeId == CashAccountsForSavings.SAVINGS_REFERENCE.getValue()) {
+            glAccountId = this.accountMappingResolver.resolvePaymentTypeMapping(PortfolioProductType.SAVING, savingsProductId,
+                    accountMappingTypeId, paymentTypeId);
+        }
+        if (glAccountId == null) {
+            glAccountId = this.accountMappingResolver.resolveCoreMapping(PortfolioProductType.SAVING, savingsProductId,
+                    accountMappingTypeId);
         }
-        return glAccount;
+        return getMappedGLAccount(PortfolioProductType.SAVING, savingsProductId, accountMappingTypeId, glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForShareProduct(final Long shareProductId, final int accountMappingTypeId,
             final Long paymentTypeId) {
-        GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
-            glAccount = financialActivityAccount.getGlAccount();
-        } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(shareProductId,
-                    PortfolioProductType.SHARES.getValue(), accountMappingTypeId);
-
-            if (accountMappingTypeId == CashAccountsForShares.SHARES_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(shareProductId,
-                                PortfolioProductType.SHARES.getValue(), accountMappingTypeId, paymentTypeId);
-                if (paymentChannelSpecificAccountMapping != null) {
-                    accountMapping = paymentChannelSpecificAccountMapping;
-                }
-            }
-            glAccount = accountMapping.getGlAccount();
+            return getFinancialActivityGLAccount(accountMappingTypeId);
+        }
+        Long glAccountId = null;
+        if (accountMappingTypeId == CashAccountsForShares.SHARES_REFERENCE.getValue()) {
+            glAccountId = this.accountMappingResolver.resolvePaymentTypeMapping(PortfolioProductType.SHARES, shareProductId,
+                    accountMappingTypeId, paymentTypeId);
         }
-        return glAccount;
+        if (glAccountId == null) {
+            glAccountId = this.accountMappingResolver.resolveCoreMapping(PortfolioProductType.SHARES, shareProductId,
+                    accountMappingTypeId);
+        }
+        return getMappedGLAccount(PortfolioProductType.SHARES, shareProductId, accountMappingTypeId, glAccountId);
     }
 
     private GLAccount getLinkedGLAccountForShareCharges(final Long shareProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(shareProductId,
-                PortfolioProductType.SHARES.getValue(), accountMappingTypeId);
         /*****
          * Get more specific mappings for Charges and penalties (based on the actual charge /penalty coupled with the
          * loan product). Note the income from fees and income from penalties placeholder ID would be the same for both
          * cash and accrual based accounts
          *****/
+        Long glAccountId = this.accountMappingResolver.resolveChargeMapping(PortfolioProductType.SHARES, shareProductId,
+                accountMappingTypeId, chargeId);
+        if (glAccountId == null) {
+            glAccountId = this.accountMappingResolver.resolveCoreMapping(PortfolioProductType.SHARES, shareProductId,
+                    accountMappingTypeId);
+        }
+        return getMappedGLAccount(PortfolioProductType.SHARES, shareProductId, accountMappingTypeId, glAccountId);
+    }
+
+    private GLAccount getMappedGLAccount(final PortfolioProductType productType, final Long productId, final int accountMappingTypeId,
+            final Long glAccountId) {
+        if (glAccountId == null) {
+            throw new ProductToGLAccountMappingNotFoundException(productType, productId, String.valueOf(accountMappingTypeId));
+        }
+        return getGLAccountById(glAccountId);
+    }
 
-        final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                .findProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(shareProductId, PortfolioProductType.SHARES.getValue(),
-                        accountMappingTypeId, chargeId);
-        if (chargeSpecificIncomeAccountMapping != null) {
-            accountMapping = chargeSpecificIncomeAccountMapping;
+    private GLAccount getFinancialActivityGLAccount(final int financialActivityType) {
+        final Long glAccountId = this.accountMappingResolver.resolveFinancialActivityAccount(financialActivityType);
+        if (glAccountId == null) {
+            throw new FinancialActivityAccountNotFoundException(financialActivityType);
         }
-        return accountMapping.getGlAccount();
+        return getGLAccountById(glAccountId);
     }
 
     private boolean isOrganizationAccount(final int accountMappingTypeId) {
@@ -1320,8 +1300,7 @@ public class AccountingProcessorHelper {
 
     public void createDebitJournalEntryOrReversalForClientChargePayments(final Office office, final String currencyCode,
             final Long clientId, final Long transactionId, final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
-        final GLAccount account = financialActivityAccountRepository
-                .findByFinancialActivityTypeWithNotFoundDetection(FinancialActivity.ASSET_FUND_SOURCE.getValue()).getGlAccount();
+        final GLAccount account = getFinancialActivityGLAccount(FinancialActivity.ASSET_FUND_SOURCE.getValue());
         if (isReversal) {
             createCreditJournalEntryForClientPayments(office, currencyCode, account, clientId, transactionId, transactionDate, amount);
         } else {
@@ -255,7 +255,7 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
 
         GLJournalEntryMapper rm = new GLJournalEntryMapper(associationParametersData);
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(rm.schema());
 
         final Object[] objectArray = new Object[15];
@@ -351,6 +351,14 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             whereClose = " and ";
         }
 
+        if (searchParameters.getKeyset() != null) {
+            if (whereClose.equals(" where ")) {
+                sqlBuilder.append(" where 1 = 1");
+            }
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), Arrays.copyOf(objectArray, arrayPos), rm,
+                    searchParameters.getKeyset(), "journalEntry.id");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
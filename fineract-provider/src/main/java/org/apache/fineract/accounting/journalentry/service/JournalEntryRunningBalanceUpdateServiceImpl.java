@@ -26,37 +26,50 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.accounting.common.AccountingEnumerations;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
 import org.apache.fineract.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.apache.fineract.infrastructure.core.data.EnumOptionData;
-import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Calculates the office and organization running balances of journal entries incrementally.
+ *
+ * For every (office, account) and every account with uncalculated entries, the balances are recalculated from the
+ * earliest uncalculated entry date onwards. The opening balance is taken from acc_gl_running_balance_checkpoint (or, for
+ * back dated entries, from the last entry before that date). Entries are streamed in (entry_date, id) order and written
+ * back with parameterized batch updates, only where the balance actually changed. Offices are processed in parallel
+ * first, the organization balances (which also mark the entries as calculated) are updated afterwards.
+ */
 @Service
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
     private static final Logger LOG = LoggerFactory.getLogger(JournalEntryRunningBalanceUpdateServiceImpl.class);
 
+    private static final int BATCH_UPDATE_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
 
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
 
@@ -64,31 +77,54 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
-
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final FineractProperties fineractProperties;
 
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource,
             final OfficeRepositoryWrapper officeRepositoryWrapper, final JournalEntryDataValidator dataValidator,
-            final FromJsonHelper fromApiJsonHelper, DatabaseSpecificSQLGenerator sqlGenerator) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+            final FromJsonHelper fromApiJsonHelper, DatabaseSpecificSQLGenerator sqlGenerator,
+            final TransactionTemplate transactionTemplate, final PartitionedJobExecutor partitionedJobExecutor,
+            final FineractProperties fineractProperties) {
+        this(new JdbcTemplate(dataSource), streamingJdbcTemplate(dataSource), officeRepositoryWrapper, dataValidator, fromApiJsonHelper,
+                sqlGenerator, transactionTemplate, partitionedJobExecutor, fineractProperties);
+    }
+
+    JournalEntryRunningBalanceUpdateServiceImpl(final JdbcTemplate jdbcTemplate, final JdbcTemplate streamingJdbcTemplate,
+            final OfficeRepositoryWrapper officeRepositoryWrapper, final JournalEntryDataValidator dataValidator,
+            final FromJsonHelper fromApiJsonHelper, final DatabaseSpecificSQLGenerator sqlGenerator,
+            final TransactionTemplate transactionTemplate, final PartitionedJobExecutor partitionedJobExecutor,
+            final FineractProperties fineractProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.dataValidator = dataValidator;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.sqlGenerator = sqlGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.fineractProperties = fineractProperties;
     }
 
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
-    public void updateRunningBalance() {
-        String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
-                + "where je.is_running_balance_calculated=false ";
-        try {
-            Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class);
-            updateOrganizationRunningBalance(entityDate);
-        } catch (EmptyResultDataAccessException e) {
+    public void updateRunningBalance() throws JobExecutionException {
+        // entries posted while the job is running are left for the next run
+        final Long maxEntryId = this.jdbcTemplate.queryForObject("select max(je.id) from acc_gl_journal_entry je", Long.class);
+        final List<Long> officeIds = this.jdbcTemplate.queryForList(
+                "select distinct je.office_id from acc_gl_journal_entry je where je.is_running_balance_calculated=false and je.id <= ?",
+                Long.class, maxEntryId);
+        if (officeIds.isEmpty()) {
             LOG.debug("No results found for updation of running balance ");
+            return;
         }
+
+        // offices are updated in parallel, every office in its own transaction
+        this.partitionedJobExecutor.execute(JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE.name(), officeIds,
+                this.fineractProperties.getPartitionedJob().getThreadPoolSize(), 1,
+                officeId -> updateOfficeRunningBalance(officeId, maxEntryId));
+        this.transactionTemplate.executeWithoutResult(status -> updateOrganizationRunningBalance(maxEntryId));
     }
 
     @Override
@@ -99,139 +135,144 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder()
                 .withCommandId(command.commandId());
         if (officeId == null) {
-            updateRunningBalance();
-        } else {
-            this.officeRepositoryWrapper.findOneWithNotFoundDetection(officeId);
-            String dateFinder = "select MIN(je.entry_date) as entityDate " + "from acc_gl_journal_entry  je "
-                    + "where je.is_running_balance_calculated=false  and je.office_id=?";
             try {
-                Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class, officeId);
-                updateRunningBalance(officeId, entityDate);
-            } catch (EmptyResultDataAccessException e) {
-                LOG.debug("No results found for updation of office running balance with office id: {}", officeId);
+                updateRunningBalance();
+            } catch (JobExecutionException e) {
+                throw new PlatformInternalServerException("error.msg.running.balance.update.failed", e.getMessage(), e);
             }
+        } else {
+            this.officeRepositoryWrapper.findOneWithNotFoundDetection(officeId);
+            final Long maxEntryId = this.jdbcTemplate.queryForObject("select max(je.id) from acc_gl_journal_entry je", Long.class);
+            this.transactionTemplate.executeWithoutResult(status -> updateOfficeRunningBalance(officeId, maxEntryId));
             commandProcessingResultBuilder.withOfficeId(officeId);
         }
         return commandProcessingResultBuilder.build();
     }
 
-    private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(
-                "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                        + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                        + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                        + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0),
-                entityDate, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString()); // Drizzle
-                                                                                  // is
-                                                                                  // returning
-                                                                                  // Big
-                                                                                  // Integer
-                                                                                  // where
-                                                                                  // as
-                                                                                  // MySQL
-                                                                                  // returns
-                                                                                  // Long.
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+    private static JdbcTemplate streamingJdbcTemplate(final RoutingDataSource dataSource) {
+        final JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        return streamingJdbcTemplate;
+    }
+
+    private void updateOfficeRunningBalance(final Long officeId, final Long maxEntryId) {
+        final Map<Long, AccountRunningBalance> runningBalances = new HashMap<>();
+        final List<Map<String, Object>> startDates = this.jdbcTemplate.queryForList(
+                "select je.account_id as accountId, min(je.entry_date) as entryDate from acc_gl_journal_entry je "
+                        + "where je.office_id=? and je.is_running_balance_calculated=false and je.id <= ? group by je.account_id",
+                officeId, maxEntryId);
+        if (startDates.isEmpty()) {
+            LOG.debug("No results found for updation of office running balance with office id: {}", officeId);
+            return;
+        }
+        final Map<Long, Map<String, Object>> checkpoints = new HashMap<>();
+        for (final Map<String, Object> checkpoint : this.jdbcTemplate.queryForList(
+                "select cp.account_id as accountId, cp.entry_date as entryDate, cp.office_running_balance as runningBalance "
+                        + "from acc_gl_running_balance_checkpoint cp where cp.office_id=?",
+                officeId)) {
+            checkpoints.put(toLong(checkpoint.get("accountId")), checkpoint);
         }
 
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate
-                .queryForList("select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-                        + "from acc_gl_journal_entry je "
-                        + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 ON je2.id = je.id "
-                        + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 ON je.entry_date = je3.date "
-                        + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0), entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString());
-            Long officeId = Long.parseLong(entries.get("officeId").toString());
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
+        Date fromDate = null;
+        for (final Map<String, Object> startDate : startDates) {
+            final Long accountId = toLong(startDate.get("accountId"));
+            final Date entryDate = (Date) startDate.get("entryDate");
+            final Map<String, Object> checkpoint = checkpoints.get(accountId);
+            final BigDecimal openingBalance;
+            if (checkpoint != null && ((Date) checkpoint.get("entryDate")).before(entryDate)) {
+                openingBalance = (BigDecimal) checkpoint.get("runningBalance");
             } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
+                // back dated entries (or no checkpoint yet), continue from the last entry before the start date
+                openingBalance = retrieveOpeningBalance("office_running_balance", "je.office_id=? and je.account_id=?", officeId,
+                        accountId, entryDate);
             }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
+            runningBalances.put(accountId, new AccountRunningBalance(entryDate, openingBalance));
+            if (fromDate == null || entryDate.before(fromDate)) {
+                fromDate = entryDate;
             }
         }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0; index < entryDatas.size(); index++) {
-                JournalEntryData entryData = entryDatas.get(index);
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=true, organization_running_balance="
-                        + runningBalance + ",office_running_balance=" + officeRunningBalance + " WHERE  id=" + entryData.getId();
-                updateSql.add(sql);
-                batchIndex++;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size() - 1) {
-                    // run a batch update of the 1000 update SQL statements
-                    String[] batch = new String[updateSql.size()];
-                    updateSql.toArray(batch);
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
-                }
+        final RunningBalanceWriter writer = new RunningBalanceWriter(
+                "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?");
+        this.streamingJdbcTemplate.query(
+                entrySchema("je.office_running_balance") + " where je.office_id=? and je.entry_date >= ? and je.id <= ? "
+                        + "order by je.entry_date, je.id",
+                (RowCallbackHandler) rs -> writer.apply(rs, runningBalances), officeId, fromDate, maxEntryId);
+        writer.flush();
+
+        for (final Map.Entry<Long, AccountRunningBalance> runningBalance : runningBalances.entrySet()) {
+            final AccountRunningBalance balance = runningBalance.getValue();
+            if (balance.lastEntryId == null) {
+                continue;
+            }
+            final int updated = this.jdbcTemplate.update(
+                    "UPDATE acc_gl_running_balance_checkpoint SET entry_date=?, journal_entry_id=?, office_running_balance=? "
+                            + "WHERE office_id=? and account_id=?",
+                    balance.lastEntryDate, balance.lastEntryId, balance.balance, officeId, runningBalance.getKey());
+            if (updated == 0) {
+                this.jdbcTemplate.update("INSERT INTO acc_gl_running_balance_checkpoint "
+                        + "(office_id, account_id, entry_date, journal_entry_id, office_running_balance) VALUES (?, ?, ?, ?, ?)",
+                        officeId, runningBalance.getKey(), balance.lastEntryDate, balance.lastEntryId, balance.balance);
             }
         }
-
+        LOG.debug("Updated {} office running balances of office {}", writer.updatedCount, officeId);
     }
 
-    private void updateRunningBalance(Long officeId, Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(
-                "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-                        + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 ON je2.id = je.id "
-                        + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 ON je.entry_date = je3.date "
-                        + "group by je.id order by je.entry_date DESC " + sqlGenerator.limit(10000, 0),
-                officeId, entityDate, officeId, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
+    private void updateOrganizationRunningBalance(final Long maxEntryId) {
+        final Map<Long, AccountRunningBalance> runningBalances = new HashMap<>();
+        Date fromDate = null;
+        for (final Map<String, Object> startDate : this.jdbcTemplate.queryForList(
+                "select je.account_id as accountId, min(je.entry_date) as entryDate from acc_gl_journal_entry je "
+                        + "where je.is_running_balance_calculated=false and je.id <= ? group by je.account_id",
+                maxEntryId)) {
+            final Long accountId = toLong(startDate.get("accountId"));
+            final Date entryDate = (Date) startDate.get("entryDate");
+            final BigDecimal openingBalance = retrieveOpeningBalance("organization_running_balance", "je.account_id=?", null, accountId,
+                    entryDate);
+            runningBalances.put(accountId, new AccountRunningBalance(entryDate, openingBalance));
+            if (fromDate == null || entryDate.before(fromDate)) {
+                fromDate = entryDate;
             }
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper,
-                new Object[] { officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry SET office_running_balance=" + runningBalance + " WHERE id=" + entryData.getId();
-            updateSql[i++] = sql;
+        if (fromDate == null) {
+            return;
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
+
+        final RunningBalanceWriter writer = new RunningBalanceWriter(
+                "UPDATE acc_gl_journal_entry SET organization_running_balance=?, is_running_balance_calculated=true WHERE id=?");
+        this.streamingJdbcTemplate.query(
+                entrySchema("je.organization_running_balance") + " where je.entry_date >= ? and je.id <= ? order by je.entry_date, je.id",
+                (RowCallbackHandler) rs -> writer.apply(rs, runningBalances), fromDate, maxEntryId);
+        writer.flush();
+        LOG.debug("Updated {} organization running balances", writer.updatedCount);
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
-        }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+    private BigDecimal retrieveOpeningBalance(final String balanceColumn, final String scope, final Long officeId, final Long accountId,
+            final Date entryDate) {
+        final String sql = "select je." + balanceColumn + " from acc_gl_journal_entry je where " + scope
+                + " and je.entry_date < ? order by je.entry_date desc, je.id desc " + this.sqlGenerator.limit(1);
+        final List<BigDecimal> balances = officeId == null
+                ? this.jdbcTemplate.queryForList(sql, BigDecimal.class, accountId, entryDate)
+                : this.jdbcTemplate.queryForList(sql, BigDecimal.class, officeId, accountId, entryDate);
+        return balances.isEmpty() ? BigDecimal.ZERO : balances.get(0);
+    }
+
+    private static String entrySchema(final String balanceColumn) {
+        return "select je.id as id, je.account_id as glAccountId, je.type_enum as entryType, je.amount as amount, "
+                + "je.entry_date as entryDate, je.is_running_balance_calculated as calculated, " + balanceColumn + " as runningBalance, "
+                + "glAccount.classification_enum as classification from acc_gl_journal_entry je "
+                + "inner join acc_gl_account glAccount on je.account_id = glAccount.id";
+    }
+
+    private static Long toLong(final Object value) {
+        // Drizzle is returning Big Integer where as MySQL returns Long.
+        return value == null ? null : Long.parseLong(value.toString());
+    }
+
+    private static BigDecimal calculateRunningBalance(final BigDecimal runningBalance, final int accountTypeId, final int entryTypeId,
+            final BigDecimal amount) {
+        GLAccountType accounttype = GLAccountType.fromInt(accountTypeId);
+        JournalEntryType entryType = JournalEntryType.fromInt(entryTypeId);
         boolean isIncrease = false;
         switch (accounttype) {
             case ASSET:
@@ -261,45 +302,67 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             break;
         }
         if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
-        } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
+            return runningBalance.add(amount);
         }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
-        return runningBalance;
+        return runningBalance.subtract(amount);
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    /**
+     * Running balance of one account within the stream, starting at the given date.
+     */
+    private static final class AccountRunningBalance {
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
+        private final Date fromDate;
+        private BigDecimal balance;
+        private Long lastEntryId;
+        private Date lastEntryDate;
+
+        AccountRunningBalance(final Date fromDate, final BigDecimal openingBalance) {
+            this.fromDate = fromDate;
+            this.balance = openingBalance;
         }
+    }
+
+    /**
+     * Applies the streamed entries to their account balances and writes the changed balances in batches.
+     */
+    private final class RunningBalanceWriter {
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        private final String updateSql;
+        private final List<Object[]> batch = new ArrayList<>(BATCH_UPDATE_SIZE);
+        private int updatedCount;
+
+        RunningBalanceWriter(final String updateSql) {
+            this.updateSql = updateSql;
         }
 
-        @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+        void apply(final ResultSet rs, final Map<Long, AccountRunningBalance> runningBalances) throws SQLException {
+            final AccountRunningBalance runningBalance = runningBalances.get(rs.getLong("glAccountId"));
+            final Date entryDate = rs.getDate("entryDate");
+            if (runningBalance == null || entryDate.before(runningBalance.fromDate)) {
+                return;
+            }
+            final long id = rs.getLong("id");
+            runningBalance.balance = calculateRunningBalance(runningBalance.balance, rs.getInt("classification"), rs.getInt("entryType"),
+                    rs.getBigDecimal("amount"));
+            runningBalance.lastEntryId = id;
+            runningBalance.lastEntryDate = entryDate;
 
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
-            final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+            final BigDecimal storedBalance = rs.getBigDecimal("runningBalance");
+            if (!rs.getBoolean("calculated") || storedBalance == null || storedBalance.compareTo(runningBalance.balance) != 0) {
+                this.batch.add(new Object[] { runningBalance.balance, id });
+                if (this.batch.size() >= BATCH_UPDATE_SIZE) {
+                    flush();
+                }
+            }
+        }
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null);
+        void flush() {
+            if (!this.batch.isEmpty()) {
+                JournalEntryRunningBalanceUpdateServiceImpl.this.jdbcTemplate.batchUpdate(this.updateSql, this.batch);
+                this.updatedCount += this.batch.size();
+                this.batch.clear();
+            }
         }
     }
-
 }
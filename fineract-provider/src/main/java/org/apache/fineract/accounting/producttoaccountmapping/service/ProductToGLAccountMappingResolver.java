@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.infrastructure.cache.service.VersionedTenantCache;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of the GL accounts linked to products (acc_product_mapping) and to financial activities
+ * (acc_gl_financial_activity_account), used by the accounting processors instead of querying the mappings for every
+ * journal entry leg.
+ *
+ * The index is kept per tenant and loaded lazily, product by product. Every change to the product or financial activity
+ * mappings increments the version stored in acc_product_mapping_version within the changing transaction, see
+ * {@link VersionedTenantCache}; other nodes check that version at most every
+ * {@code fineract.configuration.version-check-interval-seconds}.
+ */
+@Service
+public class ProductToGLAccountMappingResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductToGLAccountMappingResolver.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VersionedTenantCache<TenantMappings> mappingsByTenant;
+
+    @Autowired
+    public ProductToGLAccountMappingResolver(final RoutingDataSource dataSource, final FineractProperties fineractProperties) {
+        this(new JdbcTemplate(dataSource), fineractProperties.getConfiguration().getVersionCheckIntervalSeconds() * 1000L);
+    }
+
+    ProductToGLAccountMappingResolver(final JdbcTemplate jdbcTemplate, final long versionCheckIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mappingsByTenant = new VersionedTenantCache<>(jdbcTemplate, "GL account mappings", "acc_product_mapping_version",
+                versionCheckIntervalMillis);
+    }
+
+    /**
+     * Returns the id of the GL account mapped to the product for the given financial account type, not specific to a
+     * payment type or charge.
+     */
+    public Long resolveCoreMapping(final PortfolioProductType productType, final Long productId, final int financialAccountType) {
+        return productMappings(productType, productId).get(mappingKey(financialAccountType, null, null));
+    }
+
+    /**
+     * Returns the id of the GL account mapped to the product for the given financial account type and payment type, or
+     * null when there is no payment type specific mapping.
+     */
+    public Long resolvePaymentTypeMapping(final PortfolioProductType productType, final Long productId, final int financialAccountType,
+            final Long paymentTypeId) {
+        if (paymentTypeId == null) {
+            return null;
+        }
+        return productMappings(productType, productId).get(mappingKey(financialAccountType, paymentTypeId, null));
+    }
+
+    /**
+     * Returns the id of the GL account mapped to the product for the given financial account type and charge, or null
+     * when there is no charge specific mapping.
+     */
+    public Long resolveChargeMapping(final PortfolioProductType productType, final Long productId, final int financialAccountType,
+            final Long chargeId) {
+        if (chargeId == null) {
+            return null;
+        }
+        return productMappings(productType, productId).get(mappingKey(financialAccountType, null, chargeId));
+    }
+
+    /**
+     * Returns the id of the GL account mapped to the financial activity, or null when the activity is not mapped.
+     */
+    public Long resolveFinancialActivityAccount(final int financialActivityType) {
+        final TenantMappings tenantMappings = tenantMappings();
+        Map<Integer, Long> financialActivityAccounts = tenantMappings.financialActivityAccounts;
+        if (financialActivityAccounts == null) {
+            final Map<Integer, Long> loaded = new HashMap<>();
+            this.jdbcTemplate.query("select fa.financial_activity_type as activityType, fa.gl_account_id as glAccountId "
+                    + "from acc_gl_financial_activity_account fa", rs -> {
+                        loaded.put(rs.getInt("activityType"), rs.getLong("glAccountId"));
+                    });
+            financialActivityAccounts = loaded;
+            tenantMappings.financialActivityAccounts = financialActivityAccounts;
+        }
+        return financialActivityAccounts.get(financialActivityType);
+    }
+
+    /**
+     * Records a change of the product or financial activity mappings: increments the stored version as part of the
+     * current transaction and drops the index of the current tenant once it has completed.
+     */
+    public void mappingsChanged() {
+        this.mappingsByTenant.changed();
+    }
+
+    private Map<String, Long> productMappings(final PortfolioProductType productType, final Long productId) {
+        final TenantMappings tenantMappings = tenantMappings();
+        final String productKey = productType.getValue() + ":" + productId;
+        Map<String, Long> mappings = tenantMappings.products.get(productKey);
+        if (mappings == null) {
+            final Map<String, Long> loaded = new HashMap<>();
+            this.jdbcTemplate.query("select pm.financial_account_type as financialAccountType, pm.payment_type as paymentTypeId, "
+                    + "pm.charge_id as chargeId, pm.gl_account_id as glAccountId from acc_product_mapping pm "
+                    + "where pm.product_id = ? and pm.product_type = ?", rs -> {
+                        loaded.put(mappingKey(rs.getInt("financialAccountType"), rs.getObject("paymentTypeId", Long.class),
+                                rs.getObject("chargeId", Long.class)), rs.getLong("glAccountId"));
+                    }, productId, productType.getValue());
+            LOG.debug("Loaded {} GL account mappings of product {} (version {})", loaded.size(), productKey, tenantMappings.version);
+            final Map<String, Long> existing = tenantMappings.products.putIfAbsent(productKey, loaded);
+            mappings = existing == null ? loaded : existing;
+        }
+        return mappings;
+    }
+
+    private TenantMappings tenantMappings() {
+        return this.mappingsByTenant.current(TenantMappings::new);
+    }
+
+    private static String mappingKey(final int financialAccountType, final Long paymentTypeId, final Long chargeId) {
+        return financialAccountType + ":" + (paymentTypeId == null ? "" : paymentTypeId) + ":" + (chargeId == null ? "" : chargeId);
+    }
+
+    /**
+     * One version of the mappings of a tenant.
+     */
+    private static final class TenantMappings {
+
+        private final long version;
+        private final Map<String, Map<String, Long>> products = new ConcurrentHashMap<>();
+        private volatile Map<Integer, Long> financialActivityAccounts;
+
+        TenantMappings(final long version) {
+            this.version = version;
+        }
+    }
+}
@@ -313,7 +313,7 @@ public class ProvisioningEntriesReadPlatformServiceImpl implements ProvisioningE
     public Page<LoanProductProvisioningEntryData> retrieveProvisioningEntries(SearchParameters searchParams) {
         LoanProductProvisioningEntryRowMapper mapper = new LoanProductProvisioningEntryRowMapper();
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.loanProductProvisioningEntryDataPaginationHelper.calcFoundRows(searchParams) + " ");
         sqlBuilder.append(mapper.getSchema());
         String whereClose = " where ";
         List<Object> items = new ArrayList<>();
@@ -339,6 +339,14 @@ public class ProvisioningEntriesReadPlatformServiceImpl implements ProvisioningE
         if (searchParams.isCategoryIdPassed()) {
             sqlBuilder.append(whereClose + " entry.category_id = ?");
             items.add(searchParams.getCategoryId());
+            whereClose = " and ";
+        }
+        if (searchParams.getKeyset() != null) {
+            if (whereClose.equals(" where ")) {
+                sqlBuilder.append(" where 1 = 1");
+            }
+            return this.loanProductProvisioningEntryDataPaginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(),
+                    items.toArray(), mapper, searchParams.getKeyset(), "entry.id");
         }
         sqlBuilder.append(" order by entry.id");
 
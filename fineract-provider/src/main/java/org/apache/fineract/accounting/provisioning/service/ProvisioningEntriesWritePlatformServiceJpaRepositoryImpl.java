@@ -24,8 +24,12 @@ import java.time.ZoneId;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.apache.fineract.accounting.glaccount.domain.GLAccount;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountRepository;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
@@ -43,6 +47,7 @@ import org.apache.fineract.accounting.provisioning.serialization.ProvisioningEnt
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
@@ -230,13 +235,24 @@ public class ProvisioningEntriesWritePlatformServiceJpaRepositoryImpl implements
     private Collection<LoanProductProvisioningEntry> generateLoanProvisioningEntry(ProvisioningEntry parent, Date date) {
         Collection<LoanProductProvisioningEntryData> entries = this.provisioningEntriesReadPlatformService
                 .retrieveLoanProductsProvisioningData(date);
+        // there is a row per loan, but only a handful of products, offices, categories and accounts: load those once
+        final Map<Long, LoanProduct> loanProducts = mapById(
+                this.loanProductRepository.findAllById(collectIds(entries, LoanProductProvisioningEntryData::getProductId)));
+        final Map<Long, Office> offices = mapById(this.officeRepositoryWrapper
+                .findAllWithNotFoundDetection(collectIds(entries, LoanProductProvisioningEntryData::getOfficeId)));
+        final Map<Long, ProvisioningCategory> provisioningCategories = mapById(
+                this.provisioningCategoryRepository.findAllById(collectIds(entries, LoanProductProvisioningEntryData::getCategoryId)));
+        final Set<Long> glAccountIds = collectIds(entries, LoanProductProvisioningEntryData::getLiablityAccount);
+        glAccountIds.addAll(collectIds(entries, LoanProductProvisioningEntryData::getExpenseAccount));
+        final Map<Long, GLAccount> glAccounts = mapById(this.glAccountRepository.findAllById(glAccountIds));
+
         Map<Integer, LoanProductProvisioningEntry> provisioningEntries = new HashMap<>();
         for (LoanProductProvisioningEntryData data : entries) {
-            LoanProduct loanProduct = this.loanProductRepository.findById(data.getProductId()).get();
-            Office office = this.officeRepositoryWrapper.findOneWithNotFoundDetection(data.getOfficeId());
-            ProvisioningCategory provisioningCategory = provisioningCategoryRepository.findById(data.getCategoryId()).get();
-            GLAccount liabilityAccount = glAccountRepository.findById(data.getLiablityAccount()).get();
-            GLAccount expenseAccount = glAccountRepository.findById(data.getExpenseAccount()).get();
+            LoanProduct loanProduct = loanProducts.get(data.getProductId());
+            Office office = offices.get(data.getOfficeId());
+            ProvisioningCategory provisioningCategory = provisioningCategories.get(data.getCategoryId());
+            GLAccount liabilityAccount = glAccounts.get(data.getLiablityAccount());
+            GLAccount expenseAccount = glAccounts.get(data.getExpenseAccount());
             MonetaryCurrency currency = loanProduct.getPrincipalAmount().getCurrency();
             Money money = Money.of(currency, data.getOutstandingBalance());
             Money amountToReserve = money.percentageOf(data.getPercentage(), MoneyHelper.getRoundingMode());
@@ -254,4 +270,13 @@ public class ProvisioningEntriesWritePlatformServiceJpaRepositoryImpl implements
         }
         return provisioningEntries.values();
     }
+
+    private static Set<Long> collectIds(final Collection<LoanProductProvisioningEntryData> entries,
+            final Function<LoanProductProvisioningEntryData, Long> idExtractor) {
+        return entries.stream().map(idExtractor).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static <T extends AbstractPersistableCustom> Map<Long, T> mapById(final List<T> entities) {
+        return entities.stream().collect(Collectors.toMap(AbstractPersistableCustom::getId, Function.identity()));
+    }
 }
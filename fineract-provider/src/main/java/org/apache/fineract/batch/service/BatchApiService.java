@@ -56,4 +56,16 @@ public interface BatchApiService {
      * @return List&lt;BatchResponse&gt;
      */
     List<BatchResponse> handleBatchRequestsWithEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
+
+    /**
+     * Returns a list of {@link org.apache.fineract.batch.domain.BatchResponse}s like
+     * {@link #handleBatchRequestsWithoutEnclosingTransaction(List, UriInfo)}, but executes the requests which do not
+     * depend on each other concurrently. It will be used when the Query Parameter "parallel" is set to 'true' and
+     * "enclosingTransaction" is not.
+     *
+     * @param requestList
+     * @param uriInfo
+     * @return List&lt;BatchResponse&gt;
+     */
+    List<BatchResponse> handleBatchRequestsInParallel(List<BatchRequest> requestList, UriInfo uriInfo);
 }
@@ -23,6 +23,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -35,8 +40,15 @@ import org.apache.fineract.batch.exception.ClientDetailsNotFoundException;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
@@ -47,6 +59,10 @@ import org.springframework.transaction.support.TransactionTemplate;
  * Implementation for {@link BatchApiService} to iterate through all the incoming requests and obtain the appropriate
  * CommandStrategy from CommandStrategyProvider.
  *
+ * In parallel mode the trees of depending requests are executed concurrently on a pool of
+ * {@code fineract.batch.parallel-thread-pool-size} threads shared by all batches, while the requests within a tree are
+ * still executed in dependency order.
+ *
  * @author Rishabh Shukla
  *
  * @see org.apache.fineract.batch.domain.BatchRequest
@@ -56,9 +72,12 @@ import org.springframework.transaction.support.TransactionTemplate;
 @Service
 public class BatchApiServiceImpl implements BatchApiService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(BatchApiServiceImpl.class);
+
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
+    private final ExecutorService parallelExecutor;
 
     /**
      * Constructs a 'BatchApiServiceImpl' with an argument of
@@ -67,13 +86,20 @@ public class BatchApiServiceImpl implements BatchApiService {
      * @param strategyProvider
      * @param resolutionHelper
      * @param transactionTemplate
+     * @param fineractProperties
      */
     @Autowired
     public BatchApiServiceImpl(final CommandStrategyProvider strategyProvider, final ResolutionHelper resolutionHelper,
-            final TransactionTemplate transactionTemplate) {
+            final TransactionTemplate transactionTemplate, final FineractProperties fineractProperties) {
         this.strategyProvider = strategyProvider;
         this.resolutionHelper = resolutionHelper;
         this.transactionTemplate = transactionTemplate;
+        this.parallelExecutor = Executors.newFixedThreadPool(Math.max(1, fineractProperties.getBatch().getParallelThreadPoolSize()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.parallelExecutor.shutdownNow();
     }
 
     /**
@@ -82,9 +108,11 @@ public class BatchApiServiceImpl implements BatchApiService {
      *
      * @param requestList
      * @param uriInfo
+     * @param parallel
+     *            whether the trees of depending requests are executed concurrently
      * @return {@code List<BatchResponse>}
      */
-    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo, final boolean parallel) {
 
         final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
 
@@ -97,14 +125,12 @@ public class BatchApiServiceImpl implements BatchApiService {
             responseList.add(response);
             return responseList;
         }
-        for (BatchRequestNode rootNode : batchRequestNodes) {
-            final BatchRequest rootRequest = rootNode.getRequest();
-            final CommandStrategy commandStrategy = this.strategyProvider
-                    .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
-            final BatchResponse rootResponse = commandStrategy.execute(rootRequest, uriInfo);
-
-            responseList.add(rootResponse);
-            responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        if (parallel && batchRequestNodes.size() > 1) {
+            responseList.addAll(this.processRootRequestsInParallel(batchRequestNodes, uriInfo));
+        } else {
+            for (BatchRequestNode rootNode : batchRequestNodes) {
+                responseList.addAll(this.processRootRequest(rootNode, uriInfo));
+            }
         }
 
         Collections.sort(responseList, new Comparator<BatchResponse>() {
@@ -119,6 +145,89 @@ public class BatchApiServiceImpl implements BatchApiService {
 
     }
 
+    /**
+     * Executes a root request followed by the tree of requests depending on it, and returns their responses.
+     */
+    private List<BatchResponse> processRootRequest(final BatchRequestNode rootNode, final UriInfo uriInfo) {
+        final BatchRequest rootRequest = rootNode.getRequest();
+        final CommandStrategy commandStrategy = this.strategyProvider
+                .getCommandStrategy(CommandContext.resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+        final BatchResponse rootResponse = commandStrategy.execute(rootRequest, uriInfo);
+
+        final List<BatchResponse> responses = new ArrayList<>();
+        responses.add(rootResponse);
+        responses.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        return responses;
+    }
+
+    /**
+     * Executes every root request with the tree of requests depending on it as a task of the parallel pool, within the
+     * tenant and security context of the calling thread, and returns their responses once all of them have completed.
+     */
+    private List<BatchResponse> processRootRequestsInParallel(final List<BatchRequestNode> rootNodes, final UriInfo uriInfo) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String dataSourceContext = ThreadLocalContextUtil.getDataSourceContext();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        final List<Future<List<BatchResponse>>> rootResults = new ArrayList<>(rootNodes.size());
+        for (BatchRequestNode rootNode : rootNodes) {
+            rootResults.add(this.parallelExecutor.submit(() -> {
+                ThreadLocalContextUtil.setTenant(tenant);
+                ThreadLocalContextUtil.setDataSourceContext(dataSourceContext);
+                ThreadLocalContextUtil.setAuthToken(authToken);
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return this.processRootRequest(rootNode, uriInfo);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.setAuthToken(null);
+                    ThreadLocalContextUtil.clearDataSourceContext();
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }));
+        }
+
+        final List<BatchResponse> responses = new ArrayList<>();
+        for (int i = 0; i < rootNodes.size(); i++) {
+            final BatchRequestNode rootNode = rootNodes.get(i);
+            try {
+                responses.addAll(rootResults.get(i).get());
+            } catch (ExecutionException e) {
+                LOG.error("Batch request {} failed", rootNode.getRequest().getRequestId(), e.getCause());
+                responses.addAll(this.failedRootResponses(rootNode, e.getCause(), uriInfo));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rootResults.subList(i, rootResults.size()).forEach(rootResult -> rootResult.cancel(true));
+                for (BatchRequestNode pendingNode : rootNodes.subList(i, rootNodes.size())) {
+                    responses.addAll(this.failedRootResponses(pendingNode, e, uriInfo));
+                }
+                break;
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Answers a root request whose task failed with the error of its exception, in the format of the
+     * {@link ErrorHandler} used by the command strategies and the enclosing transaction, and its depending requests with
+     * a 409.
+     */
+    private List<BatchResponse> failedRootResponses(final BatchRequestNode rootNode, final Throwable cause, final UriInfo uriInfo) {
+        final ErrorInfo error = ErrorHandler
+                .handler(cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause));
+        final BatchResponse rootResponse = new BatchResponse();
+        rootResponse.setRequestId(rootNode.getRequest().getRequestId());
+        rootResponse.setStatusCode(error.getStatusCode());
+        rootResponse.setBody(error.getMessage());
+
+        // the depending requests are answered with a 409 as the parent request was erroneous
+        final List<BatchResponse> responses = new ArrayList<>();
+        responses.add(rootResponse);
+        responses.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        return responses;
+    }
+
     private List<BatchResponse> processChildRequests(final BatchRequestNode rootRequest, BatchResponse rootResponse, UriInfo uriInfo) {
 
         final List<BatchResponse> childResponses = new ArrayList<>();
@@ -170,7 +279,13 @@ public class BatchApiServiceImpl implements BatchApiService {
     @Override
     public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo) {
 
-        return handleBatchRequests(requestList, uriInfo);
+        return handleBatchRequests(requestList, uriInfo, false);
+    }
+
+    @Override
+    public List<BatchResponse> handleBatchRequestsInParallel(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        return handleBatchRequests(requestList, uriInfo, true);
     }
 
     @Override
@@ -182,7 +297,7 @@ public class BatchApiServiceImpl implements BatchApiService {
                 @Override
                 public List<BatchResponse> doInTransaction(TransactionStatus status) {
                     try {
-                        responseList.addAll(handleBatchRequests(requestList, uriInfo));
+                        responseList.addAll(handleBatchRequests(requestList, uriInfo, false));
                         return responseList;
                     } catch (RuntimeException ex) {
 
@@ -226,6 +226,18 @@ public class CommandSource extends AbstractPersistableCustom {
         return this.resourceGetUrl;
     }
 
+    public AppUser getMaker() {
+        return this.maker;
+    }
+
+    public Date getMadeOnDate() {
+        return this.madeOnDate;
+    }
+
+    public Integer getProcessingResult() {
+        return this.processingResult;
+    }
+
     public Long getProductId() {
         return this.productId;
     }
@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.apache.fineract.commands.domain.CommandSource;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind mode for the command audit trail, enabled with <code>fineract.audit.write-behind-enabled</code>.
+ *
+ * Instead of persisting a {@link CommandSource} through JPA into the indexed <code>m_portfolio_command_source</code>
+ * table, the command transaction only appends a row to the unindexed <code>m_portfolio_command_source_outbox</code>
+ * table, so the audit record still commits (or rolls back) atomically with the business change. A background flusher
+ * moves committed outbox rows into <code>m_portfolio_command_source</code> with batched inserts. Tenants which wrote
+ * on this node are flushed every <code>fineract.audit.flush-interval-millis</code>; all tenants are swept at startup
+ * and every <code>fineract.audit.sweep-interval-seconds</code>, to pick up rows left behind by a node which stopped
+ * before flushing them.
+ */
+@Service
+public class CommandSourceWriteBehindService implements ApplicationListener<ContextClosedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandSourceWriteBehindService.class);
+
+    private static final String COLUMNS = "action_name, entity_name, office_id, group_id, client_id, loan_id, savings_account_id, "
+            + "api_get_url, resource_id, subresource_id, command_as_json, maker_id, made_on_date, processing_result_enum, product_id, "
+            + "transaction_id, creditbureau_id, organisation_creditbureau_id";
+    private static final int COLUMN_COUNT = 18;
+    private static final String PLACEHOLDERS = String.join(", ", Collections.nCopies(COLUMN_COUNT, "?"));
+
+    private final FineractProperties fineractProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final TenantDetailsService tenantDetailsService;
+    private final Map<String, FineractPlatformTenant> pendingTenants = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flushExecutor;
+
+    @Autowired
+    public CommandSourceWriteBehindService(final FineractProperties fineractProperties, final RoutingDataSource dataSource,
+            final TransactionTemplate transactionTemplate, final DatabaseSpecificSQLGenerator sqlGenerator,
+            final TenantDetailsService tenantDetailsService) {
+        this.fineractProperties = fineractProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.sqlGenerator = sqlGenerator;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        final int flushIntervalMillis = Math.max(10, this.fineractProperties.getAudit().getFlushIntervalMillis());
+        final int sweepIntervalSeconds = Math.max(1, this.fineractProperties.getAudit().getSweepIntervalSeconds());
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor();
+        this.flushExecutor.scheduleWithFixedDelay(this::flushPendingTenants, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        this.flushExecutor.scheduleWithFixedDelay(this::flushAllTenants, 0, sweepIntervalSeconds, TimeUnit.SECONDS);
+        LOG.info("Command audit write-behind enabled, flushing every {} ms", flushIntervalMillis);
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.flushExecutor == null) {
+            return;
+        }
+        this.flushExecutor.shutdown();
+        try {
+            if (this.flushExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                // rows which are not flushed here stay in the outbox and are swept on the next start
+                flushPendingTenants();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.fineractProperties.getAudit().isWriteBehindEnabled();
+    }
+
+    /**
+     * Appends the audit entry to the outbox of the current tenant, in the transaction of the command.
+     */
+    public void enqueue(final CommandSource commandSource) {
+        this.jdbcTemplate.update("insert into m_portfolio_command_source_outbox (" + COLUMNS + ") values (" + PLACEHOLDERS + ")",
+                commandSource.getActionName(), commandSource.getEntityName(), commandSource.getOfficeId(), commandSource.getGroupId(),
+                commandSource.getClientId(), commandSource.getLoanId(), commandSource.getSavingsId(), commandSource.getResourceGetUrl(),
+                commandSource.getResourceId(), commandSource.getSubresourceId(), commandSource.json(), commandSource.getMaker().getId(),
+                commandSource.getMadeOnDate(), commandSource.getProcessingResult(), commandSource.getProductId(),
+                commandSource.getTransactionId(), commandSource.getCreditBureauId(), commandSource.getOrganisationCreditBureauId());
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    CommandSourceWriteBehindService.this.pendingTenants.put(tenant.getTenantIdentifier(), tenant);
+                }
+            });
+        } else {
+            this.pendingTenants.put(tenant.getTenantIdentifier(), tenant);
+        }
+    }
+
+    private void flushPendingTenants() {
+        for (final String tenantIdentifier : new ArrayList<>(this.pendingTenants.keySet())) {
+            final FineractPlatformTenant tenant = this.pendingTenants.remove(tenantIdentifier);
+            if (tenant != null && !flushTenant(tenant)) {
+                this.pendingTenants.putIfAbsent(tenantIdentifier, tenant);
+            }
+        }
+    }
+
+    private void flushAllTenants() {
+        try {
+            for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                flushTenant(tenant);
+            }
+        } catch (RuntimeException e) {
+            // never let an exception cancel the periodic sweep
+            LOG.error("Sweeping the command audit outbox failed", e);
+        }
+    }
+
+    private boolean flushTenant(final FineractPlatformTenant tenant) {
+        final int batchSize = Math.max(1, this.fineractProperties.getAudit().getFlushBatchSize());
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            Integer flushed;
+            do {
+                flushed = this.transactionTemplate.execute(status -> flushBatch(batchSize));
+            } while (flushed != null && flushed == batchSize && !Thread.currentThread().isInterrupted());
+            return true;
+        } catch (RuntimeException e) {
+            LOG.error("Flushing the command audit outbox of tenant {} failed", tenant.getTenantIdentifier(), e);
+            return false;
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private int flushBatch(final int batchSize) {
+        // locking the rows keeps nodes sweeping the same tenant from copying them twice
+        final List<Object[]> rows = this.jdbcTemplate.query(
+                "select id, " + COLUMNS + " from m_portfolio_command_source_outbox order by id " + this.sqlGenerator.limit(batchSize)
+                        + " for update",
+                (rs, rowNum) -> {
+                    final Object[] row = new Object[COLUMN_COUNT + 1];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getObject(i + 1);
+                    }
+                    return row;
+                });
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        final List<Object[]> inserts = new ArrayList<>(rows.size());
+        final List<Object[]> deletes = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            final Object[] values = new Object[COLUMN_COUNT];
+            System.arraycopy(row, 1, values, 0, COLUMN_COUNT);
+            inserts.add(values);
+            deletes.add(new Object[] { row[0] });
+        }
+        this.jdbcTemplate.batchUpdate("insert into m_portfolio_command_source (" + COLUMNS + ") values (" + PLACEHOLDERS + ")", inserts);
+        this.jdbcTemplate.batchUpdate("delete from m_portfolio_command_source_outbox where id = ?", deletes);
+        return rows.size();
+    }
+}
@@ -2230,6 +2230,13 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder evictCache(final String cacheName) {
+        this.actionName = "EVICT";
+        this.entityName = "CACHE";
+        this.href = "/caches/names/" + cacheName;
+        return this;
+    }
+
     /**
      * Deposit account mappings
      */
@@ -56,6 +56,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class SynchronousCommandProcessingService implements CommandProcessingService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SynchronousCommandProcessingService.class);
+    // Gson is thread safe, share one instance so its type adapters are built once rather than per command
+    private static final Gson GSON = new Gson();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
     private PlatformSecurityContext context;
     private final ApplicationContext applicationContext;
     private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
@@ -63,13 +66,14 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final CommandSourceWriteBehindService commandSourceWriteBehindService;
 
     @Autowired
     public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer,
             final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer,
             final CommandSourceRepository commandSourceRepository, final ConfigurationDomainService configurationDomainService,
-            final CommandHandlerProvider commandHandlerProvider) {
+            final CommandHandlerProvider commandHandlerProvider, final CommandSourceWriteBehindService commandSourceWriteBehindService) {
         this.context = context;
         this.context = context;
         this.applicationContext = applicationContext;
@@ -79,6 +83,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         this.commandSourceRepository = commandSourceRepository;
         this.configurationDomainService = configurationDomainService;
         this.commandHandlerProvider = commandHandlerProvider;
+        this.commandSourceWriteBehindService = commandSourceWriteBehindService;
     }
 
     @Transactional
@@ -124,7 +129,12 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         }
 
         if (commandSourceResult.hasJson()) {
-            this.commandSourceRepository.save(commandSourceResult);
+            // maker checker entries are read back by id, so they are always persisted synchronously
+            if (this.commandSourceWriteBehindService.isEnabled() && command.commandId() == null && !rollBack) {
+                this.commandSourceWriteBehindService.enqueue(commandSourceResult);
+            } else {
+                this.commandSourceRepository.save(commandSourceResult);
+            }
         }
 
         if ((rollbackTransaction || result.isRollbackTransaction()) && !isApprovedByChecker) {
@@ -237,7 +247,6 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     }
 
     private void publishEvent(final String entityName, final String actionName, JsonCommand command, final Object result) {
-        Gson gson = new Gson();
         try {
             final String authToken = ThreadLocalContextUtil.getAuthToken();
             final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
@@ -247,8 +256,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
             // TODO: Add support for publishing array events
             if (command.json() != null && command.json().startsWith("{")) {
-                Type type = new TypeToken<Map<String, Object>>() {}.getType();
-                Map<String, Object> myMap = gson.fromJson(command.json(), type);
+                Map<String, Object> myMap = GSON.fromJson(command.json(), MAP_TYPE);
 
                 Map<String, Object> reqmap = new HashMap<>();
                 reqmap.put("entityName", entityName);
@@ -270,7 +278,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
                     ErrorInfo ex = (ErrorInfo) result;
                     reqmap.put("status", "Exception");
 
-                    Map<String, Object> errorMap = gson.fromJson(ex.getMessage(), type);
+                    Map<String, Object> errorMap = GSON.fromJson(ex.getMessage(), MAP_TYPE);
                     errorMap.put("errorCode", ex.getErrorCode());
                     errorMap.put("statusCode", ex.getStatusCode());
 
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.data;
 
+import java.io.File;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.context.ApplicationEvent;
 
@@ -27,25 +28,28 @@ public final class BulkImportEvent extends ApplicationEvent {
 
     private final Workbook workbook;
 
+    private final File file;
+
     private final Long importId;
 
     private final String locale;
 
     private final String dateFormat;
 
-    private BulkImportEvent(final String tenantIdentifier, final Workbook workbook, final Long importId, final String locale,
-            final String dateFormat) {
+    private BulkImportEvent(final String tenantIdentifier, final Workbook workbook, final File file, final Long importId,
+            final String locale, final String dateFormat) {
         super(BulkImportEvent.class);
         this.tenantIdentifier = tenantIdentifier;
         this.workbook = workbook;
+        this.file = file;
         this.importId = importId;
         this.locale = locale;
         this.dateFormat = dateFormat;
     }
 
-    public static BulkImportEvent instance(final String tenantIdentifier, final Workbook workbook, final Long importId, final String locale,
-            final String dateFormat) {
-        return new BulkImportEvent(tenantIdentifier, workbook, importId, locale, dateFormat);
+    public static BulkImportEvent instance(final String tenantIdentifier, final Workbook workbook, final File file, final Long importId,
+            final String locale, final String dateFormat) {
+        return new BulkImportEvent(tenantIdentifier, workbook, file, importId, locale, dateFormat);
     }
 
     public String getTenantIdentifier() {
@@ -56,6 +60,13 @@ public final class BulkImportEvent extends ApplicationEvent {
         return workbook;
     }
 
+    /**
+     * The temporary file backing the workbook, deleted once the import has been written back.
+     */
+    public File getFile() {
+        return file;
+    }
+
     public Long getImportId() {
         return importId;
     }
@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes the rows of a bulk import in parallel chunks.
+ *
+ * Each row still submits its own command through the command source service, so it commits or rolls back on its own and
+ * a failing row does not undo the other rows of its chunk. The success and failure counts of the running import are
+ * written to m_import_document after every completed chunk, so that the progress of a large import can be followed
+ * through the imports API while it runs.
+ *
+ * Handlers must keep all workbook access on the calling thread: only the command submission of a row runs on the pool.
+ */
+@Component
+public class ImportRowExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportRowExecutor.class);
+
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadLocal<Long> currentImportId = new ThreadLocal<>();
+
+    @Autowired
+    public ImportRowExecutor(final FineractProperties fineractProperties, final RoutingDataSource dataSource) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, fineractProperties.getBulkImport().getThreadPoolSize()));
+        this.chunkSize = Math.max(1, fineractProperties.getBulkImport().getChunkSize());
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Runs an import, recording the progress of the rows executed on this thread against the given import document.
+     */
+    public <T> T forImport(final Long importId, final Supplier<T> importCall) {
+        this.currentImportId.set(importId);
+        try {
+            return importCall.get();
+        } finally {
+            this.currentImportId.remove();
+        }
+    }
+
+    /**
+     * Runs the command of each of the given number of rows.
+     *
+     * @param rowCount
+     *            the number of rows
+     * @param rowCommand
+     *            submits the command of the row with the given index
+     * @return the exception raised by each row, or null for the rows that were imported
+     */
+    public List<RuntimeException> execute(final int rowCount, final IntConsumer rowCommand) {
+        return execute(rowCount, i -> null, rowCommand);
+    }
+
+    /**
+     * Runs the command of each of the given number of rows, keeping the rows of one group together.
+     *
+     * Rows with the same (non null) group, like the repayments of one loan, are executed by one task, one after the
+     * other and in ascending row order, so that they neither compete for the same entity nor get applied out of order.
+     * Rows without a group can be executed by any task.
+     *
+     * @param rowCount
+     *            the number of rows
+     * @param rowGroup
+     *            returns the group of the row with the given index, or null if the row does not belong to a group
+     * @param rowCommand
+     *            submits the command of the row with the given index
+     * @return the exception raised by each row, or null for the rows that were imported
+     */
+    public List<RuntimeException> execute(final int rowCount, final IntFunction<Object> rowGroup, final IntConsumer rowCommand) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String dataSourceContext = ThreadLocalContextUtil.getDataSourceContext();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final Long importId = this.currentImportId.get();
+
+        final RuntimeException[] failures = new RuntimeException[rowCount];
+        final CompletionService<int[]> completionService = new ExecutorCompletionService<>(this.executor);
+        final List<Future<int[]>> chunks = new ArrayList<>();
+        for (final List<Integer> chunkRows : chunk(rowCount, rowGroup)) {
+            chunks.add(completionService.submit(() -> {
+                ThreadLocalContextUtil.setTenant(tenant);
+                ThreadLocalContextUtil.setDataSourceContext(dataSourceContext);
+                ThreadLocalContextUtil.setAuthToken(authToken);
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return executeChunk(chunkRows, rowCommand, failures);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.setAuthToken(null);
+                    ThreadLocalContextUtil.clearDataSourceContext();
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }));
+        }
+
+        int successCount = 0;
+        int errorCount = 0;
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                final int[] chunkCount = completionService.take().get();
+                successCount += chunkCount[0];
+                errorCount += chunkCount[1];
+                updateProgress(importId, successCount, errorCount);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new GeneralPlatformDomainRuleException("error.msg.bulk.import.interrupted", "Bulk import was interrupted", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new GeneralPlatformDomainRuleException("error.msg.bulk.import.failed", "Bulk import failed", e.getCause());
+        }
+        return Arrays.asList(failures);
+    }
+
+    /**
+     * Splits the rows into chunks of about the configured size. The rows of a group are never split between chunks, a
+     * group larger than the chunk size becomes a chunk of its own.
+     */
+    List<List<Integer>> chunk(final int rowCount, final IntFunction<Object> rowGroup) {
+        final Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < rowCount; i++) {
+            final Object group = rowGroup.apply(i);
+            // rows without a group are groups of their own
+            groups.computeIfAbsent(group == null ? new Object() : group, key -> new ArrayList<>()).add(i);
+        }
+        final List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> chunk = new ArrayList<>();
+        for (final List<Integer> groupRows : groups.values()) {
+            if (!chunk.isEmpty() && chunk.size() + groupRows.size() > this.chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.addAll(groupRows);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private int[] executeChunk(final List<Integer> chunkRows, final IntConsumer rowCommand, final RuntimeException[] failures) {
+        int successCount = 0;
+        int errorCount = 0;
+        for (final int i : chunkRows) {
+            try {
+                rowCommand.accept(i);
+                successCount++;
+            } catch (RuntimeException ex) {
+                failures[i] = ex;
+                errorCount++;
+            }
+        }
+        return new int[] { successCount, errorCount };
+    }
+
+    private void updateProgress(final Long importId, final int successCount, final int errorCount) {
+        if (importId == null) {
+            return;
+        }
+        try {
+            this.jdbcTemplate.update("update m_import_document set success_count = ?, failure_count = ? where id = ?", successCount,
+                    errorCount, importId);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not record the progress of import {}", importId, e);
+        }
+    }
+}
@@ -33,8 +33,8 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
-import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.portfolio.address.data.AddressData;
 import org.apache.fineract.portfolio.client.data.ClientData;
@@ -57,10 +57,13 @@ public class ClientEntityImportHandler implements ImportHandler {
     private List<ClientData> clients;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
-    public ClientEntityImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+    public ClientEntityImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final ImportRowExecutor importRowExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
@@ -202,19 +205,23 @@ public class ClientEntityImportHandler implements ImportHandler {
         GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
 
-        for (ClientData client : clients) {
-            try {
-                String payload = gsonBuilder.create().toJson(client);
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .createClient() //
-                        .withJson(payload) //
-                        .build(); //
-                final CommandProcessingResult result = commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        final List<RuntimeException> failures = this.importRowExecutor.execute(clients.size(), i -> {
+            String payload = gsonBuilder.create().toJson(clients.get(i));
+            final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                    .createClient() //
+                    .withJson(payload) //
+                    .build(); //
+            commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        });
+        for (int i = 0; i < clients.size(); i++) {
+            final ClientData client = clients.get(i);
+            final RuntimeException ex = failures.get(i);
+            if (ex == null) {
                 successCount++;
                 Cell statusCell = clientSheet.getRow(client.getRowIndex()).createCell(ClientEntityConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
                 statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
+            } else {
                 errorCount++;
                 LOG.error("Problem occurred in importEntity function", ex);
                 errorMessage = ImportHandlerUtils.getErrorMessage(ex);
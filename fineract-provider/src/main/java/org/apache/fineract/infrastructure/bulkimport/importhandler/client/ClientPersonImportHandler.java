@@ -33,6 +33,7 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.portfolio.address.data.AddressData;
@@ -55,10 +56,13 @@ public class ClientPersonImportHandler implements ImportHandler {
     private List<ClientData> clients;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
-    public ClientPersonImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+    public ClientPersonImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final ImportRowExecutor importRowExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
@@ -186,19 +190,23 @@ public class ClientPersonImportHandler implements ImportHandler {
         String errorMessage = "";
         GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
-        for (ClientData client : clients) {
-            try {
-                String payload = gsonBuilder.create().toJson(client);
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .createClient() //
-                        .withJson(payload) //
-                        .build(); //
-                commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        final List<RuntimeException> failures = this.importRowExecutor.execute(clients.size(), i -> {
+            String payload = gsonBuilder.create().toJson(clients.get(i));
+            final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                    .createClient() //
+                    .withJson(payload) //
+                    .build(); //
+            commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        });
+        for (int i = 0; i < clients.size(); i++) {
+            final ClientData client = clients.get(i);
+            final RuntimeException ex = failures.get(i);
+            if (ex == null) {
                 successCount++;
                 Cell statusCell = clientSheet.getRow(client.getRowIndex()).createCell(ClientPersonConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
                 statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
+            } else {
                 errorCount++;
                 LOG.error("Problem occurred in importEntity function", ex);
                 errorMessage = ImportHandlerUtils.getErrorMessage(ex);
@@ -35,6 +35,7 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.EnumOptionDataValueSerializer;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -70,10 +71,13 @@ public class LoanImportHandler implements ImportHandler {
     private List<String> statuses;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
-    public LoanImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+    public LoanImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final ImportRowExecutor importRowExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
@@ -389,49 +393,50 @@ public class LoanImportHandler implements ImportHandler {
         Sheet loanSheet = workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
         int successCount = 0;
         int errorCount = 0;
-        int progressLevel = 0;
-        String loanId;
         String errorMessage = "";
+        // the sheet is only touched on this thread, the rows themselves are imported on the bulk import pool
+        final String[] loanIds = new String[loans.size()];
+        final int[] progressLevels = new int[loans.size()];
         for (int i = 0; i < loans.size(); i++) {
-            Row row = loanSheet.getRow(loans.get(i).getRowIndex());
-            Cell errorReportCell = row.createCell(LoanConstants.FAILURE_REPORT_COL);
-            Cell statusCell = row.createCell(LoanConstants.STATUS_COL);
+            progressLevels[i] = getProgressLevel(statuses.get(i));
+            loanIds[i] = progressLevels[i] == 0 ? ""
+                    : ImportHandlerUtils.readAsString(LoanConstants.LOAN_ID_COL, loanSheet.getRow(loans.get(i).getRowIndex()));
+        }
+        final List<RuntimeException> failures = this.importRowExecutor.execute(loans.size(), i -> {
             CommandProcessingResult result = null;
-            loanId = "";
-            try {
-                String status = statuses.get(i);
-                progressLevel = getProgressLevel(status);
-
-                if (progressLevel == 0 && loans.get(i) != null) {
-                    result = importLoan(i, dateFormat);
-                    loanId = result.getLoanId().toString();
-                    progressLevel = 1;
-                } else {
-                    loanId = ImportHandlerUtils.readAsString(LoanConstants.LOAN_ID_COL, loanSheet.getRow(loans.get(i).getRowIndex()));
-                }
-
-                if (progressLevel <= 1 && approvalDates.get(i) != null) {
-                    progressLevel = importLoanApproval(result, i, dateFormat);
-                }
+            if (progressLevels[i] == 0) {
+                result = importLoan(i, dateFormat);
+                loanIds[i] = result.getLoanId().toString();
+                progressLevels[i] = 1;
+            }
 
-                if (progressLevel <= 2 && disbursalDates.get(i) != null) {
-                    progressLevel = importDisbursalData(result, i, dateFormat);
-                }
+            if (progressLevels[i] <= 1 && approvalDates.get(i) != null) {
+                progressLevels[i] = importLoanApproval(result, i, dateFormat);
+            }
 
-                if (loanRepayments.get(i) != null) {
-                    progressLevel = importLoanRepayment(result, i, dateFormat);
-                }
+            if (progressLevels[i] <= 2 && disbursalDates.get(i) != null) {
+                progressLevels[i] = importDisbursalData(result, i, dateFormat);
+            }
 
+            if (loanRepayments.get(i) != null) {
+                progressLevels[i] = importLoanRepayment(result, i, dateFormat);
+            }
+        });
+        for (int i = 0; i < loans.size(); i++) {
+            Row row = loanSheet.getRow(loans.get(i).getRowIndex());
+            Cell errorReportCell = row.createCell(LoanConstants.FAILURE_REPORT_COL);
+            Cell statusCell = row.createCell(LoanConstants.STATUS_COL);
+            final RuntimeException ex = failures.get(i);
+            if (ex == null) {
                 successCount++;
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
                 statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
+            } else {
                 errorCount++;
                 LOG.error("Problem occurred in importEntity function", ex);
                 errorMessage = ImportHandlerUtils.getErrorMessage(ex);
-                writeLoanErrorMessage(loanId, errorMessage, progressLevel, statusCell, errorReportCell, row);
+                writeLoanErrorMessage(loanIds[i], errorMessage, progressLevels[i], statusCell, errorReportCell, row);
             }
-
         }
         setReportHeaders(loanSheet);
         return Count.instance(successCount, errorCount);
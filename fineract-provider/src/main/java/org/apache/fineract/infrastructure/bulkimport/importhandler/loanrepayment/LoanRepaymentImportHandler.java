@@ -33,6 +33,7 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionData;
@@ -58,11 +59,14 @@ public class LoanRepaymentImportHandler implements ImportHandler {
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
 
+    private final ImportRowExecutor importRowExecutor;
+
     @Autowired
     public LoanRepaymentImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final LoanReadPlatformService loanReadPlatformService) {
+            final LoanReadPlatformService loanReadPlatformService, final ImportRowExecutor importRowExecutor) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.loanReadPlatformService = loanReadPlatformService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
@@ -116,29 +120,34 @@ public class LoanRepaymentImportHandler implements ImportHandler {
         GsonBuilder gsonBuilder = GoogleGsonSerializerHelper.createGsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
 
-        for (LoanTransactionData loanRepayment : loanRepayments) {
-            try {
-
-                JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
-                loanRepaymentJsonob.remove("manuallyReversed");
-                String payload = loanRepaymentJsonob.toString();
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .loanRepaymentTransaction(loanRepayment.getAccountId()) //
-                        .withJson(payload) //
-                        .build(); //
-                commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        // the repayments of one loan are made one after the other, in the order of the sheet
+        final List<RuntimeException> failures = this.importRowExecutor.execute(loanRepayments.size(),
+                i -> loanRepayments.get(i).getAccountId(), i -> {
+            final LoanTransactionData loanRepayment = loanRepayments.get(i);
+            JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
+            loanRepaymentJsonob.remove("manuallyReversed");
+            String payload = loanRepaymentJsonob.toString();
+            final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                    .loanRepaymentTransaction(loanRepayment.getAccountId()) //
+                    .withJson(payload) //
+                    .build(); //
+            commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        });
+        for (int i = 0; i < loanRepayments.size(); i++) {
+            final LoanTransactionData loanRepayment = loanRepayments.get(i);
+            final RuntimeException ex = failures.get(i);
+            if (ex == null) {
                 successCount++;
                 Cell statusCell = loanRepaymentSheet.getRow(loanRepayment.getRowIndex()).createCell(LoanRepaymentConstants.STATUS_COL);
                 statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
                 statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
+            } else {
                 errorCount++;
                 LOG.error("Problem occurred in importEntity function", ex);
                 errorMessage = ImportHandlerUtils.getErrorMessage(ex);
                 ImportHandlerUtils.writeErrorMessage(loanRepaymentSheet, loanRepayment.getRowIndex(), errorMessage,
                         LoanRepaymentConstants.STATUS_COL);
             }
-
         }
         loanRepaymentSheet.setColumnWidth(LoanRepaymentConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
         ImportHandlerUtils.writeString(LoanRepaymentConstants.STATUS_COL,
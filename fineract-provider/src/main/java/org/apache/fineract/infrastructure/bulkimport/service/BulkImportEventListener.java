@@ -18,10 +18,12 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.util.HashSet;
 import java.util.Set;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
@@ -30,6 +32,7 @@ import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -39,6 +42,7 @@ import org.apache.fineract.infrastructure.documentmanagement.domain.Document;
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformService;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,14 +58,17 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
     private final ApplicationContext applicationContext;
     private final ImportDocumentRepository importRepository;
     private final DocumentWritePlatformService documentService;
+    private final ImportRowExecutor importRowExecutor;
 
     @Autowired
     public BulkImportEventListener(final TenantDetailsService tenantDetailsService, final ApplicationContext context,
-            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService) {
+            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService,
+            final ImportRowExecutor importRowExecutor) {
         this.tenantDetailsService = tenantDetailsService;
         this.applicationContext = context;
         this.importRepository = importRepository;
         this.documentService = documentService;
+        this.importRowExecutor = importRowExecutor;
     }
 
     @Override
@@ -138,33 +145,68 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
         }
 
         final Workbook workbook = event.getWorkbook();
-        final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
-        importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
-        this.importRepository.save(importDocument);
+        File output = null;
+        try {
+            final ImportHandler handler = importHandler;
+            final Count count = this.importRowExecutor.forImport(importDocument.getId(),
+                    () -> handler.process(workbook, event.getLocale(), event.getDateFormat()));
+            importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
+            this.importRepository.save(importDocument);
 
-        final Set<String> modifiedParams = new HashSet<>();
-        modifiedParams.add("fileName");
-        modifiedParams.add("size");
-        modifiedParams.add("type");
-        modifiedParams.add("location");
-        Document document = importDocument.getDocument();
+            final Set<String> modifiedParams = new HashSet<>();
+            modifiedParams.add("fileName");
+            modifiedParams.add("size");
+            modifiedParams.add("type");
+            modifiedParams.add("location");
+            Document document = importDocument.getDocument();
 
-        DocumentCommand documentCommand = new DocumentCommand(modifiedParams, document.getId(), entityType.name(), null, document.getName(),
-                document.getFileName(), document.getSize(), URLConnection.guessContentTypeFromName(document.getFileName()), null, null);
+            DocumentCommand documentCommand = new DocumentCommand(modifiedParams, document.getId(), entityType.name(), null,
+                    document.getName(), document.getFileName(), document.getSize(),
+                    URLConnection.guessContentTypeFromName(document.getFileName()), null, null);
 
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try {
-            try {
-                workbook.write(bos);
-            } finally {
-                bos.close();
+            output = File.createTempFile("import-output-", ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(output.toPath())) {
+                workbook.write(outputStream);
+            }
+            try (InputStream inputStream = Files.newInputStream(output.toPath())) {
+                this.documentService.updateDocument(documentCommand, inputStream);
             }
         } catch (IOException io) {
             LOG.error("Problem occurred in onApplicationEvent function", io);
+        } finally {
+            discard(workbook, event.getFile());
+            if (output != null) {
+                deleteQuietly(output);
+            }
+        }
+    }
+
+    /**
+     * Releases a workbook opened for import, including the temporary files of a streamed XLSX workbook, together with
+     * the temporary file of the upload.
+     */
+    static void discard(final Workbook workbook, final File file) {
+        if (workbook instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+        if (workbook != null) {
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                LOG.warn("Could not close import workbook", e);
+            }
+        }
+        if (file != null) {
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(final File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            LOG.warn("Could not delete temporary import file {}", file, e);
         }
-        byte[] bytes = bos.toByteArray();
-        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-        this.documentService.updateDocument(documentCommand, bis);
     }
 
 }
@@ -18,18 +18,18 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Locale;
 import javax.ws.rs.core.Response;
-import org.apache.commons.io.IOUtils;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.data.ImportData;
@@ -47,10 +47,10 @@ import org.apache.fineract.infrastructure.documentmanagement.domain.DocumentRepo
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformService;
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformServiceJpaRepositoryImpl;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.tika.Tika;
-import org.apache.tika.io.TikaInputStream;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +64,7 @@ import org.springframework.stereotype.Service;
 public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService {
 
     private static final Logger LOG = LoggerFactory.getLogger(BulkImportWorkbookServiceImpl.class);
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
     private final ApplicationContext applicationContext;
     private final PlatformSecurityContext securityContext;
     private final DocumentWritePlatformService documentWritePlatformService;
@@ -86,18 +87,17 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
     @Override
     public Long importWorkbook(String entity, InputStream inputStream, FormDataContentDisposition fileDetail, final String locale,
             final String dateFormat) {
+        File file = null;
+        Workbook workbook = null;
+        boolean published = false;
         try {
             if (entity != null && inputStream != null && fileDetail != null && locale != null && dateFormat != null) {
 
-                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                IOUtils.copy(inputStream, baos);
-                final byte[] bytes = baos.toByteArray();
-                InputStream clonedInputStream = new ByteArrayInputStream(bytes);
-                InputStream clonedInputStreamWorkbook = new ByteArrayInputStream(bytes);
-                final Tika tika = new Tika();
-                final TikaInputStream tikaInputStream = TikaInputStream.get(clonedInputStream);
-                final String fileType = tika.detect(tikaInputStream);
-                if (!fileType.contains("msoffice") && !fileType.contains("application/vnd.ms-excel")) {
+                // spool the upload to disk once instead of copying it into byte arrays
+                file = File.createTempFile("import-", ".tmp");
+                Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                final String fileType = new Tika().detect(file);
+                if (!isSpreadsheet(fileType)) {
                     // We had a problem where we tried to upload the downloaded
                     // file from the import options, it was somehow changed the
                     // extension we use this fix.
@@ -105,7 +105,7 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                             "Uploaded file extension is not recognized.");
 
                 }
-                Workbook workbook = new HSSFWorkbook(clonedInputStreamWorkbook);
+                workbook = openWorkbook(file);
                 GlobalEntityType entityType = null;
                 int primaryColumn = 0;
                 if (entity.trim().equalsIgnoreCase(GlobalEntityType.CLIENTS_PERSON.toString())) {
@@ -166,11 +166,12 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                     entityType = GlobalEntityType.USERS;
                     primaryColumn = 0;
                 } else {
-                    workbook.close();
                     throw new GeneralPlatformDomainRuleException("error.msg.unable.to.find.resource", "Unable to find requested resource");
 
                 }
-                return publishEvent(primaryColumn, fileDetail, clonedInputStreamWorkbook, entityType, workbook, locale, dateFormat);
+                final Long importDocumentId = publishEvent(primaryColumn, fileDetail, file, entityType, workbook, locale, dateFormat);
+                published = true;
+                return importDocumentId;
             }
             throw new GeneralPlatformDomainRuleException("error.msg.null", "One or more of the given parameters not found");
         } catch (IOException e) {
@@ -178,25 +179,48 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
             throw new GeneralPlatformDomainRuleException("error.msg.io.exception",
                     "IO exception occured with " + fileDetail.getFileName() + " " + e.getMessage(), e);
 
+        } finally {
+            // once published, the workbook and its file belong to the BulkImportEventListener
+            if (!published) {
+                BulkImportEventListener.discard(workbook, file);
+            }
         }
     }
 
-    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail,
-            final InputStream clonedInputStreamWorkbook, final GlobalEntityType entityType, final Workbook workbook, final String locale,
-            final String dateFormat) {
+    /**
+     * Streams the rows of an XLSX file into a separate workbook, see {@link StreamingWorkbookReader}. An XLS file, which
+     * holds at most 65536 rows a sheet, is still opened through the usermodel.
+     */
+    private static Workbook openWorkbook(final File file) throws IOException {
+        if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+            return StreamingWorkbookReader.read(file);
+        }
+        return WorkbookFactory.create(file, null, false);
+    }
+
+    private static boolean isSpreadsheet(final String fileType) {
+        return fileType.contains("msoffice") || fileType.contains("application/vnd.ms-excel") || fileType.contains("ooxml")
+                || fileType.contains("spreadsheetml");
+    }
+
+    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail, final File file,
+            final GlobalEntityType entityType, final Workbook workbook, final String locale, final String dateFormat) throws IOException {
 
         final String fileName = fileDetail.getFileName();
 
-        final Long documentId = this.documentWritePlatformService.createInternalDocument(
-                DocumentWritePlatformServiceJpaRepositoryImpl.DocumentManagementEntity.IMPORT.name(),
-                this.securityContext.authenticatedUser().getId(), null, clonedInputStreamWorkbook,
-                URLConnection.guessContentTypeFromName(fileName), fileName, null, fileName);
+        final Long documentId;
+        try (InputStream fileInputStream = Files.newInputStream(file.toPath())) {
+            documentId = this.documentWritePlatformService.createInternalDocument(
+                    DocumentWritePlatformServiceJpaRepositoryImpl.DocumentManagementEntity.IMPORT.name(),
+                    this.securityContext.authenticatedUser().getId(), null, fileInputStream,
+                    URLConnection.guessContentTypeFromName(fileName), fileName, null, fileName);
+        }
         final Document document = this.documentRepository.findById(documentId).orElse(null);
 
         final ImportDocument importDocument = ImportDocument.instance(document, DateUtils.getLocalDateTimeOfTenant(), entityType.getValue(),
                 this.securityContext.authenticatedUser(), ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn));
         this.importDocumentRepository.saveAndFlush(importDocument);
-        BulkImportEvent event = BulkImportEvent.instance(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), workbook,
+        BulkImportEvent event = BulkImportEvent.instance(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), workbook, file,
                 importDocument.getId(), locale, dateFormat);
         applicationContext.publishEvent(event);
         return importDocument.getId();
@@ -266,7 +290,8 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
         File file = new File(fileLocation);
         final Response.ResponseBuilder response = Response.ok(file);
         response.header("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-        response.header("Content-Type", "application/vnd.ms-excel");
+        final boolean xlsx = fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+        response.header("Content-Type", xlsx ? XLSX_CONTENT_TYPE : "application/vnd.ms-excel");
         return response.build();
     }
 
@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads an uploaded XLSX workbook with a SAX parser instead of the POI usermodel, which keeps the XML of every sheet in
+ * memory.
+ *
+ * The cell values of all sheets are copied into a new {@link SXSSFWorkbook}, in which the import handlers look up their
+ * rows and write the status of each row. That workbook becomes the output document of the import. Formulas are replaced
+ * by the values cached in the file, and styles, data validations and names of the upload are not carried over.
+ */
+final class StreamingWorkbookReader {
+
+    private StreamingWorkbookReader() {
+
+    }
+
+    /**
+     * @param file
+     *            an XLSX file
+     * @return a workbook with the cell values of the file, keeping all its rows accessible until it is written
+     */
+    static SXSSFWorkbook read(final File file) throws IOException {
+        final SXSSFWorkbook workbook = new SXSSFWorkbook(-1);
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            final ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            final XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheetData = sheets.next()) {
+                    // the status styles of an earlier import are recreated when needed
+                    if (isStatusStyleSheet(sheets.getSheetName())) {
+                        continue;
+                    }
+                    final XMLReader parser = SAXHelper.newXMLReader();
+                    parser.setContentHandler(new SheetHandler(workbook.createSheet(sheets.getSheetName()), sharedStrings));
+                    parser.parse(new InputSource(sheetData));
+                }
+            }
+            return workbook;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException | RuntimeException e) {
+            workbook.dispose();
+            throw new IOException("Could not read workbook " + file.getName(), e);
+        } catch (IOException e) {
+            workbook.dispose();
+            throw e;
+        }
+    }
+
+    private static boolean isStatusStyleSheet(final String sheetName) {
+        return IndexedColors.RED.toString().equals(sheetName) || IndexedColors.LIGHT_GREEN.toString().equals(sheetName);
+    }
+
+    /**
+     * Copies the rows of one worksheet part, see ECMA-376 Part 1, 18.3.1 (Worksheets).
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final Sheet sheet;
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StringBuilder text = new StringBuilder();
+        private Row row;
+        private int rowIndex = -1;
+        private int columnIndex;
+        private String cellType;
+        private boolean hasValue;
+        private boolean inValue;
+        private boolean inPhonetic;
+
+        SheetHandler(final Sheet sheet, final ReadOnlySharedStringsTable sharedStrings) {
+            this.sheet = sheet;
+            this.sharedStrings = sharedStrings;
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    final String rowNumber = attributes.getValue("r");
+                    this.rowIndex = rowNumber == null ? this.rowIndex + 1 : Integer.parseInt(rowNumber) - 1;
+                    this.row = this.sheet.createRow(this.rowIndex);
+                    this.columnIndex = -1;
+                break;
+                case "c":
+                    final String reference = attributes.getValue("r");
+                    this.columnIndex = reference == null ? this.columnIndex + 1 : new CellReference(reference).getCol();
+                    this.cellType = attributes.getValue("t");
+                    this.hasValue = false;
+                    this.text.setLength(0);
+                break;
+                case "v":
+                    this.hasValue = true;
+                    this.inValue = true;
+                break;
+                case "is":
+                    this.hasValue = true;
+                break;
+                case "t":
+                    this.inValue = !this.inPhonetic;
+                break;
+                case "rPh":
+                    this.inPhonetic = true;
+                break;
+                default:
+                break;
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    this.inValue = false;
+                break;
+                case "rPh":
+                    this.inPhonetic = false;
+                break;
+                case "c":
+                    createCell();
+                break;
+                default:
+                break;
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if (this.inValue) {
+                this.text.append(ch, start, length);
+            }
+        }
+
+        private void createCell() {
+            final Cell cell = this.row.createCell(this.columnIndex);
+            if (!this.hasValue) {
+                // a styled cell or a formula without a cached value
+                return;
+            }
+            final String value = this.text.toString();
+            if (this.cellType == null || "n".equals(this.cellType)) {
+                cell.setCellValue(Double.parseDouble(value));
+            } else if ("s".equals(this.cellType)) {
+                cell.setCellValue(this.sharedStrings.getItemAt(Integer.parseInt(value)).getString());
+            } else if ("b".equals(this.cellType)) {
+                cell.setCellValue("1".equals(value) || "true".equals(value));
+            } else if ("e".equals(this.cellType)) {
+                cell.setCellErrorValue(FormulaError.forString(value).getCode());
+            } else {
+                // inline strings, string results of formulas and ISO 8601 dates
+                cell.setCellValue(value);
+            }
+        }
+    }
+}
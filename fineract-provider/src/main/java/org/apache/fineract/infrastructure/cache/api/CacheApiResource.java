@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.cache.api;
 
+import com.google.gson.JsonObject;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -32,9 +33,11 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
@@ -42,7 +45,10 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheStatisticsData;
+import org.apache.fineract.infrastructure.cache.service.CacheReadPlatformService;
 import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -61,7 +67,9 @@ import org.springframework.stereotype.Component;
 @Scope("singleton")
 @Tag(name = "Cache", description = "The following settings are possible for cache:\n" + "\n" + "No Caching: caching turned off\n"
         + "Single node: caching on for single instance deployments of platorm (works for multiple tenants but only one tomcat)\n"
-        + "By default caching is set to No Caching. Switching between caches results in the cache been clear e.g. from Single node to No cache and back again would clear down the single node cache.")
+        + "By default caching is set to No Caching. Switching between caches results in the cache been clear e.g. from Single node to No cache and back again would clear down the single node cache.\n"
+        + "\n" + "The individual caches, their sizing, expiry and hit/miss statistics can be inspected under caches/names, "
+        + "and the entries of the current tenant can be evicted from a cache.")
 public class CacheApiResource {
 
     private static final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList("id"));
@@ -72,17 +80,23 @@ public class CacheApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
+    private final CacheReadPlatformService cacheReadPlatformService;
+    private final DefaultToApiJsonSerializer<CacheStatisticsData> cacheStatisticsJsonSerializer;
 
     @Autowired
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
             final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
-            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final CacheReadPlatformService cacheReadPlatformService,
+            final DefaultToApiJsonSerializer<CacheStatisticsData> cacheStatisticsJsonSerializer) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.cacheReadPlatformService = cacheReadPlatformService;
+        this.cacheStatisticsJsonSerializer = cacheStatisticsJsonSerializer;
     }
 
     @GET
@@ -113,4 +127,57 @@ public class CacheApiResource {
 
         return this.toApiJsonSerializer.serialize(result);
     }
+
+    @GET
+    @Path("names")
+    @Operation(summary = "Retrieve Caches", description = "Returns the configured caches with their sizing, expiry and statistics. "
+            + "Statistics are collected since startup for all tenants; tenantEntries counts the entries of the current tenant.\n"
+            + "\n" + "Example Requests:\n" + "\n" + "caches/names")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CacheApiResourceSwagger.GetCacheNamesResponse.class)))) })
+    public String retrieveCacheStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CacheStatisticsData> caches = this.cacheReadPlatformService.retrieveCacheStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.cacheStatisticsJsonSerializer.serialize(settings, caches, RESPONSE_DATA_PARAMETERS);
+    }
+
+    @GET
+    @Path("names/{cacheName}")
+    @Operation(summary = "Retrieve a Cache", description = "Returns the sizing, expiry and statistics of one cache.\n" + "\n"
+            + "Example Requests:\n" + "\n" + "caches/names/offices")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = CacheApiResourceSwagger.GetCacheNamesResponse.class))) })
+    public String retrieveCacheStatistics(@PathParam("cacheName") @Parameter(description = "cacheName") final String cacheName,
+            @Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final CacheStatisticsData cache = this.cacheReadPlatformService.retrieveCacheStatistics(cacheName);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.cacheStatisticsJsonSerializer.serialize(settings, cache, RESPONSE_DATA_PARAMETERS);
+    }
+
+    @DELETE
+    @Path("names/{cacheName}")
+    @Operation(summary = "Evict a Cache", description = "Evicts the entries of the current tenant from the cache.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = CacheApiResourceSwagger.DeleteCacheNamesResponse.class))) })
+    public String evictCache(@PathParam("cacheName") @Parameter(description = "cacheName") final String cacheName) {
+
+        // fails with a 404 for caches that are not configured
+        this.cacheService.getConfiguredCache(cacheName);
+
+        final JsonObject json = new JsonObject();
+        json.addProperty(CacheApiConstants.cacheNameParameter, cacheName);
+        final CommandWrapper commandRequest = new CommandWrapperBuilder().evictCache(cacheName).withJson(json.toString()).build();
+
+        final CommandProcessingResult result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+
+        return this.toApiJsonSerializer.serialize(result);
+    }
 }
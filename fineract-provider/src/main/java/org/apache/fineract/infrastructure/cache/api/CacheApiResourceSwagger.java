@@ -74,4 +74,57 @@ final class CacheApiResourceSwagger {
         public PutCachechangesSwagger cacheType;
 
     }
+
+    @Schema(description = "GetCacheNamesResponse")
+    public static final class GetCacheNamesResponse {
+
+        private GetCacheNamesResponse() {
+
+        }
+
+        @Schema(example = "offices")
+        public String name;
+        @Schema(example = "10000")
+        public Long heapEntries;
+        public Long offHeapMb;
+        @Schema(example = "3600")
+        public Long timeToLiveSeconds;
+        public Long timeToIdleSeconds;
+        @Schema(example = "3")
+        public Long tenantEntries;
+        @Schema(example = "120")
+        public Long hits;
+        @Schema(example = "8")
+        public Long misses;
+        @Schema(example = "93.75")
+        public Float hitPercentage;
+        @Schema(example = "8")
+        public Long puts;
+        @Schema(example = "2")
+        public Long removals;
+        @Schema(example = "0")
+        public Long evictions;
+    }
+
+    @Schema(description = "DeleteCacheNamesResponse")
+    public static final class DeleteCacheNamesResponse {
+
+        private DeleteCacheNamesResponse() {
+
+        }
+
+        public static final class DeleteCacheNamesChanges {
+
+            private DeleteCacheNamesChanges() {
+
+            }
+
+            @Schema(example = "offices")
+            public String cacheName;
+            @Schema(example = "3")
+            public Integer evictedEntries;
+        }
+
+        public DeleteCacheNamesChanges changes;
+    }
 }
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.command;
+
+import java.util.Map;
+import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.handler.NewCommandSourceHandler;
+import org.apache.fineract.infrastructure.cache.CacheApiConstants;
+import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformService;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@CommandType(entity = "CACHE", action = "EVICT")
+public class EvictCacheCommandHandler implements NewCommandSourceHandler {
+
+    private final CacheWritePlatformService cacheService;
+
+    @Autowired
+    public EvictCacheCommandHandler(final CacheWritePlatformService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public CommandProcessingResult processCommand(final JsonCommand command) {
+
+        final String cacheName = command.stringValueOfParameterNamed(CacheApiConstants.cacheNameParameter);
+
+        final Map<String, Object> changes = this.cacheService.evictTenantEntries(cacheName);
+
+        return new CommandProcessingResultBuilder().withCommandId(command.commandId()).with(changes).build();
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.data;
+
+/**
+ * Configuration and statistics of one cache. Statistics are collected since startup, across all tenants; only
+ * {@code tenantEntries} is specific to the current tenant.
+ */
+public final class CacheStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final String name;
+    @SuppressWarnings("unused")
+    private final Long heapEntries;
+    @SuppressWarnings("unused")
+    private final Long offHeapMb;
+    @SuppressWarnings("unused")
+    private final Long timeToLiveSeconds;
+    @SuppressWarnings("unused")
+    private final Long timeToIdleSeconds;
+    @SuppressWarnings("unused")
+    private final long tenantEntries;
+    @SuppressWarnings("unused")
+    private final long hits;
+    @SuppressWarnings("unused")
+    private final long misses;
+    @SuppressWarnings("unused")
+    private final float hitPercentage;
+    @SuppressWarnings("unused")
+    private final long puts;
+    @SuppressWarnings("unused")
+    private final long removals;
+    @SuppressWarnings("unused")
+    private final long evictions;
+
+    public static CacheStatisticsData instance(final String name, final Long heapEntries, final Long offHeapMb,
+            final Long timeToLiveSeconds, final Long timeToIdleSeconds, final long tenantEntries, final long hits, final long misses,
+            final float hitPercentage, final long puts, final long removals, final long evictions) {
+        return new CacheStatisticsData(name, heapEntries, offHeapMb, timeToLiveSeconds, timeToIdleSeconds, tenantEntries, hits, misses,
+                hitPercentage, puts, removals, evictions);
+    }
+
+    private CacheStatisticsData(final String name, final Long heapEntries, final Long offHeapMb, final Long timeToLiveSeconds,
+            final Long timeToIdleSeconds, final long tenantEntries, final long hits, final long misses, final float hitPercentage,
+            final long puts, final long removals, final long evictions) {
+        this.name = name;
+        this.heapEntries = heapEntries;
+        this.offHeapMb = offHeapMb;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.timeToIdleSeconds = timeToIdleSeconds;
+        this.tenantEntries = tenantEntries;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitPercentage = hitPercentage;
+        this.puts = puts;
+        this.removals = removals;
+        this.evictions = evictions;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import javax.cache.Cache;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.apache.fineract.infrastructure.cache.data.CacheStatisticsData;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePool;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CacheReadPlatformServiceImpl implements CacheReadPlatformService {
+
+    private final RuntimeDelegatingCacheManager cacheService;
+
+    @Autowired
+    public CacheReadPlatformServiceImpl(@Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public Collection<CacheStatisticsData> retrieveCacheStatistics() {
+        final Collection<CacheStatisticsData> caches = new ArrayList<>();
+        for (final String cacheName : this.cacheService.getConfiguredCacheNames()) {
+            caches.add(retrieveCacheStatistics(cacheName));
+        }
+        return caches;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CacheStatisticsData retrieveCacheStatistics(final String cacheName) {
+        final Cache<Object, Object> cache = this.cacheService.getConfiguredCache(cacheName);
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+
+        long tenantEntries = 0;
+        for (final Cache.Entry<Object, Object> entry : cache) {
+            if (this.cacheService.isTenantEntry(entry.getKey(), tenantIdentifier)) {
+                tenantEntries++;
+            }
+        }
+
+        final CacheRuntimeConfiguration<Object, Object> configuration = cache.unwrap(org.ehcache.Cache.class).getRuntimeConfiguration();
+        final ResourcePools resourcePools = configuration.getResourcePools();
+        final Long heapEntries = poolSize(resourcePools, ResourceType.Core.HEAP);
+        final Long offHeapMb = poolSize(resourcePools, ResourceType.Core.OFFHEAP);
+
+        // the built-in expiry policies do not look at the key and value
+        final ExpiryPolicy<? super Object, ? super Object> expiry = configuration.getExpiryPolicy();
+        final Duration timeToIdle = expiry.getExpiryForAccess(null, null);
+        final Duration timeToLive = timeToIdle == null ? expiry.getExpiryForCreation(null, null) : null;
+
+        final CacheStatisticsMXBean statistics = statistics(cacheName);
+        return CacheStatisticsData.instance(cacheName, heapEntries, offHeapMb, seconds(timeToLive), seconds(timeToIdle), tenantEntries,
+                statistics == null ? 0 : statistics.getCacheHits(), statistics == null ? 0 : statistics.getCacheMisses(),
+                statistics == null ? 0 : statistics.getCacheHitPercentage(), statistics == null ? 0 : statistics.getCachePuts(),
+                statistics == null ? 0 : statistics.getCacheRemovals(), statistics == null ? 0 : statistics.getCacheEvictions());
+    }
+
+    private static Long poolSize(final ResourcePools resourcePools, final ResourceType<?> resourceType) {
+        final ResourcePool pool = resourcePools.getPoolForResource(resourceType);
+        return pool instanceof SizedResourcePool ? ((SizedResourcePool) pool).getSize() : null;
+    }
+
+    private static Long seconds(final Duration duration) {
+        return duration == null || ExpiryPolicy.INFINITE.equals(duration) ? null : duration.getSeconds();
+    }
+
+    /**
+     * Statistics are enabled on all caches by CacheConfig and published as JSR-107 MBeans.
+     */
+    private static CacheStatisticsMXBean statistics(final String cacheName) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final Set<ObjectName> names = server
+                    .queryNames(new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cacheName + ",*"), null);
+            if (names.isEmpty()) {
+                return null;
+            }
+            return JMX.newMXBeanProxy(server, names.iterator().next(), CacheStatisticsMXBean.class);
+        } catch (final MalformedObjectNameException e) {
+            return null;
+        }
+    }
+}
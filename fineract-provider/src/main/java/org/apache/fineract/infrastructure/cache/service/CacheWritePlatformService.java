@@ -24,4 +24,6 @@ import org.apache.fineract.infrastructure.cache.domain.CacheType;
 public interface CacheWritePlatformService {
 
     Map<String, Object> switchToCache(CacheType cacheType);
+
+    Map<String, Object> evictTenantEntries(String cacheName);
 }
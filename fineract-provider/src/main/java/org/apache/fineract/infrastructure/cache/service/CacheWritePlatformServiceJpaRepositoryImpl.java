@@ -18,9 +18,12 @@
  */
 package org.apache.fineract.infrastructure.cache.service;
 
+import java.util.HashMap;
 import java.util.Map;
+import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -53,4 +56,15 @@ public class CacheWritePlatformServiceJpaRepositoryImpl implements CacheWritePla
 
         return changes;
     }
+
+    @Override
+    public Map<String, Object> evictTenantEntries(final String cacheName) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final int evicted = this.cacheService.evictTenantEntries(cacheName, tenantIdentifier);
+
+        final Map<String, Object> changes = new HashMap<>();
+        changes.put(CacheApiConstants.cacheNameParameter, cacheName);
+        changes.put(CacheApiConstants.evictedEntriesParameter, evicted);
+        return changes;
+    }
 }
@@ -21,11 +21,14 @@ package org.apache.fineract.infrastructure.cache.service;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.CacheEnumerations;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
+import org.apache.fineract.infrastructure.cache.exception.CacheNotFoundException;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,7 +50,13 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(RuntimeDelegatingCacheManager.class);
 
-    private final CacheManager cacheManager;
+    /**
+     * Separates the tenant identifier from the rest of a tenant specific cache key, so that the entries of tenant
+     * {@code default} can be told apart from the ones of tenant {@code default2}.
+     */
+    public static final String TENANT_KEY_SEPARATOR = "|";
+
+    private final JCacheCacheManager cacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
     private CacheManager currentCacheManager;
 
@@ -125,6 +134,48 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
         return changes;
     }
 
+    /**
+     * Returns the underlying cache of the given name, whether or not caching is currently switched on.
+     */
+    public javax.cache.Cache<Object, Object> getConfiguredCache(final String cacheName) {
+        final javax.cache.CacheManager jCacheManager = this.cacheManager.getCacheManager();
+        final javax.cache.Cache<Object, Object> cache = jCacheManager == null ? null : jCacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new CacheNotFoundException(cacheName);
+        }
+        return cache;
+    }
+
+    public Collection<String> getConfiguredCacheNames() {
+        return this.cacheManager.getCacheNames();
+    }
+
+    /**
+     * Cache keys of tenant specific entries are either the tenant identifier itself or start with the tenant identifier
+     * followed by {@link #TENANT_KEY_SEPARATOR} (see the key expressions of the {@code @Cacheable} methods); keys of
+     * other types, like the ones of tenantsById, do not belong to a tenant.
+     */
+    public boolean isTenantEntry(final Object key, final String tenantIdentifier) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        final String cacheKey = (String) key;
+        return cacheKey.equals(tenantIdentifier) || cacheKey.startsWith(tenantIdentifier + TENANT_KEY_SEPARATOR);
+    }
+
+    public int evictTenantEntries(final String cacheName, final String tenantIdentifier) {
+        final javax.cache.Cache<Object, Object> cache = getConfiguredCache(cacheName);
+        final Set<Object> keys = new HashSet<>();
+        for (final javax.cache.Cache.Entry<Object, Object> entry : cache) {
+            if (isTenantEntry(entry.getKey(), tenantIdentifier)) {
+                keys.add(entry.getKey());
+            }
+        }
+        cache.removeAll(keys);
+        LOG.info("Evicted {} entries of tenant {} from cache {}", keys.size(), tenantIdentifier, cacheName);
+        return keys.size();
+    }
+
     private void clearEhCache() {
         Iterable<String> cacheNames = cacheManager.getCacheNames();
         for (String cacheName : cacheNames) {
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds one value per tenant, invalidated through a version counter stored in the single row (id = 1) of a version
+ * table of the tenant database.
+ *
+ * Every change to the data a value is built from calls {@link #changed()} within the changing transaction, which
+ * increments the stored version. The node making the change drops the value of the tenant once the transaction has
+ * completed; other nodes compare the version of their value with the stored one at most every versionCheckIntervalMillis
+ * and load a new value when it has moved on.
+ *
+ * @param <T>
+ *            type of the cached value
+ */
+public final class VersionedTenantCache<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VersionedTenantCache.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final String versionSql;
+    private final String incrementVersionSql;
+    private final long versionCheckIntervalMillis;
+    private final Map<String, Entry<T>> entriesByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * @param name
+     *            what is cached, used in log messages (e.g. "Holiday calendar")
+     * @param versionTable
+     *            table holding the version in its row with id 1
+     */
+    public VersionedTenantCache(final JdbcTemplate jdbcTemplate, final String name, final String versionTable,
+            final long versionCheckIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.versionSql = "select v.version from " + versionTable + " v where v.id = 1";
+        this.incrementVersionSql = "update " + versionTable + " set version = version + 1 where id = 1";
+        this.versionCheckIntervalMillis = versionCheckIntervalMillis;
+    }
+
+    /**
+     * Returns the value of the current tenant, loading it with loader when there is none yet or when the stored version
+     * has moved on since it was loaded. The loader is passed the stored version, which is read before it runs so that a
+     * change committed while loading is picked up by the next version check.
+     */
+    public T current(final LongFunction<T> loader) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Entry<T> entry = this.entriesByTenant.get(tenantIdentifier);
+        final long now = System.currentTimeMillis();
+        if (entry != null) {
+            if (now < entry.nextVersionCheck) {
+                return entry.value;
+            }
+            final long storedVersion = retrieveStoredVersion();
+            if (storedVersion == entry.version) {
+                entry.nextVersionCheck = now + this.versionCheckIntervalMillis;
+                return entry.value;
+            }
+            LOG.info("{} of tenant {} changed from version {} to {}, reloading", this.name, tenantIdentifier, entry.version, storedVersion);
+        }
+        final long version = retrieveStoredVersion();
+        final T value = loader.apply(version);
+        this.entriesByTenant.put(tenantIdentifier, new Entry<>(version, value, now + this.versionCheckIntervalMillis));
+        return value;
+    }
+
+    /**
+     * Records a change of the cached data: increments the stored version as part of the current transaction and drops
+     * the value of the current tenant once it has completed.
+     */
+    public void changed() {
+        this.jdbcTemplate.update(this.incrementVersionSql);
+
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    // also on rollback: the value may have been reloaded while the transaction was running
+                    VersionedTenantCache.this.entriesByTenant.remove(tenantIdentifier);
+                }
+            });
+        }
+        this.entriesByTenant.remove(tenantIdentifier);
+    }
+
+    private long retrieveStoredVersion() {
+        final Long version = this.jdbcTemplate.queryForObject(this.versionSql, Long.class);
+        return version == null ? 0L : version;
+    }
+
+    private static final class Entry<T> {
+
+        private final long version;
+        private final T value;
+        private volatile long nextVersionCheck;
+
+        Entry(final long version, final T value, final long nextVersionCheck) {
+            this.version = version;
+            this.value = value;
+            this.nextVersionCheck = nextVersionCheck;
+        }
+    }
+}
@@ -92,9 +92,14 @@ public class SmsCampaignReadPlatformServiceImpl implements SmsCampaignReadPlatfo
     public Page<SmsCampaignData> retrieveAll(final SearchParameters searchParameters) {
         final Integer visible = 1;
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.smsCampaignMapper.schema() + " where sc.is_visible = ? ");
 
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), new Object[] { visible },
+                    this.smsCampaignMapper, searchParameters.getKeyset(), "sc.id");
+        }
+
         if (searchParameters.isLimited()) {
             sqlBuilder.append(" ");
             if (searchParameters.isOffset()) {
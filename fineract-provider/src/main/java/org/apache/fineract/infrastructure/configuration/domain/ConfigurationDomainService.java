@@ -87,7 +87,11 @@ public interface ConfigurationDomainService {
 
     Long getDailyTPTLimit();
 
-    void removeGlobalConfigurationPropertyDataFromCache(String propertyName);
+    /**
+     * Records a change of the global configuration or of the maker-checker flags of permissions, so that every node
+     * reloads its configuration snapshot of the tenant.
+     */
+    void globalConfigurationChanged();
 
     boolean isSMSOTPDeliveryEnabled();
 
@@ -19,19 +19,15 @@
 package org.apache.fineract.infrastructure.configuration.domain;
 
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCache;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCacheRepository;
 import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.useradministration.domain.Permission;
 import org.apache.fineract.useradministration.domain.PermissionRepository;
 import org.apache.fineract.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,14 +37,16 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
-    private static Map<String, GlobalConfigurationPropertyData> configurations = new HashMap<>();
+    private final GlobalConfigurationSnapshotProvider globalConfigurationSnapshotProvider;
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            final GlobalConfigurationSnapshotProvider globalConfigurationSnapshotProvider) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.globalConfigurationSnapshotProvider = globalConfigurationSnapshotProvider;
     }
 
     @Override
@@ -57,15 +55,21 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
             throw new PermissionNotFoundException(taskPermissionCode);
         }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) {
-            throw new PermissionNotFoundException(taskPermissionCode);
+        final GlobalConfigurationSnapshot snapshot = this.globalConfigurationSnapshotProvider.current();
+        Boolean taskMakerCheckerEnabled = snapshot.isMakerCheckerEnabled(taskPermissionCode);
+        if (taskMakerCheckerEnabled == null) {
+            // permissions added after the snapshot was loaded (e.g. for a newly registered datatable)
+            final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
+            if (thisTask == null) {
+                throw new PermissionNotFoundException(taskPermissionCode);
+            }
+            taskMakerCheckerEnabled = thisTask.hasMakerCheckerEnabled();
         }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
-        final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(makerCheckerConfigurationProperty);
+        final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(snapshot, makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return taskMakerCheckerEnabled && property.isEnabled();
     }
 
     @Override
@@ -305,10 +309,8 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     }
 
     @Override
-    public void removeGlobalConfigurationPropertyDataFromCache(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        configurations.remove(key);
+    public void globalConfigurationChanged() {
+        this.globalConfigurationSnapshotProvider.configurationChanged();
     }
 
     @Override
@@ -374,15 +376,18 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return property.getValue();
     }
 
-    @Cacheable(value = "configByName", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#propertyName)")
     private GlobalConfigurationPropertyData getGlobalConfigurationPropertyData(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        if (!configurations.containsKey(key)) {
-            GlobalConfigurationProperty configuration = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-            configurations.put(key, configuration.toData());
+        return getGlobalConfigurationPropertyData(this.globalConfigurationSnapshotProvider.current(), propertyName);
+    }
+
+    private GlobalConfigurationPropertyData getGlobalConfigurationPropertyData(final GlobalConfigurationSnapshot snapshot,
+            final String propertyName) {
+        final GlobalConfigurationPropertyData property = snapshot.getProperty(propertyName);
+        if (property != null) {
+            return property;
         }
-        return configurations.get(key);
+        // properties added after the snapshot was loaded (e.g. for a newly registered survey)
+        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName).toData();
     }
 
     @Override
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.domain;
+
+import java.util.Map;
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+
+/**
+ * Immutable view of the global configuration (c_configuration) and of the maker-checker flags of the permissions of a
+ * tenant, as loaded at a given version of the configuration.
+ */
+public final class GlobalConfigurationSnapshot {
+
+    private final long version;
+    private final Map<String, GlobalConfigurationPropertyData> properties;
+    private final Map<String, Boolean> makerCheckerByPermissionCode;
+
+    GlobalConfigurationSnapshot(final long version, final Map<String, GlobalConfigurationPropertyData> properties,
+            final Map<String, Boolean> makerCheckerByPermissionCode) {
+        this.version = version;
+        this.properties = Map.copyOf(properties);
+        this.makerCheckerByPermissionCode = Map.copyOf(makerCheckerByPermissionCode);
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the configuration property, or null when there was no property with this name at the time the snapshot
+     * was loaded.
+     */
+    public GlobalConfigurationPropertyData getProperty(final String name) {
+        return this.properties.get(name);
+    }
+
+    /**
+     * Returns whether maker-checker is enabled on the permission, or null when there was no permission with this code at
+     * the time the snapshot was loaded.
+     */
+    public Boolean isMakerCheckerEnabled(final String permissionCode) {
+        return this.makerCheckerByPermissionCode.get(permissionCode);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.fineract.infrastructure.cache.service.VersionedTenantCache;
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one {@link GlobalConfigurationSnapshot} per tenant, loaded with a single query over c_configuration and the
+ * maker-checker flags of m_permission.
+ *
+ * Every change to the configuration or to the maker-checker flags increments the version stored in
+ * c_configuration_version within the changing transaction, see {@link VersionedTenantCache}; other nodes check that
+ * version at most every {@code fineract.configuration.version-check-interval-seconds}.
+ */
+@Component
+public class GlobalConfigurationSnapshotProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GlobalConfigurationSnapshotProvider.class);
+
+    private static final String SNAPSHOT_SQL = "select 'C' as kind, c.id as id, c.name as name, c.enabled as enabled, c.value as value, "
+            + "c.date_value as date_value, c.string_value as string_value, c.description as description, c.is_trap_door as is_trap_door "
+            + "from c_configuration c union all "
+            + "select 'P', p.id, p.code, p.can_maker_checker, null, null, null, null, p.can_maker_checker from m_permission p";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VersionedTenantCache<GlobalConfigurationSnapshot> snapshots;
+
+    @Autowired
+    public GlobalConfigurationSnapshotProvider(final RoutingDataSource dataSource, final FineractProperties fineractProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.snapshots = new VersionedTenantCache<>(this.jdbcTemplate, "Configuration", "c_configuration_version",
+                fineractProperties.getConfiguration().getVersionCheckIntervalSeconds() * 1000L);
+    }
+
+    /**
+     * Returns the snapshot of the current tenant, loading it when there is none yet or when the stored version has moved
+     * on since it was loaded.
+     */
+    public GlobalConfigurationSnapshot current() {
+        return this.snapshots.current(this::load);
+    }
+
+    /**
+     * Records a change of the configuration or of the maker-checker flags: increments the stored version as part of the
+     * current transaction and drops the snapshot of the current tenant once it has completed.
+     */
+    public void configurationChanged() {
+        this.snapshots.changed();
+    }
+
+    private GlobalConfigurationSnapshot load(final long version) {
+        final Map<String, GlobalConfigurationPropertyData> properties = new HashMap<>();
+        final Map<String, Boolean> makerCheckerByPermissionCode = new HashMap<>();
+        this.jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+            final String name = rs.getString("name");
+            if ("C".equals(rs.getString("kind"))) {
+                properties.put(name,
+                        new GlobalConfigurationPropertyData(name, rs.getBoolean("enabled"), rs.getObject("value", Long.class),
+                                rs.getDate("date_value"), rs.getString("string_value"), rs.getLong("id"), rs.getString("description"),
+                                rs.getBoolean("is_trap_door")));
+            } else {
+                makerCheckerByPermissionCode.put(name, rs.getBoolean("enabled"));
+            }
+        });
+        LOG.debug("Loaded {} configuration properties and {} permissions at version {}", properties.size(),
+                makerCheckerByPermissionCode.size(), version);
+        return new GlobalConfigurationSnapshot(version, properties, makerCheckerByPermissionCode);
+    }
+}
@@ -72,7 +72,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
             final Map<String, Object> changes = configItemForUpdate.update(command);
 
             if (!changes.isEmpty()) {
-                this.configurationDomainService.removeGlobalConfigurationPropertyDataFromCache(configItemForUpdate.getName());
+                this.configurationDomainService.globalConfigurationChanged();
                 this.repository.save(configItemForUpdate);
             }
 
@@ -92,6 +92,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
         try {
             final GlobalConfigurationProperty ppi = GlobalConfigurationProperty.newSurveyConfiguration(name);
             this.repository.save(ppi);
+            this.configurationDomainService.globalConfigurationChanged();
         } catch (final JpaSystemException | DataIntegrityViolationException dve) {
             final Throwable throwable = dve.getMostSpecificCause();
             handleDataIntegrityIssues(throwable, dve);
@@ -116,6 +116,15 @@ public final class ApiParameterHelper {
         return exportPDF;
     }
 
+    public static boolean stream(final MultivaluedMap<String, String> queryParams) {
+        boolean stream = false;
+        if (queryParams.getFirst("stream") != null) {
+            final String streamValue = queryParams.getFirst("stream");
+            stream = "true".equalsIgnoreCase(streamValue);
+        }
+        return stream;
+    }
+
     public static boolean parameterType(final MultivaluedMap<String, String> queryParams) {
         boolean parameterType = false;
         if (queryParams.getFirst("parameterType") != null) {
@@ -20,54 +20,117 @@
 package org.apache.fineract.infrastructure.core.config;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractCacheSpecProperties;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Creates the caches used through {@code @Cacheable}, sized and expired as configured under {@code fineract.cache}.
+ *
+ * Statistics are enabled on every cache, so that hits, misses and evictions are published through the JSR-107 MBeans
+ * and from there as {@code cache.*} meters by the actuator.
+ */
 @Configuration
 public class CacheConfig {
 
+    private static final Logger LOG = LoggerFactory.getLogger(CacheConfig.class);
+
+    public static final List<String> CACHE_NAMES = Arrays.asList("users", "usersByUsername", "tenantsById", "offices",
+            "officesForDropdown", "officesById", "charges", "funds", "code_values", "codes", "hooks", "tfConfig", "userTFAccessToken",
+            "tellers");
+
+    private static final long DEFAULT_HEAP_ENTRIES = 10000L;
+    private static final long ACCESS_TOKEN_TIME_TO_IDLE_SECONDS = Duration.ofHours(2).getSeconds();
+
     @Bean
-    public JCacheCacheManager ehCacheManager() {
+    public JCacheCacheManager ehCacheManager(final FineractProperties fineractProperties) {
         JCacheCacheManager jCacheCacheManager = new JCacheCacheManager();
-        jCacheCacheManager.setCacheManager(getCustomCacheManager());
+        jCacheCacheManager.setCacheManager(getCustomCacheManager(fineractProperties.getCache()));
         return jCacheCacheManager;
     }
 
-    private CacheManager getCustomCacheManager() {
+    private CacheManager getCustomCacheManager(final FineractCacheProperties cacheProperties) {
         CachingProvider provider = Caching.getCachingProvider();
         CacheManager cacheManager = provider.getCacheManager();
 
-        javax.cache.configuration.Configuration<Object, Object> defaultTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.noExpiration()).build());
-
-        cacheManager.createCache("users", defaultTemplate);
-        cacheManager.createCache("usersByUsername", defaultTemplate);
-        cacheManager.createCache("tenantsById", defaultTemplate);
-        cacheManager.createCache("offices", defaultTemplate);
-        cacheManager.createCache("officesForDropdown", defaultTemplate);
-        cacheManager.createCache("officesById", defaultTemplate);
-        cacheManager.createCache("charges", defaultTemplate);
-        cacheManager.createCache("funds", defaultTemplate);
-        cacheManager.createCache("code_values", defaultTemplate);
-        cacheManager.createCache("codes", defaultTemplate);
-        cacheManager.createCache("hooks", defaultTemplate);
-        cacheManager.createCache("tfConfig", defaultTemplate);
-
-        javax.cache.configuration.Configuration<Object, Object> accessTokenTemplate = Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10000))
-                        .withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofHours(2))).build());
-
-        cacheManager.createCache("userTFAccessToken", accessTokenTemplate);
+        final Set<String> cacheNames = new TreeSet<>(CACHE_NAMES);
+        cacheNames.addAll(cacheProperties.getCaches().keySet());
+
+        for (final String cacheName : cacheNames) {
+            cacheManager.createCache(cacheName,
+                    Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfiguration(cacheName, cacheProperties)));
+            cacheManager.enableStatistics(cacheName, true);
+        }
 
         return cacheManager;
     }
+
+    private CacheConfigurationBuilder<Object, Object> cacheConfiguration(final String cacheName,
+            final FineractCacheProperties cacheProperties) {
+        final FineractCacheSpecProperties defaults = cacheProperties.getDefaults();
+        final FineractCacheSpecProperties spec = cacheProperties.getCaches().getOrDefault(cacheName, new FineractCacheSpecProperties());
+
+        final long heapEntries = valueOf(spec.getHeapEntries(), defaults.getHeapEntries(), DEFAULT_HEAP_ENTRIES);
+        final long offHeapMb = valueOf(spec.getOffHeapMb(), defaults.getOffHeapMb(), 0L);
+
+        // the expiry of a cache is taken as a whole, either from its own configuration or from the defaults
+        final long timeToLiveSeconds;
+        final long timeToIdleSeconds;
+        if (spec.getTimeToLiveSeconds() != null || spec.getTimeToIdleSeconds() != null) {
+            timeToLiveSeconds = valueOf(spec.getTimeToLiveSeconds(), null, 0L);
+            timeToIdleSeconds = valueOf(spec.getTimeToIdleSeconds(), null, 0L);
+        } else if ("userTFAccessToken".equals(cacheName)) {
+            timeToLiveSeconds = 0L;
+            timeToIdleSeconds = ACCESS_TOKEN_TIME_TO_IDLE_SECONDS;
+        } else {
+            timeToLiveSeconds = valueOf(defaults.getTimeToLiveSeconds(), null, 0L);
+            timeToIdleSeconds = valueOf(defaults.getTimeToIdleSeconds(), null, 0L);
+        }
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapEntries, EntryUnit.ENTRIES);
+        if (offHeapMb > 0) {
+            resourcePools = resourcePools.offheap(offHeapMb, MemoryUnit.MB);
+        }
+
+        final ExpiryPolicy<Object, Object> expiry;
+        if (timeToLiveSeconds > 0 && timeToIdleSeconds > 0) {
+            throw new IllegalStateException(
+                    "Cache " + cacheName + " can either be configured with time-to-live-seconds or with time-to-idle-seconds, not both");
+        } else if (timeToLiveSeconds > 0) {
+            expiry = ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds));
+        } else if (timeToIdleSeconds > 0) {
+            expiry = ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(timeToIdleSeconds));
+        } else {
+            expiry = ExpiryPolicyBuilder.noExpiration();
+        }
+
+        LOG.info("Cache {}: {} heap entries, {} MB off-heap, time to live {}s, time to idle {}s", cacheName, heapEntries, offHeapMb,
+                timeToLiveSeconds, timeToIdleSeconds);
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools).withExpiry(expiry);
+    }
+
+    private static long valueOf(final Long value, final Long defaultValue, final long fallback) {
+        if (value != null) {
+            return value;
+        }
+        return defaultValue != null ? defaultValue : fallback;
+    }
 }
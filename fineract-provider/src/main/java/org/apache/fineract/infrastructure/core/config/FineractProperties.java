@@ -19,6 +19,8 @@
 
 package org.apache.fineract.infrastructure.core.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "fineract")
@@ -28,6 +30,22 @@ public class FineractProperties {
 
     private FineractTenantProperties tenant;
 
+    private FineractPartitionedJobProperties partitionedJob = new FineractPartitionedJobProperties();
+
+    private FineractCacheProperties cache = new FineractCacheProperties();
+
+    private FineractConfigurationProperties configuration = new FineractConfigurationProperties();
+
+    private FineractBatchProperties batch = new FineractBatchProperties();
+
+    private FineractHookProperties hook = new FineractHookProperties();
+
+    private FineractAuditProperties audit = new FineractAuditProperties();
+
+    private FineractBulkImportProperties bulkImport = new FineractBulkImportProperties();
+
+    private FineractSmsProperties sms = new FineractSmsProperties();
+
     public String getNodeId() {
         return nodeId;
     }
@@ -44,6 +62,70 @@ public class FineractProperties {
         this.tenant = tenant;
     }
 
+    public FineractPartitionedJobProperties getPartitionedJob() {
+        return partitionedJob;
+    }
+
+    public void setPartitionedJob(FineractPartitionedJobProperties partitionedJob) {
+        this.partitionedJob = partitionedJob;
+    }
+
+    public FineractCacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(FineractCacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public FineractConfigurationProperties getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(FineractConfigurationProperties configuration) {
+        this.configuration = configuration;
+    }
+
+    public FineractBatchProperties getBatch() {
+        return batch;
+    }
+
+    public void setBatch(FineractBatchProperties batch) {
+        this.batch = batch;
+    }
+
+    public FineractHookProperties getHook() {
+        return hook;
+    }
+
+    public void setHook(FineractHookProperties hook) {
+        this.hook = hook;
+    }
+
+    public FineractAuditProperties getAudit() {
+        return audit;
+    }
+
+    public void setAudit(FineractAuditProperties audit) {
+        this.audit = audit;
+    }
+
+    public FineractBulkImportProperties getBulkImport() {
+        return bulkImport;
+    }
+
+    public void setBulkImport(FineractBulkImportProperties bulkImport) {
+        this.bulkImport = bulkImport;
+    }
+
+    public FineractSmsProperties getSms() {
+        return sms;
+    }
+
+    public void setSms(FineractSmsProperties sms) {
+        this.sms = sms;
+    }
+
     public static class FineractTenantProperties {
 
         private String host;
@@ -128,4 +210,286 @@ public class FineractProperties {
             this.description = description;
         }
     }
+
+    public static class FineractPartitionedJobProperties {
+
+        private int threadPoolSize = 4;
+        private int chunkSize = 100;
+        private boolean clusterEnabled = false;
+        private int leaseSeconds = 60;
+        private int pollIntervalSeconds = 5;
+
+        public int getThreadPoolSize() {
+            return threadPoolSize;
+        }
+
+        public void setThreadPoolSize(int threadPoolSize) {
+            this.threadPoolSize = threadPoolSize;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public boolean isClusterEnabled() {
+            return clusterEnabled;
+        }
+
+        public void setClusterEnabled(boolean clusterEnabled) {
+            this.clusterEnabled = clusterEnabled;
+        }
+
+        public int getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(int leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        public int getPollIntervalSeconds() {
+            return pollIntervalSeconds;
+        }
+
+        public void setPollIntervalSeconds(int pollIntervalSeconds) {
+            this.pollIntervalSeconds = pollIntervalSeconds;
+        }
+    }
+
+    public static class FineractCacheProperties {
+
+        private FineractCacheSpecProperties defaults = new FineractCacheSpecProperties();
+        private Map<String, FineractCacheSpecProperties> caches = new HashMap<>();
+
+        public FineractCacheSpecProperties getDefaults() {
+            return defaults;
+        }
+
+        public void setDefaults(FineractCacheSpecProperties defaults) {
+            this.defaults = defaults;
+        }
+
+        public Map<String, FineractCacheSpecProperties> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, FineractCacheSpecProperties> caches) {
+            this.caches = caches;
+        }
+    }
+
+    /**
+     * Sizing and expiry of a cache; unset values of a named cache are taken from the defaults.
+     */
+    public static class FineractCacheSpecProperties {
+
+        private Long heapEntries;
+        private Long offHeapMb;
+        private Long timeToLiveSeconds;
+        private Long timeToIdleSeconds;
+
+        public Long getHeapEntries() {
+            return heapEntries;
+        }
+
+        public void setHeapEntries(Long heapEntries) {
+            this.heapEntries = heapEntries;
+        }
+
+        public Long getOffHeapMb() {
+            return offHeapMb;
+        }
+
+        public void setOffHeapMb(Long offHeapMb) {
+            this.offHeapMb = offHeapMb;
+        }
+
+        public Long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Long getTimeToIdleSeconds() {
+            return timeToIdleSeconds;
+        }
+
+        public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+            this.timeToIdleSeconds = timeToIdleSeconds;
+        }
+    }
+
+    public static class FineractConfigurationProperties {
+
+        private int versionCheckIntervalSeconds = 5;
+
+        public int getVersionCheckIntervalSeconds() {
+            return versionCheckIntervalSeconds;
+        }
+
+        public void setVersionCheckIntervalSeconds(int versionCheckIntervalSeconds) {
+            this.versionCheckIntervalSeconds = versionCheckIntervalSeconds;
+        }
+    }
+
+    public static class FineractBatchProperties {
+
+        private int parallelThreadPoolSize = 8;
+
+        public int getParallelThreadPoolSize() {
+            return parallelThreadPoolSize;
+        }
+
+        public void setParallelThreadPoolSize(int parallelThreadPoolSize) {
+            this.parallelThreadPoolSize = parallelThreadPoolSize;
+        }
+    }
+
+    public static class FineractHookProperties {
+
+        private int workerThreads = 4;
+        private int queueCapacity = 1000;
+        private int maxAttempts = 5;
+        private int retryInitialDelaySeconds = 2;
+        private int retryMaxDelaySeconds = 300;
+        private int maxConcurrentRequestsPerEndpoint = 4;
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public int getRetryInitialDelaySeconds() {
+            return retryInitialDelaySeconds;
+        }
+
+        public void setRetryInitialDelaySeconds(int retryInitialDelaySeconds) {
+            this.retryInitialDelaySeconds = retryInitialDelaySeconds;
+        }
+
+        public int getRetryMaxDelaySeconds() {
+            return retryMaxDelaySeconds;
+        }
+
+        public void setRetryMaxDelaySeconds(int retryMaxDelaySeconds) {
+            this.retryMaxDelaySeconds = retryMaxDelaySeconds;
+        }
+
+        public int getMaxConcurrentRequestsPerEndpoint() {
+            return maxConcurrentRequestsPerEndpoint;
+        }
+
+        public void setMaxConcurrentRequestsPerEndpoint(int maxConcurrentRequestsPerEndpoint) {
+            this.maxConcurrentRequestsPerEndpoint = maxConcurrentRequestsPerEndpoint;
+        }
+    }
+
+    public static class FineractAuditProperties {
+
+        private boolean writeBehindEnabled = false;
+        private int flushIntervalMillis = 1000;
+        private int flushBatchSize = 500;
+        private int sweepIntervalSeconds = 60;
+
+        public boolean isWriteBehindEnabled() {
+            return writeBehindEnabled;
+        }
+
+        public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+            this.writeBehindEnabled = writeBehindEnabled;
+        }
+
+        public int getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(int flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        public int getFlushBatchSize() {
+            return flushBatchSize;
+        }
+
+        public void setFlushBatchSize(int flushBatchSize) {
+            this.flushBatchSize = flushBatchSize;
+        }
+
+        public int getSweepIntervalSeconds() {
+            return sweepIntervalSeconds;
+        }
+
+        public void setSweepIntervalSeconds(int sweepIntervalSeconds) {
+            this.sweepIntervalSeconds = sweepIntervalSeconds;
+        }
+    }
+
+    public static class FineractBulkImportProperties {
+
+        private int threadPoolSize = 4;
+        private int chunkSize = 100;
+
+        public int getThreadPoolSize() {
+            return threadPoolSize;
+        }
+
+        public void setThreadPoolSize(int threadPoolSize) {
+            this.threadPoolSize = threadPoolSize;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class FineractSmsProperties {
+
+        private int batchSize = 500;
+        private int maxConcurrentRequestsPerProvider = 4;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxConcurrentRequestsPerProvider() {
+            return maxConcurrentRequestsPerProvider;
+        }
+
+        public void setMaxConcurrentRequestsPerProvider(int maxConcurrentRequestsPerProvider) {
+            this.maxConcurrentRequestsPerProvider = maxConcurrentRequestsPerProvider;
+        }
+    }
 }
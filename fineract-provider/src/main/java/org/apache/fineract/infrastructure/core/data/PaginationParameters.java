@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.core.data;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.service.KeysetParameters;
 
 /**
  * <p>
@@ -32,6 +33,7 @@ public final class PaginationParameters {
     private final Integer limit;
     private final String orderBy;
     private final String sortOrder;
+    private final KeysetParameters keyset;
 
     public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
         if (null == paged) {
@@ -49,6 +51,23 @@ public final class PaginationParameters {
         this.limit = limit;
         this.orderBy = orderBy;
         this.sortOrder = sortOrder;
+        this.keyset = null;
+    }
+
+    private PaginationParameters(final PaginationParameters parameters, final KeysetParameters keyset) {
+        this.paged = parameters.paged;
+        this.offset = parameters.offset;
+        this.limit = parameters.limit;
+        this.orderBy = parameters.orderBy;
+        this.sortOrder = parameters.sortOrder;
+        this.keyset = keyset;
+    }
+
+    /**
+     * Returns a copy of these parameters paginated by keyset instead of offset when keyset is not null.
+     */
+    public PaginationParameters withKeyset(final KeysetParameters keyset) {
+        return keyset == null ? this : new PaginationParameters(this, keyset);
     }
 
     public static Integer getCheckedLimit(final Integer limit) {
@@ -71,6 +90,10 @@ public final class PaginationParameters {
         return this.paged;
     }
 
+    public KeysetParameters getKeyset() {
+        return this.keyset;
+    }
+
     public Integer getOffset() {
         return this.offset;
     }
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.core.domain;
 
+import java.sql.Connection;
 import javax.sql.DataSource;
 import org.apache.commons.lang3.StringUtils;
 
@@ -49,6 +50,12 @@ public class FineractPlatformTenantConnection {
     private final int maxRetriesOnDeadlock;
     private final int maxIntervalBetweenRetries;
     private final boolean testOnBorrow;
+    private final String readOnlySchemaServer;
+    private final String readOnlySchemaServerPort;
+    private final String readOnlySchemaName;
+    private final String readOnlySchemaUsername;
+    private final String readOnlySchemaPassword;
+    private final String readOnlySchemaConnectionParameters;
 
     public FineractPlatformTenantConnection(final Long connectionId, final String schemaName, String schemaServer,
             final String schemaServerPort, final String schemaConnectionParameters, final String schemaUsername,
@@ -56,7 +63,9 @@ public class FineractPlatformTenantConnection {
             final boolean removeAbandoned, final int removeAbandonedTimeout, final boolean logAbandoned,
             final int abandonWhenPercentageFull, final int maxActive, final int minIdle, final int maxIdle, final int suspectTimeout,
             final int timeBetweenEvictionRunsMillis, final int minEvictableIdleTimeMillis, final int maxRetriesOnDeadlock,
-            final int maxIntervalBetweenRetries, final boolean tesOnBorrow) {
+            final int maxIntervalBetweenRetries, final boolean tesOnBorrow, final String readOnlySchemaServer,
+            final String readOnlySchemaServerPort, final String readOnlySchemaName, final String readOnlySchemaUsername,
+            final String readOnlySchemaPassword, final String readOnlySchemaConnectionParameters) {
 
         this.connectionId = connectionId;
         this.schemaName = schemaName;
@@ -81,6 +90,12 @@ public class FineractPlatformTenantConnection {
         this.maxRetriesOnDeadlock = maxRetriesOnDeadlock;
         this.maxIntervalBetweenRetries = maxIntervalBetweenRetries;
         this.testOnBorrow = tesOnBorrow;
+        this.readOnlySchemaServer = readOnlySchemaServer;
+        this.readOnlySchemaServerPort = readOnlySchemaServerPort;
+        this.readOnlySchemaName = readOnlySchemaName;
+        this.readOnlySchemaUsername = readOnlySchemaUsername;
+        this.readOnlySchemaPassword = readOnlySchemaPassword;
+        this.readOnlySchemaConnectionParameters = readOnlySchemaConnectionParameters;
     }
 
     public String getSchemaServer() {
@@ -175,6 +190,38 @@ public class FineractPlatformTenantConnection {
         return schemaName;
     }
 
+    /**
+     * A read replica is configured when its server is set; its port, schema name, credentials and connection parameters
+     * default to the ones of the primary.
+     */
+    public boolean isReadReplicaConfigured() {
+        return StringUtils.isNotBlank(this.readOnlySchemaServer);
+    }
+
+    public String getReadOnlySchemaServer() {
+        return this.readOnlySchemaServer;
+    }
+
+    public String getReadOnlySchemaServerPort() {
+        return StringUtils.defaultIfBlank(this.readOnlySchemaServerPort, this.schemaServerPort);
+    }
+
+    public String getReadOnlySchemaName() {
+        return StringUtils.defaultIfBlank(this.readOnlySchemaName, this.schemaName);
+    }
+
+    public String getReadOnlySchemaUsername() {
+        return StringUtils.defaultIfBlank(this.readOnlySchemaUsername, this.schemaUsername);
+    }
+
+    public String getReadOnlySchemaPassword() {
+        return StringUtils.defaultIfBlank(this.readOnlySchemaPassword, this.schemaPassword);
+    }
+
+    public String getReadOnlySchemaConnectionParameters() {
+        return StringUtils.defaultIfBlank(this.readOnlySchemaConnectionParameters, this.schemaConnectionParameters);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(this.schemaName).append(":").append(this.schemaServer).append(":")
@@ -196,8 +243,8 @@ public class FineractPlatformTenantConnection {
     }
 
     public static String toProtocol(DataSource dataSource) {
-        try {
-            String url = dataSource.getConnection().getMetaData().getURL();
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
             return url.substring(0, url.indexOf("://"));
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -27,7 +27,10 @@ import java.time.MonthDay;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.fineract.infrastructure.core.api.DateAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaDateTimeAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaMonthDayAdapter;
@@ -40,19 +43,24 @@ import org.springframework.stereotype.Service;
 
 /**
  * Helper class for serialization of Java objects into JSON using Google's GSON.
+ *
+ * Serializers for partial responses are kept per (strategy, field set, pretty print) so that the type adapters Gson
+ * builds reflectively for each data class are reused across requests instead of being rebuilt for every response.
  */
 @Service
 public final class GoogleGsonSerializerHelper {
 
-    public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
-        final ExclusionStrategy strategy = new ParameterListInclusionStrategy(responseParameters);
+    private static final int MAX_CACHED_SERIALIZERS = 512;
 
-        final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
-        registerTypeAdapters(builder);
-        if (prettyPrint) {
-            builder.setPrettyPrinting();
+    private final Map<SerializerKey, Gson> serializers = new ConcurrentHashMap<>();
+
+    public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
+        final SerializerKey key = new SerializerKey(true, prettyPrint, responseParameters);
+        final Gson serializer = this.serializers.get(key);
+        if (serializer != null) {
+            return serializer;
         }
-        return builder.create();
+        return cache(key, createGson(new ParameterListInclusionStrategy(key.parameterNames), prettyPrint));
     }
 
     public Gson createGsonBuilderWithParameterExclusionSerializationStrategy(final Set<String> supportedParameters,
@@ -74,8 +82,24 @@ public final class GoogleGsonSerializerHelper {
             parameterNamesToSkip.removeAll(responseParameters);
         }
 
-        final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
+        final SerializerKey key = new SerializerKey(false, prettyPrint, parameterNamesToSkip);
+        final Gson serializer = this.serializers.get(key);
+        if (serializer != null) {
+            return serializer;
+        }
+        return cache(key, createGson(new ParameterListExclusionStrategy(key.parameterNames), prettyPrint));
+    }
 
+    private Gson cache(final SerializerKey key, final Gson serializer) {
+        // field sets come from the request, so bound the number of distinct combinations kept around
+        if (this.serializers.size() >= MAX_CACHED_SERIALIZERS) {
+            this.serializers.clear();
+        }
+        final Gson existing = this.serializers.putIfAbsent(key, serializer);
+        return existing != null ? existing : serializer;
+    }
+
+    private static Gson createGson(final ExclusionStrategy strategy, final boolean prettyPrint) {
         final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
         registerTypeAdapters(builder);
         if (prettyPrint) {
@@ -113,4 +137,35 @@ public final class GoogleGsonSerializerHelper {
         builder.registerTypeAdapter(ZonedDateTime.class, new JodaDateTimeAdapter());
         builder.registerTypeAdapter(MonthDay.class, new JodaMonthDayAdapter());
     }
+
+    private static final class SerializerKey {
+
+        private final boolean inclusion;
+        private final boolean prettyPrint;
+        private final Set<String> parameterNames;
+
+        SerializerKey(final boolean inclusion, final boolean prettyPrint, final Set<String> parameterNames) {
+            this.inclusion = inclusion;
+            this.prettyPrint = prettyPrint;
+            this.parameterNames = Set.copyOf(parameterNames);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SerializerKey)) {
+                return false;
+            }
+            final SerializerKey that = (SerializerKey) o;
+            return this.inclusion == that.inclusion && this.prettyPrint == that.prettyPrint
+                    && this.parameterNames.equals(that.parameterNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.inclusion, this.prettyPrint, this.parameterNames);
+        }
+    }
 }
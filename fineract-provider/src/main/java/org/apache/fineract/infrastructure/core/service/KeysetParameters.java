@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import javax.ws.rs.core.MultivaluedMap;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+
+/**
+ * Parameters of a keyset (seek) paginated request: the page of rows that follow the row identified by the opaque
+ * {@code after} cursor, in the order of the primary key of the listed resource.
+ *
+ * Unlike offset pagination, fetching a page costs the same however deep it is, and the total number of rows is only
+ * counted when {@code withTotalCount=true} is passed. The first page is requested with an empty {@code after}; every
+ * page returns the cursor of the next one, until the last page which has none.
+ */
+public final class KeysetParameters {
+
+    public static final String AFTER_PARAMETER = "after";
+    public static final String WITH_TOTAL_COUNT_PARAMETER = "withTotalCount";
+
+    private static final String CURSOR_PREFIX = "k1:";
+
+    private final Long afterKey;
+    private final int limit;
+    private final boolean descending;
+    private final boolean totalCountRequested;
+
+    /**
+     * Returns the keyset parameters of the request, or null when it does not ask for keyset pagination.
+     */
+    public static KeysetParameters fromQueryParameters(final MultivaluedMap<String, String> queryParameters, final Integer limit,
+            final String orderBy, final String sortOrder) {
+        final String after = queryParameters.getFirst(AFTER_PARAMETER);
+        if (after == null) {
+            return null;
+        }
+
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        if (StringUtils.isNotBlank(orderBy)) {
+            dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.after.cannot.be.combined.with.orderBy",
+                    "Keyset pagination with `after` is ordered by id and cannot be combined with orderBy", "orderBy", orderBy));
+        }
+        final boolean descending = "DESC".equalsIgnoreCase(sortOrder);
+        if (StringUtils.isNotBlank(sortOrder) && !descending && !"ASC".equalsIgnoreCase(sortOrder)) {
+            dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.sortOrder.value.is.not.supported",
+                    "The sortOrder value '" + sortOrder + "' is not supported. The supported sortOrder values are [ASC, DESC]", "sortOrder",
+                    sortOrder));
+        }
+        final Long afterKey = StringUtils.isEmpty(after) ? null : decode(after);
+        if (StringUtils.isNotEmpty(after) && afterKey == null) {
+            dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.after.invalid",
+                    "The after value '" + after + "' is not a cursor returned by a previous page", AFTER_PARAMETER, after));
+        }
+        if (!dataValidationErrors.isEmpty()) {
+            throw new PlatformApiDataValidationException(dataValidationErrors);
+        }
+
+        final Integer checkedLimit = SearchParameters.getCheckedLimit(limit);
+        final int pageLimit = checkedLimit == null ? SearchParameters.getCheckedLimit(null) : checkedLimit;
+        final boolean totalCountRequested = "true".equalsIgnoreCase(queryParameters.getFirst(WITH_TOTAL_COUNT_PARAMETER));
+
+        return new KeysetParameters(afterKey, pageLimit, descending, totalCountRequested);
+    }
+
+    private KeysetParameters(final Long afterKey, final int limit, final boolean descending, final boolean totalCountRequested) {
+        this.afterKey = afterKey;
+        this.limit = limit;
+        this.descending = descending;
+        this.totalCountRequested = totalCountRequested;
+    }
+
+    static String encode(final long key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decode(final String cursor) {
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                return null;
+            }
+            return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (final IllegalArgumentException e) {
+            // also covers NumberFormatException
+            return null;
+        }
+    }
+
+    public boolean isFirstPage() {
+        return this.afterKey == null;
+    }
+
+    public Long getAfterKey() {
+        return this.afterKey;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    public boolean isDescending() {
+        return this.descending;
+    }
+
+    public boolean isTotalCountRequested() {
+        return this.totalCountRequested;
+    }
+}
@@ -23,19 +23,33 @@ import java.util.List;
 
 public class Page<E> implements Serializable {
 
-    private final int totalFilteredRecords;
+    private final Integer totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextAfter;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, Integer.valueOf(totalFilteredRecords), null);
+    }
+
+    /**
+     * Page of a keyset paginated request: the total is null unless it was requested, and nextAfter is the cursor of the
+     * following page or null on the last page.
+     */
+    public Page(final List<E> pageItems, final Integer totalFilteredRecords, final String nextAfter) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextAfter = nextAfter;
     }
 
-    public int getTotalFilteredRecords() {
+    public Integer getTotalFilteredRecords() {
         return this.totalFilteredRecords;
     }
 
     public List<E> getPageItems() {
         return this.pageItems;
     }
+
+    public String getNextAfter() {
+        return this.nextAfter;
+    }
 }
@@ -18,8 +18,10 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.util.Arrays;
 import java.util.List;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.fineract.infrastructure.core.data.PaginationParameters;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,6 +57,62 @@ public class PaginationHelper {
         return new Page<>(items, totalFilteredRecords);
     }
 
+    /**
+     * Returns {@link DatabaseSpecificSQLGenerator#calcFoundRows()} for offset paginated requests; keyset paginated pages
+     * are not counted with FOUND_ROWS(), which would make MySQL scan every matching row.
+     */
+    public String calcFoundRows(final SearchParameters searchParameters) {
+        return calcFoundRows(searchParameters == null ? null : searchParameters.getKeyset());
+    }
+
+    public String calcFoundRows(final PaginationParameters parameters) {
+        return calcFoundRows(parameters == null ? null : parameters.getKeyset());
+    }
+
+    private String calcFoundRows(final KeysetParameters keyset) {
+        return keyset == null ? sqlGenerator.calcFoundRows() : "";
+    }
+
+    /**
+     * Fetches the keyset paginated page of sqlFetchRows, which must end within its where clause (no order by or limit) and
+     * select keyColumn under its own name (e.g. c.id as id).
+     */
+    public <E> Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object[] args, final RowMapper<E> rowMapper,
+            final KeysetParameters keyset, final String keyColumn) {
+        return fetchPage(jt, sqlFetchRows, args, rowMapper, keyset, keyColumn, keyColumn.substring(keyColumn.lastIndexOf('.') + 1));
+    }
+
+    /**
+     * Fetches the keyset paginated page of sqlFetchRows, which selects keyColumn under keyLabel (e.g. tr.id as
+     * transactionId).
+     */
+    public <E> Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object[] args, final RowMapper<E> rowMapper,
+            final KeysetParameters keyset, final String keyColumn, final String keyLabel) {
+        final StringBuilder sqlBuilder = new StringBuilder(sqlFetchRows);
+        Object[] pageArgs = args;
+        if (!keyset.isFirstPage()) {
+            sqlBuilder.append(" and ").append(keyColumn).append(keyset.isDescending() ? " < ?" : " > ?");
+            pageArgs = Arrays.copyOf(args, args.length + 1);
+            pageArgs[args.length] = keyset.getAfterKey();
+        }
+        sqlBuilder.append(" order by ").append(keyColumn).append(keyset.isDescending() ? " desc " : " asc ")
+                .append(sqlGenerator.limit(keyset.getLimit()));
+
+        final long[] lastKey = new long[1];
+        final List<E> items = jt.query(sqlBuilder.toString(), (rs, rowNum) -> {
+            lastKey[0] = rs.getLong(keyLabel);
+            return rowMapper.mapRow(rs, rowNum);
+        }, pageArgs);
+
+        Integer totalFilteredRecords = null;
+        if (keyset.isTotalCountRequested()) {
+            totalFilteredRecords = jt.queryForObject(sqlGenerator.countQueryResult(sqlFetchRows), Integer.class, args);
+        }
+        final String nextAfter = items.size() < keyset.getLimit() ? null : KeysetParameters.encode(lastKey[0]);
+
+        return new Page<>(items, totalFilteredRecords, nextAfter);
+    }
+
     public <E> Page<Long> fetchPage(JdbcTemplate jdbcTemplate, String sql, Class<Long> type) {
         final List<Long> items = jdbcTemplate.queryForList(sql, type);
 
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the execution of read services - the *ReadPlatformServiceImpl classes, which include search, and the running
+ * of reports - so that their queries can be served by the read replica of the tenant, see
+ * {@link ReadReplicaRoutingContext}.
+ */
+@Aspect
+@Component
+public class ReadReplicaRoutingAspect {
+
+    @Around("execution(public * org.apache.fineract..*ReadPlatformServiceImpl.*(..))"
+            + " || execution(public * org.apache.fineract.infrastructure.dataqueries.service.ReadReportingServiceImpl.*(..))")
+    public Object routeReadService(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!ReadReplicaRoutingContext.isReadOnlyRequest()) {
+            return joinPoint.proceed();
+        }
+        ReadReplicaRoutingContext.enterReadService();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadReplicaRoutingContext.exitReadService();
+        }
+    }
+}
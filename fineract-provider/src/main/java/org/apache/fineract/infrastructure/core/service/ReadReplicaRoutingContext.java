@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+/**
+ * Thread bound state deciding whether the JDBC connections of the current thread may come from the read replica of the
+ * tenant (see {@link TomcatJdbcDataSourcePerTenantService}).
+ *
+ * Connections are taken from the replica only while all of the following hold:
+ * <ul>
+ * <li>the thread serves an API request that does not change data (a GET request),</li>
+ * <li>the thread runs inside a read service (see {@link ReadReplicaRoutingAspect}), and</li>
+ * <li>no read-write transaction is in progress on the thread.</li>
+ * </ul>
+ * Everything else, in particular scheduled jobs and event listeners, keeps using the primary database, so that data
+ * that is about to be changed is never read from a replica that may lag behind.
+ */
+public final class ReadReplicaRoutingContext {
+
+    private ReadReplicaRoutingContext() {
+
+    }
+
+    private static final ThreadLocal<Boolean> readOnlyRequest = new ThreadLocal<>();
+
+    private static final ThreadLocal<Integer> readServiceDepth = ThreadLocal.withInitial(() -> 0);
+
+    private static final ThreadLocal<Integer> readWriteTransactionDepth = ThreadLocal.withInitial(() -> 0);
+
+    public static void setReadOnlyRequest(final boolean readOnly) {
+        readOnlyRequest.set(readOnly);
+    }
+
+    public static void clearReadOnlyRequest() {
+        readOnlyRequest.remove();
+    }
+
+    public static boolean isReadOnlyRequest() {
+        return Boolean.TRUE.equals(readOnlyRequest.get());
+    }
+
+    public static void enterReadService() {
+        readServiceDepth.set(readServiceDepth.get() + 1);
+    }
+
+    public static void exitReadService() {
+        readServiceDepth.set(readServiceDepth.get() - 1);
+    }
+
+    public static void beginReadWriteTransaction() {
+        readWriteTransactionDepth.set(readWriteTransactionDepth.get() + 1);
+    }
+
+    public static void endReadWriteTransaction() {
+        readWriteTransactionDepth.set(readWriteTransactionDepth.get() - 1);
+    }
+
+    public static boolean isReadReplicaAllowed() {
+        return isReadOnlyRequest() && readServiceDepth.get() > 0 && readWriteTransactionDepth.get() == 0;
+    }
+}
@@ -49,6 +49,7 @@ public final class SearchParameters {
     private final Long productId;
     private final Long categoryId;
     private final boolean isSelfUser;
+    private final KeysetParameters keyset;
 
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
@@ -269,6 +270,7 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
         this.status = null;
+        this.keyset = null;
 
     }
 
@@ -298,6 +300,7 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
         this.status = status;
+        this.keyset = null;
 
     }
 
@@ -327,6 +330,7 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
         this.status = null;
+        this.keyset = null;
     }
 
     private SearchParameters(final Long provisioningEntryId, final Long officeId, final Long productId, final Long categoryId,
@@ -353,6 +357,7 @@ public final class SearchParameters {
         this.categoryId = categoryId;
         this.isSelfUser = false;
         this.status = null;
+        this.keyset = null;
 
     }
 
@@ -382,7 +387,41 @@ public final class SearchParameters {
         this.categoryId = null;
         this.isSelfUser = false;
         this.status = null;
+        this.keyset = null;
+
+    }
+
+    private SearchParameters(final SearchParameters searchParameters, final KeysetParameters keyset) {
+        this.sqlSearch = searchParameters.sqlSearch;
+        this.officeId = searchParameters.officeId;
+        this.externalId = searchParameters.externalId;
+        this.name = searchParameters.name;
+        this.hierarchy = searchParameters.hierarchy;
+        this.firstname = searchParameters.firstname;
+        this.lastname = searchParameters.lastname;
+        this.offset = searchParameters.offset;
+        this.limit = searchParameters.limit;
+        this.orderBy = searchParameters.orderBy;
+        this.sortOrder = searchParameters.sortOrder;
+        this.staffId = searchParameters.staffId;
+        this.accountNo = searchParameters.accountNo;
+        this.loanId = searchParameters.loanId;
+        this.savingsId = searchParameters.savingsId;
+        this.orphansOnly = searchParameters.orphansOnly;
+        this.currencyCode = searchParameters.currencyCode;
+        this.provisioningEntryId = searchParameters.provisioningEntryId;
+        this.productId = searchParameters.productId;
+        this.categoryId = searchParameters.categoryId;
+        this.isSelfUser = searchParameters.isSelfUser;
+        this.status = searchParameters.status;
+        this.keyset = keyset;
+    }
 
+    /**
+     * Returns a copy of these parameters paginated by keyset instead of offset when keyset is not null.
+     */
+    public SearchParameters withKeyset(final KeysetParameters keyset) {
+        return keyset == null ? this : new SearchParameters(this, keyset);
     }
 
     public boolean isOrderByRequested() {
@@ -544,6 +583,10 @@ public final class SearchParameters {
         return this.isSelfUser;
     }
 
+    public KeysetParameters getKeyset() {
+        return this.keyset;
+    }
+
     /**
      * creates an instance of the SearchParameters from a request for the report mailing job run history
      *
@@ -23,8 +23,8 @@ import static org.apache.fineract.infrastructure.core.domain.FineractPlatformTen
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
@@ -36,12 +36,17 @@ import org.springframework.stereotype.Service;
  * Implementation that returns a new or existing connection pool datasource based on the tenant details stored in a
  * {@link ThreadLocal} variable for this request.
  *
- * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request. When the tenant
+ * connection has a read replica configured and {@link ReadReplicaRoutingContext} allows it, the connection pool of the
+ * replica is returned instead.
+ *
+ * The pools are created once per tenant connection and looked up without locking, as this runs for every JDBC access.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final Map<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final Map<Long, DataSource> tenantToReadReplicaDataSourceMap = new ConcurrentHashMap<>();
     private final DataSource tenantDataSource;
 
     @Autowired
@@ -54,27 +59,30 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
     @Override
     public DataSource retrieveDataSource() {
-        // default to tenant database datasource
-        DataSource tenantDataSource = this.tenantDataSource;
-
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
-            }
+        if (tenant == null) {
+            // default to tenant database datasource
+            return this.tenantDataSource;
+        }
+
+        // if tenantConnection information available switch to the
+        // appropriate datasource for that tenant.
+        final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+        if (tenantConnection.isReadReplicaConfigured() && ReadReplicaRoutingContext.isReadReplicaAllowed()) {
+            return retrieveDataSource(this.tenantToReadReplicaDataSourceMap, tenantConnection, true);
         }
+        return retrieveDataSource(this.tenantToDataSourceMap, tenantConnection, false);
+    }
 
-        return tenantDataSource;
+    private DataSource retrieveDataSource(final Map<Long, DataSource> dataSources, final FineractPlatformTenantConnection tenantConnection,
+            final boolean readReplica) {
+        final DataSource dataSource = dataSources.get(tenantConnection.getConnectionId());
+        if (dataSource != null) {
+            return dataSource;
+        }
+        return dataSources.computeIfAbsent(tenantConnection.getConnectionId(), connectionId -> readReplica
+                ? createNewReadReplicaDataSourceFor(tenantConnection)
+                : createNewDataSourceFor(tenantConnection));
     }
 
     // creates the tenant data source for the oltp and report database
@@ -83,12 +91,35 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         String jdbcUrl = toJdbcUrl(protocol, tenantConnectionObj.getSchemaServer(), tenantConnectionObj.getSchemaServerPort(),
                 tenantConnectionObj.getSchemaName(), tenantConnectionObj.getSchemaConnectionParameters());
 
-        HikariConfig config = new HikariConfig();
-        config.setDriverClassName(hikariConfig.getDriverClassName());
+        HikariConfig config = createConfigFor(tenantConnectionObj);
         config.setPoolName(tenantConnectionObj.getSchemaName() + "_pool");
         config.setJdbcUrl(jdbcUrl);
         config.setUsername(tenantConnectionObj.getSchemaUsername());
         config.setPassword(tenantConnectionObj.getSchemaPassword());
+
+        return new HikariDataSource(config);
+    }
+
+    // creates the data source for the read replica of the oltp and report database
+    private DataSource createNewReadReplicaDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
+        String protocol = toProtocol(this.tenantDataSource);
+        String jdbcUrl = toJdbcUrl(protocol, tenantConnectionObj.getReadOnlySchemaServer(),
+                tenantConnectionObj.getReadOnlySchemaServerPort(), tenantConnectionObj.getReadOnlySchemaName(),
+                tenantConnectionObj.getReadOnlySchemaConnectionParameters());
+
+        HikariConfig config = createConfigFor(tenantConnectionObj);
+        config.setPoolName(tenantConnectionObj.getSchemaName() + "_replica_pool");
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(tenantConnectionObj.getReadOnlySchemaUsername());
+        config.setPassword(tenantConnectionObj.getReadOnlySchemaPassword());
+        config.setReadOnly(true);
+
+        return new HikariDataSource(config);
+    }
+
+    private HikariConfig createConfigFor(final FineractPlatformTenantConnection tenantConnectionObj) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(hikariConfig.getDriverClassName());
         config.setMinimumIdle(tenantConnectionObj.getInitialSize());
         config.setMaximumPoolSize(tenantConnectionObj.getMaxActive());
         config.setConnectionTestQuery(hikariConfig.getConnectionTestQuery());
@@ -104,6 +135,6 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         // for the all Tenants DB -->
         config.setDataSourceProperties(hikariConfig.getDataSourceProperties());
 
-        return new HikariDataSource(config);
+        return config;
     }
 }
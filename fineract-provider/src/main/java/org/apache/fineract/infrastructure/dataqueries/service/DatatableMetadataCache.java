@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.cache.service.VersionedTenantCache;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the column headers of the datatables of each tenant, together with the code values of their code columns, so
+ * that reading or writing a datatable entry does not query the database schema and the code tables every time.
+ *
+ * Creating, changing or deleting a datatable, a code or a code value increments the version stored in
+ * x_datatable_metadata_version within the changing transaction, see {@link VersionedTenantCache}; other nodes check that
+ * version at most every {@code fineract.configuration.version-check-interval-seconds}.
+ */
+@Component
+public class DatatableMetadataCache {
+
+    private final VersionedTenantCache<Map<String, List<ResultsetColumnHeaderData>>> columnHeadersByTenant;
+
+    @Autowired
+    public DatatableMetadataCache(final RoutingDataSource dataSource, final FineractProperties fineractProperties) {
+        this.columnHeadersByTenant = new VersionedTenantCache<>(new JdbcTemplate(dataSource), "Datatable metadata",
+                "x_datatable_metadata_version", fineractProperties.getConfiguration().getVersionCheckIntervalSeconds() * 1000L);
+    }
+
+    /**
+     * Returns the column headers of the datatable of the current tenant, loading them with loader when they are not
+     * cached yet. The returned list may be modified by the caller; the headers themselves are shared.
+     */
+    public List<ResultsetColumnHeaderData> getColumnHeaders(final String datatable,
+            final Function<String, List<ResultsetColumnHeaderData>> loader) {
+        final Map<String, List<ResultsetColumnHeaderData>> columnHeadersByDatatable = this.columnHeadersByTenant
+                .current(version -> new ConcurrentHashMap<>());
+        List<ResultsetColumnHeaderData> columnHeaders = columnHeadersByDatatable.get(datatable);
+        if (columnHeaders == null) {
+            // loaded outside of the map, a concurrent load of the same datatable only costs the queries twice
+            columnHeaders = loader.apply(datatable);
+            columnHeadersByDatatable.put(datatable, columnHeaders);
+        }
+        return new ArrayList<>(columnHeaders);
+    }
+
+    /**
+     * Records a change of the definition of a datatable or of the codes its columns refer to: increments the stored
+     * version as part of the current transaction and drops the headers of the current tenant once it has completed.
+     *
+     * On MySQL a DDL statement commits the running transaction, so call this after the DDL has been executed; otherwise
+     * another node could reload the old definition under the new version.
+     */
+    public void datatableMetadataChanged() {
+        this.columnHeadersByTenant.changed();
+    }
+}
@@ -18,13 +18,11 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
-import java.io.File;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
@@ -64,28 +62,30 @@ public class DatatableReportingProcessService implements ReportingProcessService
         // PDF format
         if (exportPdf) {
             final Map<String, String> reportParams = getReportParams(queryParams);
-            final String pdfFileName = this.readExtraDataAndReportingService.retrieveReportPDF(reportName, parameterTypeValue, reportParams,
-                    isSelfServiceUserReport);
+            final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportPDF(reportName, parameterTypeValue,
+                    reportParams, isSelfServiceUserReport);
 
-            final File file = new File(pdfFileName);
-
-            final ResponseBuilder response = Response.ok(file);
-            response.header("Content-Disposition", "attachment; filename=\"" + pdfFileName + "\"");
-            response.header("content-Type", "application/pdf");
-
-            return response.build();
+            return Response.ok().entity(result).type("application/pdf")
+                    .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".pdf").build();
         }
 
         // JSON format
         if (!exportCsv) {
             final Map<String, String> reportParams = getReportParams(queryParams);
+            final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(queryParams);
+            final boolean genericResultSet = ApiParameterHelper.genericResultSet(queryParams);
+
+            // large reports can opt in to being written row by row instead of built up in memory
+            if (ApiParameterHelper.stream(queryParams) && !prettyPrint) {
+                final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJSON(reportName, parameterTypeValue,
+                        reportParams, isSelfServiceUserReport, !genericResultSetIsPassed || genericResultSet);
+                return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+            }
 
             final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
                     parameterTypeValue, reportParams, isSelfServiceUserReport);
 
             String json;
-            final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(queryParams);
-            final boolean genericResultSet = ApiParameterHelper.genericResultSet(queryParams);
             if (genericResultSetIsPassed) {
                 if (genericResultSet) {
                     json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
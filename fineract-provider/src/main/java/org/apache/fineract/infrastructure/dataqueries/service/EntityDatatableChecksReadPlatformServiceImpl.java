@@ -85,10 +85,11 @@ public class EntityDatatableChecksReadPlatformServiceImpl implements EntityDatat
     public Page<EntityDataTableChecksData> retrieveAll(SearchParameters searchParameters, final Long status, final String entity,
             final Long productId) {
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.entityDataTableChecksMapper.schema());
 
-        if (status != null || entity != null || productId != null) {
+        final boolean hasWhereClause = status != null || entity != null || productId != null;
+        if (hasWhereClause) {
             sqlBuilder.append(" where ");
         }
         List<Object> paramList = new ArrayList<>();
@@ -107,6 +108,14 @@ public class EntityDatatableChecksReadPlatformServiceImpl implements EntityDatat
             paramList.add(productId);
         }
 
+        if (searchParameters.getKeyset() != null) {
+            if (!hasWhereClause) {
+                sqlBuilder.append(" where 1 = 1");
+            }
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(),
+                    entityDataTableChecksMapper, searchParameters.getKeyset(), "t.id");
+        }
+
         if (searchParameters.isLimited()) {
             sqlBuilder.append(" ");
             if (searchParameters.isOffset()) {
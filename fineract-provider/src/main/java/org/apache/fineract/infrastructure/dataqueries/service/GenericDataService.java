@@ -26,8 +26,19 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(String sql);
 
+    /**
+     * Runs the SQL on a forward-only result set and passes the rows to the handler as they are read, so that the
+     * resultset is never held in memory as a whole.
+     */
+    void streamGenericResultSet(String sql, GenericResultsetStreamHandler handler);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
+    /**
+     * Appends one row as a JSON object, in the format of {@link #generateJsonFromGenericResultsetData}.
+     */
+    void appendJsonObject(StringBuilder writer, List<ResultsetColumnHeaderData> columnHeaders, List<String> row);
+
     String replace(String str, String pattern, String replace);
 
     String wrapSQL(String sql);
@@ -18,11 +18,18 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoField;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -38,6 +45,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
@@ -51,15 +59,19 @@ public class GenericDataServiceImpl implements GenericDataService {
     private final DatabaseSpecificSQLGenerator sqlGenerator;
     private final DatabaseTypeResolver databaseTypeResolver;
     private final DatabaseIndependentQueryService databaseIndependentQueryService;
+    private final DatatableMetadataCache datatableMetadataCache;
     private static final Logger LOG = LoggerFactory.getLogger(GenericDataServiceImpl.class);
+    private static final int STREAMING_FETCH_SIZE = 1000;
 
     @Autowired
     public GenericDataServiceImpl(final RoutingDataSource dataSource, DatabaseSpecificSQLGenerator sqlGenerator,
-            DatabaseTypeResolver databaseTypeResolver, DatabaseIndependentQueryService databaseIndependentQueryService) {
+            DatabaseTypeResolver databaseTypeResolver, DatabaseIndependentQueryService databaseIndependentQueryService,
+            final DatatableMetadataCache datatableMetadataCache) {
         this.dataSource = dataSource;
         this.sqlGenerator = sqlGenerator;
         this.databaseTypeResolver = databaseTypeResolver;
         this.databaseIndependentQueryService = databaseIndependentQueryService;
+        this.datatableMetadataCache = datatableMetadataCache;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
 
     }
@@ -101,6 +113,52 @@ public class GenericDataServiceImpl implements GenericDataService {
         }
     }
 
+    @Override
+    public void streamGenericResultSet(final String sql, final GenericResultsetStreamHandler handler) {
+        try {
+            this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                // PostgreSQL only fetches through a cursor within a transaction
+                final boolean disableAutoCommit = this.databaseTypeResolver.isPostgreSQL() && connection.getAutoCommit();
+                if (disableAutoCommit) {
+                    connection.setAutoCommit(false);
+                }
+                try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+                    // MySQL Connector/J only streams row by row with this fetch size
+                    statement.setFetchSize(this.databaseTypeResolver.isMySQL() ? Integer.MIN_VALUE : STREAMING_FETCH_SIZE);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        final ResultSetMetaData rsmd = rs.getMetaData();
+                        final int columnCount = rsmd.getColumnCount();
+
+                        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columnCount);
+                        for (int i = 1; i <= columnCount; i++) {
+                            columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnName(i), rsmd.getColumnTypeName(i)));
+                        }
+                        handler.columnHeaders(columnHeaders);
+
+                        while (rs.next()) {
+                            final List<String> columnValues = new ArrayList<>(columnCount);
+                            for (int i = 1; i <= columnCount; i++) {
+                                columnValues.add(rs.getString(i));
+                            }
+                            handler.row(columnValues);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    if (disableAutoCommit) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName(), e);
+        }
+    }
+
     @Override
     public String replace(final String str, final String pattern, final String replace) {
         // JPW - this replace may / may not be any better or quicker than the
@@ -140,76 +198,84 @@ public class GenericDataServiceImpl implements GenericDataService {
         final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
 
         final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
+
+        for (int i = 0; i < data.size(); i++) {
+            writer.append("\n");
+            appendJsonObject(writer, columnHeaders, data.get(i).getRow());
+
+            if (i < (data.size() - 1)) {
+                writer.append(",");
+            }
+        }
+
+        writer.append("\n]");
+        return writer.toString();
+
+    }
+
+    @Override
+    public void appendJsonObject(final StringBuilder writer, final List<ResultsetColumnHeaderData> columnHeaders, final List<String> row) {
+        final Integer rSize = row.size();
         final String doubleQuote = "\"";
         final String slashDoubleQuote = "\\\"";
         String currColType;
         String currVal;
 
-        for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
-
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
+        writer.append("{");
+        for (int j = 0; j < rSize; j++) {
 
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
-                }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
+            writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
+            currColType = columnHeaders.get(j).getColumnDisplayType();
+            final String colType = columnHeaders.get(j).getColumnType();
+            if (currColType == null && colType.equalsIgnoreCase("INT")) {
+                currColType = "INTEGER";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                currColType = "VARCHAR";
+            }
+            if (currColType == null && colType.equalsIgnoreCase("DATE")) {
+                currColType = "DATE";
+            }
+            currVal = row.get(j);
+            if (currVal != null && currColType != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
+                    writer.append(currVal);
+                } else {
+                    if (currColType.equals("DATE")) {
+                        final LocalDate localDate = LocalDate.parse(currVal);
+                        writer.append(
+                                "[" + localDate.getYear() + ", " + localDate.getMonthValue() + ", " + localDate.getDayOfMonth() + "]");
+                    } else if (currColType.equals("DATETIME")) {
+                        final LocalDateTime localDateTime = LocalDateTime.parse(currVal);
+                        writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthValue() + ", "
+                                + localDateTime.getDayOfMonth() + " " + localDateTime.getHour() + ", " + localDateTime.getMinute() + ", "
+                                + localDateTime.getSecond() + ", " + localDateTime.get(ChronoField.MILLI_OF_SECOND) + "]");
                     } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = LocalDate.parse(currVal);
-                            writer.append(
-                                    "[" + localDate.getYear() + ", " + localDate.getMonthValue() + ", " + localDate.getDayOfMonth() + "]");
-                        } else if (currColType.equals("DATETIME")) {
-                            final LocalDateTime localDateTime = LocalDateTime.parse(currVal);
-                            writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthValue() + ", "
-                                    + localDateTime.getDayOfMonth() + " " + localDateTime.getHour() + ", " + localDateTime.getMinute()
-                                    + ", " + localDateTime.getSecond() + ", " + localDateTime.get(ChronoField.MILLI_OF_SECOND) + "]");
-                        } else {
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
-                        }
+                        writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
                     }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",\n");
                 }
-            }
-
-            if (i < (data.size() - 1)) {
-                writer.append("},");
             } else {
-                writer.append("}");
+                writer.append("null");
+            }
+            if (j < (rSize - 1)) {
+                writer.append(",\n");
             }
         }
-
-        writer.append("\n]");
-        return writer.toString();
-
+        writer.append("}");
     }
 
     @Override
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
+        return this.datatableMetadataCache.getColumnHeaders(datatable, this::retrieveResultsetColumnHeaders);
+    }
+
+    private List<ResultsetColumnHeaderData> retrieveResultsetColumnHeaders(final String datatable) {
 
         LOG.debug("::3 Was inside the fill ResultSetColumnHeader");
 
         final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
+        final Map<String, ColumnCode> codesByColumnAlias = getDatatableCodeData(datatable);
+        final String columnAliasPrefix = datatable.toLowerCase().replaceAll("\\s", "_") + "_";
 
         final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
 
@@ -244,11 +310,11 @@ public class GenericDataServiceImpl implements GenericDataService {
                 }
             }
             if (codeName == null) {
-                final SqlRowSet rsValues = getDatatableCodeData(datatable, columnName);
+                final ColumnCode code = codesByColumnAlias.get(columnAliasPrefix + columnName);
                 Integer codeId = null;
-                while (rsValues.next()) {
-                    codeId = rsValues.getInt("id");
-                    codeName = rsValues.getString("code_name");
+                if (code != null) {
+                    codeId = code.id;
+                    codeName = code.name;
                 }
                 columnValues = retreiveColumnValues(codeId);
 
@@ -263,17 +329,14 @@ public class GenericDataServiceImpl implements GenericDataService {
         return columnHeaders;
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
 
         final String sql = "select v.id, v.code_score, v.code_value from m_code m " + " join m_code_value v on v.code_id = m.id "
-                + " where m.code_name = '" + codeName + "' order by v.order_position, v.id";
+                + " where m.code_name = ? order by v.order_position, v.id";
 
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, codeName);
 
         rsValues.beforeFirst();
         while (rsValues.next()) {
@@ -291,9 +354,8 @@ public class GenericDataServiceImpl implements GenericDataService {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
         if (codeId != null) {
-            final String sql = "select v.id, v.code_value from m_code_value v where v.code_id =" + codeId
-                    + " order by v.order_position, v.id";
-            final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+            final String sql = "select v.id, v.code_value from m_code_value v where v.code_id = ? order by v.order_position, v.id";
+            final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, codeId);
             rsValues.beforeFirst();
             while (rsValues.next()) {
                 final Integer id = rsValues.getInt("id");
@@ -314,12 +376,33 @@ public class GenericDataServiceImpl implements GenericDataService {
         }
     }
 
-    private SqlRowSet getDatatableCodeData(final String datatable, final String columnName) {
+    /**
+     * Returns the codes mapped to the columns of the datatable by column alias name, with a single query for all
+     * columns.
+     */
+    private Map<String, ColumnCode> getDatatableCodeData(final String datatable) {
+
+        final String sql = "select xcc.column_alias_name, mc.id, mc.code_name from m_code mc "
+                + "join x_table_column_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name like ?";
+        // '_' is a wildcard of like, so the query may return the columns of other datatables too; they are never looked up
+        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, datatable.toLowerCase().replaceAll("\\s", "_") + "_%");
+
+        final Map<String, ColumnCode> codesByColumnAlias = new HashMap<>();
+        while (rsValues.next()) {
+            codesByColumnAlias.put(rsValues.getString("column_alias_name"),
+                    new ColumnCode(rsValues.getInt("id"), rsValues.getString("code_name")));
+        }
+        return codesByColumnAlias;
+    }
+
+    private static final class ColumnCode {
 
-        final String sql = "select mc.id,mc.code_name from m_code mc join x_table_column_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name='"
-                + datatable.toLowerCase().replaceAll("\\s", "_") + "_" + columnName + "'";
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+        private final Integer id;
+        private final String name;
 
-        return rsValues;
+        ColumnCode(final Integer id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
     }
 }
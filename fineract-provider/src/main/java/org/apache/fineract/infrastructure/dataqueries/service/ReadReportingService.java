@@ -38,12 +38,19 @@ public interface ReadReportingService {
 
     Collection<ReportParameterData> getAllowedParameters();
 
-    // TODO Move the following x3 methods into the (new; FINERACT-1173) DatatableReportingProcessService?
+    // TODO Move the following x4 methods into the (new; FINERACT-1173) DatatableReportingProcessService?
 
-    String retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
+    StreamingOutput retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
 
+    /**
+     * Streams the report as JSON row by row; genericResultSet selects the {@link GenericResultsetData} shape over the
+     * array of objects produced by {@link GenericDataService#generateJsonFromGenericResultsetData(GenericResultsetData)}.
+     */
+    StreamingOutput retrieveReportJSON(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport,
+            boolean genericResultSet);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams,
             boolean isSelfServiceUserReport);
 
@@ -18,15 +18,17 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import com.google.gson.Gson;
 import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -40,15 +42,15 @@ import javax.sql.DataSource;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.core.service.ReadReplicaRoutingContext;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportParameterData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportParameterJoinData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
-import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
 import org.apache.fineract.infrastructure.dataqueries.exception.ReportNotFoundException;
-import org.apache.fineract.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
@@ -63,6 +65,7 @@ import org.springframework.stereotype.Service;
 public class ReadReportingServiceImpl implements ReadReportingService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReadReportingServiceImpl.class);
+    private static final int PDF_ROWS_PER_FLUSH = 500;
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
@@ -81,77 +84,180 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
         return out -> {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
             try {
-
-                final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                final StringBuilder sb = generateCsvFileBuffer(result);
-
-                final InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
-
-                final byte[] outputByte = new byte[4096];
-                Integer readLen = in.read(outputByte, 0, 4096);
-
-                while (readLen != -1) {
-                    out.write(outputByte, 0, readLen);
-                    readLen = in.read(outputByte, 0, 4096);
-                }
-                // in.close();
-                // out.flush();
-                // out.close();
+                streamReport(name, type, sql, new CsvResultsetStreamHandler(writer));
+                writer.flush();
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
             } catch (final Exception e) {
                 throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
             }
         };
     }
 
-    private StringBuilder generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuilder writer = new StringBuilder();
+    /**
+     * Runs the report SQL as a forward only cursor, handing each row to the handler as it is read so that exports are not
+     * limited by the size of the heap.
+     */
+    private void streamReport(final String name, final String type, final String sql, final GenericResultsetStreamHandler handler) {
+        final long startTime = System.currentTimeMillis();
+        LOG.info("STARTING STREAMED REPORT: {}   Type: {}", name, type);
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        LOG.info("NO. of Columns: {}", columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
+        // the stream is written after the service call returned, so re-enter the read service for replica routing
+        final boolean readOnlyRequest = ReadReplicaRoutingContext.isReadOnlyRequest();
+        if (readOnlyRequest) {
+            ReadReplicaRoutingContext.enterReadService();
+        }
+        try {
+            this.genericDataService.streamGenericResultSet(sql, handler);
+        } finally {
+            if (readOnlyRequest) {
+                ReadReplicaRoutingContext.exitReadService();
             }
         }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        LOG.info("NO. of Rows: {}", data.size());
-        for (ResultsetRowData element : data) {
-            row = element.getRow();
-            rSize = row.size();
+
+        final long elapsed = System.currentTimeMillis() - startTime;
+        LOG.info("FINISHING Streamed Report/Request Name: {} - {}     Elapsed Time: {}", name, type, elapsed);
+    }
+
+    private static boolean isNumericColumnType(final String columnType) {
+        return columnType.equals("DECIMAL") || columnType.equals("DOUBLE") || columnType.equals("BIGINT") || columnType.equals("SMALLINT")
+                || columnType.equals("INT");
+    }
+
+    private final class CsvResultsetStreamHandler implements GenericResultsetStreamHandler {
+
+        private static final String DOUBLE_QUOTE = "\"";
+        private static final String TWO_DOUBLE_QUOTES = DOUBLE_QUOTE + DOUBLE_QUOTE;
+
+        private final Writer writer;
+        private List<ResultsetColumnHeaderData> columnHeaders;
+
+        CsvResultsetStreamHandler(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.columnHeaders = columnHeaders;
+            LOG.info("NO. of Columns: {}", columnHeaders.size());
+            final int chSize = columnHeaders.size();
+            for (int i = 0; i < chSize; i++) {
+                this.writer.write('"' + columnHeaders.get(i).getColumnName() + '"');
+                if (i < (chSize - 1)) {
+                    this.writer.write(",");
+                }
+            }
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void row(final List<String> row) throws IOException {
+            final int rSize = row.size();
             for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
+                final String currVal = row.get(j);
                 if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
+                    if (isNumericColumnType(this.columnHeaders.get(j).getColumnType())) {
+                        this.writer.write(currVal);
                     } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                        this.writer.write('"' + genericDataService.replace(currVal, DOUBLE_QUOTE, TWO_DOUBLE_QUOTES) + '"');
                     }
-
                 }
                 if (j < (rSize - 1)) {
-                    writer.append(",");
+                    this.writer.write(",");
                 }
             }
-            writer.append('\n');
+            this.writer.write('\n');
         }
+    }
 
-        return writer;
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final boolean genericResultSet) {
+        final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+        return out -> {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                final GenericResultsetStreamHandler handler = genericResultSet ? new GenericResultsetJsonStreamHandler(writer)
+                        : new JsonObjectArrayStreamHandler(writer);
+                streamReport(name, type, sql, handler);
+                writer.write(genericResultSet ? "]}" : "\n]");
+                writer.flush();
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            } catch (final Exception e) {
+                throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * Writes the same shape as serializing {@link GenericResultsetData}: the column headers followed by a data array of rows.
+     */
+    private static final class GenericResultsetJsonStreamHandler implements GenericResultsetStreamHandler {
+
+        private final Gson gson = GoogleGsonSerializerHelper.createGsonBuilder(false).create();
+        private final Writer writer;
+        private boolean firstRow = true;
+
+        GenericResultsetJsonStreamHandler(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.writer.write("{\"columnHeaders\":");
+            this.writer.write(this.gson.toJson(columnHeaders));
+            this.writer.write(",\"data\":[");
+        }
+
+        @Override
+        public void row(final List<String> row) throws IOException {
+            if (!this.firstRow) {
+                this.writer.write(",");
+            }
+            this.firstRow = false;
+            this.writer.write("{\"row\":");
+            this.writer.write(this.gson.toJson(row));
+            this.writer.write("}");
+        }
+    }
+
+    /**
+     * Writes the same shape as {@link GenericDataService#generateJsonFromGenericResultsetData(GenericResultsetData)}: an
+     * array with one object per row keyed by column name.
+     */
+    private final class JsonObjectArrayStreamHandler implements GenericResultsetStreamHandler {
+
+        private final Writer writer;
+        private final StringBuilder buffer = new StringBuilder();
+        private List<ResultsetColumnHeaderData> columnHeaders;
+        private boolean firstRow = true;
+
+        JsonObjectArrayStreamHandler(final Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.columnHeaders = columnHeaders;
+            this.writer.write("[");
+        }
+
+        @Override
+        public void row(final List<String> row) throws IOException {
+            this.buffer.setLength(0);
+            if (!this.firstRow) {
+                this.buffer.append(",");
+            }
+            this.firstRow = false;
+            this.buffer.append("\n");
+            genericDataService.appendJsonObject(this.buffer, this.columnHeaders, row);
+            this.writer.append(this.buffer);
+        }
     }
 
     @Override
@@ -230,69 +336,69 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
-    public String retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams,
+    public StreamingOutput retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams,
             final boolean isSelfServiceUserReport) {
-
-        final String fileLocation = FileSystemContentRepository.FINERACT_BASE_DIR + File.separator + "";
-        if (!new File(fileLocation).isDirectory()) {
-            new File(fileLocation).mkdirs();
-        }
-
-        final String genaratePdf = fileLocation + File.separator + reportName + ".pdf";
-
-        try {
-            final GenericResultsetData result = retrieveGenericResultset(reportName, type, queryParams, isSelfServiceUserReport);
-
-            final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-            final List<ResultsetRowData> data = result.getData();
-            List<String> row;
-
-            LOG.info("NO. of Columns: {}", columnHeaders.size());
-            final Integer chSize = columnHeaders.size();
-
+        final String sql = getSQLtoRun(reportName, type, queryParams, isSelfServiceUserReport);
+        return out -> {
             final Document document = new Document(PageSize.B0.rotate());
+            try {
+                final PdfWriter pdfWriter = PdfWriter.getInstance(document, out);
+                pdfWriter.setCloseStream(false);
+                document.open();
+
+                final PdfResultsetStreamHandler handler = new PdfResultsetStreamHandler(document);
+                streamReport(reportName, type, sql, handler);
+                handler.finish();
+                document.close();
+            } catch (final Exception e) {
+                LOG.error("error.msg.reporting.error:", e);
+                throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
+            }
+        };
+    }
 
-            PdfWriter.getInstance(document, new FileOutputStream(new File(fileLocation + reportName + ".pdf")));
-            document.open();
+    /**
+     * Adds rows to an incomplete table and flushes it to the document every {@link #PDF_ROWS_PER_FLUSH} rows, so only
+     * that many rows are held in memory at once.
+     */
+    private static final class PdfResultsetStreamHandler implements GenericResultsetStreamHandler {
 
-            final PdfPTable table = new PdfPTable(chSize);
-            table.setWidthPercentage(100);
+        private final Document document;
+        private PdfPTable table;
+        private int rowCount;
 
-            for (int i = 0; i < chSize; i++) {
+        PdfResultsetStreamHandler(final Document document) {
+            this.document = document;
+        }
 
-                table.addCell(columnHeaders.get(i).getColumnName());
+        @Override
+        public void columnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) {
+            LOG.info("NO. of Columns: {}", columnHeaders.size());
+            this.table = new PdfPTable(columnHeaders.size());
+            this.table.setWidthPercentage(100);
+            this.table.setComplete(false);
+            this.table.setHeaderRows(1);
+            for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+                this.table.addCell(columnHeader.getColumnName());
+            }
+            this.table.completeRow();
+        }
 
+        @Override
+        public void row(final List<String> row) {
+            for (final String currVal : row) {
+                this.table.addCell(currVal == null ? "" : currVal);
             }
-            table.completeRow();
-
-            Integer rSize;
-            String currColType;
-            String currVal;
-            LOG.info("NO. of Rows: {}", data.size());
-            for (ResultsetRowData element : data) {
-                row = element.getRow();
-                rSize = row.size();
-                for (int j = 0; j < rSize; j++) {
-                    currColType = columnHeaders.get(j).getColumnType();
-                    currVal = row.get(j);
-                    if (currVal != null) {
-                        if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                                || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-
-                            table.addCell(currVal.toString());
-                        } else {
-                            table.addCell(currVal.toString());
-                        }
-                    }
-                }
+            this.table.completeRow();
+            if (++this.rowCount % PDF_ROWS_PER_FLUSH == 0) {
+                this.document.add(this.table);
             }
-            table.completeRow();
-            document.add(table);
-            document.close();
-            return genaratePdf;
-        } catch (final Exception e) {
-            LOG.error("error.msg.reporting.error:", e);
-            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage(), e);
+        }
+
+        void finish() {
+            LOG.info("NO. of Rows: {}", this.rowCount);
+            this.table.setComplete(true);
+            this.document.add(this.table);
         }
     }
 
@@ -18,64 +18,33 @@
  */
 package org.apache.fineract.infrastructure.hooks.listener;
 
-import java.util.List;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
-import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
-import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
-import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
-import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
-import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+/**
+ * Hands hook events over to the {@link HookDeliveryService}, so that the publishing thread does not wait for their
+ * delivery.
+ */
 @Service
 public class FineractHookListener implements HookListener {
 
-    private static final Logger LOG = LoggerFactory.getLogger(FineractHookListener.class);
-
-    private final HookProcessorProvider hookProcessorProvider;
-    private final HookReadPlatformService hookReadPlatformService;
-    private final TenantDetailsService tenantDetailsService;
+    private final HookDeliveryService hookDeliveryService;
 
     @Autowired
-    public FineractHookListener(final HookProcessorProvider hookProcessorProvider, final HookReadPlatformService hookReadPlatformService,
-            final TenantDetailsService tenantDetailsService) {
-        this.hookReadPlatformService = hookReadPlatformService;
-        this.hookProcessorProvider = hookProcessorProvider;
-        this.tenantDetailsService = tenantDetailsService;
+    public FineractHookListener(final HookDeliveryService hookDeliveryService) {
+        this.hookDeliveryService = hookDeliveryService;
     }
 
     @Override
     public void onApplicationEvent(final HookEvent event) {
-        final String tenantIdentifier = event.getTenantIdentifier();
-        final FineractPlatformTenant tenant = this.tenantDetailsService.loadTenantById(tenantIdentifier);
-        ThreadLocalContextUtil.setTenant(tenant);
-
-        final AppUser appUser = event.getAppUser();
-        final String authToken = event.getAuthToken();
-
-        final HookEventSource hookEventSource = event.getSource();
-        final String entityName = hookEventSource.getEntityName();
-        final String actionName = hookEventSource.getActionName();
-        final String payload = event.getPayload();
-
-        final List<Hook> hooks = this.hookReadPlatformService.retrieveHooksByEvent(hookEventSource.getEntityName(),
-                hookEventSource.getActionName());
-
-        for (final Hook hook : hooks) {
-            final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
-            try {
-                processor.process(hook, appUser, payload, entityName, actionName, tenantIdentifier, authToken);
-            } catch (Throwable e) {
-                LOG.error("Hook {} failed in HookProcessor {} for tenantIdentifier/user {}/{}, entityName: {}, actionName: {}, payload {} ",
-                        hook.getId(), processor.getClass().getSimpleName(), tenantIdentifier, appUser, entityName, actionName, payload, e);
-            }
-        }
+        // events are published within the request of their tenant, which then does not need to be loaded again
+        final FineractPlatformTenant currentTenant = ThreadLocalContextUtil.getTenant();
+        final FineractPlatformTenant tenant = currentTenant != null
+                && currentTenant.getTenantIdentifier().equals(event.getTenantIdentifier()) ? currentTenant : null;
+        this.hookDeliveryService.submit(event, tenant);
     }
 }
@@ -18,24 +18,39 @@
  */
 package org.apache.fineract.infrastructure.hooks.processor;
 
+import java.io.IOException;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PreDestroy;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import okhttp3.OkHttpClient;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.hooks.exception.HookEndpointBusyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import retrofit2.Call;
-import retrofit2.Callback;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+/**
+ * Sends the requests of the hook processors through a single {@link OkHttpClient}, so that connections and TLS sessions
+ * are pooled across events, and limits the number of concurrent requests per endpoint to
+ * {@code fineract.hook.max-concurrent-requests-per-endpoint}; requests beyond that fail fast with
+ * {@link HookEndpointBusyException}.
+ */
 @Service
 public final class ProcessorHelper {
 
@@ -44,6 +59,9 @@ public final class ProcessorHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProcessorHelper.class);
 
+    // services are cached by URL; URLs of deleted hooks or failed validations are only dropped beyond this size
+    private static final int MAX_CACHED_SERVICES = 1000;
+
     @SuppressWarnings("unused")
     private static final X509TrustManager insecureX509TrustManager = new X509TrustManager() {
 
@@ -66,13 +84,26 @@ public final class ProcessorHelper {
      */
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
+    private final OkHttpClient client;
+    private final int maxConcurrentRequestsPerEndpoint;
+    private final Map<String, WebHookService> servicesByUrl = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> permitsByEndpoint = new ConcurrentHashMap<>();
 
-    public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
+    @Autowired
+    public ProcessorHelper(final FineractProperties fineractProperties) throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
             insecureSSLContext = createInsecureSSLContext();
         } else {
             insecureSSLContext = null;
         }
+        this.client = createClient();
+        this.maxConcurrentRequestsPerEndpoint = Math.max(1, fineractProperties.getHook().getMaxConcurrentRequestsPerEndpoint());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.client.dispatcher().executorService().shutdown();
+        this.client.connectionPool().evictAll();
     }
 
     private OkHttpClient createClient() {
@@ -96,46 +127,57 @@ public final class ProcessorHelper {
         return insecureSSLContext;
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url) {
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
-
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
-    }
-
     public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
+        final WebHookService service = this.servicesByUrl.get(url);
+        if (service != null) {
+            return service;
+        }
         final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
         retrofitBuilder.baseUrl(url);
-        retrofitBuilder.client(client);
+        retrofitBuilder.client(this.client);
         retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
         final Retrofit retrofit = retrofitBuilder.build();
-        return retrofit.create(WebHookService.class);
+        if (this.servicesByUrl.size() >= MAX_CACHED_SERVICES) {
+            this.servicesByUrl.clear();
+        }
+        final WebHookService created = retrofit.create(WebHookService.class);
+        this.servicesByUrl.put(url, created);
+        return created;
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url, String payload) {
-
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
+    /**
+     * Executes the call on the calling thread if fewer than the maximum number of requests to the endpoint of url are
+     * running, and fails when it does not complete with a successful status so that the delivery can be retried.
+     *
+     * @throws HookEndpointBusyException
+     *             without sending the request if the maximum number of requests to the endpoint are running; the caller
+     *             is expected to reschedule the delivery instead of waiting, so that one slow endpoint cannot hold the
+     *             threads delivering to all the others
+     */
+    public <T> T execute(final String url, final Call<T> call) throws IOException {
+        final Semaphore permits = this.permitsByEndpoint.computeIfAbsent(endpointOf(url),
+                endpoint -> new Semaphore(this.maxConcurrentRequestsPerEndpoint));
+        if (!permits.tryAcquire()) {
+            throw new HookEndpointBusyException(url);
+        }
+        try {
+            final Response<T> response = call.execute();
+            LOG.info("URL: {} - Status: {}", url, response.code());
+            if (!response.isSuccessful()) {
+                throw new IOException("URL: " + url + " - Status: " + response.code());
             }
+            return response.body();
+        } finally {
+            permits.release();
+        }
+    }
 
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
+    private static String endpointOf(final String url) {
+        try {
+            final URI uri = URI.create(url);
+            return uri.getHost() == null ? url : uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
     }
 }
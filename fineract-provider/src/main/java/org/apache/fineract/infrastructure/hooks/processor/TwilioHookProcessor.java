@@ -39,7 +39,6 @@ import org.apache.fineract.template.service.TemplateMergeService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit2.Callback;
 
 @Service
 public class TwilioHookProcessor implements HookProcessor {
@@ -72,10 +71,8 @@ public class TwilioHookProcessor implements HookProcessor {
     private void sendRequest(final SmsProviderData smsProviderData, final String payload, String entityName, String actionName,
             final String tenantIdentifier, final String authToken, final Hook hook) throws IOException {
 
-        final WebHookService service = processorHelper.createWebHookService(smsProviderData.getUrl());
-
-        @SuppressWarnings("rawtypes")
-        final Callback callback = processorHelper.createCallback(smsProviderData.getUrl());
+        final String url = smsProviderData.getUrl();
+        final WebHookService service = processorHelper.createWebHookService(url);
 
         String apiKey = this.hookConfigurationRepository.findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
         if (apiKey == null) {
@@ -83,7 +80,7 @@ public class TwilioHookProcessor implements HookProcessor {
             smsProviderData.setEndpoint(System.getProperty("baseUrl"));
             smsProviderData.setTenantId(tenantIdentifier);
             smsProviderData.setMifosToken(authToken);
-            apiKey = service.sendSmsBridgeConfigRequest(smsProviderData).execute().body();
+            apiKey = processorHelper.execute(url, service.sendSmsBridgeConfigRequest(smsProviderData));
             final HookConfiguration apiKeyEntry = HookConfiguration.createNew(hook, "string", apiKeyName, apiKey);
             this.hookConfigurationRepository.save(apiKeyEntry);
         }
@@ -100,7 +97,7 @@ public class TwilioHookProcessor implements HookProcessor {
             } else {
                 json = JsonParser.parseString(payload).getAsJsonObject();
             }
-            service.sendSmsBridgeRequest(entityName, actionName, tenantIdentifier, apiKey, json).enqueue(callback);
+            processorHelper.execute(url, service.sendSmsBridgeRequest(entityName, actionName, tenantIdentifier, apiKey, json));
         }
     }
 
@@ -115,8 +112,7 @@ public class TwilioHookProcessor implements HookProcessor {
             final Client client = this.clientRepositoryWrapper.findOneWithNotFoundDetection(clientId);
             final String mobileNo = client.mobileNo();
             if (mobileNo != null && !mobileNo.isEmpty()) {
-                this.templateMergeService.setAuthToken(authToken);
-                final String compiledMessage = this.templateMergeService.compile(hook.getUgdTemplate(), map).replace("<p>", "")
+                final String compiledMessage = this.templateMergeService.compile(hook.getUgdTemplate(), map, authToken).replace("<p>", "")
                         .replace("</p>", "");
                 final Map<String, String> jsonMap = new HashMap<>();
                 jsonMap.put("mobileNo", mobileNo);
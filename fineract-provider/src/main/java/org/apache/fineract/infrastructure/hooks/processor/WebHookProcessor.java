@@ -24,6 +24,7 @@ import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payl
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -32,7 +33,6 @@ import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit2.Callback;
 
 @Service
 public class WebHookProcessor implements HookProcessor {
@@ -46,7 +46,7 @@ public class WebHookProcessor implements HookProcessor {
 
     @Override
     public void process(final Hook hook, @SuppressWarnings("unused") final AppUser appUser, final String payload, final String entityName,
-            final String actionName, final String tenantIdentifier, final String authToken) {
+            final String actionName, final String tenantIdentifier, final String authToken) throws IOException {
 
         final Set<HookConfiguration> config = hook.getHookConfig();
 
@@ -68,21 +68,18 @@ public class WebHookProcessor implements HookProcessor {
 
     @SuppressWarnings("unchecked")
     private void sendRequest(final String url, final String contentType, final String payload, final String entityName,
-            final String actionName, final String tenantIdentifier, @SuppressWarnings("unused") final String authToken) {
+            final String actionName, final String tenantIdentifier, @SuppressWarnings("unused") final String authToken) throws IOException {
 
         final String fineractEndpointUrl = System.getProperty("baseUrl");
         final WebHookService service = processorHelper.createWebHookService(url);
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = processorHelper.createCallback(url);
-
         if (contentType.equalsIgnoreCase("json") || contentType.contains("json")) {
             final JsonObject json = JsonParser.parseString(payload).getAsJsonObject();
-            service.sendJsonRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, json).enqueue(callback);
+            processorHelper.execute(url, service.sendJsonRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, json));
         } else {
             Map<String, String> map = new HashMap<>();
             map = new Gson().fromJson(payload, map.getClass());
-            service.sendFormRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, map).enqueue(callback);
+            processorHelper.execute(url, service.sendFormRequest(entityName, actionName, tenantIdentifier, fineractEndpointUrl, map));
         }
     }
 }
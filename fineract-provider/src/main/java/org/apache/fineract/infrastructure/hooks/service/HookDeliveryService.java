@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractHookProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.exception.HookEndpointBusyException;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers hook events to the hooks listening to them on a pool of {@code fineract.hook.worker-threads} threads, so
+ * that the thread publishing the event does not wait for the hook endpoints.
+ *
+ * Every tenant has at most {@code fineract.hook.queue-capacity} events and retries waiting for delivery; events beyond
+ * that are dropped. A delivery which fails is retried up to {@code fineract.hook.max-attempts} times, after a delay
+ * starting at {@code fineract.hook.retry-initial-delay-seconds} and doubling up to
+ * {@code fineract.hook.retry-max-delay-seconds}. A delivery to an endpoint which already has
+ * {@code fineract.hook.max-concurrent-requests-per-endpoint} requests running is put back with the initial retry delay
+ * instead of waiting on a worker thread; this does not count as an attempt. Deliveries are counted in the
+ * {@code fineract.hook.deliveries} meter, tagged by outcome, and timed in {@code fineract.hook.delivery.time}.
+ */
+@Service
+public class HookDeliveryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HookDeliveryService.class);
+
+    private final HookProcessorProvider hookProcessorProvider;
+    private final HookReadPlatformService hookReadPlatformService;
+    private final TenantDetailsService tenantDetailsService;
+    private final FineractHookProperties properties;
+    private final ExecutorService workerExecutor;
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, AtomicInteger> pendingByTenant = new ConcurrentHashMap<>();
+
+    private final Counter deliveredCounter;
+    private final Counter retriedCounter;
+    private final Counter deferredCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+    private final Timer deliveryTimer;
+
+    @Autowired
+    public HookDeliveryService(final HookProcessorProvider hookProcessorProvider, final HookReadPlatformService hookReadPlatformService,
+            final TenantDetailsService tenantDetailsService, final FineractProperties fineractProperties,
+            final MeterRegistry meterRegistry) {
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.hookReadPlatformService = hookReadPlatformService;
+        this.tenantDetailsService = tenantDetailsService;
+        this.properties = fineractProperties.getHook();
+        this.workerExecutor = Executors.newFixedThreadPool(Math.max(1, this.properties.getWorkerThreads()));
+
+        this.deliveredCounter = meterRegistry.counter("fineract.hook.deliveries", "outcome", "delivered");
+        this.retriedCounter = meterRegistry.counter("fineract.hook.deliveries", "outcome", "retried");
+        this.deferredCounter = meterRegistry.counter("fineract.hook.deliveries", "outcome", "deferred");
+        this.failedCounter = meterRegistry.counter("fineract.hook.deliveries", "outcome", "failed");
+        this.droppedCounter = meterRegistry.counter("fineract.hook.deliveries", "outcome", "dropped");
+        this.deliveryTimer = meterRegistry.timer("fineract.hook.delivery.time");
+        Gauge.builder("fineract.hook.pending", this.pendingByTenant,
+                pending -> pending.values().stream().mapToInt(AtomicInteger::get).sum()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.retryExecutor.shutdownNow();
+        this.workerExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues the event for delivery to the hooks listening to it.
+     *
+     * @param tenant
+     *            the tenant of the event when known to the caller, otherwise null to load it by the identifier of the
+     *            event
+     */
+    public void submit(final HookEvent event, final FineractPlatformTenant tenant) {
+        final String tenantIdentifier = event.getTenantIdentifier();
+        schedule(tenantIdentifier, () -> {
+            final FineractPlatformTenant eventTenant;
+            try {
+                eventTenant = tenant != null ? tenant : this.tenantDetailsService.loadTenantById(tenantIdentifier);
+            } catch (RuntimeException e) {
+                LOG.error("Failed to load tenant {} of hook event {}/{}", tenantIdentifier, event.getSource().getEntityName(),
+                        event.getSource().getActionName(), e);
+                return;
+            }
+            runAs(eventTenant, event, () -> {
+                final List<Hook> hooks = this.hookReadPlatformService.retrieveHooksByEvent(event.getSource().getEntityName(),
+                        event.getSource().getActionName());
+                for (final Hook hook : hooks) {
+                    deliver(eventTenant, event, hook, 1);
+                }
+            });
+        }, 0L);
+    }
+
+    private void deliver(final FineractPlatformTenant tenant, final HookEvent event, final Hook hook, final int attempt) {
+        final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
+        if (processor == null) {
+            return;
+        }
+        final String entityName = event.getSource().getEntityName();
+        final String actionName = event.getSource().getActionName();
+        final long start = System.nanoTime();
+        try {
+            processor.process(hook, event.getAppUser(), event.getPayload(), entityName, actionName, event.getTenantIdentifier(),
+                    event.getAuthToken());
+            this.deliveredCounter.increment();
+        } catch (HookEndpointBusyException e) {
+            // not an attempt: the request has not been sent
+            final long delayMillis = retryDelayMillis(1);
+            LOG.debug("Hook {} deferred by {} ms: {}", hook.getId(), delayMillis, e.getMessage());
+            this.deferredCounter.increment();
+            schedule(event.getTenantIdentifier(), () -> runAs(tenant, event, () -> deliver(tenant, event, hook, attempt)), delayMillis);
+        } catch (Exception e) {
+            if (attempt < this.properties.getMaxAttempts()) {
+                final long delayMillis = retryDelayMillis(attempt);
+                LOG.warn("Hook {} failed in HookProcessor {} for tenantIdentifier {}, entityName: {}, actionName: {}, attempt {}: {}; "
+                        + "retrying in {} ms", hook.getId(), processor.getClass().getSimpleName(), event.getTenantIdentifier(), entityName,
+                        actionName, attempt, e.getMessage(), delayMillis);
+                this.retriedCounter.increment();
+                schedule(event.getTenantIdentifier(), () -> runAs(tenant, event, () -> deliver(tenant, event, hook, attempt + 1)),
+                        delayMillis);
+            } else {
+                LOG.error("Hook {} failed in HookProcessor {} for tenantIdentifier/user {}/{}, entityName: {}, actionName: {}, payload {} ",
+                        hook.getId(), processor.getClass().getSimpleName(), event.getTenantIdentifier(), event.getAppUser(), entityName,
+                        actionName, event.getPayload(), e);
+                this.failedCounter.increment();
+            }
+        } finally {
+            this.deliveryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long retryDelayMillis(final int attempt) {
+        final long initialDelayMillis = TimeUnit.SECONDS.toMillis(Math.max(1, this.properties.getRetryInitialDelaySeconds()));
+        final long maxDelayMillis = TimeUnit.SECONDS.toMillis(Math.max(1, this.properties.getRetryMaxDelaySeconds()));
+        // doubled per attempt, the shift is capped as the maximum delay is reached long before it overflows
+        return Math.min(maxDelayMillis, initialDelayMillis << Math.min(attempt - 1, 30));
+    }
+
+    /**
+     * Runs the task on the worker pool after the delay, unless the tenant already has queue-capacity tasks pending.
+     */
+    private void schedule(final String tenantIdentifier, final Runnable task, final long delayMillis) {
+        final AtomicInteger pending = this.pendingByTenant.computeIfAbsent(tenantIdentifier, key -> new AtomicInteger());
+        if (pending.incrementAndGet() > this.properties.getQueueCapacity()) {
+            pending.decrementAndGet();
+            this.droppedCounter.increment();
+            LOG.warn("Hook delivery queue of tenant {} is full, dropping a delivery", tenantIdentifier);
+            return;
+        }
+        final Runnable pendingTask = () -> {
+            try {
+                task.run();
+            } finally {
+                pending.decrementAndGet();
+            }
+        };
+        try {
+            if (delayMillis > 0) {
+                this.retryExecutor.schedule(() -> this.workerExecutor.execute(pendingTask), delayMillis, TimeUnit.MILLISECONDS);
+            } else {
+                this.workerExecutor.execute(pendingTask);
+            }
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            pending.decrementAndGet();
+            this.droppedCounter.increment();
+        }
+    }
+
+    private void runAs(final FineractPlatformTenant tenant, final HookEvent event, final Runnable task) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        ThreadLocalContextUtil.setAuthToken(event.getAuthToken());
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOG.error("Failed to deliver hook event {}/{} of tenant {}", event.getSource().getEntityName(),
+                    event.getSource().getActionName(), event.getTenantIdentifier(), e);
+        } finally {
+            ThreadLocalContextUtil.setAuthToken(null);
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+}
@@ -81,7 +81,7 @@ public class HookReadPlatformServiceImpl implements HookReadPlatformService {
     }
 
     @Override
-    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('HK')")
+    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('|').concat('HK')")
     public List<Hook> retrieveHooksByEvent(final String entityName, final String actionName) {
 
         return this.hookRepository.findAllHooksListeningToEvent(entityName, actionName);
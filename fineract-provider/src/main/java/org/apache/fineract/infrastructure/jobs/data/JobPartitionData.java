@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.data;
+
+/**
+ * Immutable data object representing an id-range partition of a clustered job run.
+ */
+public class JobPartitionData {
+
+    private final Long id;
+    private final String runId;
+    private final String jobName;
+    private final Long fromId;
+    private final Long toId;
+    private final String status;
+    private final String nodeId;
+    private final Integer attempts;
+    private final String errorLog;
+
+    public JobPartitionData(final Long id, final String runId, final String jobName, final Long fromId, final Long toId,
+            final String status, final String nodeId, final Integer attempts, final String errorLog) {
+        this.id = id;
+        this.runId = runId;
+        this.jobName = jobName;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.status = status;
+        this.nodeId = nodeId;
+        this.attempts = attempts;
+        this.errorLog = errorLog;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getRunId() {
+        return this.runId;
+    }
+
+    public String getJobName() {
+        return this.jobName;
+    }
+
+    public Long getFromId() {
+        return this.fromId;
+    }
+
+    public Long getToId() {
+        return this.toId;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public String getErrorLog() {
+        return this.errorLog;
+    }
+
+    @Override
+    public String toString() {
+        return this.jobName + "[" + this.fromId + ".." + this.toId + "]";
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.infrastructure.jobs.data.JobPartitionData;
+
+/**
+ * Stores the id-range partitions of clustered job runs in <code>job_partition</code> and hands them out to the nodes
+ * through time limited leases.
+ */
+public interface JobPartitionLeaseService {
+
+    void createPartitions(String runId, String jobName, List<Long[]> idRanges);
+
+    /**
+     * Leases the next pending (or abandoned) partition of one of the given jobs, restricted to a single run when runId
+     * is not null.
+     *
+     * @return the leased partition or null when there is nothing left to lease
+     */
+    JobPartitionData leaseNext(String runId, Collection<String> jobNames, String nodeId, int leaseSeconds);
+
+    boolean renewLease(Long partitionId, String nodeId, int leaseSeconds);
+
+    boolean completePartition(Long partitionId, String nodeId);
+
+    boolean failPartition(Long partitionId, String nodeId, String errorLog);
+
+    int countUnfinishedPartitions(String runId);
+
+    List<JobPartitionData> retrieveFailedPartitions(String runId);
+}
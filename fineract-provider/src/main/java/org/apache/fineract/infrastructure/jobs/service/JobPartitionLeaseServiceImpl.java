@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.data.JobPartitionData;
+import org.apache.fineract.infrastructure.jobs.domain.JobPartitionStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Leases are taken with a compare-and-set update on the partition row, so concurrent nodes never lease the same
+ * partition twice. Every statement runs in its own (auto committed) transaction, so a lease is visible to the other
+ * nodes as soon as it has been taken.
+ */
+@Service
+public class JobPartitionLeaseServiceImpl implements JobPartitionLeaseService {
+
+    private static final int LEASE_CANDIDATES = 10;
+    private static final int MAX_ERROR_LOG_LENGTH = 4000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseSpecificSQLGenerator sqlGenerator;
+
+    @Autowired
+    public JobPartitionLeaseServiceImpl(final RoutingDataSource dataSource, final DatabaseSpecificSQLGenerator sqlGenerator) {
+        this(new JdbcTemplate(dataSource), sqlGenerator);
+    }
+
+    JobPartitionLeaseServiceImpl(final JdbcTemplate jdbcTemplate, final DatabaseSpecificSQLGenerator sqlGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlGenerator = sqlGenerator;
+    }
+
+    @Override
+    public void createPartitions(final String runId, final String jobName, final List<Long[]> idRanges) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfTenant();
+        final List<Object[]> batchArgs = new ArrayList<>(idRanges.size());
+        for (final Long[] idRange : idRanges) {
+            batchArgs.add(new Object[] { runId, jobName, idRange[0], idRange[1], JobPartitionStatus.PENDING.name(), now });
+        }
+        this.jdbcTemplate.batchUpdate(
+                "insert into job_partition (run_id, job_name, from_id, to_id, status, attempts, created_date) values (?, ?, ?, ?, ?, 0, ?)",
+                batchArgs);
+    }
+
+    @Override
+    public JobPartitionData leaseNext(final String runId, final Collection<String> jobNames, final String nodeId,
+            final int leaseSeconds) {
+        if (jobNames.isEmpty()) {
+            return null;
+        }
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfTenant();
+        final List<Object> params = new ArrayList<>(jobNames);
+        final StringBuilder sql = new StringBuilder("select id from job_partition where job_name in (")
+                .append(String.join(", ", Collections.nCopies(jobNames.size(), "?"))).append(")");
+        if (runId != null) {
+            sql.append(" and run_id = ?");
+            params.add(runId);
+        }
+        sql.append(" and (status = ? or (status = ? and lease_expires_at < ?)) order by id ")
+                .append(this.sqlGenerator.limit(LEASE_CANDIDATES));
+        params.add(JobPartitionStatus.PENDING.name());
+        params.add(JobPartitionStatus.LEASED.name());
+        params.add(now);
+
+        final List<Long> candidates = this.jdbcTemplate.queryForList(sql.toString(), Long.class, params.toArray());
+        for (final Long partitionId : candidates) {
+            final int leased = this.jdbcTemplate.update("update job_partition set status = ?, node_id = ?, lease_expires_at = ?,"
+                    + " attempts = attempts + 1, lastmodified_date = ?"
+                    + " where id = ? and (status = ? or (status = ? and lease_expires_at < ?))",
+                    JobPartitionStatus.LEASED.name(), nodeId, now.plusSeconds(leaseSeconds), now, partitionId,
+                    JobPartitionStatus.PENDING.name(), JobPartitionStatus.LEASED.name(), now);
+            if (leased == 1) {
+                final JobPartitionMapper mapper = new JobPartitionMapper();
+                return this.jdbcTemplate.queryForObject(mapper.schema() + " where jp.id = ?", mapper, partitionId);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean renewLease(final Long partitionId, final String nodeId, final int leaseSeconds) {
+        final LocalDateTime now = DateUtils.getLocalDateTimeOfTenant();
+        return this.jdbcTemplate.update(
+                "update job_partition set lease_expires_at = ?, lastmodified_date = ? where id = ? and node_id = ? and status = ?",
+                now.plusSeconds(leaseSeconds), now, partitionId, nodeId, JobPartitionStatus.LEASED.name()) == 1;
+    }
+
+    @Override
+    public boolean completePartition(final Long partitionId, final String nodeId) {
+        return this.jdbcTemplate.update("update job_partition set status = ?, lease_expires_at = null, lastmodified_date = ?"
+                + " where id = ? and node_id = ? and status = ?",
+                JobPartitionStatus.COMPLETED.name(), DateUtils.getLocalDateTimeOfTenant(), partitionId, nodeId,
+                JobPartitionStatus.LEASED.name()) == 1;
+    }
+
+    @Override
+    public boolean failPartition(final Long partitionId, final String nodeId, final String errorLog) {
+        final String truncatedErrorLog = errorLog != null && errorLog.length() > MAX_ERROR_LOG_LENGTH
+                ? errorLog.substring(0, MAX_ERROR_LOG_LENGTH)
+                : errorLog;
+        return this.jdbcTemplate.update("update job_partition set status = ?, lease_expires_at = null, error_log = ?,"
+                + " lastmodified_date = ? where id = ? and node_id = ? and status = ?", JobPartitionStatus.FAILED.name(),
+                truncatedErrorLog, DateUtils.getLocalDateTimeOfTenant(), partitionId, nodeId, JobPartitionStatus.LEASED.name()) == 1;
+    }
+
+    @Override
+    public int countUnfinishedPartitions(final String runId) {
+        final Integer count = this.jdbcTemplate.queryForObject("select count(*) from job_partition where run_id = ? and status in (?, ?)",
+                Integer.class, runId, JobPartitionStatus.PENDING.name(), JobPartitionStatus.LEASED.name());
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public List<JobPartitionData> retrieveFailedPartitions(final String runId) {
+        final JobPartitionMapper mapper = new JobPartitionMapper();
+        return this.jdbcTemplate.query(mapper.schema() + " where jp.run_id = ? and jp.status = ? order by jp.id", mapper, runId,
+                JobPartitionStatus.FAILED.name());
+    }
+
+    private static final class JobPartitionMapper implements RowMapper<JobPartitionData> {
+
+        public String schema() {
+            return "select jp.id as id, jp.run_id as runId, jp.job_name as jobName, jp.from_id as fromId, jp.to_id as toId,"
+                    + " jp.status as status, jp.node_id as nodeId, jp.attempts as attempts, jp.error_log as errorLog from job_partition jp";
+        }
+
+        @Override
+        public JobPartitionData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new JobPartitionData(rs.getLong("id"), rs.getString("runId"), rs.getString("jobName"), rs.getLong("fromId"),
+                    rs.getLong("toId"), rs.getString("status"), rs.getString("nodeId"), rs.getInt("attempts"), rs.getString("errorLog"));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.data.JobPartitionData;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets this node take part in clustered job runs started on any node: when
+ * <code>fineract.partitioned-job.cluster-enabled</code> is set, the tenant databases are polled for pending (or
+ * abandoned) partitions of the registered {@link PartitionedJobStep}s, which are leased and executed locally.
+ */
+@Component
+public class JobPartitionWorker implements ApplicationListener<ContextClosedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobPartitionWorker.class);
+
+    private final FineractProperties fineractProperties;
+    private final TenantDetailsService tenantDetailsService;
+    private final JobPartitionLeaseService jobPartitionLeaseService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final AppUserRepositoryWrapper userRepository;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+    private final Map<String, PartitionedJobStep> steps = new HashMap<>();
+
+    private ScheduledExecutorService pollExecutor;
+
+    @Autowired
+    public JobPartitionWorker(final FineractProperties fineractProperties, final TenantDetailsService tenantDetailsService,
+            final JobPartitionLeaseService jobPartitionLeaseService, final PartitionedJobExecutor partitionedJobExecutor,
+            final AppUserRepositoryWrapper userRepository, final List<PartitionedJobStep> steps) {
+        this.fineractProperties = fineractProperties;
+        this.tenantDetailsService = tenantDetailsService;
+        this.jobPartitionLeaseService = jobPartitionLeaseService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.userRepository = userRepository;
+        for (final PartitionedJobStep step : steps) {
+            this.steps.put(step.getName(), step);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!this.fineractProperties.getPartitionedJob().isClusterEnabled()) {
+            return;
+        }
+        final int pollIntervalSeconds = Math.max(1, this.fineractProperties.getPartitionedJob().getPollIntervalSeconds());
+        this.pollExecutor = Executors.newSingleThreadScheduledExecutor();
+        this.pollExecutor.scheduleWithFixedDelay(this::pollAllTenants, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
+        LOG.info("Job partition worker {} started for steps {}", this.partitionedJobExecutor.getLeaseOwner(), this.steps.keySet());
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") ContextClosedEvent event) {
+        if (this.pollExecutor != null) {
+            this.pollExecutor.shutdownNow();
+        }
+    }
+
+    private void pollAllTenants() {
+        try {
+            for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    executePendingPartitions();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        } catch (RuntimeException e) {
+            // never let an exception cancel the periodic poll
+            LOG.error("Polling for job partitions failed", e);
+        }
+    }
+
+    private void executePendingPartitions() {
+        final int leaseSeconds = this.fineractProperties.getPartitionedJob().getLeaseSeconds();
+        JobPartitionData partition = this.jobPartitionLeaseService.leaseNext(null, this.steps.keySet(),
+                this.partitionedJobExecutor.getLeaseOwner(), leaseSeconds);
+        if (partition == null) {
+            return;
+        }
+        // partitions are executed as the system user, like the scheduled job which published them
+        final AppUser user = this.userRepository.fetchSystemUser();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, user.getPassword(),
+                this.authoritiesMapper.mapAuthorities(user.getAuthorities())));
+        while (partition != null && !Thread.currentThread().isInterrupted()) {
+            LOG.info("Leased partition {} of run {}", partition, partition.getRunId());
+            this.partitionedJobExecutor.executeLeasedPartition(this.steps.get(partition.getJobName()), partition);
+            partition = this.jobPartitionLeaseService.leaseNext(null, this.steps.keySet(), this.partitionedJobExecutor.getLeaseOwner(),
+                    leaseSeconds);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.data.JobPartitionData;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a per entity step of a scheduled job (for example one loan) over a set of entity ids on a worker pool.
+ *
+ * The ids are split into chunks which are executed in their own transaction, retried on deadlocks according to the
+ * tenant connection settings. When a chunk fails for any other reason it is rolled back and its items are replayed one
+ * by one, so that a single failing entity does not fail its neighbours. All failures are collected and reported
+ * through a {@link JobExecutionException} once every chunk has been processed.
+ *
+ * When <code>fineract.partitioned-job.cluster-enabled</code> is set, a {@link PartitionedJobStep} is not executed
+ * locally only: its ids are split into id-range partitions stored in <code>job_partition</code>, which are leased by
+ * this node and by the {@link JobPartitionWorker} of every other node sharing the tenant database. Leases are kept alive
+ * by a heartbeat while a partition is processed and expire when its node dies, after which the partition is leased
+ * again by another node.
+ */
+@Component
+public class PartitionedJobExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionedJobExecutor.class);
+    private static final SecureRandom random = new SecureRandom();
+
+    private final TransactionTemplate transactionTemplate;
+    private final FineractProperties fineractProperties;
+    private final JobPartitionLeaseService jobPartitionLeaseService;
+    private final String leaseOwner;
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @Autowired
+    public PartitionedJobExecutor(final TransactionTemplate transactionTemplate, final FineractProperties fineractProperties,
+            final JobPartitionLeaseService jobPartitionLeaseService) {
+        this.transactionTemplate = transactionTemplate;
+        this.fineractProperties = fineractProperties;
+        this.jobPartitionLeaseService = jobPartitionLeaseService;
+        // several JVMs may be started with the same node id, the lease owner has to be unique per JVM
+        this.leaseOwner = fineractProperties.getNodeId() + "-" + UUID.randomUUID();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.heartbeatExecutor.shutdownNow();
+    }
+
+    /**
+     * Identifies this JVM as the owner of partition leases.
+     */
+    public String getLeaseOwner() {
+        return this.leaseOwner;
+    }
+
+    /**
+     * The job step executed for a single item.
+     */
+    @FunctionalInterface
+    public interface ItemTask<T> {
+
+        void execute(T item) throws Exception;
+    }
+
+    /**
+     * Executes the task for every item using the pool and chunk sizes configured under
+     * <code>fineract.partitioned-job</code>.
+     */
+    public <T> void execute(final String jobName, final Collection<T> items, final ItemTask<T> task) throws JobExecutionException {
+        execute(jobName, items, fineractProperties.getPartitionedJob().getThreadPoolSize(),
+                fineractProperties.getPartitionedJob().getChunkSize(), task);
+    }
+
+    public <T> void execute(final String jobName, final Collection<T> items, final int threadPoolSize, final int chunkSize,
+            final ItemTask<T> task) throws JobExecutionException {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        final List<T> itemList = new ArrayList<>(items);
+        final int size = itemList.size();
+        final int effectiveChunkSize = Math.max(1, chunkSize);
+        final int effectivePoolSize = Math.max(1, Math.min(threadPoolSize, (size + effectiveChunkSize - 1) / effectiveChunkSize));
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        LOG.info("{}: processing {} items in chunks of {} on {} threads", jobName, size, effectiveChunkSize, effectivePoolSize);
+        final long start = System.currentTimeMillis();
+
+        final List<Throwable> errors = new ArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(effectivePoolSize);
+        try {
+            final List<Future<List<Throwable>>> chunkResults = new ArrayList<>();
+            for (int fromIndex = 0; fromIndex < size; fromIndex += effectiveChunkSize) {
+                final List<T> chunk = itemList.subList(fromIndex, Math.min(size, fromIndex + effectiveChunkSize));
+                chunkResults.add(executorService.submit(() -> {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        return executeChunk(jobName, chunk, task, tenant);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }));
+            }
+            for (Future<List<Throwable>> chunkResult : chunkResults) {
+                try {
+                    errors.addAll(chunkResult.get());
+                } catch (ExecutionException e) {
+                    LOG.error("{}: execution exception while processing a chunk", jobName, e);
+                    errors.add(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.error("{}: interrupted while waiting for chunks", jobName, e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        LOG.info("{}: processed {} items within {} milliseconds with {} failures", jobName, size, System.currentTimeMillis() - start,
+                errors.size());
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    /**
+     * Executes the step for the given ids. In cluster mode the ids are published as id-range partitions which are
+     * processed by all nodes, and this method returns once every partition of the run has finished.
+     */
+    public void execute(final PartitionedJobStep step, final Collection<Long> ids) throws JobExecutionException {
+        if (!this.fineractProperties.getPartitionedJob().isClusterEnabled()) {
+            execute(step.getName(), ids, step::execute);
+            return;
+        }
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        final List<Long> sortedIds = new ArrayList<>(ids);
+        Collections.sort(sortedIds);
+        final int partitionSize = Math.max(1, this.fineractProperties.getPartitionedJob().getThreadPoolSize())
+                * Math.max(1, this.fineractProperties.getPartitionedJob().getChunkSize());
+        final List<Long[]> idRanges = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < sortedIds.size(); fromIndex += partitionSize) {
+            final int toIndex = Math.min(sortedIds.size(), fromIndex + partitionSize) - 1;
+            idRanges.add(new Long[] { sortedIds.get(fromIndex), sortedIds.get(toIndex) });
+        }
+
+        final String runId = UUID.randomUUID().toString();
+        this.jobPartitionLeaseService.createPartitions(runId, step.getName(), idRanges);
+        LOG.info("{}: published {} partitions of {} ids as run {}", step.getName(), idRanges.size(), sortedIds.size(), runId);
+
+        final List<Throwable> errors = new ArrayList<>();
+        final int leaseSeconds = this.fineractProperties.getPartitionedJob().getLeaseSeconds();
+        try {
+            while (true) {
+                final JobPartitionData partition = this.jobPartitionLeaseService.leaseNext(runId, Collections.singletonList(step.getName()),
+                        this.leaseOwner, leaseSeconds);
+                if (partition != null) {
+                    executeLeasedPartition(step, partition);
+                } else if (this.jobPartitionLeaseService.countUnfinishedPartitions(runId) == 0) {
+                    break;
+                } else {
+                    // the remaining partitions are leased by other nodes, wait for them (or for their leases to expire)
+                    Thread.sleep(this.fineractProperties.getPartitionedJob().getPollIntervalSeconds() * 1000L);
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.error("{}: interrupted while waiting for the partitions of run {}", step.getName(), runId, e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        }
+
+        for (final JobPartitionData failedPartition : this.jobPartitionLeaseService.retrieveFailedPartitions(runId)) {
+            final String message = "Partition " + failedPartition + " failed on node " + failedPartition.getNodeId() + ": "
+                    + failedPartition.getErrorLog();
+            errors.add(new PlatformInternalServerException("error.msg.job.partition.failed", message, failedPartition.getId()));
+        }
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    /**
+     * Processes a partition leased by this node on the local worker pool, renewing the lease until it is completed or
+     * failed.
+     */
+    public void executeLeasedPartition(final PartitionedJobStep step, final JobPartitionData partition) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final int leaseSeconds = this.fineractProperties.getPartitionedJob().getLeaseSeconds();
+        final long heartbeatSeconds = Math.max(1, leaseSeconds / 3);
+        final ScheduledFuture<?> heartbeat = this.heartbeatExecutor.scheduleAtFixedRate(() -> {
+            ThreadLocalContextUtil.setTenant(tenant);
+            try {
+                if (!this.jobPartitionLeaseService.renewLease(partition.getId(), this.leaseOwner, leaseSeconds)) {
+                    LOG.warn("{}: lease of partition {} has been lost", step.getName(), partition);
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("{}: could not renew the lease of partition {}", step.getName(), partition, e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        try {
+            final List<Long> ids = step.retrieveIds(partition.getFromId(), partition.getToId());
+            execute(partition.toString(), ids, step::execute);
+            if (!this.jobPartitionLeaseService.completePartition(partition.getId(), this.leaseOwner)) {
+                LOG.warn("{}: partition {} was completed after its lease was lost", step.getName(), partition);
+            }
+        } catch (JobExecutionException e) {
+            final StringBuilder errorLog = new StringBuilder();
+            for (final Throwable cause : e.getCauses()) {
+                errorLog.append(cause).append('\n');
+            }
+            this.jobPartitionLeaseService.failPartition(partition.getId(), this.leaseOwner, errorLog.toString());
+        } catch (RuntimeException e) {
+            LOG.error("{}: partition {} failed", step.getName(), partition, e);
+            this.jobPartitionLeaseService.failPartition(partition.getId(), this.leaseOwner, e.toString());
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private <T> List<Throwable> executeChunk(final String jobName, final List<T> chunk, final ItemTask<T> task,
+            final FineractPlatformTenant tenant) throws InterruptedException {
+        try {
+            executeWithRetries(jobName, tenant, () -> this.transactionTemplate.executeWithoutResult(status -> {
+                for (final T item : chunk) {
+                    executeTask(task, item);
+                }
+            }));
+            return Collections.emptyList();
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                LOG.error("{}: failed for {}", jobName, chunk.get(0), e);
+                return Collections.singletonList(unwrap(e));
+            }
+            LOG.warn("{}: chunk of {} items starting at {} failed, replaying its items individually", jobName, chunk.size(), chunk.get(0));
+        }
+
+        final List<Throwable> errors = new ArrayList<>();
+        for (final T item : chunk) {
+            try {
+                executeWithRetries(jobName, tenant, () -> this.transactionTemplate.executeWithoutResult(status -> executeTask(task, item)));
+            } catch (RuntimeException e) {
+                LOG.error("{}: failed for {}", jobName, item, e);
+                errors.add(unwrap(e));
+            }
+        }
+        return errors;
+    }
+
+    private static <T> void executeTask(final ItemTask<T> task, final T item) {
+        try {
+            task.execute(item);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ItemTaskException(e);
+        }
+    }
+
+    private static Throwable unwrap(final RuntimeException exception) {
+        return exception instanceof ItemTaskException ? exception.getCause() : exception;
+    }
+
+    @SuppressFBWarnings(value = {
+            "DMI_RANDOM_USED_ONLY_ONCE" }, justification = "False positive for random object created and used only once")
+    private void executeWithRetries(final String jobName, final FineractPlatformTenant tenant, final Runnable unitOfWork)
+            throws InterruptedException {
+        final int maxNumberOfRetries = tenant.getConnection().getMaxRetriesOnDeadlock();
+        final int maxIntervalBetweenRetries = tenant.getConnection().getMaxIntervalBetweenRetries();
+        int numberOfRetries = 0;
+        while (true) {
+            try {
+                unitOfWork.run();
+                return;
+            } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
+                // Fail if the transaction has been retried for maxNumberOfRetries
+                if (numberOfRetries >= maxNumberOfRetries) {
+                    LOG.error("{}: retried for the max allowed attempts of {} and will be rolled back", jobName, numberOfRetries);
+                    throw exception;
+                }
+                LOG.info("{}: retrying after lock failure, {} time(s) so far", jobName, numberOfRetries);
+                // Else sleep for a random time (between 1 to 10 seconds) and continue
+                final int randomNum = random.nextInt(maxIntervalBetweenRetries + 1);
+                Thread.sleep(1000 + (randomNum * 1000L));
+                numberOfRetries++;
+            }
+        }
+    }
+
+    /**
+     * Carries checked exceptions of an {@link ItemTask} through the transaction callback.
+     */
+    private static final class ItemTaskException extends RuntimeException {
+
+        ItemTaskException(final Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+
+/**
+ * A per entity step of a scheduled job which can be split into id-range partitions and executed by any node of a
+ * cluster, see {@link PartitionedJobExecutor#execute(PartitionedJobStep, java.util.Collection)}.
+ *
+ * Implementations are registered as Spring beans so that every node can resolve the step of a leased partition by its
+ * name. A partition may be executed again by another node when its lease expires, so {@link #retrieveIds(Long, Long)}
+ * should leave out the entities already processed, and {@link #execute(Long)} must be safe to repeat for those it
+ * cannot tell apart.
+ */
+public interface PartitionedJobStep {
+
+    /**
+     * Unique name of the step, stored with every partition (usually the {@link JobName}).
+     */
+    String getName();
+
+    /**
+     * Returns the ids between fromId and toId (both inclusive) which still need to be processed.
+     */
+    List<Long> retrieveIds(Long fromId, Long toId);
+
+    void execute(Long id) throws Exception;
+}
@@ -85,9 +85,13 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
         }
         final JobHistoryMapper jobHistoryMapper = new JobHistoryMapper(sqlGenerator);
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(jobHistoryMapper.schema());
         sqlBuilder.append(" where job.id=?");
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), new Object[] { jobId }, jobHistoryMapper,
+                    searchParameters.getKeyset(), "runHistory.id");
+        }
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -189,7 +193,8 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
         JobHistoryMapper(DatabaseSpecificSQLGenerator sqlGenerator) {
             sqlBuilder = new StringBuilder(200)
-                    .append(" runHistory.version,runHistory.start_time as runStartTime,runHistory.end_time as runEndTime,runHistory."
+                    .append(" runHistory.id as id,")
+                    .append("runHistory.version,runHistory.start_time as runStartTime,runHistory.end_time as runEndTime,runHistory."
                             + sqlGenerator.escape("status")
                             + ",runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog ")
                     .append(" from job job join job_run_history runHistory ON job.id=runHistory.job_id");
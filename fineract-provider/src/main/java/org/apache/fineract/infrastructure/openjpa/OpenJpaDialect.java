@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import org.apache.commons.logging.LogFactory;
+import org.apache.fineract.infrastructure.core.service.ReadReplicaRoutingContext;
 import org.apache.openjpa.persistence.FetchPlan;
 import org.apache.openjpa.persistence.OpenJPAEntityManager;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
@@ -65,15 +66,31 @@ public class OpenJpaDialect extends DefaultJpaDialect {
         entityManager.getTransaction().begin();
 
         if (!definition.isReadOnly()) {
-            // Like with EclipseLink, make sure to start the logic transaction
-            // early so that other
-            // participants using the connection (such as JdbcTemplate) run in a
-            // transaction.
-            openJpaEntityManager.beginStore();
+            // read-write transactions always run against the primary database;
+            // this has to be known before the store begins, as that already
+            // takes the connection
+            ReadReplicaRoutingContext.beginReadWriteTransaction();
+            try {
+                // Like with EclipseLink, make sure to start the logic transaction
+                // early so that other
+                // participants using the connection (such as JdbcTemplate) run in a
+                // transaction.
+                openJpaEntityManager.beginStore();
+            } catch (RuntimeException e) {
+                ReadReplicaRoutingContext.endReadWriteTransaction();
+                throw e;
+            }
         }
 
         // Custom implementation for OpenJPA savepoint handling
-        return new OpenJpaTransactionData(openJpaEntityManager);
+        return new OpenJpaTransactionData(openJpaEntityManager, !definition.isReadOnly());
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof OpenJpaTransactionData && ((OpenJpaTransactionData) transactionData).readWrite) {
+            ReadReplicaRoutingContext.endReadWriteTransaction();
+        }
     }
 
     @Override
@@ -101,10 +118,13 @@ public class OpenJpaDialect extends DefaultJpaDialect {
 
         private final OpenJPAEntityManager entityManager;
 
+        private final boolean readWrite;
+
         private int savepointCounter = 0;
 
-        OpenJpaTransactionData(OpenJPAEntityManager entityManager) {
+        OpenJpaTransactionData(OpenJPAEntityManager entityManager, boolean readWrite) {
             this.entityManager = entityManager;
+            this.readWrite = readWrite;
         }
 
         @Override
@@ -68,10 +68,15 @@ public class ReportMailingJobReadPlatformServiceImpl implements ReportMailingJob
         final List<Object> queryParameters = new ArrayList<>();
         final ReportMailingJobMapper mapper = new ReportMailingJobMapper();
 
-        sqlStringBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlStringBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlStringBuilder.append(mapper.reportMailingJobSchema());
         sqlStringBuilder.append(" where rmj.is_deleted = false");
 
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlStringBuilder.toString(), queryParameters.toArray(), mapper,
+                    searchParameters.getKeyset(), "rmj.id");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlStringBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlStringBuilder.toString(), searchParameters.getOrderBy());
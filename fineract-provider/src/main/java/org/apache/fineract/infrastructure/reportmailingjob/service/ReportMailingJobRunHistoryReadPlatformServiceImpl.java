@@ -61,7 +61,7 @@ public class ReportMailingJobRunHistoryReadPlatformServiceImpl implements Report
         final StringBuilder sqlStringBuilder = new StringBuilder(200);
         final List<Object> queryParameters = new ArrayList<>();
 
-        sqlStringBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlStringBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlStringBuilder.append(this.reportMailingJobRunHistoryMapper.reportMailingJobRunHistorySchema());
 
         if (reportMailingJobId != null) {
@@ -69,6 +69,14 @@ public class ReportMailingJobRunHistoryReadPlatformServiceImpl implements Report
             queryParameters.add(reportMailingJobId);
         }
 
+        if (searchParameters.getKeyset() != null) {
+            if (reportMailingJobId == null) {
+                sqlStringBuilder.append(" where 1 = 1");
+            }
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlStringBuilder.toString(), queryParameters.toArray(),
+                    this.reportMailingJobRunHistoryMapper, searchParameters.getKeyset(), "rmjrh.id");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlStringBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlStringBuilder.toString(), searchParameters.getOrderBy());
@@ -124,7 +124,7 @@ public class TwoFactorServiceImpl implements TwoFactorService {
 
     @Override
     @CachePut(value = "userTFAccessToken", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil)"
-            + ".getTenant().getTenantIdentifier().concat(#user.username).concat(#result.token + 'tok')")
+            + ".getTenant().getTenantIdentifier().concat('|').concat(#user.username).concat(#result.token + 'tok')")
     public TFAccessToken createAccessTokenFromOTP(final AppUser user, final String otpToken) {
 
         OTPRequest otpRequest = otpRequestRepository.getOTPRequestForUser(user);
@@ -157,7 +157,7 @@ public class TwoFactorServiceImpl implements TwoFactorService {
 
     @Override
     @CacheEvict(value = "userTFAccessToken", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil)"
-            + ".getTenant().getTenantIdentifier().concat(#user.username).concat(#result.token + 'tok')")
+            + ".getTenant().getTenantIdentifier().concat('|').concat(#user.username).concat(#result.token + 'tok')")
     public TFAccessToken invalidateAccessToken(final AppUser user, final JsonCommand command) {
 
         final String token = command.stringValueOfParameterNamed("token");
@@ -175,7 +175,7 @@ public class TwoFactorServiceImpl implements TwoFactorService {
 
     @Override
     @Cacheable(value = "userTFAccessToken", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil)"
-            + ".getTenant().getTenantIdentifier().concat(#user.username).concat(#token + 'tok')")
+            + ".getTenant().getTenantIdentifier().concat('|').concat(#user.username).concat(#token + 'tok')")
     public TFAccessToken fetchAccessTokenForUser(final AppUser user, final String token) {
         return tfAccessTokenRepository.findByUserAndToken(user, token);
     }
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.scheduler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PreDestroy;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
+import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
+import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.sms.data.SmsMessageApiQueueResourceData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posts batches of SMS messages to the intermediate gateway through a single {@link OkHttpClient}, so that connections
+ * are reused across batches, without waiting for the gateway to answer.
+ *
+ * At most {@code fineract.sms.max-concurrent-requests-per-provider} requests per SMS provider are in flight. Once a
+ * provider has used them up, {@link #dispatch(Long, Collection)} blocks until one of its requests completes, so that a
+ * slow gateway slows down the scan of pending messages instead of piling up requests.
+ */
+@Component
+public class SmsGatewayDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SmsGatewayDispatcher.class);
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final SmsConfigUtils smsConfigUtils;
+    private final OkHttpClient client;
+    private final int maxConcurrentRequestsPerProvider;
+    private final Map<String, Semaphore> permitsByProvider = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SmsGatewayDispatcher(final SmsConfigUtils smsConfigUtils, final FineractProperties fineractProperties) {
+        this.smsConfigUtils = smsConfigUtils;
+        this.maxConcurrentRequestsPerProvider = Math.max(1, fineractProperties.getSms().getMaxConcurrentRequestsPerProvider());
+        this.client = new OkHttpClient();
+        // every provider is reached through the same gateway host, the permits above are what bounds the requests
+        this.client.dispatcher().setMaxRequestsPerHost(this.client.dispatcher().getMaxRequests());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.client.dispatcher().executorService().shutdown();
+        this.client.connectionPool().evictAll();
+    }
+
+    /**
+     * Sends the messages of one provider to the gateway of the current tenant.
+     *
+     * @return completes once the gateway has accepted the messages, or exceptionally when it could not be reached or
+     *         rejected them
+     */
+    public CompletableFuture<Void> dispatch(final Long providerId, final Collection<SmsMessageApiQueueResourceData> messages) {
+        final Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms",
+                SmsMessageApiQueueResourceData.toJsonString(messages));
+        final URI uri = (URI) hostConfig.get("uri");
+        final HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
+        final Request.Builder request = new Request.Builder().url(uri.toString()).post(RequestBody.create((String) entity.getBody(), JSON));
+        entity.getHeaders().forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                values.forEach(value -> request.addHeader(name, value));
+            }
+        });
+
+        final Semaphore permits = this.permitsByProvider.computeIfAbsent(String.valueOf(providerId),
+                key -> new Semaphore(this.maxConcurrentRequestsPerProvider));
+        permits.acquireUninterruptibly();
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        this.client.newCall(request.build()).enqueue(new Callback() {
+
+            @Override
+            public void onFailure(final Call call, final IOException e) {
+                permits.release();
+                LOG.error("Failed to send {} SMS message(s) of provider {} to the gateway", messages.size(), providerId, e);
+                result.completeExceptionally(new ConnectionFailureException(SmsCampaignConstants.SMS, e));
+            }
+
+            @Override
+            public void onResponse(final Call call, final Response response) {
+                permits.release();
+                try (response) {
+                    if (response.code() == HttpStatus.ACCEPTED.value()) {
+                        result.complete(null);
+                    } else {
+                        LOG.error("Gateway answered {} to {} SMS message(s) of provider {}", response.code(), messages.size(), providerId);
+                        result.completeExceptionally(new ConnectionFailureException(SmsCampaignConstants.SMS));
+                    }
+                }
+            }
+        });
+        return result;
+    }
+}
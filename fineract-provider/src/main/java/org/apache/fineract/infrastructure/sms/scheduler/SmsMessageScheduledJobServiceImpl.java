@@ -20,11 +20,17 @@ package org.apache.fineract.infrastructure.sms.scheduler;
 
 import com.google.gson.Gson;
 import java.net.URI;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import javax.annotation.PostConstruct;
@@ -32,8 +38,11 @@ import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
 import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
 import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
 import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
@@ -50,13 +59,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -69,82 +80,144 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
     private final SmsReadPlatformService smsReadPlatformService;
     private static final Logger LOG = LoggerFactory.getLogger(SmsMessageScheduledJobServiceImpl.class);
     private final RestTemplate restTemplate = new RestTemplate();
-    private ExecutorService genericExecutorService;
     private ExecutorService triggeredExecutorService;
     private final SmsConfigUtils smsConfigUtils;
     private final NotificationSenderService notificationSenderService;
+    private final SmsGatewayDispatcher smsGatewayDispatcher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
 
     /**
      * SmsMessageScheduledJobServiceImpl constructor
      **/
     @Autowired
     public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository, SmsReadPlatformService smsReadPlatformService,
-            final SmsConfigUtils smsConfigUtils, final NotificationSenderService notificationSenderService) {
+            final SmsConfigUtils smsConfigUtils, final NotificationSenderService notificationSenderService,
+            final SmsGatewayDispatcher smsGatewayDispatcher, final RoutingDataSource dataSource,
+            final TransactionTemplate transactionTemplate, final FineractProperties fineractProperties) {
         this.smsMessageRepository = smsMessageRepository;
         this.smsReadPlatformService = smsReadPlatformService;
         this.smsConfigUtils = smsConfigUtils;
         this.notificationSenderService = notificationSenderService;
+        this.smsGatewayDispatcher = smsGatewayDispatcher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = fineractProperties.getSms().getBatchSize();
     }
 
     @PostConstruct
     public void initializeExecutorService() {
-        genericExecutorService = Executors.newSingleThreadExecutor();
         triggeredExecutorService = Executors.newSingleThreadExecutor();
     }
 
     /**
-     * Send batches of SMS messages to the SMS gateway (or intermediate gateway)
+     * Send batches of SMS messages to the SMS gateway (or intermediate gateway).
+     *
+     * Pending messages are read in batches of {@code fineract.sms.batch-size} by ascending id, each batch is marked as
+     * waiting for its delivery report in a single statement and its messages are handed to the
+     * {@link SmsGatewayDispatcher}, one request per provider. The job waits for the gateway to have answered all
+     * requests before completing.
      **/
     @Override
-    @Transactional
     @CronTarget(jobName = JobName.SEND_MESSAGES_TO_SMS_GATEWAY)
     public void sendMessagesToGateway() {
-        Integer pageLimit = 200;
-        Integer page = 0;
-        int totalRecords = 0;
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final int batchSize = Math.max(1, this.batchSize);
+        final PendingSmsMessageMapper mapper = new PendingSmsMessageMapper();
+        final List<CompletableFuture<Void>> dispatched = new ArrayList<>();
+        long lastId = 0L;
+        List<PendingSmsMessage> pendingMessages;
         do {
-            PageRequest pageRequest = PageRequest.of(0, pageLimit);
-            org.springframework.data.domain.Page<SmsMessage> pendingMessages = this.smsMessageRepository
-                    .findByStatusType(SmsMessageStatusType.PENDING.getValue(), pageRequest);
-            List<SmsMessage> toSaveMessages = new ArrayList<>();
-            List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
-            try {
+            pendingMessages = this.jdbcTemplate.query(mapper.schema(), mapper, SmsMessageStatusType.PENDING.getValue(), lastId, batchSize);
+            if (pendingMessages.isEmpty()) {
+                break;
+            }
+            lastId = pendingMessages.get(pendingMessages.size() - 1).id;
 
-                if (pendingMessages.getContent().size() > 0) {
-                    final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-                    Iterator<SmsMessage> pendingMessageIterator = pendingMessages.iterator();
-                    Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-                    while (pendingMessageIterator.hasNext()) {
-                        SmsMessage smsData = pendingMessageIterator.next();
-                        if (smsData.isNotification()) {
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSendNotificationMessages.add(smsData);
-                        } else {
-                            SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(smsData.getId(),
-                                    tenantIdentifier, null, null, smsData.getMobileNo(), smsData.getMessage(),
-                                    smsData.getSmsCampaign().getProviderId());
-                            apiQueueResourceDatas.add(apiQueueResourceData);
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSaveMessages.add(smsData);
-                        }
-                    }
-                    if (toSaveMessages.size() > 0) {
-                        this.smsMessageRepository.saveAll(toSaveMessages);
-                        this.smsMessageRepository.flush();
-                        this.genericExecutorService.execute(new SmsTask(ThreadLocalContextUtil.getTenant(), apiQueueResourceDatas));
-                    }
-                    if (!toSendNotificationMessages.isEmpty()) {
-                        this.notificationSenderService.sendNotification(toSendNotificationMessages);
-                    }
-                    // new MyThread(ThreadLocalContextUtil.getTenant(),
-                    // apiQueueResourceDatas).start();
+            final List<Long> notificationIds = new ArrayList<>();
+            final List<Long> gatewayIds = new ArrayList<>();
+            final Map<Long, Collection<SmsMessageApiQueueResourceData>> messagesByProvider = new LinkedHashMap<>();
+            for (final PendingSmsMessage pendingMessage : pendingMessages) {
+                if (pendingMessage.notification) {
+                    notificationIds.add(pendingMessage.id);
+                } else {
+                    gatewayIds.add(pendingMessage.id);
+                    messagesByProvider.computeIfAbsent(pendingMessage.providerId, providerId -> new ArrayList<>())
+                            .add(SmsMessageApiQueueResourceData.instance(pendingMessage.id, tenantIdentifier, null, null,
+                                    pendingMessage.mobileNo, pendingMessage.message, pendingMessage.providerId));
                 }
-            } catch (Exception e) {
-                throw new ConnectionFailureException(SmsCampaignConstants.SMS, e);
             }
-            page++;
-            totalRecords = pendingMessages.getTotalPages();
-        } while (page < totalRecords);
+
+            // committed before the messages leave, so that a delivery report can never race the status change
+            updateStatus(gatewayIds, SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT);
+            for (final Map.Entry<Long, Collection<SmsMessageApiQueueResourceData>> entry : messagesByProvider.entrySet()) {
+                dispatched.add(this.smsGatewayDispatcher.dispatch(entry.getKey(), entry.getValue()));
+            }
+            if (!notificationIds.isEmpty()) {
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    final List<SmsMessage> notifications = this.smsMessageRepository.findAllById(notificationIds);
+                    notifications.forEach(
+                            notification -> notification.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue()));
+                    this.notificationSenderService.sendNotification(notifications);
+                });
+            }
+        } while (pendingMessages.size() == batchSize);
+
+        ConnectionFailureException failure = null;
+        for (final CompletableFuture<Void> request : dispatched) {
+            try {
+                request.join();
+            } catch (CompletionException e) {
+                failure = (ConnectionFailureException) e.getCause();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void updateStatus(final List<Long> ids, final SmsMessageStatusType statusType) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        final String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        final List<Object> params = new ArrayList<>(ids.size() + 1);
+        params.add(statusType.getValue());
+        params.addAll(ids);
+        this.jdbcTemplate.update("update sms_messages_outbound set status_enum = ? where id in (" + placeholders + ")", params.toArray());
+    }
+
+    private static final class PendingSmsMessage {
+
+        private final Long id;
+        private final String mobileNo;
+        private final String message;
+        private final boolean notification;
+        private final Long providerId;
+
+        PendingSmsMessage(final Long id, final String mobileNo, final String message, final boolean notification, final Long providerId) {
+            this.id = id;
+            this.mobileNo = mobileNo;
+            this.message = message;
+            this.notification = notification;
+            this.providerId = providerId;
+        }
+    }
+
+    private static final class PendingSmsMessageMapper implements RowMapper<PendingSmsMessage> {
+
+        public String schema() {
+            return "select m.id as id, m.mobile_no as mobileNo, m.message as message, m.is_notification as isNotification, "
+                    + "c.provider_id as providerId from sms_messages_outbound m left join sms_campaign c on c.id = m.campaign_id "
+                    + "where m.status_enum = ? and m.id > ? order by m.id limit ?";
+        }
+
+        @Override
+        public PendingSmsMessage mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new PendingSmsMessage(rs.getLong("id"), rs.getString("mobileNo"), rs.getString("message"),
+                    rs.getBoolean("isNotification"), JdbcSupport.getLong(rs, "providerId"));
+        }
     }
 
     class SmsTask implements Runnable, ApplicationListener<ContextClosedEvent> {
@@ -165,7 +238,7 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
 
         @Override
         public void onApplicationEvent(ContextClosedEvent event) {
-            genericExecutorService.shutdown();
+            triggeredExecutorService.shutdown();
             LOG.info("Shutting down the ExecutorService");
         }
     }
@@ -118,12 +118,13 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
     @Override
     public Page<NotificationData> getAllUnreadNotifications(final SearchParameters searchParameters) {
         final Long appUserId = context.authenticatedUser().getId();
-        String sql = "SELECT " + sqlGenerator.calcFoundRows() + " ng.id as id, nm.user_id as userId, ng.object_type as objectType, "
+        String sql = "SELECT " + this.paginationHelper.calcFoundRows(searchParameters)
+                + " ng.id as id, nm.user_id as userId, ng.object_type as objectType, "
                 + "ng.object_identifier as objectId, ng.actor as actor, ng." + sqlGenerator.escape("action")
                 + " as action, ng.notification_content "
                 + "as content, ng.is_system_generated as isSystemGenerated, nm.created_at as createdAt "
                 + "FROM notification_mapper nm INNER JOIN notification_generator ng ON nm.notification_id = ng.id "
-                + "WHERE nm.user_id = ? AND nm.is_read = false order by nm.created_at desc";
+                + "WHERE nm.user_id = ? AND nm.is_read = false";
 
         return getNotificationDataPage(searchParameters, appUserId, sql);
     }
@@ -131,12 +132,13 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
     @Override
     public Page<NotificationData> getAllNotifications(SearchParameters searchParameters) {
         final Long appUserId = context.authenticatedUser().getId();
-        String sql = "SELECT " + sqlGenerator.calcFoundRows() + " ng.id as id, nm.user_id as userId, ng.object_type as objectType, "
+        String sql = "SELECT " + this.paginationHelper.calcFoundRows(searchParameters)
+                + " ng.id as id, nm.user_id as userId, ng.object_type as objectType, "
                 + "ng.object_identifier as objectId, ng.actor as actor, ng." + sqlGenerator.escape("action")
                 + " as action, ng.notification_content "
                 + "as content, ng.is_system_generated as isSystemGenerated, nm.created_at as createdAt "
                 + "FROM notification_mapper nm INNER JOIN notification_generator ng ON nm.notification_id = ng.id "
-                + "WHERE nm.user_id = ? order by nm.created_at desc";
+                + "WHERE nm.user_id = ?";
 
         return getNotificationDataPage(searchParameters, appUserId, sql);
     }
@@ -145,6 +147,13 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append(sql);
 
+        Object[] params = new Object[] { appUserId };
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), params, this.notificationDataRow,
+                    searchParameters.getKeyset(), "ng.id");
+        }
+
+        sqlBuilder.append(" order by nm.created_at desc");
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -163,7 +172,6 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
             }
         }
 
-        Object[] params = new Object[] { appUserId };
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), params, this.notificationDataRow);
     }
 
@@ -85,6 +85,9 @@ public class Holiday extends AbstractPersistableCustom {
     @Column(name = "processed", nullable = false)
     private boolean processed;
 
+    @Column(name = "processed_up_to_loan_id", nullable = true)
+    private Long processedUpToLoanId;
+
     @Column(name = "description", length = 100)
     private String description;
 
@@ -296,6 +299,19 @@ public class Holiday extends AbstractPersistableCustom {
 
     public void processed() {
         this.processed = true;
+        this.processedUpToLoanId = null;
+    }
+
+    /**
+     * The highest loan id up to which this holiday has been applied by a run of the job which was interrupted, null
+     * when no loan has been processed yet.
+     */
+    public Long getProcessedUpToLoanId() {
+        return this.processedUpToLoanId;
+    }
+
+    public void loansProcessedUpTo(final Long loanId) {
+        this.processedUpToLoanId = loanId;
     }
 
     public void activate() {
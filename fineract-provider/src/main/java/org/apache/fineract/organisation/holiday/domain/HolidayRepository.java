@@ -31,6 +31,9 @@ public interface HolidayRepository extends JpaRepository<Holiday, Long>, JpaSpec
     List<Holiday> findByOfficeIdAndGreaterThanDate(@Param("officeId") Long officeId, @Param("date") Date date,
             @Param("status") Integer status);
 
+    @Query("select holiday from Holiday holiday, IN(holiday.offices) office where holiday.status = :status and office.id = :officeId order by holiday.id")
+    List<Holiday> findByOfficeId(@Param("officeId") Long officeId, @Param("status") Integer status);
+
     @Query("select holiday from Holiday holiday where holiday.processed = false and holiday.status = :status")
     List<Holiday> findUnprocessed(@Param("status") Integer status);
 }
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.holiday.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.organisation.workingdays.service.WorkingDaysUtil;
+
+/**
+ * Immutable index over the active holidays of an office and the working days of the tenant, answering the holiday and
+ * working day lookups of schedule generation without scanning the holiday list for every date.
+ *
+ * The holidays are kept sorted by their from date together with the running maximum of their to dates, so that the
+ * holidays covering a date are found with a binary search. Where holidays overlap, the one listed last in the list the
+ * index was built from applies, as in {@link HolidayUtil#getApplicableHoliday(LocalDate, List)}. The working days are
+ * held as a bitmap over the days of the week.
+ */
+public final class HolidayCalendar {
+
+    private final List<Holiday> holidays;
+    private final Holiday[] holidaysByFromDate;
+    private final int[] positions;
+    private final long[] fromDays;
+    private final long[] toDays;
+    private final long[] maxToDays;
+    private final WorkingDays workingDays;
+    private final int workingDaysOfWeek;
+    private final long endingOnOrAfter;
+
+    private HolidayCalendar(final List<Holiday> holidays, final Holiday[] holidaysByFromDate, final int[] positions, final long[] fromDays,
+            final long[] toDays, final long[] maxToDays, final WorkingDays workingDays, final int workingDaysOfWeek,
+            final long endingOnOrAfter) {
+        this.holidays = holidays;
+        this.holidaysByFromDate = holidaysByFromDate;
+        this.positions = positions;
+        this.fromDays = fromDays;
+        this.toDays = toDays;
+        this.maxToDays = maxToDays;
+        this.workingDays = workingDays;
+        this.workingDaysOfWeek = workingDaysOfWeek;
+        this.endingOnOrAfter = endingOnOrAfter;
+    }
+
+    public static HolidayCalendar of(final List<Holiday> holidays, final WorkingDays workingDays) {
+        final List<Holiday> listed = holidays == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(holidays));
+        final int size = listed.size();
+        final Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> listed.get(i).getFromDateLocalDate()));
+
+        final Holiday[] holidaysByFromDate = new Holiday[size];
+        final int[] positions = new int[size];
+        final long[] fromDays = new long[size];
+        final long[] toDays = new long[size];
+        final long[] maxToDays = new long[size];
+        for (int i = 0; i < size; i++) {
+            final Holiday holiday = listed.get(order[i]);
+            holidaysByFromDate[i] = holiday;
+            positions[i] = order[i];
+            fromDays[i] = holiday.getFromDateLocalDate().toEpochDay();
+            toDays[i] = holiday.getToDateLocalDate().toEpochDay();
+            maxToDays[i] = i == 0 ? toDays[i] : Math.max(maxToDays[i - 1], toDays[i]);
+        }
+        return new HolidayCalendar(listed, holidaysByFromDate, positions, fromDays, toDays, maxToDays, workingDays,
+                workingDaysOfWeek(workingDays), Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns a view of this calendar restricted to the holidays ending on or after date, matching the holidays
+     * returned by {@code HolidayRepository.findByOfficeIdAndGreaterThanDate}.
+     */
+    public HolidayCalendar endingOnOrAfter(final LocalDate date) {
+        final long endingOnOrAfter = date.toEpochDay();
+        final List<Holiday> ending = new ArrayList<>();
+        for (final Holiday holiday : this.holidays) {
+            if (holiday.getToDateLocalDate().toEpochDay() >= endingOnOrAfter) {
+                ending.add(holiday);
+            }
+        }
+        return new HolidayCalendar(Collections.unmodifiableList(ending), this.holidaysByFromDate, this.positions, this.fromDays,
+                this.toDays, this.maxToDays, this.workingDays, this.workingDaysOfWeek, Math.max(endingOnOrAfter, this.endingOnOrAfter));
+    }
+
+    public List<Holiday> getHolidays() {
+        return this.holidays;
+    }
+
+    public WorkingDays getWorkingDays() {
+        return this.workingDays;
+    }
+
+    public Holiday getApplicableHoliday(final LocalDate date) {
+        final long day = date.toEpochDay();
+        Holiday applicable = null;
+        int applicablePosition = -1;
+        for (int i = lastStartingOnOrBefore(day); i >= 0 && this.maxToDays[i] >= day; i--) {
+            // a holiday covering a date before the cutoff still applies when it ends on or after the cutoff
+            if (this.toDays[i] >= day && this.toDays[i] >= this.endingOnOrAfter && this.positions[i] > applicablePosition) {
+                applicable = this.holidaysByFromDate[i];
+                applicablePosition = this.positions[i];
+            }
+        }
+        return applicable;
+    }
+
+    public boolean isHoliday(final LocalDate date) {
+        return getApplicableHoliday(date) != null;
+    }
+
+    public boolean isWorkingDay(final LocalDate date) {
+        return (this.workingDaysOfWeek & (1 << date.getDayOfWeek().ordinal())) != 0;
+    }
+
+    public boolean isNonWorkingDay(final LocalDate date) {
+        return !isWorkingDay(date);
+    }
+
+    private int lastStartingOnOrBefore(final long day) {
+        int low = 0;
+        int high = this.fromDays.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (this.fromDays[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private static int workingDaysOfWeek(final WorkingDays workingDays) {
+        if (workingDays == null) {
+            return 0;
+        }
+        // the working days recur weekly, evaluating the recurrence once for each day of a week gives the whole bitmap
+        int workingDaysOfWeek = 0;
+        LocalDate date = LocalDate.of(2000, 1, 3);
+        for (int i = 0; i < DayOfWeek.values().length; i++, date = date.plusDays(1)) {
+            if (WorkingDaysUtil.isWorkingDay(workingDays, date)) {
+                workingDaysOfWeek |= 1 << date.getDayOfWeek().ordinal();
+            }
+        }
+        return workingDaysOfWeek;
+    }
+}
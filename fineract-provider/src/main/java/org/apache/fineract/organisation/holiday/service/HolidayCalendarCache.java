@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.holiday.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.infrastructure.cache.service.VersionedTenantCache;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDaysRepositoryWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds a {@link HolidayCalendar} per office of each tenant, so that building a loan schedule does not query the
+ * holidays and the working days every time.
+ *
+ * Creating, updating, activating or deleting a holiday and updating the working days increments the version stored in
+ * m_holiday_calendar_version within the changing transaction, see {@link VersionedTenantCache}; other nodes check that
+ * version at most every {@code fineract.configuration.version-check-interval-seconds}.
+ *
+ * The cached holidays and working days are detached entities, they must only be read.
+ */
+@Component
+public class HolidayCalendarCache {
+
+    private final HolidayRepositoryWrapper holidayRepository;
+    private final WorkingDaysRepositoryWrapper workingDaysRepository;
+    private final VersionedTenantCache<TenantCalendars> calendarsByTenant;
+
+    @Autowired
+    public HolidayCalendarCache(final RoutingDataSource dataSource, final FineractProperties fineractProperties,
+            final HolidayRepositoryWrapper holidayRepository, final WorkingDaysRepositoryWrapper workingDaysRepository) {
+        this.holidayRepository = holidayRepository;
+        this.workingDaysRepository = workingDaysRepository;
+        this.calendarsByTenant = new VersionedTenantCache<>(new JdbcTemplate(dataSource), "Holiday calendar",
+                "m_holiday_calendar_version", fineractProperties.getConfiguration().getVersionCheckIntervalSeconds() * 1000L);
+    }
+
+    /**
+     * Returns the calendar of the office restricted to the active holidays ending on or after date, the same holidays
+     * {@link HolidayRepositoryWrapper#findByOfficeIdAndGreaterThanDate} returns.
+     */
+    public HolidayCalendar getCalendar(final Long officeId, final LocalDate date) {
+        final TenantCalendars tenantCalendars = this.calendarsByTenant.current(version -> new TenantCalendars());
+        HolidayCalendar calendar = tenantCalendars.calendarsByOffice.get(officeId);
+        if (calendar == null) {
+            // loaded outside of the map, a concurrent load of the same office only costs the query twice
+            calendar = HolidayCalendar.of(this.holidayRepository.findActiveByOfficeId(officeId), workingDays(tenantCalendars));
+            tenantCalendars.calendarsByOffice.put(officeId, calendar);
+        }
+        return calendar.endingOnOrAfter(date);
+    }
+
+    public WorkingDays getWorkingDays() {
+        return workingDays(this.calendarsByTenant.current(version -> new TenantCalendars()));
+    }
+
+    /**
+     * Records a change of the holidays or of the working days: increments the stored version as part of the current
+     * transaction and drops the calendars of the current tenant once it has completed.
+     */
+    public void calendarChanged() {
+        this.calendarsByTenant.changed();
+    }
+
+    private WorkingDays workingDays(final TenantCalendars tenantCalendars) {
+        WorkingDays workingDays = tenantCalendars.workingDays;
+        if (workingDays == null) {
+            workingDays = this.workingDaysRepository.findOne();
+            tenantCalendars.workingDays = workingDays;
+        }
+        return workingDays;
+    }
+
+    private static final class TenantCalendars {
+
+        private final Map<Long, HolidayCalendar> calendarsByOffice = new ConcurrentHashMap<>();
+        private volatile WorkingDays workingDays;
+    }
+}
@@ -63,18 +63,20 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
     private final PlatformSecurityContext context;
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
     private final FromJsonHelper fromApiJsonHelper;
+    private final HolidayCalendarCache holidayCalendarCache;
 
     @Autowired
     public HolidayWritePlatformServiceJpaRepositoryImpl(final HolidayDataValidator fromApiJsonDeserializer,
             final HolidayRepositoryWrapper holidayRepository, final PlatformSecurityContext context,
             final OfficeRepositoryWrapper officeRepositoryWrapper, final FromJsonHelper fromApiJsonHelper,
-            final WorkingDaysRepositoryWrapper daysRepositoryWrapper) {
+            final WorkingDaysRepositoryWrapper daysRepositoryWrapper, final HolidayCalendarCache holidayCalendarCache) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.holidayRepository = holidayRepository;
         this.context = context;
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.daysRepositoryWrapper = daysRepositoryWrapper;
+        this.holidayCalendarCache = holidayCalendarCache;
     }
 
     @Transactional
@@ -92,6 +94,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
             final Holiday holiday = Holiday.createNew(offices, command);
 
             this.holidayRepository.save(holiday);
+            this.holidayCalendarCache.calendarChanged();
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(holiday.getId()).build();
         } catch (final JpaSystemException | DataIntegrityViolationException dve) {
@@ -126,6 +129,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
             }
 
             this.holidayRepository.saveAndFlush(holiday);
+            this.holidayCalendarCache.calendarChanged();
 
             return new CommandProcessingResultBuilder().withEntityId(holiday.getId()).with(changes).build();
         } catch (final JpaSystemException | DataIntegrityViolationException dve) {
@@ -146,6 +150,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
 
         holiday.activate();
         this.holidayRepository.saveAndFlush(holiday);
+        this.holidayCalendarCache.calendarChanged();
         return new CommandProcessingResultBuilder().withEntityId(holiday.getId()).build();
     }
 
@@ -156,6 +161,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
         final Holiday holiday = this.holidayRepository.findOneWithNotFoundDetection(holidayId);
         holiday.delete();
         this.holidayRepository.saveAndFlush(holiday);
+        this.holidayCalendarCache.calendarChanged();
         return new CommandProcessingResultBuilder().withEntityId(holidayId).build();
     }
 
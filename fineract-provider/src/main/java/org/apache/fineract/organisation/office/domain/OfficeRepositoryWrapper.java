@@ -18,6 +18,10 @@
  */
 package org.apache.fineract.organisation.office.domain;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -42,6 +46,17 @@ public class OfficeRepositoryWrapper {
         return this.repository.findById(id).orElseThrow(() -> new OfficeNotFoundException(id));
     }
 
+    public List<Office> findAllWithNotFoundDetection(final Collection<Long> ids) {
+        final List<Office> offices = this.repository.findAllById(ids);
+        final Set<Long> foundIds = offices.stream().map(Office::getId).collect(Collectors.toSet());
+        for (final Long id : ids) {
+            if (!foundIds.contains(id)) {
+                throw new OfficeNotFoundException(id);
+            }
+        }
+        return offices;
+    }
+
     @Transactional(readOnly = true)
     public Office findOfficeHierarchy(final Long id) {
         final Office office = this.repository.findById(id).orElseThrow(() -> new OfficeNotFoundException(id));
@@ -153,7 +153,7 @@ public class OfficeReadPlatformServiceImpl implements OfficeReadPlatformService
     }
 
     @Override
-    @Cacheable(value = "offices", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')")
+    @Cacheable(value = "offices", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('|').concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')")
     public Collection<OfficeData> retrieveAllOffices(final boolean includeAllOffices, final SearchParameters searchParameters) {
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
@@ -184,7 +184,7 @@ public class OfficeReadPlatformServiceImpl implements OfficeReadPlatformService
     }
 
     @Override
-    @Cacheable(value = "officesForDropdown", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'ofd')")
+    @Cacheable(value = "officesForDropdown", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('|').concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'ofd')")
     public Collection<OfficeData> retrieveAllOfficesForDropdown() {
         final AppUser currentUser = this.context.authenticatedUser();
 
@@ -198,7 +198,7 @@ public class OfficeReadPlatformServiceImpl implements OfficeReadPlatformService
     }
 
     @Override
-    @Cacheable(value = "officesById", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#officeId)")
+    @Cacheable(value = "officesById", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('|').concat(#officeId)")
     public OfficeData retrieveOffice(final Long officeId) {
 
         try {
@@ -378,7 +378,7 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
         return null;
     }
 
-    @Cacheable(value = "tellers", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')")
+    @Cacheable(value = "tellers", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('|').concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')")
     public Collection<TellerData> retrieveAllTellers(final boolean includeAllTellers) {
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
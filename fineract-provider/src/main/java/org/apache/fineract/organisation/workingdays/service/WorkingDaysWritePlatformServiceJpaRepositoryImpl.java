@@ -26,6 +26,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.organisation.holiday.service.HolidayCalendarCache;
 import org.apache.fineract.organisation.workingdays.api.WorkingDaysApiConstants;
 import org.apache.fineract.organisation.workingdays.data.WorkingDayValidator;
 import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
@@ -39,12 +40,14 @@ public class WorkingDaysWritePlatformServiceJpaRepositoryImpl implements Working
 
     private final WorkingDaysRepositoryWrapper daysRepositoryWrapper;
     private final WorkingDayValidator fromApiJsonDeserializer;
+    private final HolidayCalendarCache holidayCalendarCache;
 
     @Autowired
     public WorkingDaysWritePlatformServiceJpaRepositoryImpl(final WorkingDaysRepositoryWrapper daysRepositoryWrapper,
-            final WorkingDayValidator fromApiJsonDeserializer) {
+            final WorkingDayValidator fromApiJsonDeserializer, final HolidayCalendarCache holidayCalendarCache) {
         this.daysRepositoryWrapper = daysRepositoryWrapper;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.holidayCalendarCache = holidayCalendarCache;
     }
 
     @Transactional
@@ -62,6 +65,7 @@ public class WorkingDaysWritePlatformServiceJpaRepositoryImpl implements Working
 
             Map<String, Object> changes = workingDays.update(command);
             this.daysRepositoryWrapper.saveAndFlush(workingDays);
+            this.holidayCalendarCache.calendarChanged();
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(workingDays.getId()).with(changes)
                     .build();
         } catch (final ValidationException e) {
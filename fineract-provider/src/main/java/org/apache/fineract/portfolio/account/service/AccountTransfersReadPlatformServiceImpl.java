@@ -219,7 +219,7 @@ public class AccountTransfersReadPlatformServiceImpl implements AccountTransfers
     public Page<AccountTransferData> retrieveAll(final SearchParameters searchParameters, final Long accountDetailId) {
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.accountTransfersMapper.schema());
         Object[] finalObjectArray = {};
         if (accountDetailId != null) {
@@ -227,6 +227,14 @@ public class AccountTransfersReadPlatformServiceImpl implements AccountTransfers
             finalObjectArray = new Object[] { accountDetailId };
         }
 
+        if (searchParameters.getKeyset() != null) {
+            if (accountDetailId == null) {
+                sqlBuilder.append(" where 1 = 1");
+            }
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, this.accountTransfersMapper,
+                    searchParameters.getKeyset(), "att.id");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -413,11 +421,16 @@ public class AccountTransfersReadPlatformServiceImpl implements AccountTransfers
     public Page<AccountTransferData> retrieveByStandingInstruction(final Long id, final SearchParameters searchParameters) {
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.accountTransfersMapper.schema()).append(
                 " join m_account_transfer_standing_instructions atsi on atsi.account_transfer_details_id = att.account_transfer_details_id ");
         sqlBuilder.append(" where atsi.id = ?");
 
+        if (searchParameters != null && searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), new Object[] { id },
+                    this.accountTransfersMapper, searchParameters.getKeyset(), "att.id");
+        }
+
         if (searchParameters != null) {
             if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
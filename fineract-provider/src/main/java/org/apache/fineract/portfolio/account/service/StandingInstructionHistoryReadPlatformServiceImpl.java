@@ -74,12 +74,14 @@ public class StandingInstructionHistoryReadPlatformServiceImpl implements Standi
     public Page<StandingInstructionHistoryData> retrieveAll(StandingInstructionDTO standingInstructionDTO) {
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        final SearchParameters searchParameters = standingInstructionDTO.searchParameters();
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.standingInstructionHistoryMapper.schema());
-        if (standingInstructionDTO.transferType() != null || standingInstructionDTO.clientId() != null
+        final boolean hasWhereClause = standingInstructionDTO.transferType() != null || standingInstructionDTO.clientId() != null
                 || standingInstructionDTO.clientName() != null
                 || (standingInstructionDTO.fromAccountType() != null && standingInstructionDTO.fromAccount() != null)
-                || standingInstructionDTO.startDateRange() != null || standingInstructionDTO.endDateRange() != null) {
+                || standingInstructionDTO.startDateRange() != null || standingInstructionDTO.endDateRange() != null;
+        if (hasWhereClause) {
             sqlBuilder.append(" where ");
         }
         boolean addAndCaluse = false;
@@ -143,7 +145,14 @@ public class StandingInstructionHistoryReadPlatformServiceImpl implements Standi
             addAndCaluse = true;
         }
 
-        final SearchParameters searchParameters = standingInstructionDTO.searchParameters();
+        if (searchParameters.getKeyset() != null) {
+            if (!hasWhereClause) {
+                sqlBuilder.append(" where 1 = 1");
+            }
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramObj.toArray(),
+                    this.standingInstructionHistoryMapper, searchParameters.getKeyset(), "atsih.id", "historyId");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -173,7 +182,7 @@ public class StandingInstructionHistoryReadPlatformServiceImpl implements Standi
 
         StandingInstructionHistoryMapper() {
             final StringBuilder sqlBuilder = new StringBuilder(400);
-            sqlBuilder.append("atsi.id as id,atsi.name as name, ");
+            sqlBuilder.append("atsih.id as historyId, atsi.id as id,atsi.name as name, ");
             sqlBuilder.append("atsih.status as status, atsih.execution_time as executionTime, ");
             sqlBuilder.append("atsih.amount as amount, atsih.error_log as errorLog, ");
             sqlBuilder.append("fromoff.id as fromOfficeId, fromoff.name as fromOfficeName,");
@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.account.service;
 
 import java.util.Collection;
+import java.util.Map;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.portfolio.account.data.StandingInstructionDTO;
 import org.apache.fineract.portfolio.account.data.StandingInstructionData;
@@ -37,4 +38,10 @@ public interface StandingInstructionReadPlatformService {
 
     StandingInstructionDuesData retriveLoanDuesData(Long loanId);
 
+    /**
+     * Retrieves the dues of several loans at once; loans without anything due are mapped to dues without a due date and
+     * a total of zero, as {@link #retriveLoanDuesData(Long)} returns for them.
+     */
+    Map<Long, StandingInstructionDuesData> retriveLoanDuesData(Collection<Long> loanIds);
+
 }
@@ -33,7 +33,10 @@ import java.time.MonthDay;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -64,6 +67,7 @@ import org.apache.fineract.portfolio.common.service.DropdownReadPlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -71,6 +75,9 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class StandingInstructionReadPlatformServiceImpl implements StandingInstructionReadPlatformService {
 
+    // upper bound for the loan ids of one "in" list
+    private static final int LOAN_DUES_QUERY_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
     private final ColumnValidator columnValidator;
     private final ClientReadPlatformService clientReadPlatformService;
@@ -262,10 +269,12 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
     public Page<StandingInstructionData> retrieveAll(final StandingInstructionDTO standingInstructionDTO) {
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        final SearchParameters searchParameters = standingInstructionDTO.searchParameters();
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.standingInstructionMapper.schema());
-        if (standingInstructionDTO.transferType() != null || standingInstructionDTO.clientId() != null
-                || standingInstructionDTO.clientName() != null) {
+        final boolean hasWhereClause = standingInstructionDTO.transferType() != null || standingInstructionDTO.clientId() != null
+                || standingInstructionDTO.clientName() != null;
+        if (hasWhereClause) {
             sqlBuilder.append(" where ");
         }
         boolean addAndCaluse = false;
@@ -309,7 +318,14 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
             addAndCaluse = true;
         }
 
-        final SearchParameters searchParameters = standingInstructionDTO.searchParameters();
+        if (searchParameters.getKeyset() != null) {
+            if (!hasWhereClause) {
+                sqlBuilder.append(" where 1 = 1");
+            }
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramObj.toArray(),
+                    this.standingInstructionMapper, searchParameters.getKeyset(), "atsi.id");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -365,6 +381,25 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
         return this.jdbcTemplate.queryForObject(sql, rm, new Object[] { loanId });
     }
 
+    @Override
+    public Map<Long, StandingInstructionDuesData> retriveLoanDuesData(final Collection<Long> loanIds) {
+        final StandingInstructionLoanDuesMapper rm = new StandingInstructionLoanDuesMapper();
+        final Map<Long, StandingInstructionDuesData> loanDues = new HashMap<>();
+        final List<Long> loanIdList = new ArrayList<>(loanIds);
+        for (int fromIndex = 0; fromIndex < loanIdList.size(); fromIndex += LOAN_DUES_QUERY_SIZE) {
+            final List<Long> chunk = loanIdList.subList(fromIndex, Math.min(loanIdList.size(), fromIndex + LOAN_DUES_QUERY_SIZE));
+            final String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            final String sql = "select ml.id as loanId, " + rm.schema() + " where ml.id in (" + placeholders + ") and ls.duedate <= "
+                    + sqlGenerator.currentDate() + " and ls.completed_derived <> 1 group by ml.id";
+            this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> loanDues.put(rs.getLong("loanId"), rm.mapRow(rs, 0)),
+                    chunk.toArray());
+        }
+        for (final Long loanId : loanIdList) {
+            loanDues.putIfAbsent(loanId, new StandingInstructionDuesData(null, BigDecimal.ZERO));
+        }
+        return loanDues;
+    }
+
     private static final class StandingInstructionMapper implements RowMapper<StandingInstructionData> {
 
         private final String schemaSql;
@@ -24,22 +24,34 @@ import static org.apache.fineract.portfolio.account.AccountDetailConstants.toAcc
 import static org.apache.fineract.portfolio.account.api.StandingInstructionApiConstants.statusParamName;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformServiceUnavailableException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
@@ -52,12 +64,10 @@ import org.apache.fineract.portfolio.account.data.StandingInstructionDataValidat
 import org.apache.fineract.portfolio.account.data.StandingInstructionDuesData;
 import org.apache.fineract.portfolio.account.domain.AccountTransferDetailRepository;
 import org.apache.fineract.portfolio.account.domain.AccountTransferDetails;
-import org.apache.fineract.portfolio.account.domain.AccountTransferRecurrenceType;
 import org.apache.fineract.portfolio.account.domain.AccountTransferStandingInstruction;
 import org.apache.fineract.portfolio.account.domain.StandingInstructionAssembler;
 import org.apache.fineract.portfolio.account.domain.StandingInstructionRepository;
 import org.apache.fineract.portfolio.account.domain.StandingInstructionStatus;
-import org.apache.fineract.portfolio.account.domain.StandingInstructionType;
 import org.apache.fineract.portfolio.account.exception.StandingInstructionNotFoundException;
 import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DefaultScheduledDateGenerator;
@@ -71,6 +81,8 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.NonTransientDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -78,6 +90,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class StandingInstructionWritePlatformServiceImpl implements StandingInstructionWritePlatformService {
 
     private static final Logger LOG = LoggerFactory.getLogger(StandingInstructionWritePlatformServiceImpl.class);
+    // number of history rows written with one batch update
+    private static final int HISTORY_BATCH_SIZE = 500;
+    private static final String LAST_RUN_DATE_UPDATE = "UPDATE m_account_transfer_standing_instructions SET last_run_date = ? where id = ?";
 
     private final StandingInstructionDataValidator standingInstructionDataValidator;
     private final StandingInstructionAssembler standingInstructionAssembler;
@@ -87,6 +102,7 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     private final AccountTransfersWritePlatformService accountTransfersWritePlatformService;
     private final JdbcTemplate jdbcTemplate;
     private final DatabaseSpecificSQLGenerator sqlGenerator;
+    private final FineractProperties fineractProperties;
 
     @Autowired
     public StandingInstructionWritePlatformServiceImpl(final StandingInstructionDataValidator standingInstructionDataValidator,
@@ -95,15 +111,28 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
             final StandingInstructionRepository standingInstructionRepository,
             final StandingInstructionReadPlatformService standingInstructionReadPlatformService,
             final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final RoutingDataSource dataSource,
-            DatabaseSpecificSQLGenerator sqlGenerator) {
+            DatabaseSpecificSQLGenerator sqlGenerator, final FineractProperties fineractProperties) {
+        this(standingInstructionDataValidator, standingInstructionAssembler, accountTransferDetailRepository, standingInstructionRepository,
+                standingInstructionReadPlatformService, accountTransfersWritePlatformService, new JdbcTemplate(dataSource), sqlGenerator,
+                fineractProperties);
+    }
+
+    StandingInstructionWritePlatformServiceImpl(final StandingInstructionDataValidator standingInstructionDataValidator,
+            final StandingInstructionAssembler standingInstructionAssembler,
+            final AccountTransferDetailRepository accountTransferDetailRepository,
+            final StandingInstructionRepository standingInstructionRepository,
+            final StandingInstructionReadPlatformService standingInstructionReadPlatformService,
+            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final JdbcTemplate jdbcTemplate,
+            final DatabaseSpecificSQLGenerator sqlGenerator, final FineractProperties fineractProperties) {
         this.standingInstructionDataValidator = standingInstructionDataValidator;
         this.standingInstructionAssembler = standingInstructionAssembler;
         this.accountTransferDetailRepository = accountTransferDetailRepository;
         this.standingInstructionRepository = standingInstructionRepository;
         this.standingInstructionReadPlatformService = standingInstructionReadPlatformService;
         this.accountTransfersWritePlatformService = accountTransfersWritePlatformService;
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate = jdbcTemplate;
         this.sqlGenerator = sqlGenerator;
+        this.fineractProperties = fineractProperties;
     }
 
     @Transactional
@@ -199,41 +228,32 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     public void executeStandingInstructions() throws JobExecutionException {
         Collection<StandingInstructionData> instructionDatas = this.standingInstructionReadPlatformService
                 .retrieveAll(StandingInstructionStatus.ACTIVE.getValue());
-        List<Throwable> errors = new ArrayList<>();
-        for (StandingInstructionData data : instructionDatas) {
-            boolean isDueForTransfer = false;
-            AccountTransferRecurrenceType recurrenceType = data.recurrenceType();
-            StandingInstructionType instructionType = data.instructionType();
-            LocalDate transactionDate = LocalDate.now(DateUtils.getDateTimeZoneOfTenant());
-            if (recurrenceType.isPeriodicRecurrence()) {
-                final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
-                PeriodFrequencyType frequencyType = data.recurrenceFrequency();
-                LocalDate startDate = data.validFrom();
-                if (frequencyType.isMonthly()) {
-                    startDate = startDate.withDayOfMonth(data.recurrenceOnDay());
-                    if (startDate.isBefore(data.validFrom())) {
-                        startDate = startDate.plusMonths(1);
-                    }
-                } else if (frequencyType.isYearly()) {
-                    startDate = startDate.withDayOfMonth(data.recurrenceOnDay()).withMonth(data.recurrenceOnMonth());
-                    if (startDate.isBefore(data.validFrom())) {
-                        startDate = startDate.plusYears(1);
-                    }
-                }
-                isDueForTransfer = scheduledDateGenerator.isDateFallsInSchedule(frequencyType, data.recurrenceInterval(), startDate,
-                        transactionDate);
+        final LocalDate transactionDate = LocalDate.now(DateUtils.getDateTimeZoneOfTenant());
 
+        final Map<StandingInstructionData, Boolean> scheduledForTransfer = new HashMap<>();
+        final Set<Long> loanIds = new HashSet<>();
+        for (StandingInstructionData data : instructionDatas) {
+            final boolean isScheduled = isScheduledForTransfer(data, transactionDate);
+            scheduledForTransfer.put(data, isScheduled);
+            if (isLoanDuesRequired(data, isScheduled)) {
+                loanIds.add(data.toAccount().accountId());
             }
+        }
+        final Map<Long, StandingInstructionDuesData> loanDues = loanIds.isEmpty() ? Collections.emptyMap()
+                : this.standingInstructionReadPlatformService.retriveLoanDuesData(loanIds);
+
+        // instructions are retrieved by descending priority, which the transfers of every partition keep
+        final Map<StandingInstructionData, AccountTransferDTO> transfers = new LinkedHashMap<>();
+        for (StandingInstructionData data : instructionDatas) {
+            boolean isDueForTransfer = scheduledForTransfer.get(data);
             BigDecimal transactionAmount = data.amount();
-            if (data.toAccountType().isLoanAccount()
-                    && (recurrenceType.isDuesRecurrence() || (isDueForTransfer && instructionType.isDuesAmoutTransfer()))) {
-                StandingInstructionDuesData standingInstructionDuesData = this.standingInstructionReadPlatformService
-                        .retriveLoanDuesData(data.toAccount().accountId());
+            if (isLoanDuesRequired(data, isDueForTransfer)) {
+                StandingInstructionDuesData standingInstructionDuesData = loanDues.get(data.toAccount().accountId());
                 if (data.instructionType().isDuesAmoutTransfer()) {
                     transactionAmount = standingInstructionDuesData.totalDueAmount();
                 }
-                if (recurrenceType.isDuesRecurrence()) {
-                    isDueForTransfer = LocalDate.now(DateUtils.getDateTimeZoneOfTenant()).equals(standingInstructionDuesData.dueDate());
+                if (data.recurrenceType().isDuesRecurrence()) {
+                    isDueForTransfer = transactionDate.equals(standingInstructionDuesData.dueDate());
                 }
             }
 
@@ -246,27 +266,138 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
                         data.name() + " Standing instruction trasfer ", null, null, null, null, data.toTransferType(), null, null,
                         data.transferType().getValue(), null, null, null, null, null, fromSavingsAccount, isRegularTransaction,
                         isExceptionForBalanceCheck);
-                final boolean transferCompleted = transferAmount(errors, accountTransferDTO, data.getId());
-
-                if (transferCompleted) {
-                    final String updateQuery = "UPDATE m_account_transfer_standing_instructions SET last_run_date = ? where id = ?";
-                    this.jdbcTemplate.update(updateQuery, Date.from(transactionDate.atStartOfDay(ZoneId.systemDefault()).toInstant()),
-                            data.getId());
-                }
-
+                transfers.put(data, accountTransferDTO);
             }
         }
+
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final List<Object[]> history = new ArrayList<>();
+        executeTransfers(partitionByAccounts(transfers), transactionDate, errors, history);
+        synchronized (history) {
+            flushHistory(history);
+        }
         if (!errors.isEmpty()) {
             throw new JobExecutionException(errors);
         }
     }
 
-    private boolean transferAmount(final List<Throwable> errors, final AccountTransferDTO accountTransferDTO, final Long instructionId) {
+    private boolean isScheduledForTransfer(final StandingInstructionData data, final LocalDate transactionDate) {
+        if (!data.recurrenceType().isPeriodicRecurrence()) {
+            return false;
+        }
+        final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
+        PeriodFrequencyType frequencyType = data.recurrenceFrequency();
+        LocalDate startDate = data.validFrom();
+        if (frequencyType.isMonthly()) {
+            startDate = startDate.withDayOfMonth(data.recurrenceOnDay());
+            if (startDate.isBefore(data.validFrom())) {
+                startDate = startDate.plusMonths(1);
+            }
+        } else if (frequencyType.isYearly()) {
+            startDate = startDate.withDayOfMonth(data.recurrenceOnDay()).withMonth(data.recurrenceOnMonth());
+            if (startDate.isBefore(data.validFrom())) {
+                startDate = startDate.plusYears(1);
+            }
+        }
+        return scheduledDateGenerator.isDateFallsInSchedule(frequencyType, data.recurrenceInterval(), startDate, transactionDate);
+    }
+
+    private boolean isLoanDuesRequired(final StandingInstructionData data, final boolean isScheduledForTransfer) {
+        return data.toAccountType().isLoanAccount() && (data.recurrenceType().isDuesRecurrence()
+                || (isScheduledForTransfer && data.instructionType().isDuesAmoutTransfer()));
+    }
+
+    /**
+     * Splits the transfers into groups such that two transfers touching the same account (as source or as destination)
+     * end up in the same group. Groups can then be executed concurrently, the transfers within a group one after the
+     * other in priority order.
+     */
+    static List<List<Map.Entry<StandingInstructionData, AccountTransferDTO>>> partitionByAccounts(
+            final Map<StandingInstructionData, AccountTransferDTO> transfers) {
+        final Map<String, String> parents = new HashMap<>();
+        for (AccountTransferDTO transfer : transfers.values()) {
+            final String fromRoot = findRoot(parents, accountKey(transfer.getFromAccountType(), transfer.getFromAccountId()));
+            final String toRoot = findRoot(parents, accountKey(transfer.getToAccountType(), transfer.getToAccountId()));
+            if (!fromRoot.equals(toRoot)) {
+                parents.put(toRoot, fromRoot);
+            }
+        }
+        final Map<String, List<Map.Entry<StandingInstructionData, AccountTransferDTO>>> partitions = new LinkedHashMap<>();
+        for (Map.Entry<StandingInstructionData, AccountTransferDTO> transfer : transfers.entrySet()) {
+            final String root = findRoot(parents,
+                    accountKey(transfer.getValue().getFromAccountType(), transfer.getValue().getFromAccountId()));
+            partitions.computeIfAbsent(root, key -> new ArrayList<>()).add(transfer);
+        }
+        return new ArrayList<>(partitions.values());
+    }
+
+    private static String accountKey(final PortfolioAccountType accountType, final Long accountId) {
+        return accountType.name() + ":" + accountId;
+    }
+
+    private static String findRoot(final Map<String, String> parents, final String accountKey) {
+        String root = accountKey;
+        while (parents.containsKey(root)) {
+            root = parents.get(root);
+        }
+        if (!root.equals(accountKey)) {
+            parents.put(accountKey, root);
+        }
+        return root;
+    }
+
+    private void executeTransfers(final List<List<Map.Entry<StandingInstructionData, AccountTransferDTO>>> partitions,
+            final LocalDate transactionDate, final List<Throwable> errors, final List<Object[]> history) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        final int poolSize = Math.max(1, Math.min(this.fineractProperties.getPartitionedJob().getThreadPoolSize(), partitions.size()));
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final ExecutorService executorService = Executors.newFixedThreadPool(poolSize);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (List<Map.Entry<StandingInstructionData, AccountTransferDTO>> partition : partitions) {
+                results.add(executorService.submit(() -> {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        for (Map.Entry<StandingInstructionData, AccountTransferDTO> transfer : partition) {
+                            final Long instructionId = transfer.getKey().getId();
+                            final boolean transferCompleted = transferAmount(errors, history, transfer.getValue(), instructionId);
+                            if (transferCompleted) {
+                                // right away, so that a failure later in the run cannot lead to a second transfer
+                                this.jdbcTemplate.update(LAST_RUN_DATE_UPDATE,
+                                        Date.from(transactionDate.atStartOfDay(ZoneId.systemDefault()).toInstant()), instructionId);
+                            }
+                        }
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    LOG.error("Execution exception while executing standing instructions", e);
+                    errors.add(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.error("Interrupted while executing standing instructions", e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private boolean transferAmount(final List<Throwable> errors, final List<Object[]> history, final AccountTransferDTO accountTransferDTO,
+            final Long instructionId) {
         boolean transferCompleted = true;
         StringBuilder errorLog = new StringBuilder();
-        StringBuilder updateQuery = new StringBuilder(
-                "INSERT INTO m_account_transfer_standing_instructions_history (standing_instruction_id, " + sqlGenerator.escape("status")
-                        + ", amount,execution_time, error_log) VALUES (");
         try {
             this.accountTransfersWritePlatformService.transferFunds(accountTransferDTO);
         } catch (final PlatformApiDataValidationException e) {
@@ -287,17 +418,27 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
             errorLog.append("Exception while trasfering funds " + e.getMessage());
 
         }
-        updateQuery.append(instructionId).append(",");
         if (errorLog.length() > 0) {
             transferCompleted = false;
-            updateQuery.append("'failed'").append(",");
-        } else {
-            updateQuery.append("'success'").append(",");
         }
-        updateQuery.append(accountTransferDTO.getTransactionAmount().doubleValue());
-        updateQuery.append(", now(),");
-        updateQuery.append("'").append(errorLog.toString()).append("')");
-        this.jdbcTemplate.update(updateQuery.toString());
+        final Object[] historyRow = new Object[] { instructionId, transferCompleted ? "success" : "failed",
+                accountTransferDTO.getTransactionAmount(), Timestamp.valueOf(DateUtils.getLocalDateTimeOfTenant()), errorLog.toString() };
+        synchronized (history) {
+            history.add(historyRow);
+            if (history.size() >= HISTORY_BATCH_SIZE) {
+                flushHistory(history);
+            }
+        }
         return transferCompleted;
     }
+
+    private void flushHistory(final List<Object[]> history) {
+        if (history.isEmpty()) {
+            return;
+        }
+        final String insertSql = "INSERT INTO m_account_transfer_standing_instructions_history (standing_instruction_id, "
+                + sqlGenerator.escape("status") + ", amount, execution_time, error_log) VALUES (?, ?, ?, ?, ?)";
+        this.jdbcTemplate.batchUpdate(insertSql, history);
+        history.clear();
+    }
 }
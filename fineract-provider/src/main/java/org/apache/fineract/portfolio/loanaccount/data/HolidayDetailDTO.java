@@ -20,6 +20,7 @@ package org.apache.fineract.portfolio.loanaccount.data;
 
 import java.util.List;
 import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.service.HolidayCalendar;
 import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
 
 public class HolidayDetailDTO {
@@ -29,6 +30,7 @@ public class HolidayDetailDTO {
     final WorkingDays workingDays;
     final boolean allowTransactionsOnHoliday;
     final boolean allowTransactionsOnNonWorkingDay;
+    private HolidayCalendar calendar;
 
     public HolidayDetailDTO(final boolean isHolidayEnabled, final List<Holiday> holidays, final WorkingDays workingDays) {
         this.isHolidayEnabled = isHolidayEnabled;
@@ -47,6 +49,17 @@ public class HolidayDetailDTO {
         this.allowTransactionsOnNonWorkingDay = allowTransactionsOnNonWorkingDay;
     }
 
+    public HolidayDetailDTO(final boolean isHolidayEnabled, final HolidayCalendar calendar) {
+        this(isHolidayEnabled, calendar, false, false);
+    }
+
+    public HolidayDetailDTO(final boolean isHolidayEnabled, final HolidayCalendar calendar, final boolean allowTransactionsOnHoliday,
+            final boolean allowTransactionsOnNonWorkingDay) {
+        this(isHolidayEnabled, calendar.getHolidays(), calendar.getWorkingDays(), allowTransactionsOnHoliday,
+                allowTransactionsOnNonWorkingDay);
+        this.calendar = calendar;
+    }
+
     public boolean isHolidayEnabled() {
         return this.isHolidayEnabled;
     }
@@ -59,6 +72,17 @@ public class HolidayDetailDTO {
         return this.workingDays;
     }
 
+    /**
+     * Returns the holidays and working days indexed for date lookups, built on first use when this was created from a
+     * list of holidays.
+     */
+    public HolidayCalendar getCalendar() {
+        if (this.calendar == null) {
+            this.calendar = HolidayCalendar.of(this.holidays, this.workingDays);
+        }
+        return this.calendar;
+    }
+
     public boolean isAllowTransactionsOnHoliday() {
         return this.allowTransactionsOnHoliday;
     }
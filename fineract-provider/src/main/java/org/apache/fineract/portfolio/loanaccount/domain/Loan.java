@@ -3180,8 +3180,12 @@ public class Loan extends AbstractPersistableCustom {
                 regenerateRepaymentScheduleWithInterestRecalculation(scheduleGeneratorDTO, currentUser);
             }
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
+            // only the schedule and charges are unchanged here when neither interest recalculation nor foreclosure applies,
+            // so the transactions before the new (or adjusted) one do not have to be allocated again
+            final LocalDate replayFromDate = this.repaymentScheduleDetail().isInterestRecalculationEnabled() || isForeclosure() ? null
+                    : recalculateFrom;
             changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                    allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges());
+                    allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges(), replayFromDate);
             for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
                 mapEntry.getValue().updateLoan(this);
             }
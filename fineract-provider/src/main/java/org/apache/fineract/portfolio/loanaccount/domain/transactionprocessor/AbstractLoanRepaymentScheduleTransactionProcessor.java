@@ -23,8 +23,10 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
@@ -53,6 +55,9 @@ import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.imp
  */
 public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implements LoanRepaymentScheduleTransactionProcessor {
 
+    private static final Comparator<LoanRepaymentScheduleInstallment> BY_DUE_DATE = Comparator
+            .comparing(LoanRepaymentScheduleInstallment::getDueDate);
+
     /**
      * Provides support for passing all {@link LoanTransaction}'s so it will completely re-process the entire loan
      * schedule. This is required in cases where the {@link LoanTransaction} being processed is in the past and falls
@@ -64,6 +69,31 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
     public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
             final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
             final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments, charges, null);
+    }
+
+    /**
+     * Re-processes the loan schedule like {@link #handleTransaction(LocalDate, List, MonetaryCurrency, List, Set)}, for a
+     * change (for example a backdated repayment) which leaves the transactions dated before <code>replayFromDate</code>
+     * as they were when last processed against the same schedule and charges. The caller has to ensure that; it is not
+     * checked here.
+     *
+     * The state of the installments and charges at the start of <code>replayFromDate</code> is rebuilt from the
+     * repayment schedule mappings and charge portions stored on the earlier repayments and interest waivers, so that only
+     * the transactions from <code>replayFromDate</code> onwards are allocated again. Charge payments are processed in
+     * full as before. The whole history is replayed instead only when the processor does not record every installment
+     * change in its mappings, when an earlier transaction is a write-off, a refund or a recovery repayment, or when a
+     * stored mapping refers to a due date that is no longer in the schedule or to a portion its installment no longer
+     * owes. A mapping that still fits is restored as stored, even where a new allocation would split the transaction
+     * differently.
+     */
+    @Override
+    public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges, final LocalDate replayFromDate) {
+
+        final int checkpointedTransactions = replayFromDate == null || !isReplayFromCheckpointSupported() ? 0
+                : countTransactionsBeforeCheckpoint(transactionsPostDisbursement, replayFromDate);
 
         if (charges != null) {
             for (final LoanCharge loanCharge : charges) {
@@ -139,7 +169,14 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             }
         }
 
-        for (final LoanTransaction loanTransaction : transactionstoBeProcessed) {
+        if (checkpointedTransactions > 0
+                && !restoreCheckpoint(transactionstoBeProcessed.subList(0, checkpointedTransactions), currency, installments, charges)) {
+            // the stored allocation does not fit the schedule any more, the full replay resets everything it touched
+            return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments, charges, null);
+        }
+
+        for (final LoanTransaction loanTransaction : transactionstoBeProcessed.subList(checkpointedTransactions,
+                transactionstoBeProcessed.size())) {
 
             if (!loanTransaction.getTypeOf().equals(LoanTransactionType.REFUND_FOR_ACTIVE_LOAN)) {
                 final Comparator<LoanRepaymentScheduleInstallment> byDate = new Comparator<LoanRepaymentScheduleInstallment>() {
@@ -194,6 +231,104 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
         return changedTransactionDetail;
     }
 
+    /**
+     * Whether the installment changes made by this processor for a repayment or interest waiver are all recorded in the
+     * {@link LoanTransactionToRepaymentScheduleMapping}s of the transaction, so that they can be restored from them
+     * instead of being allocated again.
+     */
+    protected boolean isReplayFromCheckpointSupported() {
+        return false;
+    }
+
+    private int countTransactionsBeforeCheckpoint(final List<LoanTransaction> transactionsPostDisbursement,
+            final LocalDate replayFromDate) {
+        int count = 0;
+        for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
+            if (loanTransaction.isChargePayment()) {
+                // charge payments are always processed first and in full
+                continue;
+            }
+            if (!loanTransaction.getTransactionDate().isBefore(replayFromDate)) {
+                break;
+            }
+            if (loanTransaction.isWriteOff() || loanTransaction.isRefundForActiveLoan() || loanTransaction.isRecoveryRepayment()) {
+                return 0;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private boolean restoreCheckpoint(final List<LoanTransaction> transactions, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        Collections.sort(installments, BY_DUE_DATE);
+        // mappings of a regenerated schedule may still reference the replaced installment with the same due date
+        final Map<LocalDate, LoanRepaymentScheduleInstallment> installmentsByDueDate = new HashMap<>();
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            installmentsByDueDate.put(installment.getDueDate(), installment);
+        }
+        final Set<LoanCharge> loanFees = extractFeeCharges(charges);
+        final Set<LoanCharge> loanPenalties = extractPenaltyCharges(charges);
+
+        for (final LoanTransaction loanTransaction : transactions) {
+            if (!loanTransaction.isRepayment() && !loanTransaction.isInterestWaiver()) {
+                continue;
+            }
+            final Set<LoanTransactionToRepaymentScheduleMapping> mappings = loanTransaction.getLoanTransactionToRepaymentScheduleMappings();
+            for (final LoanTransactionToRepaymentScheduleMapping mapping : mappings) {
+                final LoanRepaymentScheduleInstallment installment = installmentsByDueDate
+                        .get(mapping.getLoanRepaymentScheduleInstallment().getDueDate());
+                if (installment == null || !restoreMapping(loanTransaction, mapping, installment, currency)) {
+                    return false;
+                }
+            }
+            if (loanTransaction.isNotWaiver() && !loanTransaction.isAccrual()) {
+                final Money feeCharges = loanTransaction.getFeeChargesPortion(currency);
+                final Money penaltyCharges = loanTransaction.getPenaltyChargesPortion(currency);
+                if (feeCharges.isGreaterThanZero() || penaltyCharges.isGreaterThanZero()) {
+                    // the charges paid by records of the transaction are already stored, only the charges are updated
+                    final LoanTransaction chargesPaidBy = LoanTransaction.copyTransactionProperties(loanTransaction);
+                    if (feeCharges.isGreaterThanZero()) {
+                        updateChargesPaidAmountBy(chargesPaidBy, feeCharges, loanFees, null);
+                    }
+                    if (penaltyCharges.isGreaterThanZero()) {
+                        updateChargesPaidAmountBy(chargesPaidBy, penaltyCharges, loanPenalties, null);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean restoreMapping(final LoanTransaction loanTransaction, final LoanTransactionToRepaymentScheduleMapping mapping,
+            final LoanRepaymentScheduleInstallment installment, final MonetaryCurrency currency) {
+        final LocalDate transactionDate = loanTransaction.getTransactionDate();
+        final Money principal = mapping.getPrincipalPortion(currency);
+        final Money interest = mapping.getInterestPortion(currency);
+        final Money feeCharges = mapping.getFeeChargesPortion(currency);
+        final Money penaltyCharges = mapping.getPenaltyChargesPortion(currency);
+
+        if (loanTransaction.isInterestWaiver()) {
+            return principal.isZero() && feeCharges.isZero() && penaltyCharges.isZero()
+                    && installment.waiveInterestComponent(transactionDate, interest).isEqualTo(interest);
+        }
+        // the installment must still owe every portion, otherwise the allocation would differ
+        boolean restored = true;
+        if (penaltyCharges.isGreaterThanZero()) {
+            restored = installment.payPenaltyChargesComponent(transactionDate, penaltyCharges).isEqualTo(penaltyCharges);
+        }
+        if (restored && feeCharges.isGreaterThanZero()) {
+            restored = installment.payFeeChargesComponent(transactionDate, feeCharges).isEqualTo(feeCharges);
+        }
+        if (restored && interest.isGreaterThanZero()) {
+            restored = installment.payInterestComponent(transactionDate, interest).isEqualTo(interest);
+        }
+        if (restored && principal.isGreaterThanZero()) {
+            restored = installment.payPrincipalComponent(transactionDate, principal).isEqualTo(principal);
+        }
+        return restored;
+    }
+
     /**
      * Provides support for processing the latest transaction (which should be latest transaction) against the loan
      * schedule.
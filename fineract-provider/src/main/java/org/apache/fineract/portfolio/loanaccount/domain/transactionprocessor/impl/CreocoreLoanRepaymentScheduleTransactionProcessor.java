@@ -180,4 +180,9 @@ public class CreocoreLoanRepaymentScheduleTransactionProcessor extends AbstractL
         }
         return transactionAmountRemaining;
     }
+
+    @Override
+    protected boolean isReplayFromCheckpointSupported() {
+        return true;
+    }
 }
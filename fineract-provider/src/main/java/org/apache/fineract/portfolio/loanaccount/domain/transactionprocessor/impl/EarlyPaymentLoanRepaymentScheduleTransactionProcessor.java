@@ -201,4 +201,8 @@ public class EarlyPaymentLoanRepaymentScheduleTransactionProcessor extends Abstr
         return transactionAmountRemaining;
     }
 
+    @Override
+    protected boolean isReplayFromCheckpointSupported() {
+        return true;
+    }
 }
@@ -177,4 +177,9 @@ public class FineractStyleLoanRepaymentScheduleTransactionProcessor extends Abst
         }
         return transactionAmountRemaining;
     }
+
+    @Override
+    protected boolean isReplayFromCheckpointSupported() {
+        return true;
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.loanaccount.loanschedule.domain;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.service.HolidayCalendar;
 import org.apache.fineract.organisation.holiday.service.HolidayUtil;
 import org.apache.fineract.organisation.workingdays.data.AdjustedDateDetailsDTO;
 import org.apache.fineract.organisation.workingdays.service.WorkingDaysUtil;
@@ -142,9 +143,9 @@ public class DefaultScheduledDateGenerator implements ScheduledDateGenerator {
          * Check Changed Schedule Date is holiday or is not a working day Then re-call this method to get the non
          * holiday and working day
          */
-        if ((holidayDetailDTO.isHolidayEnabled() && HolidayUtil.getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate(),
-                holidayDetailDTO.getHolidays()) != null)
-                || WorkingDaysUtil.isNonWorkingDay(holidayDetailDTO.getWorkingDays(), adjustedDateDetailsDTO.getChangedScheduleDate())) {
+        final HolidayCalendar calendar = holidayDetailDTO.getCalendar();
+        if ((holidayDetailDTO.isHolidayEnabled() && calendar.getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate()) != null)
+                || calendar.isNonWorkingDay(adjustedDateDetailsDTO.getChangedScheduleDate())) {
             recursivelyCheckNonWorkingDaysAndHolidaysAndWorkingDaysExemptionToGenerateNextRepaymentPeriodDate(adjustedDateDetailsDTO,
                     loanApplicationTerms, holidayDetailDTO, isFirstRepayment);
         }
@@ -162,9 +163,10 @@ public class DefaultScheduledDateGenerator implements ScheduledDateGenerator {
     private void checkAndUpdateWorkingDayIfRepaymentDateIsHolidayDay(final AdjustedDateDetailsDTO adjustedDateDetailsDTO,
             final HolidayDetailDTO holidayDetailDTO, final LoanApplicationTerms loanApplicationTerms, final boolean isFirstRepayment) {
         if (holidayDetailDTO.isHolidayEnabled()) {
+            final HolidayCalendar calendar = holidayDetailDTO.getCalendar();
             Holiday applicableHolidayForNewAdjustedDate = null;
-            while ((applicableHolidayForNewAdjustedDate = HolidayUtil.getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate(),
-                    holidayDetailDTO.getHolidays())) != null) {
+            while ((applicableHolidayForNewAdjustedDate = calendar
+                    .getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate())) != null) {
                 if (applicableHolidayForNewAdjustedDate.getReScheduleType().isResheduleToNextRepaymentDate()) {
                     LocalDate nextRepaymentPeriodDueDate = adjustedDateDetailsDTO.getChangedActualRepaymentDate();
                     while (!nextRepaymentPeriodDueDate.isAfter(adjustedDateDetailsDTO.getChangedScheduleDate())) {
@@ -192,12 +194,12 @@ public class DefaultScheduledDateGenerator implements ScheduledDateGenerator {
      */
     private void checkAndUpdateWorkingDayIfRepaymentDateIsNonWorkingDay(final AdjustedDateDetailsDTO adjustedDateDetailsDTO,
             final HolidayDetailDTO holidayDetailDTO, final LoanApplicationTerms loanApplicationTerms, final boolean isFirstRepayment) {
-        while (WorkingDaysUtil.isNonWorkingDay(holidayDetailDTO.getWorkingDays(), adjustedDateDetailsDTO.getChangedScheduleDate())) {
+        final HolidayCalendar calendar = holidayDetailDTO.getCalendar();
+        while (calendar.isNonWorkingDay(adjustedDateDetailsDTO.getChangedScheduleDate())) {
             if (WorkingDaysUtil
                     .getRepaymentRescheduleType(holidayDetailDTO.getWorkingDays(), adjustedDateDetailsDTO.getChangedScheduleDate())
                     .isMoveToNextRepaymentDay()) {
-                while (WorkingDaysUtil.isNonWorkingDay(holidayDetailDTO.getWorkingDays(),
-                        adjustedDateDetailsDTO.getNextRepaymentPeriodDueDate())
+                while (calendar.isNonWorkingDay(adjustedDateDetailsDTO.getNextRepaymentPeriodDueDate())
                         || adjustedDateDetailsDTO.getChangedScheduleDate()
                                 .isAfter(adjustedDateDetailsDTO.getNextRepaymentPeriodDueDate())) {
                     final LocalDate nextRepaymentPeriodDueDate = generateNextRepaymentDate(
@@ -22,32 +22,30 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.apache.fineract.infrastructure.core.exception.MultiException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformService {
 
-    private static final Logger LOG = LoggerFactory.getLogger(LoanAccrualPlatformServiceImpl.class);
-
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService, final PartitionedJobExecutor partitionedJobExecutor) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @Override
@@ -65,18 +63,8 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
             }
         }
 
-        List<Throwable> errors = new ArrayList<>();
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
-            try {
-                this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(), mapEntry.getValue());
-            } catch (Exception e) {
-                LOG.error("Failed to add accural transaction for loan {}", mapEntry.getKey(), e);
-                errors.add(e);
-            }
-        }
-        if (!errors.isEmpty()) {
-            throw new JobExecutionException(errors);
-        }
+        this.partitionedJobExecutor.execute(JobName.ADD_ACCRUAL_ENTRIES.name(), loanDataMap.keySet(),
+                loanId -> this.loanAccrualWritePlatformService.addAccrualAccounting(loanId, loanDataMap.get(loanId)));
     }
 
     @Override
@@ -109,37 +97,15 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
             }
         }
 
-        List<Throwable> errors = new ArrayList<>();
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
-            try {
-                this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, mapEntry.getKey(), mapEntry.getValue());
-            } catch (Exception e) {
-                LOG.error("Failed to add accural transaction for loan {}", mapEntry.getKey(), e);
-                errors.add(e);
-            }
-        }
-        if (!errors.isEmpty()) {
-            throw new JobExecutionException(errors);
-        }
+        this.partitionedJobExecutor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES.name(), loanDataMap.keySet(),
+                loanId -> this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanId, loanDataMap.get(loanId)));
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS)
     public void addPeriodicAccrualsForLoansWithIncomePostedAsTransactions() throws JobExecutionException {
         Collection<Long> loanIds = this.loanReadPlatformService.retrieveLoanIdsWithPendingIncomePostingTransactions();
-        if (loanIds != null && loanIds.size() > 0) {
-            List<Throwable> errors = new ArrayList<>();
-            for (Long loanId : loanIds) {
-                try {
-                    this.loanAccrualWritePlatformService.addIncomeAndAccrualTransactions(loanId);
-                } catch (Exception e) {
-                    LOG.error("Failed to add income and accrual transaction for loan {}", loanId, e);
-                    errors.add(e);
-                }
-            }
-            if (!errors.isEmpty()) {
-                throw new JobExecutionException(errors);
-            }
-        }
+        this.partitionedJobExecutor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS.name(), loanIds,
+                this.loanAccrualWritePlatformService::addIncomeAndAccrualTransactions);
     }
 }
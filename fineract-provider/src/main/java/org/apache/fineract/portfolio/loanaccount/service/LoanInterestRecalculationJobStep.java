@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import java.util.List;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobStep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interest recalculation of a single loan as a {@link PartitionedJobStep}, so that the recalculation of all loans can be
+ * shared by the nodes of a cluster. Loans with interest recalculation enabled which were already recalculated today are
+ * not returned again when a partition is re-leased. Loans with a floating rate are not marked as recalculated, so they
+ * are recalculated again in a re-leased partition. Recalculating on the same day gives the same schedule, but the
+ * LOAN_INTEREST_RECALCULATION business events of such a loan are raised again.
+ */
+@Component
+public class LoanInterestRecalculationJobStep implements PartitionedJobStep {
+
+    private final LoanReadPlatformService loanReadPlatformService;
+    private final LoanWritePlatformService loanWritePlatformService;
+
+    @Autowired
+    public LoanInterestRecalculationJobStep(final LoanReadPlatformService loanReadPlatformService,
+            final LoanWritePlatformService loanWritePlatformService) {
+        this.loanReadPlatformService = loanReadPlatformService;
+        this.loanWritePlatformService = loanWritePlatformService;
+    }
+
+    @Override
+    public String getName() {
+        return JobName.RECALCULATE_INTEREST_FOR_LOAN.name();
+    }
+
+    @Override
+    public List<Long> retrieveIds(final Long fromId, final Long toId) {
+        return this.loanReadPlatformService.fetchLoansForInterestRecalculation(fromId, toId);
+    }
+
+    @Override
+    public void execute(final Long loanId) {
+        this.loanWritePlatformService.recalculateInterest(loanId);
+    }
+}
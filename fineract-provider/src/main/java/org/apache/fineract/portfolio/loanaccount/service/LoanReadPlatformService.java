@@ -111,8 +111,16 @@ public interface LoanReadPlatformService {
 
     Collection<Long> fetchLoansForInterestRecalculation();
 
+    List<Long> fetchLoansForInterestRecalculation(Long fromLoanId, Long toLoanId);
+
     List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
 
+    /**
+     * Returns the next page of submitted, approved and active loans whose client or group belongs to one of the offices
+     * of the holiday, ordered by id and starting after maxLoanIdInList.
+     */
+    List<Long> fetchLoansForHoliday(Long holidayId, Integer pageSize, Long maxLoanIdInList);
+
     LoanTransactionData retrieveLoanPrePaymentTemplate(Long loanId, LocalDate onDate);
 
     Collection<LoanTransactionData> retrieveWaiverLoanTransactions(Long loanId);
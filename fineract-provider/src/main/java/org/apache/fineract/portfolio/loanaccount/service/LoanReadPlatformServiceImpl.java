@@ -303,7 +303,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final String hierarchySearchString = hierarchy + "%";
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -347,6 +347,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 arrayPos = arrayPos + 1;
             }
 
+            if (searchParameters.getKeyset() != null) {
+                return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), extraCriterias.toArray(),
+                        this.loaanLoanMapper, searchParameters.getKeyset(), "l.id");
+            }
+
             if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -1866,6 +1871,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<Long> fetchLoansForInterestRecalculation() {
+        return fetchLoansForInterestRecalculation(null, null);
+    }
+
+    @Override
+    public List<Long> fetchLoansForInterestRecalculation(final Long fromLoanId, final Long toLoanId) {
         StringBuilder sqlBuilder = new StringBuilder();
         sqlBuilder.append("SELECT ml.id FROM m_loan ml ");
         sqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
@@ -1895,13 +1905,19 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 .append("(bfrp.id is not null and frp.is_differential_to_base_lending_rate = true and frp.from_date >= bfrp.from_date)) ");
         sqlBuilder.append("and lrr.loan_id is null");
         sqlBuilder.append(" ))");
+        String currentdate = formatter.format(DateUtils.getLocalDateOfTenant());
+        // will look only for yesterday modified rates
+        String yesterday = formatter.format(DateUtils.getLocalDateOfTenant().minusDays(1));
+        final List<Object> params = new ArrayList<>(
+                Arrays.asList(yesterday, LoanStatus.ACTIVE.getValue(), currentdate, currentdate, currentdate, yesterday));
+        if (fromLoanId != null && toLoanId != null) {
+            sqlBuilder.append(" and ml.id between ? and ?");
+            params.add(fromLoanId);
+            params.add(toLoanId);
+        }
         sqlBuilder.append(" group by ml.id");
         try {
-            String currentdate = formatter.format(DateUtils.getLocalDateOfTenant());
-            // will look only for yesterday modified rates
-            String yesterday = formatter.format(DateUtils.getLocalDateOfTenant().minusDays(1));
-            return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class,
-                    new Object[] { yesterday, LoanStatus.ACTIVE.getValue(), currentdate, currentdate, currentdate, yesterday });
+            return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, params.toArray());
         } catch (final EmptyResultDataAccessException e) {
             return null;
         }
@@ -1944,8 +1960,9 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 .append("(bfrp.id is not null and frp.is_differential_to_base_lending_rate = true and frp.from_date >= bfrp.from_date)) ");
         sqlBuilder.append("and lrr.loan_id is null");
         sqlBuilder.append(" ))");
-        sqlBuilder.append(" and ml.id >= ?  and o.hierarchy like ? ");
+        sqlBuilder.append(" and ml.id > ?  and o.hierarchy like ? ");
         sqlBuilder.append(" group by ml.id ");
+        sqlBuilder.append(" order by ml.id ");
         sqlBuilder.append(" limit ? ");
         try {
             return Collections.synchronizedList(this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class,
@@ -1955,6 +1972,22 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
     }
 
+    @Override
+    public List<Long> fetchLoansForHoliday(final Long holidayId, final Integer pageSize, final Long maxLoanIdInList) {
+        final StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("SELECT ml.id FROM m_loan ml ");
+        sqlBuilder.append(" left join m_client mc on mc.id = ml.client_id ");
+        sqlBuilder.append(" left join m_group mg on mg.id = ml.group_id ");
+        sqlBuilder.append(" WHERE ml.loan_status_id in (?, ?, ?) ");
+        sqlBuilder.append(" and ml.id > ? ");
+        sqlBuilder.append(" and (mc.office_id in (select ho.office_id from m_holiday_office ho where ho.holiday_id = ?) ");
+        sqlBuilder.append(" or mg.office_id in (select ho.office_id from m_holiday_office ho where ho.holiday_id = ?)) ");
+        sqlBuilder.append(" order by ml.id ");
+        sqlBuilder.append(" limit ? ");
+        return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
+                LoanStatus.APPROVED.getValue(), LoanStatus.ACTIVE.getValue(), maxLoanIdInList, holidayId, holidayId, pageSize);
+    }
+
     @Override
     public Collection<LoanTransactionData> retrieveWaiverLoanTransactions(final Long loanId) {
         try {
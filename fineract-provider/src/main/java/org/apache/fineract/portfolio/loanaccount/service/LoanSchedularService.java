@@ -27,5 +27,7 @@ public interface LoanSchedularService {
 
     void recalculateInterest() throws JobExecutionException;
 
-    void recalculateInterest(@SuppressWarnings("unused") Map<String, String> jobParameters);
+    void recalculateInterest(@SuppressWarnings("unused") Map<String, String> jobParameters) throws JobExecutionException;
+
+    void applyHolidaysToLoans() throws JobExecutionException;
 }
@@ -18,27 +18,21 @@
  */
 package org.apache.fineract.portfolio.loanaccount.service;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
-import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
-import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
 import org.apache.fineract.organisation.office.data.OfficeData;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
@@ -46,33 +40,40 @@ import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanSc
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
-import org.springframework.dao.CannotAcquireLockException;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 @Service
 public class LoanSchedularServiceImpl implements LoanSchedularService {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoanSchedularServiceImpl.class);
-    private static final SecureRandom random = new SecureRandom();
 
     private final ConfigurationDomainService configurationDomainService;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanWritePlatformService loanWritePlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
-    private final ApplicationContext applicationContext;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final LoanInterestRecalculationJobStep loanInterestRecalculationJobStep;
+    private final HolidayRepositoryWrapper holidayRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final FineractProperties fineractProperties;
 
     @Autowired
     public LoanSchedularServiceImpl(final ConfigurationDomainService configurationDomainService,
             final LoanReadPlatformService loanReadPlatformService, final LoanWritePlatformService loanWritePlatformService,
-            final OfficeReadPlatformService officeReadPlatformService, final ApplicationContext applicationContext) {
+            final OfficeReadPlatformService officeReadPlatformService, final PartitionedJobExecutor partitionedJobExecutor,
+            final LoanInterestRecalculationJobStep loanInterestRecalculationJobStep, final HolidayRepositoryWrapper holidayRepository,
+            final TransactionTemplate transactionTemplate, final FineractProperties fineractProperties) {
         this.configurationDomainService = configurationDomainService;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanWritePlatformService = loanWritePlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
-        this.applicationContext = applicationContext;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.loanInterestRecalculationJobStep = loanInterestRecalculationJobStep;
+        this.holidayRepository = holidayRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.fineractProperties = fineractProperties;
     }
 
     @Override
@@ -96,91 +97,31 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
                 }
             }
 
-            List<Throwable> exceptions = new ArrayList<>();
-            for (final Long loanId : overdueScheduleData.keySet()) {
-                try {
-                    this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
-
-                } catch (final PlatformApiDataValidationException e) {
-                    final List<ApiParameterError> errors = e.getErrors();
-                    for (final ApiParameterError error : errors) {
-                        LOG.error("Apply Charges due for overdue loans failed for account {} with message: {}", loanId,
-                                error.getDeveloperMessage(), e);
-                    }
-                    exceptions.add(e);
-                } catch (final AbstractPlatformDomainRuleException e) {
-                    LOG.error("Apply Charges due for overdue loans failed for account {} with message: {}", loanId,
-                            e.getDefaultUserMessage(), e);
-                    exceptions.add(e);
-                } catch (Exception e) {
-                    LOG.error("Apply Charges due for overdue loans failed for account {}", loanId, e);
-                    exceptions.add(e);
-                }
-            }
-            if (!exceptions.isEmpty()) {
-                throw new JobExecutionException(exceptions);
-            }
+            this.partitionedJobExecutor.execute(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT.name(), overdueScheduleData.keySet(),
+                    loanId -> {
+                        try {
+                            this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
+                        } catch (final PlatformApiDataValidationException e) {
+                            for (final ApiParameterError error : e.getErrors()) {
+                                LOG.error("Apply Charges due for overdue loans failed for account {} with message: {}", loanId,
+                                        error.getDeveloperMessage());
+                            }
+                            throw e;
+                        }
+                    });
         }
     }
 
     @Override
     @CronTarget(jobName = JobName.RECALCULATE_INTEREST_FOR_LOAN)
-    @SuppressFBWarnings(value = {
-            "DMI_RANDOM_USED_ONLY_ONCE" }, justification = "False positive for random object created and used only once")
     public void recalculateInterest() throws JobExecutionException {
-        Integer maxNumberOfRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxRetriesOnDeadlock();
-        Integer maxIntervalBetweenRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxIntervalBetweenRetries();
         Collection<Long> loanIds = this.loanReadPlatformService.fetchLoansForInterestRecalculation();
-        int i = 0;
-        if (!loanIds.isEmpty()) {
-            List<Throwable> errors = new ArrayList<>();
-            for (Long loanId : loanIds) {
-                LOG.info("recalculateInterest: Loan ID = {}", loanId);
-                Integer numberOfRetries = 0;
-                while (numberOfRetries <= maxNumberOfRetries) {
-                    try {
-                        this.loanWritePlatformService.recalculateInterest(loanId);
-                        numberOfRetries = maxNumberOfRetries + 1;
-                    } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
-                        LOG.info("Recalulate interest job has been retried {} time(s)", numberOfRetries);
-                        // Fail if the transaction has been retried for
-                        // maxNumberOfRetries
-                        if (numberOfRetries >= maxNumberOfRetries) {
-                            LOG.error("Recalulate interest job has been retried for the max allowed attempts of {} and will be rolled back",
-                                    numberOfRetries);
-                            errors.add(exception);
-                            break;
-                        }
-                        // Else sleep for a random time (between 1 to 10
-                        // seconds) and continue
-                        try {
-                            int randomNum = random.nextInt(maxIntervalBetweenRetries + 1);
-                            Thread.sleep(1000 + (randomNum * 1000));
-                            numberOfRetries = numberOfRetries + 1;
-                        } catch (InterruptedException e) {
-                            LOG.error("Interest recalculation for loans retry failed due to InterruptedException", e);
-                            errors.add(e);
-                            break;
-                        }
-                    } catch (Exception e) {
-                        LOG.error("Interest recalculation for loans failed for account {}", loanId, e);
-                        numberOfRetries = maxNumberOfRetries + 1;
-                        errors.add(e);
-                    }
-                    i++;
-                }
-                LOG.info("recalculateInterest: Loans count {}", i);
-            }
-            if (!errors.isEmpty()) {
-                throw new JobExecutionException(errors);
-            }
-        }
-
+        this.partitionedJobExecutor.execute(this.loanInterestRecalculationJobStep, loanIds);
     }
 
     @Override
     @CronTarget(jobName = JobName.RECALCULATE_INTEREST_FOR_LOAN)
-    public void recalculateInterest(Map<String, String> jobParameters) {
+    public void recalculateInterest(Map<String, String> jobParameters) throws JobExecutionException {
         // gets the officeId
         final String officeId = jobParameters.get("officeId");
         LOG.info("recalculateInterest: officeId={}", officeId);
@@ -197,116 +138,97 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
         recalculateInterest(office, threadPoolSize, batchSize);
     }
 
-    private void recalculateInterest(OfficeData office, int threadPoolSize, int batchSize) {
+    private void recalculateInterest(OfficeData office, int threadPoolSize, int batchSize) throws JobExecutionException {
         final int pageSize = batchSize * threadPoolSize;
-
-        // initialise the executor service with fetched configurations
-        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
-
-        Long maxLoanIdInList = 0L;
         final String officeHierarchy = office.getHierarchy() + "%";
+        final List<Throwable> errors = new ArrayList<>();
 
-        // get the loanIds from service
-        List<Long> loanIds = Collections.synchronizedList(
-                this.loanReadPlatformService.fetchLoansForInterestRecalculation(pageSize, maxLoanIdInList, officeHierarchy));
-
-        // gets the loanIds data set iteratively and call addAccuruals for that
-        // paginated dataset
-        do {
-            int totalFilteredRecords = loanIds.size();
-            LOG.info("Starting accrual - total filtered records - {}", totalFilteredRecords);
-            recalculateInterest(loanIds, threadPoolSize, batchSize, executorService);
-            maxLoanIdInList += pageSize + 1;
-            loanIds = Collections.synchronizedList(
-                    this.loanReadPlatformService.fetchLoansForInterestRecalculation(pageSize, maxLoanIdInList, officeHierarchy));
-        } while (!CollectionUtils.isEmpty(loanIds));
-
-        // shutdown the executor when done
-        executorService.shutdownNow();
-    }
-
-    private void recalculateInterest(List<Long> loanIds, int threadPoolSize, int batchSize, final ExecutorService executorService) {
-
-        List<Callable<Void>> posters = new ArrayList<>();
-        int fromIndex = 0;
-        // get the size of current paginated dataset
-        int size = loanIds.size();
-        // calculate the batch size
-        double toGetCeilValue = size / threadPoolSize;
-        batchSize = (int) Math.ceil(toGetCeilValue);
-
-        if (batchSize == 0) {
-            return;
-        }
-
-        int toIndex = (batchSize > size - 1) ? size : batchSize;
-        while (toIndex < size && loanIds.get(toIndex - 1).equals(loanIds.get(toIndex))) {
-            toIndex++;
-        }
-        boolean lastBatch = false;
-        int loopCount = size / batchSize + 1;
-
-        for (long i = 0; i < loopCount; i++) {
-            List<Long> subList = safeSubList(loanIds, fromIndex, toIndex);
-            RecalculateInterestPoster poster = (RecalculateInterestPoster) this.applicationContext.getBean("recalculateInterestPoster");
-            poster.setLoanIds(subList);
-            poster.setLoanWritePlatformService(loanWritePlatformService);
-            posters.add(poster);
-            if (lastBatch) {
-                break;
-            }
-            if (toIndex + batchSize > size - 1) {
-                lastBatch = true;
-            }
-            fromIndex = fromIndex + (toIndex - fromIndex);
-            toIndex = (toIndex + batchSize > size - 1) ? size : toIndex + batchSize;
-            while (toIndex < size && loanIds.get(toIndex - 1).equals(loanIds.get(toIndex))) {
-                toIndex++;
+        // keyset-page the loanIds and process every page on the partitioned executor
+        Long maxLoanIdInList = 0L;
+        List<Long> loanIds = this.loanReadPlatformService.fetchLoansForInterestRecalculation(pageSize, maxLoanIdInList, officeHierarchy);
+        while (!CollectionUtils.isEmpty(loanIds)) {
+            LOG.info("Starting interest recalculation - total filtered records - {}", loanIds.size());
+            try {
+                this.partitionedJobExecutor.execute(JobName.RECALCULATE_INTEREST_FOR_LOAN.name(), loanIds, threadPoolSize, batchSize,
+                        this.loanWritePlatformService::recalculateInterest);
+            } catch (JobExecutionException e) {
+                errors.addAll(e.getCauses());
             }
+            maxLoanIdInList = loanIds.get(loanIds.size() - 1);
+            loanIds = this.loanReadPlatformService.fetchLoansForInterestRecalculation(pageSize, maxLoanIdInList, officeHierarchy);
         }
 
-        try {
-            List<Future<Void>> responses = executorService.invokeAll(posters);
-            checkCompletion(responses);
-        } catch (InterruptedException e1) {
-            LOG.error("Interrupted while recalculateInterest", e1);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
         }
     }
 
-    // break the lists into sub lists
-    private <T> List<T> safeSubList(List<T> list, int fromIndex, int toIndex) {
-        int size = list.size();
-        if (fromIndex >= size || toIndex <= 0 || fromIndex >= toIndex) {
-            return Collections.emptyList();
+    /**
+     * Applies the active holidays which have not been processed yet to the repayment schedules of the loans of their
+     * offices.
+     *
+     * The loans of a holiday are keyset-paged by id and every page is processed on the partitioned executor, one
+     * transaction per chunk. After every page the last loan id is stored with the holiday, so that a run which was
+     * interrupted resumes after the last completed page instead of starting over.
+     *
+     * Once a loan of a holiday has failed, the stored position is no longer advanced and the holiday is not marked as
+     * processed: the remaining pages are still applied, and the next run starts again with the page of the failed loan.
+     * Applying a holiday to a loan a second time does not change its schedule.
+     */
+    @Override
+    @CronTarget(jobName = JobName.APPLY_HOLIDAYS_TO_LOANS)
+    public void applyHolidaysToLoans() throws JobExecutionException {
+        if (!this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled()) {
+            return;
         }
-
-        fromIndex = Math.max(0, fromIndex);
-        toIndex = Math.min(size, toIndex);
-
-        return list.subList(fromIndex, toIndex);
-    }
-
-    // checks the execution of task by each thread in the executor service
-    private void checkCompletion(List<Future<Void>> responses) {
-        try {
-            for (Future<Void> f : responses) {
-                f.get();
+        final int threadPoolSize = Math.max(1, this.fineractProperties.getPartitionedJob().getThreadPoolSize());
+        final int pageSize = threadPoolSize * Math.max(1, this.fineractProperties.getPartitionedJob().getChunkSize());
+        final List<Throwable> errors = new ArrayList<>();
+
+        // Get all Holidays which are active and not processed
+        final List<Holiday> holidays = this.holidayRepository.findUnprocessed();
+        for (final Holiday holiday : holidays) {
+            final Long holidayId = holiday.getId();
+            Long maxLoanIdInList = holiday.getProcessedUpToLoanId() == null ? 0L : holiday.getProcessedUpToLoanId();
+            if (maxLoanIdInList > 0) {
+                LOG.info("Resuming holiday {} after loan {}", holidayId, maxLoanIdInList);
             }
-            boolean allThreadsExecuted = false;
-            int noOfThreadsExecuted = 0;
-            for (Future<Void> future : responses) {
-                if (future.isDone()) {
-                    noOfThreadsExecuted++;
+            boolean loansFailed = false;
+            List<Long> loanIds = this.loanReadPlatformService.fetchLoansForHoliday(holidayId, pageSize, maxLoanIdInList);
+            while (!CollectionUtils.isEmpty(loanIds)) {
+                try {
+                    this.partitionedJobExecutor.execute(JobName.APPLY_HOLIDAYS_TO_LOANS.name(), loanIds,
+                            loanId -> this.loanWritePlatformService.applyHolidayToLoan(holidayId, loanId));
+                } catch (JobExecutionException e) {
+                    errors.addAll(e.getCauses());
+                    if (!loansFailed) {
+                        LOG.warn("Holiday {} failed for loans after {}, they will be retried by the next run", holidayId, maxLoanIdInList);
+                    }
+                    loansFailed = true;
+                }
+                maxLoanIdInList = loanIds.get(loanIds.size() - 1);
+                if (!loansFailed) {
+                    final Long processedUpToLoanId = maxLoanIdInList;
+                    this.transactionTemplate.executeWithoutResult(status -> {
+                        final Holiday processingHoliday = this.holidayRepository.findOneWithNotFoundDetection(holidayId);
+                        processingHoliday.loansProcessedUpTo(processedUpToLoanId);
+                        this.holidayRepository.save(processingHoliday);
+                    });
                 }
+                loanIds = this.loanReadPlatformService.fetchLoansForHoliday(holidayId, pageSize, maxLoanIdInList);
             }
-            allThreadsExecuted = noOfThreadsExecuted == responses.size();
-            if (!allThreadsExecuted) {
-                LOG.error("All threads could not execute.");
+            if (loansFailed) {
+                continue;
             }
-        } catch (InterruptedException e1) {
-            LOG.error("Interrupted while posting IR entries", e1);
-        } catch (ExecutionException e2) {
-            LOG.error("Execution exception while posting IR entries", e2);
+            this.transactionTemplate.executeWithoutResult(status -> {
+                final Holiday processedHoliday = this.holidayRepository.findOneWithNotFoundDetection(holidayId);
+                processedHoliday.processed();
+                this.holidayRepository.save(processedHoliday);
+            });
+        }
+
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
         }
     }
 }
@@ -76,7 +76,7 @@ public interface LoanWritePlatformService {
     void applyMeetingDateChanges(Calendar calendar, Collection<CalendarInstance> loanCalendarInstances,
             Boolean reschedulebasedOnMeetingDates, LocalDate presentMeetingDate, LocalDate newMeetingDate);
 
-    void applyHolidaysToLoans();
+    void applyHolidayToLoan(Long holidayId, Long loanId);
 
     LoanTransaction initiateLoanTransfer(Loan loan, LocalDate transferDate);
 
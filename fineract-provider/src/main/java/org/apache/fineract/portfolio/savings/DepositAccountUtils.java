@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.savings;
 
 import java.time.LocalDate;
+import java.util.function.UnaryOperator;
 import org.apache.fineract.portfolio.calendar.domain.CalendarFrequencyType;
 import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
 import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
@@ -62,10 +63,18 @@ public final class DepositAccountUtils {
     }
 
     public static LocalDate calculateNextDepositDate(final LocalDate lastDepositDate, final String recurrence) {
+        return nextDepositDateCalculator(recurrence).apply(lastDepositDate);
+    }
+
+    /**
+     * Parses the recurrence once; use this instead of {@link #calculateNextDepositDate(LocalDate, String)} when computing
+     * many deposit dates of the same recurrence.
+     */
+    public static UnaryOperator<LocalDate> nextDepositDateCalculator(final String recurrence) {
         final PeriodFrequencyType frequencyType = CalendarFrequencyType.from(CalendarUtils.getFrequency(recurrence));
         Integer frequency = CalendarUtils.getInterval(recurrence);
-        frequency = frequency == -1 ? 1 : frequency;
-        return calculateNextDepositDate(lastDepositDate, frequencyType, frequency);
+        final int recurringEvery = frequency == -1 ? 1 : frequency;
+        return lastDepositDate -> calculateNextDepositDate(lastDepositDate, frequencyType, recurringEvery);
     }
 
 }
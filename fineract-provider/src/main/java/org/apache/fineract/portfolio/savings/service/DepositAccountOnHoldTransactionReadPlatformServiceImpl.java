@@ -62,7 +62,7 @@ public class DepositAccountOnHoldTransactionReadPlatformServiceImpl implements D
             SearchParameters searchParameters) {
         final StringBuilder sqlBuilder = new StringBuilder(200);
         List<Long> paramObj = new ArrayList<>(2);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(this.mapper.schema());
 
         sqlBuilder.append(" where tr.savings_account_id = ? ");
@@ -72,6 +72,11 @@ public class DepositAccountOnHoldTransactionReadPlatformServiceImpl implements D
             paramObj.add(guarantorFundingId);
         }
 
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), paramObj.toArray(), this.mapper,
+                    searchParameters.getKeyset(), "tr.id", "transactionId");
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
@@ -52,5 +52,5 @@ public interface DepositAccountReadPlatformService {
 
     Collection<AccountTransferDTO> retrieveDataForInterestTransfer();
 
-    Collection<Map<String, Object>> retriveDataForRDScheduleCreation();
+    Collection<Map<String, Object>> retriveDataForRDScheduleCreation(Long maxSavingsIdInList, int pageSize);
 }
@@ -19,27 +19,20 @@
 package org.apache.fineract.portfolio.savings.service;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.math.BigDecimal;
 import java.security.SecureRandom;
-import java.sql.Date;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
-import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.batch.command.CommandStrategyProvider;
 import org.apache.fineract.batch.service.ResolutionHelper;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
-import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
-import org.apache.fineract.portfolio.savings.data.SavingsAccountSummaryData;
-import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.slf4j.Logger;
@@ -50,8 +43,6 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 
 /**
@@ -64,7 +55,6 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
 
     private static final Logger LOG = LoggerFactory.getLogger(SavingsSchedularInterestPoster.class);
     private static final SecureRandom random = new SecureRandom();
-    private static final String SAVINGS_TRANSACTION_IDENTIFIER = "S";
 
     private Collection<SavingsAccountData> savingAccounts;
     private SavingsAccountWritePlatformService savingsAccountWritePlatformService;
@@ -79,6 +69,7 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
     private CommandStrategyProvider strategyProvider;
     private ResolutionHelper resolutionHelper;
     private SavingsAccountReadPlatformService savingsAccountReadPlatformService;
+    private BlockingQueue<List<SavingsAccountData>> postedAccountsQueue;
 
     public void setSavings(Collection<SavingsAccountData> savingAccounts) {
         this.savingAccounts = savingAccounts;
@@ -128,6 +119,14 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
         this.strategyProvider = commandStrategyProvider;
     }
 
+    /**
+     * When set, the posted accounts are handed over to this queue instead of being written by this poster, so that a
+     * separate writer stage can flush them in larger groups.
+     */
+    public void setPostedAccountsQueue(BlockingQueue<List<SavingsAccountData>> postedAccountsQueue) {
+        this.postedAccountsQueue = postedAccountsQueue;
+    }
+
     @Override
     @SuppressFBWarnings(value = {
             "DMI_RANDOM_USED_ONLY_ONCE" }, justification = "False positive for random object created and used only once")
@@ -190,9 +189,18 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
                 i++;
             }
 
-            if (errors.isEmpty()) {
+            if (errors.isEmpty() && postedAccountsQueue != null) {
                 try {
-                    batchUpdate(savingsAccountDataList);
+                    postedAccountsQueue.put(savingsAccountDataList);
+                } catch (InterruptedException e) {
+                    LOG.error("Interest posting job for savings was interrupted while handing over posted accounts", e);
+                    Thread.currentThread().interrupt();
+                    errors.add(e);
+                }
+            } else if (errors.isEmpty()) {
+                try {
+                    new SavingsInterestPostingBatchWriter(jdbcTemplate, savingsAccountReadPlatformService)
+                            .batchUpdate(savingsAccountDataList);
                 } catch (DataAccessException exception) {
                     LOG.error("Batch update failed due to DataAccessException", exception);
                     errors.add(exception);
@@ -212,165 +220,4 @@ public class SavingsSchedularInterestPoster implements Callable<Void> {
                 savingAccounts.size());
         return null;
     }
-
-    @Transactional(isolation = Isolation.READ_UNCOMMITTED, rollbackFor = Exception.class)
-    private void batchUpdateJournalEntries(final List<SavingsAccountData> savingsAccountDataList,
-            final HashMap<String, SavingsAccountTransactionData> savingsAccountTransactionDataHashMap)
-            throws DataAccessException, NullPointerException {
-        String queryForJGLUpdate = batchQueryForJournalEntries();
-        List<Object[]> paramsForGLInsertion = new ArrayList<>();
-        for (SavingsAccountData savingsAccountData : savingsAccountDataList) {
-            String currencyCode = savingsAccountData.getCurrency().getCode();
-
-            List<SavingsAccountTransactionData> savingsAccountTransactionDataList = savingsAccountData.getSavingsAccountTransactionData();
-            for (SavingsAccountTransactionData savingsAccountTransactionData : savingsAccountTransactionDataList) {
-                if (savingsAccountTransactionData.getId() == null) {
-                    final String key = savingsAccountTransactionData.getRefNo();
-                    if (savingsAccountTransactionDataHashMap.containsKey(key)) {
-                        LocalDate currentDate = DateUtils.getLocalDateOfTenant();
-                        final SavingsAccountTransactionData dataFromFetch = savingsAccountTransactionDataHashMap.get(key);
-                        savingsAccountTransactionData.setId(dataFromFetch.getId());
-
-                        paramsForGLInsertion.add(
-                                new Object[] { savingsAccountData.getGlAccountIdForSavingsControl(), savingsAccountData.getOfficeId(), null,
-                                        currencyCode, SAVINGS_TRANSACTION_IDENTIFIER + savingsAccountTransactionData.getId().toString(),
-                                        savingsAccountTransactionData.getId(), null, false, null, false,
-                                        Date.from(savingsAccountTransactionData.getTransactionDate()
-                                                .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                        JournalEntryType.CREDIT.getValue().longValue(), savingsAccountTransactionData.getAmount(), null,
-                                        JournalEntryType.CREDIT.getValue().longValue(), savingsAccountData.getId(),
-                                        Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                        Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()), false,
-                                        BigDecimal.ZERO, BigDecimal.ZERO, null,
-                                        Date.from(savingsAccountTransactionData.getTransactionDate()
-                                                .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                        null, Integer.valueOf(1), Integer.valueOf(1) });
-
-                        paramsForGLInsertion.add(new Object[] { savingsAccountData.getGlAccountIdForInterestOnSavings(),
-                                savingsAccountData.getOfficeId(), null, currencyCode,
-                                SAVINGS_TRANSACTION_IDENTIFIER + savingsAccountTransactionData.getId().toString(),
-                                savingsAccountTransactionData.getId(), null, false, null, false,
-                                Date.from(savingsAccountTransactionData.getTransactionDate()
-                                        .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                JournalEntryType.DEBIT.getValue().longValue(), savingsAccountTransactionData.getAmount(), null,
-                                JournalEntryType.DEBIT.getValue().longValue(), savingsAccountData.getId(),
-                                Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                Date.from(currentDate.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()), false,
-                                BigDecimal.ZERO, BigDecimal.ZERO, null,
-                                Date.from(savingsAccountTransactionData.getTransactionDate()
-                                        .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
-                                null, Integer.valueOf(1), Integer.valueOf(1) });
-
-                    }
-                }
-            }
-        }
-
-        if (paramsForGLInsertion != null && paramsForGLInsertion.size() > 0) {
-            this.jdbcTemplate.batchUpdate(queryForJGLUpdate, paramsForGLInsertion);
-        }
-    }
-
-    private String batchQueryForJournalEntries() {
-        StringBuilder query = new StringBuilder(100);
-
-        query.append("INSERT INTO acc_gl_journal_entry(account_id,office_id,reversal_id,currency_code,transaction_id,");
-        query.append("savings_transaction_id,client_transaction_id,reversed,ref_num,manual_entry,entry_date,type_enum,");
-        query.append("amount,description,entity_type_enum,entity_id,created_date,");
-        query.append("lastmodified_date,is_running_balance_calculated,office_running_balance,organization_running_balance,");
-        query.append("payment_details_id,transaction_date,share_transaction_id, createdby_id, lastmodifiedby_id) ");
-        query.append("VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-
-        return query.toString();
-    }
-
-    private List<SavingsAccountTransactionData> fetchTransactionsFromIds(final List<String> refNo) throws DataAccessException {
-        return this.savingsAccountReadPlatformService.retrieveAllTransactionData(refNo);
-    }
-
-    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
-    @SuppressWarnings("unused")
-    private void batchUpdate(final List<SavingsAccountData> savingsAccountDataList) throws DataAccessException {
-        String queryForSavingsUpdate = batchQueryForSavingsSummaryUpdate();
-        String queryForTransactionInsertion = batchQueryForTransactionInsertion();
-        List<Object[]> paramsForTransactionInsertion = new ArrayList<>();
-        List<Object[]> paramsForSavingsSummary = new ArrayList<>();
-        List<String> transRefNo = new ArrayList<>();
-        for (SavingsAccountData savingsAccountData : savingsAccountDataList) {
-            SavingsAccountSummaryData savingsAccountSummaryData = savingsAccountData.getSummary();
-            paramsForSavingsSummary.add(new Object[] { savingsAccountSummaryData.getTotalDeposits(),
-                    savingsAccountSummaryData.getTotalWithdrawals(), savingsAccountSummaryData.getTotalInterestEarned(),
-                    savingsAccountSummaryData.getTotalInterestPosted(), savingsAccountSummaryData.getTotalWithdrawalFees(),
-                    savingsAccountSummaryData.getTotalFeeCharge(), savingsAccountSummaryData.getTotalPenaltyCharge(),
-                    savingsAccountSummaryData.getTotalAnnualFees(), savingsAccountSummaryData.getAvailableBalance(),
-                    savingsAccountSummaryData.getTotalOverdraftInterestDerived(), savingsAccountSummaryData.getTotalWithholdTax(),
-                    Date.from(savingsAccountSummaryData.getLastInterestCalculationDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant())
-                            .toInstant()),
-                    Date.from(savingsAccountSummaryData.getInterestPostedTillDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant())
-                            .toInstant()),
-                    savingsAccountData.getId() });
-            List<SavingsAccountTransactionData> savingsAccountTransactionDataList = savingsAccountData.getSavingsAccountTransactionData();
-            for (SavingsAccountTransactionData savingsAccountTransactionData : savingsAccountTransactionDataList) {
-                if (savingsAccountTransactionData.getId() == null) {
-                    UUID uuid = UUID.randomUUID();
-                    savingsAccountTransactionData.setRefNo(uuid.toString());
-                    transRefNo.add(uuid.toString());
-                    java.util.Date balanceEndDate = null;
-                    if (savingsAccountTransactionData.getBalanceEndDate() != null) {
-                        balanceEndDate = Date.from(savingsAccountTransactionData.getBalanceEndDate()
-                                .atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-                    }
-                    paramsForTransactionInsertion.add(new Object[] { savingsAccountData.getId(), savingsAccountData.getOfficeId(),
-                            savingsAccountTransactionData.getTransactionType().getId(),
-                            Date.from(savingsAccountTransactionData.getTransactionDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant())
-                                    .toInstant()),
-                            savingsAccountTransactionData.getAmount(), balanceEndDate,
-                            savingsAccountTransactionData.getBalanceNumberOfDays(), savingsAccountTransactionData.getRunningBalance(),
-                            savingsAccountTransactionData.getCumulativeBalance(), savingsAccountTransactionData.getSubmittedOnDate(),
-                            Integer.valueOf(1), savingsAccountTransactionData.isManualTransaction(),
-                            savingsAccountTransactionData.getRefNo() });
-                }
-            }
-            savingsAccountData.setUpdatedTransactions(savingsAccountTransactionDataList);
-        }
-
-        if (transRefNo.size() > 0) {
-            this.jdbcTemplate.batchUpdate(queryForSavingsUpdate, paramsForSavingsSummary);
-            this.jdbcTemplate.batchUpdate(queryForTransactionInsertion, paramsForTransactionInsertion);
-
-            List<SavingsAccountTransactionData> savingsAccountTransactionDataList = fetchTransactionsFromIds(transRefNo);
-            if (savingsAccountDataList != null) {
-                LOG.info("Fetched Transactions from DB: {}", savingsAccountTransactionDataList.size());
-            }
-
-            HashMap<String, SavingsAccountTransactionData> savingsAccountTransactionMap = new HashMap<>();
-            for (SavingsAccountTransactionData savingsAccountTransactionData : savingsAccountTransactionDataList) {
-                final String key = savingsAccountTransactionData.getRefNo();
-                savingsAccountTransactionMap.put(key, savingsAccountTransactionData);
-            }
-            batchUpdateJournalEntries(savingsAccountDataList, savingsAccountTransactionMap);
-        }
-
-    }
-
-    private String batchQueryForTransactionInsertion() {
-        StringBuilder query = new StringBuilder(100);
-        query.append("INSERT INTO m_savings_account_transaction (savings_account_id, office_id, is_reversed,");
-        query.append("transaction_type_enum, transaction_date, amount, balance_end_date_derived,");
-        query.append("balance_number_of_days_derived, running_balance_derived, cumulative_balance_derived,");
-        query.append("created_date, appuser_id, is_manual, is_loan_disbursement, ref_no) VALUES ");
-        query.append("(?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)");
-        return query.toString();
-
-    }
-
-    private String batchQueryForSavingsSummaryUpdate() {
-        StringBuilder query = new StringBuilder(100);
-        query.append("update m_savings_account set total_deposits_derived=?, total_withdrawals_derived=?, ");
-        query.append("total_interest_earned_derived=?, total_interest_posted_derived=?, total_withdrawal_fees_derived=?, ");
-        query.append("total_fees_charge_derived=?, total_penalty_charge_derived=?, total_annual_fees_derived=?, ");
-        query.append("account_balance_derived=?, total_overdraft_interest_derived=?, total_withhold_tax_derived=?, ");
-        query.append("last_interest_calculation_date=?, interest_posted_till_date=? where id=?");
-        return query.toString();
-    }
 }
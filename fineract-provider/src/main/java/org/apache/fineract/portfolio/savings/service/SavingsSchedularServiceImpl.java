@@ -21,17 +21,19 @@ package org.apache.fineract.portfolio.savings.service;
 import static org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType.ACTIVE;
 
 import java.time.LocalDate;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
@@ -56,6 +58,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SavingsSchedularServiceImpl.class);
+    private static final List<SavingsAccountData> END_OF_STREAM = new ArrayList<>();
 
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
@@ -65,8 +68,6 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
     private final ConfigurationDomainService configurationDomainService;
     private final JdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
-    private Queue<List<SavingsAccountData>> queue = new ArrayDeque<>();
-    private int queueSize = 1;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
@@ -85,6 +86,14 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
         this.transactionTemplate = transactionTemplate;
     }
 
+    /**
+     * Posts interest as a three stage pipeline: a reader keyset-pages the accounts due for posting into a bounded work
+     * queue, <code>thread-pool-size</code> posters continuously pull batches of <code>batch-size</code> accounts from
+     * it, and a single writer flushes the posted accounts in groups of <code>write-batch-size</code> accounts.
+     *
+     * A batch that fails is recorded and the stage goes on with the next one, so the bounded queues keep being drained.
+     * Should a stage nevertheless end abnormally, all stages are cancelled instead of being left blocked on a queue.
+     */
     @Override
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     public void postInterestForAccounts(Map<String, String> jobParameters) throws JobExecutionException {
@@ -92,175 +101,172 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
         final int threadPoolSize = Integer.parseInt(jobParameters.get("thread-pool-size"));
         final int batchSize = Integer.parseInt(jobParameters.get("batch-size"));
         final int pageSize = batchSize * threadPoolSize;
-        Long maxSavingsIdInList = 0L;
-        // initialise the executor service with fetched configurations
-        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        final int queueSize = Integer.parseInt(jobParameters.getOrDefault("queue-size", String.valueOf(threadPoolSize * 2)));
+        final int writeBatchSize = Integer.parseInt(jobParameters.getOrDefault("write-batch-size", String.valueOf(pageSize)));
         final boolean backdatedTxnsAllowedTill = this.configurationDomainService.retrievePivotDateConfig();
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
 
-        long start = System.currentTimeMillis();
-
-        LOG.info("Reading Savings Account Data!");
-        List<SavingsAccountData> savingsAccounts = this.savingAccountReadPlatformService
-                .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxSavingsIdInList);
+        final BlockingQueue<List<SavingsAccountData>> workQueue = new ArrayBlockingQueue<>(queueSize);
+        final BlockingQueue<List<SavingsAccountData>> writeQueue = new ArrayBlockingQueue<>(queueSize);
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
 
-        if (savingsAccounts != null && savingsAccounts.size() > 0) {
-            savingsAccounts = Collections.synchronizedList(savingsAccounts);
-            long finish = System.currentTimeMillis();
-            LOG.info("Done fetching Data within {} milliseconds", finish - start);
-            if (savingsAccounts != null) {
-                queue.add(savingsAccounts);
+        // one reader, the posters and one writer
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize + 2);
+        long start = System.currentTimeMillis();
+        try {
+            final CompletionService<Void> stages = new ExecutorCompletionService<>(executorService);
+            final Future<Void> writer = stages.submit(() -> writePostedAccounts(tenant, writeQueue, writeBatchSize, errors));
+            for (int i = 0; i < threadPoolSize; i++) {
+                stages.submit(() -> postQueuedAccounts(tenant, workQueue, writeQueue, backdatedTxnsAllowedTill, errors));
             }
-
-            if (!CollectionUtils.isEmpty(queue)) {
-                do {
-                    int totalFilteredRecords = savingsAccounts.size();
-                    LOG.info("Starting Interest posting - total records - {}", totalFilteredRecords);
-                    List<SavingsAccountData> queueElement = queue.element();
-                    maxSavingsIdInList = queueElement.get(queueElement.size() - 1).getId();
-                    postInterest(queue.remove(), threadPoolSize, batchSize, executorService, backdatedTxnsAllowedTill, pageSize,
-                            maxSavingsIdInList);
-                } while (!CollectionUtils.isEmpty(queue));
+            stages.submit(() -> readAccountsForPosting(tenant, workQueue, backdatedTxnsAllowedTill, pageSize, batchSize, threadPoolSize));
+
+            // the reader and the posters, then the writer once it has been told that no more accounts will come
+            boolean completed = awaitStages(stages, threadPoolSize + 1, errors);
+            if (completed) {
+                while (!writeQueue.offer(END_OF_STREAM, 1, TimeUnit.SECONDS)) {
+                    if (writer.isDone()) {
+                        break;
+                    }
+                }
+                completed = awaitStages(stages, 1, errors);
+            }
+            if (!completed) {
+                LOG.error("A stage of the interest posting for savings ended abnormally, cancelling the remaining stages");
             }
-            // shutdown the executor when done
+        } catch (InterruptedException e) {
+            LOG.error("Interrupted while posting interest for savings", e);
+            Thread.currentThread().interrupt();
+            errors.add(e);
+        } finally {
             executorService.shutdownNow();
         }
-    }
+        LOG.info("Interest posting for savings finished within {} milliseconds", System.currentTimeMillis() - start);
 
-    private void postInterest(List<SavingsAccountData> savingsAccounts, int threadPoolSize, int batchSize, ExecutorService executorService,
-            final boolean backdatedTxnsAllowedTill, final int pageSize, Long maxSavingsIdInList) {
-        List<Callable<Void>> posters = new ArrayList<>();
-        int fromIndex = 0;
-        // get the size of current paginated dataset
-        int size = savingsAccounts.size();
-        // calculate the batch size
-        batchSize = (int) Math.ceil((double) size / threadPoolSize);
-
-        if (batchSize == 0) {
-            return;
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(new ArrayList<>(errors));
         }
+    }
 
-        int toIndex = (batchSize > size - 1) ? size : batchSize;
-        while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
-            toIndex++;
-        }
-        boolean lastBatch = false;
-        int loopCount = size / batchSize + 1;
-
-        FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
-        Long finalMaxSavingsIdInList = maxSavingsIdInList;
-
-        Callable<Void> fetchData = () -> {
-            ThreadLocalContextUtil.setTenant(tenant);
-            Long maxId = finalMaxSavingsIdInList;
-            if (!queue.isEmpty()) {
-                maxId = Math.max(finalMaxSavingsIdInList, queue.element().get(queue.element().size() - 1).getId());
-            }
-
-            while (queue.size() <= queueSize) {
-                LOG.info("Fetching while threads are running!");
-                List<SavingsAccountData> savingsAccountDataList = Collections.synchronizedList(this.savingAccountReadPlatformService
-                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxId));
-                if (savingsAccountDataList == null || savingsAccountDataList.isEmpty()) {
-                    break;
+    private Void readAccountsForPosting(final FineractPlatformTenant tenant, final BlockingQueue<List<SavingsAccountData>> workQueue,
+            final boolean backdatedTxnsAllowedTill, final int pageSize, final int batchSize, final int numberOfPosters)
+            throws InterruptedException {
+        ThreadLocalContextUtil.setTenant(tenant);
+        Long maxSavingsIdInList = 0L;
+        try {
+            while (true) {
+                final List<SavingsAccountData> savingsAccounts = this.savingAccountReadPlatformService
+                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxSavingsIdInList);
+                if (CollectionUtils.isEmpty(savingsAccounts)) {
+                    // all accounts of the current id window may be posted already, so only stop when the window is empty
+                    final List<Long> accountIds = this.savingAccountReadPlatformService.getAccountsIdsByStatusPaged(ACTIVE.getValue(),
+                            pageSize, maxSavingsIdInList);
+                    if (accountIds.isEmpty()) {
+                        break;
+                    }
+                    maxSavingsIdInList = accountIds.get(accountIds.size() - 1);
+                    continue;
+                }
+                final int size = savingsAccounts.size();
+                maxSavingsIdInList = savingsAccounts.get(size - 1).getId();
+                LOG.info("Queueing {} savings accounts for interest posting up to id {}", size, maxSavingsIdInList);
+                for (int fromIndex = 0; fromIndex < size; fromIndex += batchSize) {
+                    workQueue.put(new ArrayList<>(savingsAccounts.subList(fromIndex, Math.min(size, fromIndex + batchSize))));
                 }
-                maxId = savingsAccountDataList.get(savingsAccountDataList.size() - 1).getId();
-                queue.add(savingsAccountDataList);
-            }
-            return null;
-        };
-        posters.add(fetchData);
-
-        for (long i = 0; i < loopCount; i++) {
-            List<SavingsAccountData> subList = safeSubList(savingsAccounts, fromIndex, toIndex);
-            SavingsSchedularInterestPoster poster = (SavingsSchedularInterestPoster) this.applicationContext
-                    .getBean("savingsSchedularInterestPoster");
-            poster.setSavings(subList);
-            poster.setTenant(tenant);
-            poster.setSavingsAccountWritePlatformService(savingsAccountWritePlatformService);
-            poster.setSavingsAccountReadPlatformService(savingAccountReadPlatformService);
-            poster.setSavingsAccountRepository(savingsAccountRepository);
-            poster.setSavingAccountAssembler(savingAccountAssembler);
-            poster.setJdbcTemplate(jdbcTemplate);
-            poster.setBackdatedTxnsAllowedTill(backdatedTxnsAllowedTill);
-            poster.setTransactionTemplate(transactionTemplate);
-            poster.setConfigurationDomainService(configurationDomainService);
-
-            posters.add(poster);
-
-            if (lastBatch) {
-                break;
-            }
-            if (toIndex + batchSize > size - 1) {
-                lastBatch = true;
             }
-            fromIndex = fromIndex + (toIndex - fromIndex);
-            toIndex = (toIndex + batchSize > size - 1) ? size : toIndex + batchSize;
-            while (toIndex < size && savingsAccounts.get(toIndex - 1).getId().equals(savingsAccounts.get(toIndex).getId())) {
-                toIndex++;
+        } finally {
+            for (int i = 0; i < numberOfPosters; i++) {
+                workQueue.put(END_OF_STREAM);
             }
         }
+        return null;
+    }
 
-        try {
-            List<Future<Void>> responses = executorService.invokeAll(posters);
-            Long maxId = maxSavingsIdInList;
-            if (!queue.isEmpty()) {
-                maxId = Math.max(maxSavingsIdInList, queue.element().get(queue.element().size() - 1).getId());
+    private Void postQueuedAccounts(final FineractPlatformTenant tenant, final BlockingQueue<List<SavingsAccountData>> workQueue,
+            final BlockingQueue<List<SavingsAccountData>> writeQueue, final boolean backdatedTxnsAllowedTill, final List<Throwable> errors)
+            throws InterruptedException {
+        ThreadLocalContextUtil.setTenant(tenant);
+        List<SavingsAccountData> savingsAccounts;
+        while ((savingsAccounts = workQueue.take()) != END_OF_STREAM) {
+            try {
+                SavingsSchedularInterestPoster poster = (SavingsSchedularInterestPoster) this.applicationContext
+                        .getBean("savingsSchedularInterestPoster");
+                poster.setSavings(savingsAccounts);
+                poster.setTenant(tenant);
+                poster.setSavingsAccountWritePlatformService(savingsAccountWritePlatformService);
+                poster.setSavingsAccountReadPlatformService(savingAccountReadPlatformService);
+                poster.setSavingsAccountRepository(savingsAccountRepository);
+                poster.setSavingAccountAssembler(savingAccountAssembler);
+                poster.setJdbcTemplate(jdbcTemplate);
+                poster.setBackdatedTxnsAllowedTill(backdatedTxnsAllowedTill);
+                poster.setTransactionTemplate(transactionTemplate);
+                poster.setConfigurationDomainService(configurationDomainService);
+                poster.setPostedAccountsQueue(writeQueue);
+                poster.call();
+            } catch (JobExecutionException e) {
+                errors.addAll(e.getCauses());
+            } catch (Throwable e) {
+                // keep taking batches, the reader would otherwise block on the full work queue
+                LOG.error("Interest posting failed for a batch of {} savings accounts", savingsAccounts.size(), e);
+                errors.add(e);
             }
+        }
+        return null;
+    }
 
-            while (queue.size() <= queueSize) {
-                LOG.info("Fetching while threads are running!..:: this is not supposed to run........");
-                savingsAccounts = Collections.synchronizedList(this.savingAccountReadPlatformService
-                        .retrieveAllSavingsDataForInterestPosting(backdatedTxnsAllowedTill, pageSize, ACTIVE.getValue(), maxId));
-                if (savingsAccounts == null || savingsAccounts.isEmpty()) {
-                    break;
-                }
-                maxId = savingsAccounts.get(savingsAccounts.size() - 1).getId();
-                LOG.info("Add to the Queue");
-                queue.add(savingsAccounts);
+    private Void writePostedAccounts(final FineractPlatformTenant tenant, final BlockingQueue<List<SavingsAccountData>> writeQueue,
+            final int writeBatchSize, final List<Throwable> errors) throws InterruptedException {
+        ThreadLocalContextUtil.setTenant(tenant);
+        final SavingsInterestPostingBatchWriter batchWriter = new SavingsInterestPostingBatchWriter(jdbcTemplate,
+                savingAccountReadPlatformService);
+        List<SavingsAccountData> pending = new ArrayList<>();
+        List<SavingsAccountData> postedAccounts;
+        // flushPostedAccounts records its failures, so the queue is drained until the end of the stream whatever happens
+        while ((postedAccounts = writeQueue.take()) != END_OF_STREAM) {
+            pending.addAll(postedAccounts);
+            if (pending.size() >= writeBatchSize) {
+                flushPostedAccounts(batchWriter, pending, errors);
+                pending = new ArrayList<>();
             }
-
-            checkCompletion(responses);
-            LOG.info("Queue size {}", queue.size());
-        } catch (InterruptedException e1) {
-            LOG.error("Interrupted while postInterest", e1);
         }
+        flushPostedAccounts(batchWriter, pending, errors);
+        return null;
     }
 
-    // break the lists into sub lists
-    public <T> List<T> safeSubList(List<T> list, int fromIndex, int toIndex) {
-        int size = list.size();
-        if (fromIndex >= size || toIndex <= 0 || fromIndex >= toIndex) {
-            return Collections.emptyList();
+    private void flushPostedAccounts(final SavingsInterestPostingBatchWriter batchWriter, final List<SavingsAccountData> postedAccounts,
+            final List<Throwable> errors) {
+        if (postedAccounts.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> batchWriter.batchUpdate(postedAccounts));
+            LOG.info("Wrote interest posting of {} savings accounts within {} milliseconds", postedAccounts.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Throwable e) {
+            LOG.error("Batch update of interest posting failed for {} savings accounts", postedAccounts.size(), e);
+            errors.add(e);
         }
-
-        fromIndex = Math.max(0, fromIndex);
-        toIndex = Math.min(size, toIndex);
-
-        return list.subList(fromIndex, toIndex);
     }
 
-    // checks the execution of task by each thread in the executor service
-    private void checkCompletion(List<Future<Void>> responses) {
-        try {
-            for (Future f : responses) {
-                f.get();
-            }
-            boolean allThreadsExecuted = false;
-            int noOfThreadsExecuted = 0;
-            for (Future<Void> future : responses) {
-                if (future.isDone()) {
-                    noOfThreadsExecuted++;
-                }
-            }
-            allThreadsExecuted = noOfThreadsExecuted == responses.size();
-            if (!allThreadsExecuted) {
-                LOG.error("All threads could not execute.");
+    /**
+     * Waits for the given number of stages to complete, in whatever order they do.
+     *
+     * @return false as soon as one of them has ended with an exception, the caller then has to cancel the others as
+     *         they may be blocked on a queue nobody serves anymore
+     */
+    private boolean awaitStages(final CompletionService<Void> stages, final int numberOfStages, final List<Throwable> errors)
+            throws InterruptedException {
+        for (int i = 0; i < numberOfStages; i++) {
+            try {
+                stages.take().get();
+            } catch (ExecutionException e) {
+                LOG.error("Execution exception while posting interest for savings", e);
+                errors.add(e.getCause());
+                return false;
             }
-        } catch (InterruptedException e1) {
-            LOG.error("Interrupted while interest posting entries", e1);
-        } catch (ExecutionException e2) {
-            LOG.error("Execution exception while interest posting entries", e2);
         }
+        return true;
     }
 
     @Override
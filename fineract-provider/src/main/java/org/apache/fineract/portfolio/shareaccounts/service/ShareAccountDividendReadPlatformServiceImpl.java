@@ -76,7 +76,7 @@ public class ShareAccountDividendReadPlatformServiceImpl implements ShareAccount
     public Page<ShareAccountDividendData> retriveAll(final Long payoutDetailId, final SearchParameters searchParameters) {
         ShareAccountDividendMapper shareAccountDividendMapper = new ShareAccountDividendMapper();
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(shareAccountDividendMapper.schema());
         sqlBuilder.append(" where sadd.dividend_pay_out_id = ? ");
         List<Object> params = new ArrayList<>(2);
@@ -85,6 +85,10 @@ public class ShareAccountDividendReadPlatformServiceImpl implements ShareAccount
             sqlBuilder.append(" and sa.account_no = ? ");
             params.add(searchParameters.getAccountNo());
         }
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), params.toArray(), shareAccountDividendMapper,
+                    searchParameters.getKeyset(), "sadd.id");
+        }
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
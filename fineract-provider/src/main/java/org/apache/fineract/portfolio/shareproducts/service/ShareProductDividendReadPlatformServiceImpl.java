@@ -64,7 +64,7 @@ public class ShareProductDividendReadPlatformServiceImpl implements ShareProduct
             final SearchParameters searchParameters) {
         ShareProductDividendMapper shareProductDividendMapper = new ShareProductDividendMapper();
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select " + sqlGenerator.calcFoundRows() + " ");
+        sqlBuilder.append("select " + this.paginationHelper.calcFoundRows(searchParameters) + " ");
         sqlBuilder.append(shareProductDividendMapper.schema());
         sqlBuilder.append(" where sp.id = ? ");
         List<Object> params = new ArrayList<>(2);
@@ -73,6 +73,10 @@ public class ShareProductDividendReadPlatformServiceImpl implements ShareProduct
             sqlBuilder.append(" and pod.status = ?");
             params.add(status);
         }
+        if (searchParameters.getKeyset() != null) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), params.toArray(), shareProductDividendMapper,
+                    searchParameters.getKeyset(), "pod.id");
+        }
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
             this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
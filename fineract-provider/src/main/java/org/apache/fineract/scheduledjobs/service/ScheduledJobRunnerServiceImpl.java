@@ -20,17 +20,18 @@ package org.apache.fineract.scheduledjobs.service;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
+import java.util.function.UnaryOperator;
 import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
 import org.apache.fineract.infrastructure.core.config.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
@@ -63,15 +64,13 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
 
 @Service(value = "scheduledJobRunnerService")
 public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
 
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private final DateTimeFormatter formatterWithTime = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int RD_SCHEDULE_BATCH_SIZE = 500;
 
     private final RoutingDataSourceServiceFactory dataSourceServiceFactory;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
@@ -360,56 +359,51 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     @CronTarget(jobName = JobName.GENERATE_RD_SCEHDULE)
     public void generateRDSchedule() {
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
-        final Collection<Map<String, Object>> scheduleDetails = this.depositAccountReadPlatformService.retriveDataForRDScheduleCreation();
-        String insertSql = "INSERT INTO m_mandatory_savings_schedule (savings_account_id, duedate, installment, deposit_amount, completed_derived, created_date, lastmodified_date) VALUES ";
-        StringBuilder sb = new StringBuilder();
-        String currentDate = formatterWithTime.format(DateUtils.getLocalDateTimeOfTenant());
-        int iterations = 0;
-        for (Map<String, Object> details : scheduleDetails) {
-            Long count = (Long) details.get("futureInstallemts");
-            if (count == null) {
-                count = 0L;
-            }
-            final Long savingsId = (Long) details.get("savingsId");
-            final BigDecimal amount = (BigDecimal) details.get("amount");
-            final String recurrence = (String) details.get("recurrence");
-            Date date = (Date) details.get("dueDate");
-            LocalDate lastDepositDate = LocalDate.ofInstant(date.toInstant(), DateUtils.getDateTimeZoneOfTenant());
-            Integer installmentNumber = (Integer) details.get("installment");
-            while (count < DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS) {
-                count++;
-                installmentNumber++;
-                lastDepositDate = DepositAccountUtils.calculateNextDepositDate(lastDepositDate, recurrence);
-
-                if (sb.length() > 0) {
-                    sb.append(", ");
+        final String insertSql = "INSERT INTO m_mandatory_savings_schedule (savings_account_id, duedate, installment, deposit_amount, "
+                + "completed_derived, created_date, lastmodified_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        final Timestamp currentDate = Timestamp.valueOf(DateUtils.getLocalDateTimeOfTenant());
+        final Map<String, UnaryOperator<LocalDate>> nextDepositDateCalculators = new HashMap<>();
+        final List<Object[]> batch = new ArrayList<>(RD_SCHEDULE_BATCH_SIZE);
+        int inserted = 0;
+        Long maxSavingsIdInList = 0L;
+        Collection<Map<String, Object>> scheduleDetails;
+        do {
+            scheduleDetails = this.depositAccountReadPlatformService.retriveDataForRDScheduleCreation(maxSavingsIdInList,
+                    RD_SCHEDULE_BATCH_SIZE);
+            for (Map<String, Object> details : scheduleDetails) {
+                Long count = (Long) details.get("futureInstallemts");
+                if (count == null) {
+                    count = 0L;
                 }
-                sb.append("(");
-                sb.append(savingsId);
-                sb.append(",'");
-                sb.append(formatter.format(lastDepositDate));
-                sb.append("',");
-                sb.append(installmentNumber);
-                sb.append(",");
-                sb.append(amount);
-                sb.append(", b'0','");
-                sb.append(currentDate);
-                sb.append("','");
-                sb.append(currentDate);
-                sb.append("')");
-                iterations++;
-                if (iterations > 200) {
-                    jdbcTemplate.update(insertSql + sb.toString());
-                    sb = new StringBuilder();
+                final Long savingsId = (Long) details.get("savingsId");
+                final BigDecimal amount = (BigDecimal) details.get("amount");
+                final String recurrence = (String) details.get("recurrence");
+                final UnaryOperator<LocalDate> nextDepositDateCalculator = nextDepositDateCalculators.computeIfAbsent(recurrence,
+                        DepositAccountUtils::nextDepositDateCalculator);
+                Date date = (Date) details.get("dueDate");
+                LocalDate lastDepositDate = LocalDate.ofInstant(date.toInstant(), DateUtils.getDateTimeZoneOfTenant());
+                Integer installmentNumber = (Integer) details.get("installment");
+                while (count < DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS) {
+                    count++;
+                    installmentNumber++;
+                    lastDepositDate = nextDepositDateCalculator.apply(lastDepositDate);
+                    batch.add(new Object[] { savingsId, java.sql.Date.valueOf(lastDepositDate), installmentNumber, amount, false,
+                            currentDate, currentDate });
+                    if (batch.size() == RD_SCHEDULE_BATCH_SIZE) {
+                        inserted += batch.size();
+                        jdbcTemplate.batchUpdate(insertSql, batch);
+                        batch.clear();
+                    }
                 }
-
+                maxSavingsIdInList = savingsId;
             }
-        }
+        } while (scheduleDetails.size() == RD_SCHEDULE_BATCH_SIZE);
 
-        if (sb.length() > 0) {
-            jdbcTemplate.update(insertSql + sb.toString());
+        if (!batch.isEmpty()) {
+            inserted += batch.size();
+            jdbcTemplate.batchUpdate(insertSql, batch);
         }
-
+        LOG.info("{}: Records affected by generateRDSchedule: {}", ThreadLocalContextUtil.getTenant().getName(), inserted);
     }
 
     @Override
@@ -477,38 +471,10 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             LOG.info("{}: Records affected by updateTrialBalanceDetails: {}", ThreadLocalContextUtil.getTenant().getName(), result);
         }
 
-        // Updating closing balance
-        String distinctOfficeQuery = "select distinct(office_id) from m_trial_balance where closing_balance is null group by office_id";
-        final List<Long> officeIds = jdbcTemplate.queryForList(distinctOfficeQuery, Long.class);
-
-        for (Long officeId : officeIds) {
-            String distinctAccountQuery = "select distinct(account_id) from m_trial_balance where office_id=? and closing_balance is null group by account_id";
-            final List<Long> accountIds = jdbcTemplate.queryForList(distinctAccountQuery, Long.class, officeId);
-            for (Long accountId : accountIds) {
-                final String closingBalanceQuery = "select closing_balance from m_trial_balance where office_id=? and account_id=? and closing_balance "
-                        + "is not null order by created_date desc, entry_date desc limit 1";
-                List<BigDecimal> closingBalanceData = jdbcTemplate.queryForList(closingBalanceQuery, BigDecimal.class, officeId, accountId);
-                List<TrialBalance> tbRows = this.trialBalanceRepositoryWrapper.findNewByOfficeAndAccount(officeId, accountId);
-                BigDecimal closingBalance = null;
-                if (!CollectionUtils.isEmpty(closingBalanceData)) {
-                    closingBalance = closingBalanceData.get(0);
-                }
-                if (CollectionUtils.isEmpty(closingBalanceData)) {
-                    closingBalance = BigDecimal.ZERO;
-                    for (TrialBalance row : tbRows) {
-                        closingBalance = closingBalance.add(row.getAmount());
-                        row.setClosingBalance(closingBalance);
-                    }
-                } else {
-                    for (TrialBalance tbRow : tbRows) {
-                        closingBalance = closingBalance.add(tbRow.getAmount());
-                        tbRow.setClosingBalance(closingBalance);
-                    }
-                }
-                this.trialBalanceRepositoryWrapper.save(tbRows);
-            }
-        }
-
+        final TrialBalanceClosingBalanceUpdater closingBalanceUpdater = new TrialBalanceClosingBalanceUpdater(jdbcTemplate,
+                this.trialBalanceRepositoryWrapper, this.databaseTypeResolver);
+        final int closed = closingBalanceUpdater.update();
+        LOG.info("{}: Trial balance closing balances updated: {}", ThreadLocalContextUtil.getTenant().getName(), closed);
     }
 
     @Override
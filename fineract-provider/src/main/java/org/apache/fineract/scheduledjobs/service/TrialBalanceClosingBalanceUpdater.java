@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.scheduledjobs.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
+import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Fills in the closing balance of the m_trial_balance rows added by {@link ScheduledJobRunnerServiceImpl}. The closing
+ * balance of a row is the last known closing balance of its office and account plus the running sum of the amounts of
+ * the new rows, ordered by created and entry date. On MySQL and PostgreSQL all new rows are updated by one window
+ * function statement; the per office and account JPA update is kept for other databases and as a fallback.
+ */
+public class TrialBalanceClosingBalanceUpdater {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TrialBalanceClosingBalanceUpdater.class);
+
+    private static final String NEW_ROW_CLOSING_BALANCES = "select n.office_id, n.account_id, n.entry_date, n.created_date, "
+            + "coalesce((select p.closing_balance from m_trial_balance p where p.office_id = n.office_id and p.account_id = n.account_id "
+            + "and p.closing_balance is not null order by p.created_date desc, p.entry_date desc limit 1), 0) "
+            + "+ sum(n.amount) over (partition by n.office_id, n.account_id order by n.created_date, n.entry_date "
+            + "rows between unbounded preceding and current row) as closing_balance "
+            + "from m_trial_balance n where n.closing_balance is null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    private final DatabaseTypeResolver databaseTypeResolver;
+
+    public TrialBalanceClosingBalanceUpdater(final JdbcTemplate jdbcTemplate,
+            final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper, final DatabaseTypeResolver databaseTypeResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trialBalanceRepositoryWrapper = trialBalanceRepositoryWrapper;
+        this.databaseTypeResolver = databaseTypeResolver;
+    }
+
+    /**
+     * @return the number of rows whose closing balance was filled in
+     */
+    public int update() {
+        if (this.databaseTypeResolver.isMySQL() || this.databaseTypeResolver.isPostgreSQL()) {
+            try {
+                return updateWithWindowFunction();
+            } catch (final DataAccessException e) {
+                // e.g. MySQL before 8.0, which has no window functions
+                LOG.warn("Set based update of trial balance closing balances failed, updating them per office and account", e);
+            }
+        }
+        return updatePerOfficeAndAccount();
+    }
+
+    public int updateWithWindowFunction() {
+        return this.jdbcTemplate.update(closingBalanceUpdateStatement());
+    }
+
+    public int updatePerOfficeAndAccount() {
+        int updated = 0;
+        String distinctOfficeQuery = "select distinct(office_id) from m_trial_balance where closing_balance is null group by office_id";
+        final List<Long> officeIds = this.jdbcTemplate.queryForList(distinctOfficeQuery, Long.class);
+
+        for (Long officeId : officeIds) {
+            String distinctAccountQuery = "select distinct(account_id) from m_trial_balance where office_id=? and closing_balance is null "
+                    + "group by account_id";
+            final List<Long> accountIds = this.jdbcTemplate.queryForList(distinctAccountQuery, Long.class, officeId);
+            for (Long accountId : accountIds) {
+                final String closingBalanceQuery = "select closing_balance from m_trial_balance where office_id=? and account_id=? "
+                        + "and closing_balance is not null order by created_date desc, entry_date desc limit 1";
+                List<BigDecimal> closingBalanceData = this.jdbcTemplate.queryForList(closingBalanceQuery, BigDecimal.class, officeId,
+                        accountId);
+                List<TrialBalance> tbRows = this.trialBalanceRepositoryWrapper.findNewByOfficeAndAccount(officeId, accountId);
+                BigDecimal closingBalance = BigDecimal.ZERO;
+                if (!CollectionUtils.isEmpty(closingBalanceData)) {
+                    closingBalance = closingBalanceData.get(0);
+                }
+                for (TrialBalance tbRow : tbRows) {
+                    closingBalance = closingBalance.add(tbRow.getAmount());
+                    tbRow.setClosingBalance(closingBalance);
+                }
+                this.trialBalanceRepositoryWrapper.save(tbRows);
+                updated += tbRows.size();
+            }
+        }
+        return updated;
+    }
+
+    String closingBalanceUpdateStatement() {
+        // the rows added by one run are unique per office, account, created and entry date, so those identify a row
+        if (this.databaseTypeResolver.isPostgreSQL()) {
+            return "update m_trial_balance tb set closing_balance = x.closing_balance from (" + NEW_ROW_CLOSING_BALANCES + ") x "
+                    + "where tb.office_id = x.office_id and tb.account_id = x.account_id and tb.entry_date = x.entry_date "
+                    + "and tb.created_date is not distinct from x.created_date and tb.closing_balance is null";
+        }
+        return "update m_trial_balance tb join (" + NEW_ROW_CLOSING_BALANCES + ") x "
+                + "on tb.office_id = x.office_id and tb.account_id = x.account_id and tb.entry_date = x.entry_date "
+                + "and tb.created_date <=> x.created_date set tb.closing_balance = x.closing_balance where tb.closing_balance is null";
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.template.api;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -236,6 +237,32 @@ public class TemplatesApiResource {
         @SuppressWarnings("unchecked")
         final HashMap<String, Object> result = new ObjectMapper().readValue(apiRequestBodyAsJson, HashMap.class);
 
+        final Map<String, Object> parametersMap = parametersMap(uriInfo);
+        parametersMap.putAll(result);
+        return this.templateMergeService.compile(template, parametersMap);
+    }
+
+    @POST
+    @Path("{templateId}/batch")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String mergeTemplates(@PathParam("templateId") final Long templateId, @Context final UriInfo uriInfo,
+            final String apiRequestBodyAsJson) throws IOException {
+
+        final Template template = this.templateService.findOneById(templateId);
+
+        final List<HashMap<String, Object>> results = new ObjectMapper().readValue(apiRequestBodyAsJson,
+                new TypeReference<List<HashMap<String, Object>>>() {});
+
+        final List<Map<String, Object>> scopes = new ArrayList<>(results.size());
+        for (final HashMap<String, Object> result : results) {
+            final Map<String, Object> parametersMap = parametersMap(uriInfo);
+            parametersMap.putAll(result);
+            scopes.add(parametersMap);
+        }
+        return new ObjectMapper().writeValueAsString(this.templateMergeService.compile(template, scopes));
+    }
+
+    private Map<String, Object> parametersMap(final UriInfo uriInfo) {
         final MultivaluedMap<String, String> parameters = uriInfo.getQueryParameters();
         final Map<String, Object> parametersMap = new HashMap<>();
         for (final Map.Entry<String, List<String>> entry : parameters.entrySet()) {
@@ -248,7 +275,6 @@ public class TemplatesApiResource {
         }
 
         parametersMap.put("BASE_URI", uriInfo.getBaseUri());
-        parametersMap.putAll(result);
-        return this.templateMergeService.compile(template, parametersMap);
+        return parametersMap;
     }
 }
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.template.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.SecurityContext;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.servlet.ServletContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the mapper URLs of a template that point at this server's own API by dispatching the GET request to the
+ * Jersey application in-process, instead of opening a loopback HTTP connection.
+ *
+ * The request runs on the calling thread, so it sees the tenant and the authenticated user of the merge. Without an
+ * authenticated user (e.g. hooks delivered on a background thread), or before the Jersey servlet has started, nothing
+ * is resolved and the caller falls back to HTTP.
+ */
+@Component
+public class TemplateMapperResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TemplateMapperResolver.class);
+
+    private final ObjectProvider<ServletRegistrationBean<ServletContainer>> jerseyServletRegistration;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    public TemplateMapperResolver(final ObjectProvider<ServletRegistrationBean<ServletContainer>> jerseyServletRegistration) {
+        this.jerseyServletRegistration = jerseyServletRegistration;
+    }
+
+    /**
+     * Returns the data of url when it targets baseUri, or null when it has to be fetched over HTTP.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> resolve(final String url, final Object baseUri) {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (baseUri == null || authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        final String base = baseUri.toString().endsWith("/") ? baseUri.toString() : baseUri + "/";
+        if (!url.startsWith(base)) {
+            return null;
+        }
+        final ApplicationHandler applicationHandler = applicationHandler();
+        if (applicationHandler == null) {
+            return null;
+        }
+
+        final URI requestUri = URI.create(url);
+        final ContainerRequest request = new ContainerRequest(URI.create(base), requestUri, HttpMethod.GET,
+                securityContext(authentication, requestUri), new MapPropertiesDelegate(), null);
+        request.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON + ", " + MediaType.TEXT_PLAIN);
+        try {
+            final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+            final ContainerResponse response = applicationHandler.apply(request, entity).get();
+            if (response.getStatus() != 200) {
+                LOG.warn("In-process request for template mapper {} returned status {}, falling back to HTTP", url, response.getStatus());
+                return null;
+            }
+            final String body = new String(entity.toByteArray(), StandardCharsets.UTF_8);
+            if (MediaType.TEXT_PLAIN_TYPE.isCompatible(response.getMediaType())) {
+                final Map<String, Object> result = new HashMap<>();
+                result.put("src", body);
+                return result;
+            }
+            return this.objectMapper.readValue(body, HashMap.class);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException | IOException e) {
+            LOG.warn("In-process request for template mapper {} failed, falling back to HTTP", url, e);
+            return null;
+        }
+    }
+
+    private ApplicationHandler applicationHandler() {
+        final ServletRegistrationBean<ServletContainer> registration = this.jerseyServletRegistration.getIfAvailable();
+        if (registration == null || registration.getServlet() == null) {
+            return null;
+        }
+        return registration.getServlet().getApplicationHandler();
+    }
+
+    private static SecurityContext securityContext(final Authentication authentication, final URI requestUri) {
+        return new SecurityContext() {
+
+            @Override
+            public Principal getUserPrincipal() {
+                return authentication;
+            }
+
+            @Override
+            public boolean isUserInRole(final String role) {
+                return false;
+            }
+
+            @Override
+            public boolean isSecure() {
+                return "https".equalsIgnoreCase(requestUri.getScheme());
+            }
+
+            @Override
+            public String getAuthenticationScheme() {
+                return SecurityContext.BASIC_AUTH;
+            }
+        };
+    }
+}
@@ -36,12 +36,17 @@ import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateFunctions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -50,58 +55,112 @@ public class TemplateMergeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(TemplateMergeService.class);
 
-    // private final FromJsonHelper fromApiJsonHelper;
-    private Map<String, Object> scopes;
-    private String authToken;
+    private static final int MAX_CACHED_TEMPLATES = 256;
 
-    public void setAuthToken(final String authToken) {
-        this.authToken = authToken;
+    private final TemplateMapperResolver templateMapperResolver;
+    private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
+    private final Map<Long, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TemplateMergeService(final TemplateMapperResolver templateMapperResolver) {
+        this.templateMapperResolver = templateMapperResolver;
     }
 
     public String compile(final Template template, final Map<String, Object> scopes) throws IOException {
-        this.scopes = scopes;
-        this.scopes.put("static", new TemplateFunctions());
+        return compile(template, scopes, null);
+    }
+
+    /**
+     * Merges the template with the scopes, fetching its mappers with the given basic authentication token; without a
+     * token, mappers are resolved in-process where possible and otherwise fetched as the authenticated user.
+     */
+    public String compile(final Template template, final Map<String, Object> scopes, final String authToken) throws IOException {
+        return merge(compiledTemplate(template), scopes, new HashMap<>(), authToken);
+    }
+
+    /**
+     * Merges the template with each of the scopes, e.g. to generate the agreements of all loans disbursed on a day. The
+     * template is compiled once, and mappers resolving to the same URL for several scopes are only fetched once.
+     */
+    public List<String> compile(final Template template, final List<Map<String, Object>> scopesList) throws IOException {
+        final CompiledTemplate compiledTemplate = compiledTemplate(template);
+        final Map<String, Map<String, Object>> fetchedMappers = new HashMap<>();
+        final List<String> results = new ArrayList<>(scopesList.size());
+        for (final Map<String, Object> scopes : scopesList) {
+            results.add(merge(compiledTemplate, scopes, fetchedMappers, null));
+        }
+        return results;
+    }
 
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(template.getText()), template.getName());
+    private String merge(final CompiledTemplate compiledTemplate, final Map<String, Object> scopes,
+            final Map<String, Map<String, Object>> fetchedMappers, final String authToken) {
+        scopes.put("static", new TemplateFunctions());
 
-        final Map<String, Object> mappers = getCompiledMapFromMappers(template.getMappersAsMap());
-        this.scopes.putAll(mappers);
+        getCompiledMapFromMappers(compiledTemplate.mappers, scopes, fetchedMappers, authToken);
 
         expandMapArrays(scopes);
 
         final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, this.scopes);
+        compiledTemplate.mustache.execute(stringWriter, scopes);
 
         return stringWriter.toString();
     }
 
-    private Map<String, Object> getCompiledMapFromMappers(final Map<String, String> data) {
-        final MustacheFactory mf = new DefaultMustacheFactory();
+    /**
+     * Returns the compiled template, compiling it again when its text or mappers changed since it was cached.
+     */
+    private CompiledTemplate compiledTemplate(final Template template) {
+        final Long templateId = template.getId();
+        final LinkedHashMap<String, String> mappers = template.getMappersAsMap();
+        CompiledTemplate compiledTemplate = templateId == null ? null : this.compiledTemplates.get(templateId);
+        if (compiledTemplate == null || !compiledTemplate.isCompiledFrom(template.getText(), mappers)) {
+            final Mustache mustache = this.mustacheFactory.compile(new StringReader(template.getText()), template.getName());
+            final Map<String, Mustache> compiledMappers = new LinkedHashMap<>();
+            if (mappers != null) {
+                for (final Map.Entry<String, String> entry : mappers.entrySet()) {
+                    compiledMappers.put(entry.getKey(), this.mustacheFactory.compile(new StringReader(entry.getValue()), ""));
+                }
+            }
+            compiledTemplate = new CompiledTemplate(template.getText(), mappers, mustache, compiledMappers);
+            if (templateId != null) {
+                if (this.compiledTemplates.size() >= MAX_CACHED_TEMPLATES) {
+                    this.compiledTemplates.clear();
+                }
+                this.compiledTemplates.put(templateId, compiledTemplate);
+            }
+        }
+        return compiledTemplate;
+    }
 
-        if (data != null) {
-            for (final Map.Entry<String, String> entry : data.entrySet()) {
-                final Mustache mappersMustache = mf.compile(new StringReader(entry.getValue()), "");
-                final StringWriter stringWriter = new StringWriter();
+    private void getCompiledMapFromMappers(final Map<String, Mustache> mappers, final Map<String, Object> scopes,
+            final Map<String, Map<String, Object>> fetchedMappers, final String authToken) {
+        for (final Map.Entry<String, Mustache> entry : mappers.entrySet()) {
+            final StringWriter stringWriter = new StringWriter();
 
-                mappersMustache.execute(stringWriter, this.scopes);
-                String url = stringWriter.toString();
-                if (!url.startsWith("http")) {
-                    url = this.scopes.get("BASE_URI") + url;
-                }
-                try {
-                    this.scopes.put(entry.getKey(), getMapFromUrl(url));
-                } catch (final IOException e) {
-                    LOG.error("getCompiledMapFromMappers() failed", e);
+            entry.getValue().execute(stringWriter, scopes);
+            String url = stringWriter.toString();
+            if (!url.startsWith("http")) {
+                url = scopes.get("BASE_URI") + url;
+            }
+            try {
+                Map<String, Object> data = fetchedMappers.get(url);
+                if (data == null) {
+                    data = authToken == null ? this.templateMapperResolver.resolve(url, scopes.get("BASE_URI")) : null;
+                    if (data == null) {
+                        data = getMapFromUrl(url, authToken);
+                    }
+                    fetchedMappers.put(url, data);
                 }
+                scopes.put(entry.getKey(), data);
+            } catch (final IOException e) {
+                LOG.error("getCompiledMapFromMappers() failed", e);
             }
         }
-        return this.scopes;
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> getMapFromUrl(final String url) throws IOException {
-        final HttpURLConnection connection = getConnection(url);
+    private Map<String, Object> getMapFromUrl(final String url, final String authToken) throws IOException {
+        final HttpURLConnection connection = getConnection(url, authToken);
 
         final String response = getStringFromInputStream(connection.getInputStream());
         HashMap<String, Object> result = new HashMap<>();
@@ -113,8 +172,8 @@ public class TemplateMergeService {
         return result;
     }
 
-    private HttpURLConnection getConnection(final String url) {
-        if (this.authToken == null) {
+    private HttpURLConnection getConnection(final String url, final String authToken) {
+        if (authToken == null) {
             final String name = SecurityContextHolder.getContext().getAuthentication().getName();
             final String password = SecurityContextHolder.getContext().getAuthentication().getCredentials().toString();
 
@@ -130,8 +189,8 @@ public class TemplateMergeService {
         HttpURLConnection connection = null;
         try {
             connection = (HttpURLConnection) new URL(url).openConnection();
-            if (this.authToken != null) {
-                connection.setRequestProperty("Authorization", "Basic " + this.authToken);
+            if (authToken != null) {
+                connection.setRequestProperty("Authorization", "Basic " + authToken);
             }
             TrustModifier.relaxHostChecking(connection);
 
@@ -201,4 +260,28 @@ public class TemplateMergeService {
         }
     }
 
+    private static final class CompiledTemplate {
+
+        private final String text;
+        private final List<Map.Entry<String, String>> mapperEntries;
+        private final Mustache mustache;
+        private final Map<String, Mustache> mappers;
+
+        CompiledTemplate(final String text, final Map<String, String> mappers, final Mustache mustache,
+                final Map<String, Mustache> compiledMappers) {
+            this.text = text;
+            this.mapperEntries = mapperEntries(mappers);
+            this.mustache = mustache;
+            this.mappers = compiledMappers;
+        }
+
+        boolean isCompiledFrom(final String text, final Map<String, String> mappers) {
+            // the mappers are fetched in order, so their order is part of the template
+            return this.text.equals(text) && this.mapperEntries.equals(mapperEntries(mappers));
+        }
+
+        private static List<Map.Entry<String, String>> mapperEntries(final Map<String, String> mappers) {
+            return mappers == null ? List.of() : List.copyOf(mappers.entrySet());
+        }
+    }
 }
@@ -0,0 +1,460 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractPartitionedJobProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionLeaseService;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the incremental running balance calculation with the calculation it replaced, which re-read the balances
+ * before the earliest uncalculated entry date and recalculated every entry of every office from there.
+ *
+ * Both run over their own copy of an in-memory acc_gl_journal_entry table receiving the same postings.
+ */
+class JournalEntryRunningBalanceUpdateServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+    private static final GLAccountType[] ACCOUNT_TYPES = { GLAccountType.ASSET, GLAccountType.LIABILITY, GLAccountType.EQUITY,
+            GLAccountType.INCOME, GLAccountType.EXPENSE, GLAccountType.ASSET };
+
+    private JournalEntryTable table;
+    private JournalEntryTable legacyTable;
+    private PartitionedJobExecutor partitionedJobExecutor;
+    private JournalEntryRunningBalanceUpdateServiceImpl underTest;
+    private long lastTransactionId;
+    private final List<Long> reversibleTransactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata",
+                mock(FineractPlatformTenantConnection.class)));
+        final DatabaseTypeResolver databaseTypeResolver = mock(DatabaseTypeResolver.class);
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        final FineractProperties fineractProperties = new FineractProperties();
+        final FineractPartitionedJobProperties partitionedJob = new FineractPartitionedJobProperties();
+        partitionedJob.setThreadPoolSize(3);
+        partitionedJob.setChunkSize(1);
+        fineractProperties.setPartitionedJob(partitionedJob);
+        final TransactionTemplate transactionTemplate = new DirectTransactionTemplate();
+        this.partitionedJobExecutor = new PartitionedJobExecutor(transactionTemplate, fineractProperties,
+                mock(JobPartitionLeaseService.class));
+
+        this.table = new JournalEntryTable();
+        this.legacyTable = new JournalEntryTable();
+        this.lastTransactionId = 0;
+        this.reversibleTransactionIds.clear();
+        this.underTest = new JournalEntryRunningBalanceUpdateServiceImpl(this.table, this.table, null, null, null,
+                new DatabaseSpecificSQLGenerator(databaseTypeResolver), transactionTemplate, this.partitionedJobExecutor,
+                fineractProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.partitionedJobExecutor.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void reversalOnTheOriginalDateRecalculatesTheLaterEntriesOfItsOfficeOnly() throws Exception {
+        // cash (asset account 0) of two offices against a liability (1) and an income (3) account
+        final long deposit = post(1L, 5, 0, 1, "1000");
+        post(2L, 5, 0, 1, "700");
+        post(1L, 5, 3, 0, "25");
+        post(1L, 9, 0, 1, "300");
+        runBoth();
+        assertEquals(new BigDecimal("1275"), lastEntry(1L, 0).officeBalance);
+        assertEquals(new BigDecimal("1975"), lastEntry(1L, 0).organizationBalance);
+
+        // reversed later, posted on the date of the original entries
+        reverse(deposit);
+        runBoth();
+
+        assertEquals(new BigDecimal("275"), lastEntry(1L, 0).officeBalance);
+        assertEquals(new BigDecimal("975"), lastEntry(1L, 0).organizationBalance);
+        assertEquals(new BigDecimal("700"), lastEntry(2L, 0).officeBalance);
+        assertEquals(new BigDecimal("1700"), lastEntry(2L, 1).organizationBalance);
+        assertBalancesEqualLegacy();
+    }
+
+    @Test
+    void entriesOfTheSameDateAreAppliedInIdOrder() throws Exception {
+        post(1L, 3, 0, 1, "10");
+        post(1L, 3, 1, 0, "4");
+        post(1L, 3, 0, 1, "1");
+        runBoth();
+        // back dated entry on the same date, recalculated with the entries posted before it
+        post(1L, 3, 1, 0, "2");
+        runBoth();
+
+        final List<BigDecimal> balances = this.table.entries.stream().filter(entry -> entry.accountId == 0)
+                .sorted(Comparator.comparing((Entry entry) -> entry.entryDate).thenComparing(entry -> entry.id))
+                .map(entry -> entry.officeBalance).collect(Collectors.toList());
+        assertEquals(List.of(new BigDecimal("10"), new BigDecimal("6"), new BigDecimal("7"), new BigDecimal("5")), balances);
+        assertBalancesEqualLegacy();
+    }
+
+    @Test
+    void randomPostingsMatchTheLegacyCalculation() throws Exception {
+        for (long seed = 1; seed <= 25; seed++) {
+            if (seed > 1) {
+                tearDown();
+                setUp();
+            }
+            final Random random = new Random(seed);
+            for (int run = 0; run < 4; run++) {
+                final int postings = 5 + random.nextInt(30);
+                for (int i = 0; i < postings; i++) {
+                    if (!this.reversibleTransactionIds.isEmpty() && random.nextInt(6) == 0) {
+                        reverse(this.reversibleTransactionIds.get(random.nextInt(this.reversibleTransactionIds.size())));
+                    } else {
+                        // a few days per run, later runs also post back dated entries
+                        final int day = Math.max(0, run * 10 + random.nextInt(12) - random.nextInt(3) * 8);
+                        final int debitAccount = random.nextInt(ACCOUNT_TYPES.length);
+                        final int creditAccount = (debitAccount + 1 + random.nextInt(ACCOUNT_TYPES.length - 1)) % ACCOUNT_TYPES.length;
+                        post(1L + random.nextInt(3), day, debitAccount, creditAccount,
+                                BigDecimal.valueOf(1 + random.nextInt(100_000), 2).toPlainString());
+                    }
+                }
+                runBoth();
+                assertBalancesEqualLegacy();
+            }
+        }
+    }
+
+    /**
+     * Posts a journal entry of a debit and a credit entry and returns its transaction id.
+     */
+    private long post(final Long officeId, final int day, final int debitAccount, final int creditAccount, final String amount) {
+        final long transactionId = ++this.lastTransactionId;
+        final BigDecimal value = new BigDecimal(amount);
+        insert(transactionId, officeId, START.plusDays(day), debitAccount, JournalEntryType.DEBIT, value);
+        insert(transactionId, officeId, START.plusDays(day), creditAccount, JournalEntryType.CREDIT, value);
+        this.reversibleTransactionIds.add(transactionId);
+        return transactionId;
+    }
+
+    /**
+     * Reverses a journal entry like JournalEntryWritePlatformService does: its entries are marked as reversed and
+     * opposite entries are posted on their transaction date.
+     */
+    private void reverse(final long transactionId) {
+        final long reversalTransactionId = ++this.lastTransactionId;
+        final List<Entry> originals = this.table.entries.stream().filter(entry -> entry.transactionId == transactionId)
+                .collect(Collectors.toList());
+        for (final Entry original : originals) {
+            final JournalEntryType type = original.type.isDebitType() ? JournalEntryType.CREDIT : JournalEntryType.DEBIT;
+            insert(reversalTransactionId, original.officeId, original.entryDate, original.accountId, type, original.amount);
+        }
+        for (final JournalEntryTable copy : List.of(this.table, this.legacyTable)) {
+            copy.entries.stream().filter(entry -> entry.transactionId == transactionId).forEach(entry -> entry.reversed = true);
+        }
+        this.reversibleTransactionIds.remove(transactionId);
+    }
+
+    private void insert(final long transactionId, final Long officeId, final LocalDate entryDate, final int accountId,
+            final JournalEntryType type, final BigDecimal amount) {
+        final Entry entry = new Entry(this.table.entries.size() + 1L, transactionId, officeId, accountId, entryDate, type, amount);
+        this.table.entries.add(entry);
+        this.legacyTable.entries.add(entry.copy());
+    }
+
+    private Entry lastEntry(final Long officeId, final int accountId) {
+        return this.table.entries.stream().filter(entry -> entry.officeId.equals(officeId) && entry.accountId == accountId)
+                .max(Comparator.comparing((Entry entry) -> entry.entryDate).thenComparing(entry -> entry.id)).orElseThrow();
+    }
+
+    private void runBoth() throws Exception {
+        this.underTest.updateRunningBalance();
+        this.legacyTable.legacyUpdateRunningBalance();
+    }
+
+    private void assertBalancesEqualLegacy() {
+        assertEquals(this.legacyTable.entries.size(), this.table.entries.size());
+        for (int i = 0; i < this.table.entries.size(); i++) {
+            final Entry entry = this.table.entries.get(i);
+            final Entry legacy = this.legacyTable.entries.get(i);
+            assertTrue(entry.calculated, entry::toString);
+            assertEquals(0, legacy.officeBalance.compareTo(entry.officeBalance), () -> entry + " office balance, legacy " + legacy);
+            assertEquals(0, legacy.organizationBalance.compareTo(entry.organizationBalance),
+                    () -> entry + " organization balance, legacy " + legacy);
+        }
+    }
+
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public <T> T execute(final TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final long transactionId;
+        private final Long officeId;
+        private final int accountId;
+        private final LocalDate entryDate;
+        private final JournalEntryType type;
+        private final BigDecimal amount;
+        private boolean reversed;
+        private boolean calculated;
+        private BigDecimal officeBalance;
+        private BigDecimal organizationBalance;
+
+        Entry(final long id, final long transactionId, final Long officeId, final int accountId, final LocalDate entryDate,
+                final JournalEntryType type, final BigDecimal amount) {
+            this.id = id;
+            this.transactionId = transactionId;
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.entryDate = entryDate;
+            this.type = type;
+            this.amount = amount;
+        }
+
+        Entry copy() {
+            return new Entry(this.id, this.transactionId, this.officeId, this.accountId, this.entryDate, this.type, this.amount);
+        }
+
+        BigDecimal applyTo(final BigDecimal balance) {
+            final GLAccountType accountType = ACCOUNT_TYPES[this.accountId];
+            final boolean debitIncreases = accountType.isAssetType() || accountType.isExpenseType();
+            return debitIncreases == this.type.isDebitType() ? balance.add(this.amount) : balance.subtract(this.amount);
+        }
+
+        @Override
+        public String toString() {
+            return "entry " + this.id + " office " + this.officeId + " account " + this.accountId + " " + this.entryDate + " "
+                    + this.type + " " + this.amount + (this.reversed ? " reversed" : "") + ": " + this.officeBalance + " / "
+                    + this.organizationBalance;
+        }
+    }
+
+    /**
+     * Runs the statements of {@link JournalEntryRunningBalanceUpdateServiceImpl} against entries held in memory, one
+     * statement at a time, and holds the acc_gl_running_balance_checkpoint rows.
+     */
+    private static final class JournalEntryTable extends JdbcTemplate {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<String, Object[]> checkpoints = new HashMap<>();
+
+        /**
+         * The calculation the incremental one replaced: the balances of the last entries before the earliest uncalculated
+         * entry date are the opening balances, all entries from that date onwards are recalculated.
+         */
+        synchronized void legacyUpdateRunningBalance() {
+            final LocalDate fromDate = this.entries.stream().filter(entry -> !entry.calculated).map(entry -> entry.entryDate)
+                    .min(Comparator.naturalOrder()).orElse(null);
+            if (fromDate == null) {
+                return;
+            }
+            final Map<String, BigDecimal> officeBalances = new HashMap<>();
+            final Map<String, BigDecimal> organizationBalances = new HashMap<>();
+            for (final Entry entry : sorted(entry -> entry.entryDate.isBefore(fromDate))) {
+                officeBalances.put(entry.officeId + "/" + entry.accountId, entry.officeBalance);
+                organizationBalances.put(String.valueOf(entry.accountId), entry.organizationBalance);
+            }
+            for (final Entry entry : sorted(entry -> !entry.entryDate.isBefore(fromDate))) {
+                entry.officeBalance = entry
+                        .applyTo(officeBalances.getOrDefault(entry.officeId + "/" + entry.accountId, BigDecimal.ZERO));
+                officeBalances.put(entry.officeId + "/" + entry.accountId, entry.officeBalance);
+                entry.organizationBalance = entry
+                        .applyTo(organizationBalances.getOrDefault(String.valueOf(entry.accountId), BigDecimal.ZERO));
+                organizationBalances.put(String.valueOf(entry.accountId), entry.organizationBalance);
+                entry.calculated = true;
+            }
+        }
+
+        @Override
+        public synchronized <T> T queryForObject(final String sql, final Class<T> requiredType) {
+            assertEquals("select max(je.id) from acc_gl_journal_entry je", sql);
+            return requiredType.cast(this.entries.isEmpty() ? null : (long) this.entries.size());
+        }
+
+        @Override
+        public synchronized <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            if (sql.startsWith("select distinct je.office_id from acc_gl_journal_entry je where je.is_running_balance_calculated=false")) {
+                return this.entries.stream().filter(entry -> !entry.calculated && entry.id <= (Long) args[0])
+                        .map(entry -> elementType.cast(entry.officeId)).distinct().collect(Collectors.toList());
+            }
+            // opening balance: the balance of the last entry before the given date
+            final boolean office = sql.startsWith("select je.office_running_balance from acc_gl_journal_entry je where "
+                    + "je.office_id=? and je.account_id=? and je.entry_date < ? order by je.entry_date desc, je.id desc LIMIT 0,1");
+            assertTrue(office || sql.startsWith("select je.organization_running_balance from acc_gl_journal_entry je where "
+                    + "je.account_id=? and je.entry_date < ? order by je.entry_date desc, je.id desc LIMIT 0,1"), sql);
+            final int accountIndex = office ? 1 : 0;
+            final LocalDate before = ((Date) args[accountIndex + 1]).toLocalDate();
+            final List<Entry> earlier = sorted(entry -> (!office || entry.officeId.equals(args[0]))
+                    && entry.accountId == ((Long) args[accountIndex]).intValue() && entry.entryDate.isBefore(before));
+            if (earlier.isEmpty()) {
+                return new ArrayList<>();
+            }
+            final Entry last = earlier.get(earlier.size() - 1);
+            return new ArrayList<>(List.of(elementType.cast(office ? last.officeBalance : last.organizationBalance)));
+        }
+
+        @Override
+        public synchronized List<Map<String, Object>> queryForList(final String sql, final Object... args) {
+            if (sql.startsWith("select cp.account_id as accountId, cp.entry_date as entryDate, cp.office_running_balance as runningBalance "
+                    + "from acc_gl_running_balance_checkpoint cp where cp.office_id=?")) {
+                final String officePrefix = args[0] + "/";
+                return this.checkpoints.entrySet().stream().filter(checkpoint -> checkpoint.getKey().startsWith(officePrefix))
+                        .map(checkpoint -> row("accountId", Long.valueOf(checkpoint.getKey().substring(officePrefix.length())), "entryDate",
+                                checkpoint.getValue()[0], "runningBalance", checkpoint.getValue()[2]))
+                        .collect(Collectors.toList());
+            }
+            // earliest uncalculated entry date per account, of an office or of all offices
+            final boolean office = sql.contains("where je.office_id=? and je.is_running_balance_calculated=false and je.id <= ? ");
+            assertTrue(office || sql.contains("where je.is_running_balance_calculated=false and je.id <= ? "), sql);
+            final Long maxEntryId = (Long) args[office ? 1 : 0];
+            final Map<Integer, LocalDate> startDates = new LinkedHashMap<>();
+            for (final Entry entry : this.entries) {
+                if (!entry.calculated && entry.id <= maxEntryId && (!office || entry.officeId.equals(args[0]))) {
+                    startDates.merge(entry.accountId, entry.entryDate, (date, other) -> date.isBefore(other) ? date : other);
+                }
+            }
+            return startDates.entrySet().stream()
+                    .map(startDate -> row("accountId", (long) startDate.getKey(), "entryDate", Date.valueOf(startDate.getValue())))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public void query(final String sql, final RowCallbackHandler rch, final Object... args) {
+            final List<ResultSet> rows = new ArrayList<>();
+            synchronized (this) {
+                final boolean office = sql.contains("je.office_running_balance as runningBalance");
+                assertTrue(sql.endsWith(office ? " where je.office_id=? and je.entry_date >= ? and je.id <= ? order by je.entry_date, je.id"
+                        : " where je.entry_date >= ? and je.id <= ? order by je.entry_date, je.id"), sql);
+                final int dateIndex = office ? 1 : 0;
+                final LocalDate fromDate = ((Date) args[dateIndex]).toLocalDate();
+                for (final Entry entry : sorted(entry -> (!office || entry.officeId.equals(args[0])) && !entry.entryDate.isBefore(fromDate)
+                        && entry.id <= (Long) args[dateIndex + 1])) {
+                    rows.add(resultSet(entry, office ? entry.officeBalance : entry.organizationBalance));
+                }
+            }
+            try {
+                for (final ResultSet rs : rows) {
+                    rch.processRow(rs);
+                }
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public synchronized int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            final boolean organization = ("UPDATE acc_gl_journal_entry SET organization_running_balance=?, "
+                    + "is_running_balance_calculated=true WHERE id=?").equals(sql);
+            assertTrue(organization || "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?".equals(sql), sql);
+            for (final Object[] args : batchArgs) {
+                final Entry entry = this.entries.get((int) ((Long) args[1] - 1));
+                if (organization) {
+                    entry.organizationBalance = (BigDecimal) args[0];
+                    entry.calculated = true;
+                } else {
+                    entry.officeBalance = (BigDecimal) args[0];
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("UPDATE acc_gl_running_balance_checkpoint SET entry_date=?, journal_entry_id=?, office_running_balance=? "
+                    + "WHERE office_id=? and account_id=?")) {
+                return this.checkpoints.replace(args[3] + "/" + args[4], new Object[] { args[0], args[1], args[2] }) == null ? 0 : 1;
+            }
+            assertTrue(sql.startsWith("INSERT INTO acc_gl_running_balance_checkpoint "
+                    + "(office_id, account_id, entry_date, journal_entry_id, office_running_balance)"), sql);
+            this.checkpoints.put(args[0] + "/" + args[1], new Object[] { args[2], args[3], args[4] });
+            return 1;
+        }
+
+        private List<Entry> sorted(final Predicate<Entry> filter) {
+            return this.entries.stream().filter(filter)
+                    .sorted(Comparator.comparing((Entry entry) -> entry.entryDate).thenComparing(entry -> entry.id))
+                    .collect(Collectors.toList());
+        }
+
+        private static Map<String, Object> row(final Object... columnsAndValues) {
+            final Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < columnsAndValues.length; i += 2) {
+                row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+            }
+            return row;
+        }
+
+        private static ResultSet resultSet(final Entry entry, final BigDecimal runningBalance) {
+            final Map<String, Object> values = row("id", entry.id, "glAccountId", (long) entry.accountId, "entryType",
+                    entry.type.getValue(), "amount", entry.amount, "entryDate", Date.valueOf(entry.entryDate), "calculated",
+                    entry.calculated, "runningBalance", runningBalance, "classification", ACCOUNT_TYPES[entry.accountId].getValue());
+            final ResultSet rs = mock(ResultSet.class);
+            try {
+                given(rs.getLong(anyString())).willAnswer(invocation -> values.get(invocation.getArgument(0)));
+                given(rs.getInt(anyString())).willAnswer(invocation -> values.get(invocation.getArgument(0)));
+                given(rs.getDate(anyString())).willAnswer(invocation -> values.get(invocation.getArgument(0)));
+                given(rs.getBigDecimal(anyString())).willAnswer(invocation -> values.get(invocation.getArgument(0)));
+                given(rs.getBoolean(anyString())).willAnswer(invocation -> values.get(invocation.getArgument(0)));
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return rs;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Two resolvers stand for two nodes sharing one tenant database: a mapping changed through one of them must be picked
+ * up by the other at its next version check.
+ */
+class ProductToGLAccountMappingResolverTest {
+
+    private static final Long PRODUCT_ID = 7L;
+    private static final int FUND_SOURCE = 1;
+    private static final int ASSET_TRANSFER = 100;
+
+    private final MappingTables database = new MappingTables();
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.database.productMappings.put(FUND_SOURCE, 10L);
+        this.database.financialActivityAccounts.put(ASSET_TRANSFER, 20L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void mappingChangedOnAnotherNodeIsReloadedAtTheNextVersionCheck() {
+        final ProductToGLAccountMappingResolver node = new ProductToGLAccountMappingResolver(this.database, 0L);
+        final ProductToGLAccountMappingResolver otherNode = new ProductToGLAccountMappingResolver(this.database, 0L);
+        assertEquals(10L, node.resolveCoreMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE));
+        assertEquals(20L, node.resolveFinancialActivityAccount(ASSET_TRANSFER));
+
+        // the write transaction of the other node
+        this.database.productMappings.put(FUND_SOURCE, 11L);
+        this.database.financialActivityAccounts.remove(ASSET_TRANSFER);
+        otherNode.mappingsChanged();
+
+        assertEquals(11L, node.resolveCoreMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE));
+        assertNull(node.resolveFinancialActivityAccount(ASSET_TRANSFER));
+        assertEquals(2, this.database.productQueries);
+    }
+
+    @Test
+    void mappingsAreReadOnceWhileTheStoredVersionIsUnchanged() {
+        final ProductToGLAccountMappingResolver node = new ProductToGLAccountMappingResolver(this.database, 0L);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(10L, node.resolveCoreMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE));
+            assertNull(node.resolvePaymentTypeMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE, 3L));
+        }
+
+        assertEquals(1, this.database.productQueries);
+    }
+
+    @Test
+    void otherNodeKeepsItsMappingsUntilTheCheckIntervalHasPassed() {
+        final ProductToGLAccountMappingResolver node = new ProductToGLAccountMappingResolver(this.database, 60_000L);
+        final ProductToGLAccountMappingResolver otherNode = new ProductToGLAccountMappingResolver(this.database, 60_000L);
+        node.resolveCoreMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE);
+
+        this.database.productMappings.put(FUND_SOURCE, 11L);
+        otherNode.mappingsChanged();
+
+        assertEquals(10L, node.resolveCoreMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE));
+        assertEquals(11L, otherNode.resolveCoreMapping(PortfolioProductType.LOAN, PRODUCT_ID, FUND_SOURCE));
+    }
+
+    /**
+     * acc_product_mapping (of a single product), acc_gl_financial_activity_account and acc_product_mapping_version.
+     */
+    private static final class MappingTables extends JdbcTemplate {
+
+        private final Map<Integer, Long> productMappings = new HashMap<>();
+        private final Map<Integer, Long> financialActivityAccounts = new HashMap<>();
+        private long version;
+        private int productQueries;
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType) {
+            assertEquals("select v.version from acc_product_mapping_version v where v.id = 1", sql);
+            return requiredType.cast(this.version);
+        }
+
+        @Override
+        public int update(final String sql) {
+            assertEquals("update acc_product_mapping_version set version = version + 1 where id = 1", sql);
+            this.version++;
+            return 1;
+        }
+
+        @Override
+        public void query(final String sql, final RowCallbackHandler rch, final Object... args) {
+            assertEquals(PRODUCT_ID, args[0]);
+            this.productQueries++;
+            for (final Map.Entry<Integer, Long> mapping : this.productMappings.entrySet()) {
+                processRow(rch, row(mapping.getKey(), "financialAccountType", mapping.getValue()));
+            }
+        }
+
+        @Override
+        public void query(final String sql, final RowCallbackHandler rch) {
+            for (final Map.Entry<Integer, Long> account : this.financialActivityAccounts.entrySet()) {
+                processRow(rch, row(account.getKey(), "activityType", account.getValue()));
+            }
+        }
+
+        private static void processRow(final RowCallbackHandler rch, final ResultSet rs) {
+            try {
+                rch.processRow(rs);
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static ResultSet row(final int type, final String typeColumn, final Long glAccountId) {
+            final ResultSet rs = mock(ResultSet.class);
+            try {
+                given(rs.getInt(typeColumn)).willReturn(type);
+                given(rs.getLong("glAccountId")).willReturn(glAccountId);
+                given(rs.getObject(anyString(), eq(Long.class))).willReturn(null);
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return rs;
+        }
+    }
+}
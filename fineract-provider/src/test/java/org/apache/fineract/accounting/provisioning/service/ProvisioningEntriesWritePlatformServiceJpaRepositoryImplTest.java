@@ -0,0 +1,201 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.provisioning.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepository;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
+import org.apache.fineract.accounting.provisioning.data.LoanProductProvisioningEntryData;
+import org.apache.fineract.accounting.provisioning.domain.LoanProductProvisioningEntry;
+import org.apache.fineract.accounting.provisioning.domain.ProvisioningEntry;
+import org.apache.fineract.accounting.provisioning.domain.ProvisioningEntryRepository;
+import org.apache.fineract.accounting.provisioning.serialization.ProvisioningEntriesDefinitionJsonDeserializer;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.apache.fineract.organisation.provisioning.data.ProvisioningCriteriaData;
+import org.apache.fineract.organisation.provisioning.domain.ProvisioningCategory;
+import org.apache.fineract.organisation.provisioning.domain.ProvisioningCategoryRepository;
+import org.apache.fineract.organisation.provisioning.service.ProvisioningCriteriaReadPlatformService;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanProduct;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Checks the repository lookups made while generating loan loss provisioning entries: whatever the number of loans in
+ * the provisioning query, every run loads the products, offices, categories and accounts of its loans with a single
+ * lookup each.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProvisioningEntriesWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final int PRODUCTS = 3;
+    private static final int OFFICES = 4;
+    private static final int CATEGORIES = 2;
+    private static final long LIABILITY_ACCOUNT_ID = 100L;
+    private static final long EXPENSE_ACCOUNT_ID = 200L;
+
+    @Mock
+    private ProvisioningEntriesReadPlatformService provisioningEntriesReadPlatformService;
+    @Mock
+    private ProvisioningCriteriaReadPlatformService provisioningCriteriaReadPlatformService;
+    @Mock
+    private LoanProductRepository loanProductRepository;
+    @Mock
+    private GLAccountRepository glAccountRepository;
+    @Mock
+    private OfficeRepositoryWrapper officeRepositoryWrapper;
+    @Mock
+    private ProvisioningCategoryRepository provisioningCategoryRepository;
+    @Mock
+    private PlatformSecurityContext platformSecurityContext;
+    @Mock
+    private ProvisioningEntryRepository provisioningEntryRepository;
+    @Mock
+    private JournalEntryWritePlatformService journalEntryWritePlatformService;
+    @Mock
+    private ProvisioningEntriesDefinitionJsonDeserializer fromApiJsonDeserializer;
+    @Mock
+    private FromJsonHelper fromApiJsonHelper;
+
+    private ProvisioningEntriesWritePlatformServiceJpaRepositoryImpl underTest;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+
+        underTest = new ProvisioningEntriesWritePlatformServiceJpaRepositoryImpl(provisioningEntriesReadPlatformService,
+                provisioningCriteriaReadPlatformService, loanProductRepository, glAccountRepository, officeRepositoryWrapper,
+                provisioningCategoryRepository, platformSecurityContext, provisioningEntryRepository, journalEntryWritePlatformService,
+                fromApiJsonDeserializer, fromApiJsonHelper);
+
+        final MonetaryCurrency currency = new MonetaryCurrency("USD", 2, null);
+        final List<LoanProduct> loanProducts = new ArrayList<>();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            final LoanProduct loanProduct = mock(LoanProduct.class);
+            given(loanProduct.getId()).willReturn(id);
+            given(loanProduct.getPrincipalAmount()).willReturn(Money.zero(currency));
+            loanProducts.add(loanProduct);
+        }
+        final List<Office> offices = entities(Office.class, LongStream.rangeClosed(1, OFFICES));
+        final List<ProvisioningCategory> categories = entities(ProvisioningCategory.class, LongStream.rangeClosed(1, CATEGORIES));
+        final List<GLAccount> glAccounts = entities(GLAccount.class, LongStream.of(LIABILITY_ACCOUNT_ID, EXPENSE_ACCOUNT_ID));
+        given(loanProductRepository.findAllById(anyIterable())).willReturn(loanProducts);
+        given(officeRepositoryWrapper.findAllWithNotFoundDetection(anyCollection())).willReturn(offices);
+        given(provisioningCategoryRepository.findAllById(anyIterable())).willReturn(categories);
+        given(glAccountRepository.findAllById(anyIterable())).willReturn(glAccounts);
+        given(provisioningCriteriaReadPlatformService.retrieveAllProvisioningCriterias())
+                .willReturn(List.of(ProvisioningCriteriaData.toLookup(1L, "criteria", "mifos")));
+    }
+
+    @Test
+    public void testEveryRunLooksUpItsEntitiesOnceWhateverTheNumberOfLoans() {
+        // the loans of the smaller runs only use some of the products, offices and categories
+        for (final int numberOfLoans : new int[] { 1, 10, 1_000, 10_000 }) {
+            clearInvocations(loanProductRepository, officeRepositoryWrapper, provisioningCategoryRepository, glAccountRepository);
+            final List<LoanProductProvisioningEntryData> loans = loans(numberOfLoans);
+            given(provisioningEntriesReadPlatformService.retrieveLoanProductsProvisioningData(any())).willReturn(loans);
+
+            underTest.generateLoanLossProvisioningAmount();
+
+            verify(loanProductRepository).findAllById(ids(loans, LoanProductProvisioningEntryData::getProductId));
+            verify(officeRepositoryWrapper).findAllWithNotFoundDetection(ids(loans, LoanProductProvisioningEntryData::getOfficeId));
+            verify(provisioningCategoryRepository).findAllById(ids(loans, LoanProductProvisioningEntryData::getCategoryId));
+            verify(glAccountRepository).findAllById(Set.of(LIABILITY_ACCOUNT_ID, EXPENSE_ACCOUNT_ID));
+            verifyNoMoreInteractions(loanProductRepository, officeRepositoryWrapper, provisioningCategoryRepository, glAccountRepository);
+        }
+    }
+
+    @Test
+    public void testReservedAmountsAreAggregatedPerProductOfficeAndCategory() {
+        final List<LoanProductProvisioningEntryData> loans = loans(1_000);
+        given(provisioningEntriesReadPlatformService.retrieveLoanProductsProvisioningData(any())).willReturn(loans);
+
+        underTest.generateLoanLossProvisioningAmount();
+
+        final ArgumentCaptor<ProvisioningEntry> saved = ArgumentCaptor.forClass(ProvisioningEntry.class);
+        verify(provisioningEntryRepository).save(saved.capture());
+        final Collection<LoanProductProvisioningEntry> entries = saved.getValue().getLoanProductProvisioningEntries();
+        assertEquals(PRODUCTS * OFFICES * CATEGORIES, entries.size());
+        // every loan has 100.00 outstanding and a provision of 10 percent
+        final BigDecimal reserved = entries.stream().map(LoanProductProvisioningEntry::getReservedAmount).reduce(BigDecimal.ZERO,
+                BigDecimal::add);
+        assertEquals(0, BigDecimal.valueOf(10L * loans.size()).compareTo(reserved));
+    }
+
+    private static Set<Long> ids(final List<LoanProductProvisioningEntryData> loans,
+            final Function<LoanProductProvisioningEntryData, Long> idExtractor) {
+        return loans.stream().map(idExtractor).collect(Collectors.toSet());
+    }
+
+    private static List<LoanProductProvisioningEntryData> loans(final int numberOfLoans) {
+        final List<LoanProductProvisioningEntryData> loans = new ArrayList<>(numberOfLoans);
+        for (int i = 0; i < numberOfLoans; i++) {
+            final long productId = 1 + i % PRODUCTS;
+            final long officeId = 1 + i % OFFICES;
+            final long categoryId = 1 + (i / (PRODUCTS * OFFICES)) % CATEGORIES;
+            loans.add(new LoanProductProvisioningEntryData(null, officeId, "USD", productId, categoryId, 30L, BigDecimal.TEN,
+                    BigDecimal.valueOf(100), LIABILITY_ACCOUNT_ID, EXPENSE_ACCOUNT_ID, 1L));
+        }
+        return loans;
+    }
+
+    private static <T extends AbstractPersistableCustom> List<T> entities(final Class<T> type, final LongStream ids) {
+        return ids.mapToObj(id -> {
+            final T entity = mock(type);
+            given(entity.getId()).willReturn(id);
+            return entity;
+        }).collect(Collectors.toList());
+    }
+}
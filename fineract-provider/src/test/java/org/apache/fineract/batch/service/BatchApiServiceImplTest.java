@@ -0,0 +1,200 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.batch.exception.ErrorHandler;
+import org.apache.fineract.batch.exception.ErrorInfo;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.client.exception.ClientNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Runs batches with {@code parallel=true} against command strategies that answer "clients" requests with the id of a
+ * client, fail "failing" requests and record on which thread and in which context every request was executed.
+ */
+class BatchApiServiceImplTest {
+
+    private static final int POOL_SIZE = 3;
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+    private final UriInfo uriInfo = mock(UriInfo.class);
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, ExecutionContext> contexts = new ConcurrentHashMap<>();
+    private final CyclicBarrier rootsStarted = new CyclicBarrier(POOL_SIZE);
+    private final ClientNotFoundException failure = new ClientNotFoundException(99L);
+    private BatchApiServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.getBatch().setParallelThreadPoolSize(POOL_SIZE);
+        final CommandStrategyProvider strategyProvider = mock(CommandStrategyProvider.class);
+        given(strategyProvider.getCommandStrategy(any())).willReturn(new RecordingStrategy());
+        this.underTest = new BatchApiServiceImpl(strategyProvider, new ResolutionHelper(new FromJsonHelper()), null, fineractProperties);
+        ThreadLocalContextUtil.setTenant(this.tenant);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.underTest.shutdown();
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.setAuthToken(null);
+        ThreadLocalContextUtil.clearDataSourceContext();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void independentTreesAreExecutedConcurrentlyAndChildrenAfterTheirParent() {
+        final List<BatchRequest> requests = List.of(root(1L, "clients"), root(2L, "clients"), root(3L, "clients"),
+                child(4L, 1L), child(5L, 3L), child(6L, 5L));
+
+        // every root waits for the other two, which only returns if the three trees run at the same time
+        final List<BatchResponse> responses = this.underTest.handleBatchRequestsInParallel(requests, this.uriInfo);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), responses.stream().map(BatchResponse::getRequestId).collect(Collectors.toList()));
+        responses.forEach(response -> assertEquals(200, response.getStatusCode()));
+        assertEquals(List.of("4:clients/10/accounts", "5:clients/30/accounts", "6:clients/50/accounts"),
+                this.executed.stream().filter(request -> request.contains("accounts")).sorted().collect(Collectors.toList()));
+        assertEquals(this.contexts.get(1L).thread, this.contexts.get(4L).thread);
+        assertEquals(this.contexts.get(3L).thread, this.contexts.get(5L).thread);
+        assertEquals(this.contexts.get(5L).thread, this.contexts.get(6L).thread);
+        assertNotEquals(this.contexts.get(1L).thread, this.contexts.get(3L).thread);
+        assertTrue(this.executed.indexOf("3:clients") < this.executed.indexOf("5:clients/30/accounts"));
+        assertTrue(this.executed.indexOf("5:clients/30/accounts") < this.executed.indexOf("6:clients/50/accounts"));
+    }
+
+    @Test
+    void childrenOfAFailedRootAreAnsweredWithAConflict() {
+        final List<BatchRequest> requests = List.of(root(1L, "failing"), root(2L, "clients"), root(3L, "clients"),
+                child(4L, 1L), child(5L, 4L), child(6L, 2L));
+
+        final List<BatchResponse> responses = this.underTest.handleBatchRequestsInParallel(requests, this.uriInfo);
+
+        // the same error as the command strategies and the enclosing transaction answer with
+        final ErrorInfo error = ErrorHandler.handler(this.failure);
+        assertEquals(404, responses.get(0).getStatusCode());
+        assertEquals(error.getStatusCode(), responses.get(0).getStatusCode());
+        assertEquals(error.getMessage(), responses.get(0).getBody());
+        assertEquals(List.of(200, 200, 409, 409, 200),
+                responses.subList(1, 6).stream().map(BatchResponse::getStatusCode).collect(Collectors.toList()));
+        assertEquals(new ErrorInfo(409, 8001, "Parent request with id 1 was erroneous!").getMessage(), responses.get(3).getBody());
+        assertEquals(new ErrorInfo(409, 8001, "Parent request with id 4 was erroneous!").getMessage(), responses.get(4).getBody());
+        assertEquals(List.of("1:failing", "2:clients", "3:clients", "6:clients/20/accounts"),
+                this.executed.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void requestsAreExecutedInTheContextOfTheCaller() {
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("mifos", null));
+        SecurityContextHolder.setContext(securityContext);
+        ThreadLocalContextUtil.setDataSourceContext(ThreadLocalContextUtil.CONTEXT_TENANTS);
+        ThreadLocalContextUtil.setAuthToken("token");
+
+        this.underTest.handleBatchRequestsInParallel(
+                List.of(root(1L, "clients"), root(2L, "clients"), root(3L, "clients"), child(4L, 2L)), this.uriInfo);
+
+        for (long requestId = 1; requestId <= 4; requestId++) {
+            final ExecutionContext context = this.contexts.get(requestId);
+            assertNotEquals(Thread.currentThread(), context.thread);
+            assertSame(this.tenant, context.tenant);
+            assertEquals(ThreadLocalContextUtil.CONTEXT_TENANTS, context.dataSourceContext);
+            assertEquals("token", context.authToken);
+            assertSame(securityContext.getAuthentication(), context.securityContext.getAuthentication());
+        }
+    }
+
+    private static BatchRequest root(final Long requestId, final String relativeUrl) {
+        return new BatchRequest(requestId, relativeUrl, "POST", null, null, "{}");
+    }
+
+    /**
+     * An account of the client created by the referenced request.
+     */
+    private static BatchRequest child(final Long requestId, final Long reference) {
+        return new BatchRequest(requestId, "clients/$.clientId/accounts", "POST", null, reference, "{\"clientId\": \"$.clientId\"}");
+    }
+
+    private static final class ExecutionContext {
+
+        private final Thread thread = Thread.currentThread();
+        private final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        private final String dataSourceContext = ThreadLocalContextUtil.getDataSourceContext();
+        private final String authToken = ThreadLocalContextUtil.getAuthToken();
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+    }
+
+    private final class RecordingStrategy implements CommandStrategy {
+
+        @Override
+        public BatchResponse execute(final BatchRequest batchRequest, final UriInfo uriInfo) {
+            final Long requestId = batchRequest.getRequestId();
+            BatchApiServiceImplTest.this.contexts.put(requestId, new ExecutionContext());
+            BatchApiServiceImplTest.this.executed.add(requestId + ":" + batchRequest.getRelativeUrl());
+            if (batchRequest.getReference() == null) {
+                awaitOtherRoots();
+            }
+            if ("failing".equals(batchRequest.getRelativeUrl())) {
+                throw BatchApiServiceImplTest.this.failure;
+            }
+            final BatchResponse response = new BatchResponse();
+            response.setRequestId(requestId);
+            response.setStatusCode(200);
+            response.setBody("{\"clientId\": " + requestId * 10 + "}");
+            return response;
+        }
+
+        private void awaitOtherRoots() {
+            try {
+                BatchApiServiceImplTest.this.rootsStarted.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("root requests were not executed concurrently", e);
+            }
+        }
+    }
+}
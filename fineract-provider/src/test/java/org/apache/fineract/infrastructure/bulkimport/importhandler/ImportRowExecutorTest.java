@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ImportRowExecutorTest {
+
+    private ImportRowExecutor underTest;
+
+    @BeforeEach
+    void setUp() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        final FineractProperties.FineractBulkImportProperties bulkImport = new FineractProperties.FineractBulkImportProperties();
+        bulkImport.setThreadPoolSize(4);
+        bulkImport.setChunkSize(2);
+        fineractProperties.setBulkImport(bulkImport);
+        this.underTest = new ImportRowExecutor(fineractProperties, Mockito.mock(RoutingDataSource.class));
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.underTest.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void rowsOfOneGroupAreNeverSplitBetweenChunks() {
+        final List<Object> groups = Arrays.asList("A", "B", "A", null, "A");
+
+        final List<List<Integer>> chunks = this.underTest.chunk(groups.size(), groups::get);
+
+        assertEquals(Arrays.asList(Arrays.asList(0, 2, 4), Arrays.asList(1, 3)), chunks);
+    }
+
+    @Test
+    void rowsWithoutGroupAreChunkedBySize() {
+        final List<List<Integer>> chunks = this.underTest.chunk(5, i -> null);
+
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Collections.singletonList(4)), chunks);
+    }
+
+    @Test
+    void rowsOfOneGroupAreExecutedInRowOrderOnOneThread() {
+        final int rowCount = 60;
+        final Map<Long, List<Integer>> executedRows = new ConcurrentHashMap<>();
+        final Map<Long, String> executingThreads = new ConcurrentHashMap<>();
+
+        final List<RuntimeException> failures = this.underTest.execute(rowCount, i -> (long) (i % 3), i -> {
+            final long loanId = i % 3;
+            executedRows.computeIfAbsent(loanId, key -> Collections.synchronizedList(new ArrayList<>())).add(i);
+            final String thread = Thread.currentThread().getName();
+            if (!thread.equals(executingThreads.computeIfAbsent(loanId, key -> thread))) {
+                throw new IllegalStateException("rows of loan " + loanId + " executed on two threads");
+            }
+        });
+
+        for (int i = 0; i < rowCount; i++) {
+            assertNull(failures.get(i));
+        }
+        for (long loanId = 0; loanId < 3; loanId++) {
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = (int) loanId; i < rowCount; i += 3) {
+                expected.add(i);
+            }
+            assertEquals(expected, executedRows.get(loanId));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.bulkimport.constants.LoanRepaymentConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowExecutor;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.loanrepayment.LoanRepaymentImportHandler;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Imports an XLSX loan repayment sheet read through {@link StreamingWorkbookReader}.
+ */
+class StreamingWorkbookReaderTest {
+
+    private static final int CASH = 5;
+
+    @TempDir
+    File directory;
+
+    private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService = mock(
+            PortfolioCommandSourceWritePlatformService.class);
+    private final LoanReadPlatformService loanReadPlatformService = mock(LoanReadPlatformService.class);
+    private ImportRowExecutor importRowExecutor;
+
+    @BeforeEach
+    void setUp() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        final FineractProperties.FineractBulkImportProperties bulkImport = new FineractProperties.FineractBulkImportProperties();
+        bulkImport.setThreadPoolSize(2);
+        bulkImport.setChunkSize(1);
+        fineractProperties.setBulkImport(bulkImport);
+        this.importRowExecutor = new ImportRowExecutor(fineractProperties, mock(RoutingDataSource.class));
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.importRowExecutor.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void importsTheRowsOfAnXlsxFileAndWritesTheirStatus() throws IOException {
+        final File upload = writeUpload();
+        given(this.loanReadPlatformService.retrieveLoanIdByAccountNumber("000000001")).willReturn(1L);
+        given(this.loanReadPlatformService.retrieveLoanIdByAccountNumber("000000002")).willReturn(2L);
+        given(this.commandsSourceWritePlatformService.logCommandSource(argThat(command -> Long.valueOf(2L).equals(command.getLoanId()))))
+                .willThrow(new GeneralPlatformDomainRuleException("error.msg.repayment.rejected", "Repayment rejected"));
+
+        final SXSSFWorkbook workbook = StreamingWorkbookReader.read(upload);
+        final File output = new File(this.directory, "output.xlsx");
+        try {
+            final Count count = new LoanRepaymentImportHandler(this.commandsSourceWritePlatformService, this.loanReadPlatformService,
+                    this.importRowExecutor).process(workbook, "en", "dd MMMM yyyy");
+            assertEquals(1, count.getSuccessCount());
+            assertEquals(1, count.getErrorCount());
+            try (OutputStream outputStream = Files.newOutputStream(output.toPath())) {
+                workbook.write(outputStream);
+            }
+        } finally {
+            BulkImportEventListener.discard(workbook, null);
+        }
+
+        // the amount is the cached result of a formula
+        verify(this.commandsSourceWritePlatformService).logCommandSource(argThat(command -> Long.valueOf(1L).equals(command.getLoanId())
+                && command.getJson().contains("\"transactionAmount\":100") && command.getJson().contains("\"paymentTypeId\":" + CASH)
+                && command.getJson().contains("\"transactionDate\":\"15 March 2022\"")));
+        try (InputStream inputStream = Files.newInputStream(output.toPath()); Workbook result = new XSSFWorkbook(inputStream)) {
+            final Sheet sheet = result.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
+            assertEquals(TemplatePopulateImportConstants.STATUS_COL_REPORT_HEADER, status(sheet, 0));
+            assertEquals(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED, status(sheet, 1));
+            assertEquals("Repayment rejected", status(sheet, 2));
+            // imported by an earlier upload of the file
+            assertEquals(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED, status(sheet, 3));
+            assertEquals("000000001-Loan", sheet.getRow(1).getCell(LoanRepaymentConstants.LOAN_ACCOUNT_NO_COL).getStringCellValue());
+        }
+    }
+
+    @Test
+    void blankCellsAndRowsOfTheFileAreKept() throws IOException {
+        final SXSSFWorkbook workbook = StreamingWorkbookReader.read(writeUpload());
+        try {
+            final Sheet sheet = workbook.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
+            assertEquals(
+                    List.of(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME, TemplatePopulateImportConstants.EXTRAS_SHEET_NAME),
+                    List.of(workbook.getSheetName(0), workbook.getSheetName(1)));
+            assertTrue(sheet.getRow(5) != null && sheet.getRow(5).getCell(LoanRepaymentConstants.AMOUNT_COL) != null);
+            assertTrue(workbook.getSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME).getRow(1).getCell(2).getBooleanCellValue());
+        } finally {
+            BulkImportEventListener.discard(workbook, null);
+        }
+    }
+
+    private File writeUpload() throws IOException {
+        final File upload = new File(this.directory, "upload.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream outputStream = Files.newOutputStream(upload.toPath())) {
+            final CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd MMMM yyyy"));
+            final Sheet sheet = workbook.createSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
+            sheet.createRow(0).createCell(LoanRepaymentConstants.AMOUNT_COL).setCellValue("Amount Repaid*");
+
+            final Row first = repayment(sheet, 1, "000000001-Loan", dateStyle);
+            first.createCell(LoanRepaymentConstants.AMOUNT_COL).setCellFormula("40+60");
+            repayment(sheet, 2, "000000002-Loan", dateStyle).createCell(LoanRepaymentConstants.AMOUNT_COL).setCellValue(25);
+            final Row imported = repayment(sheet, 3, "000000001-Loan", dateStyle);
+            imported.createCell(LoanRepaymentConstants.AMOUNT_COL).setCellValue(30);
+            imported.createCell(LoanRepaymentConstants.STATUS_COL).setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
+            // a styled cell without a value
+            sheet.createRow(5).createCell(LoanRepaymentConstants.AMOUNT_COL).setCellStyle(dateStyle);
+
+            final Row cash = workbook.createSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME).createRow(1);
+            cash.createCell(0).setCellValue(CASH);
+            cash.createCell(1).setCellValue("Cash");
+            cash.createCell(2).setCellValue(true);
+
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(outputStream);
+        }
+        return upload;
+    }
+
+    private static Row repayment(final Sheet sheet, final int rowIndex, final String loanAccount, final CellStyle dateStyle) {
+        final Row row = sheet.createRow(rowIndex);
+        row.createCell(LoanRepaymentConstants.LOAN_ACCOUNT_NO_COL).setCellValue(loanAccount);
+        row.createCell(LoanRepaymentConstants.REPAID_ON_DATE_COL).setCellValue(LocalDate.of(2022, 3, 15));
+        row.getCell(LoanRepaymentConstants.REPAID_ON_DATE_COL).setCellStyle(dateStyle);
+        row.createCell(LoanRepaymentConstants.REPAYMENT_TYPE_COL).setCellValue("Cash");
+        return row;
+    }
+
+    private static String status(final Sheet sheet, final int rowIndex) {
+        return sheet.getRow(rowIndex).getCell(LoanRepaymentConstants.STATUS_COL).getStringCellValue();
+    }
+}
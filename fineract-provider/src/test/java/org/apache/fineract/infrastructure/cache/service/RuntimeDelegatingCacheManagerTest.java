@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import javax.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+@ExtendWith(MockitoExtension.class)
+class RuntimeDelegatingCacheManagerTest {
+
+    @Mock
+    private JCacheCacheManager jCacheCacheManager;
+    @Mock
+    private javax.cache.CacheManager cacheManager;
+    @Mock
+    private Cache<Object, Object> cache;
+
+    private RuntimeDelegatingCacheManager underTest;
+
+    @BeforeEach
+    void setUp() {
+        this.underTest = new RuntimeDelegatingCacheManager(this.jCacheCacheManager);
+    }
+
+    @Test
+    void tenantEntryRequiresSeparatorAfterTenantIdentifier() {
+        assertTrue(this.underTest.isTenantEntry("default|.1.of", "default"));
+        assertTrue(this.underTest.isTenantEntry("default|smsText", "default"));
+        assertTrue(this.underTest.isTenantEntry("default", "default"));
+
+        assertFalse(this.underTest.isTenantEntry("default2|.1.of", "default"));
+        assertFalse(this.underTest.isTenantEntry("default2", "default"));
+        assertFalse(this.underTest.isTenantEntry("defaultch", "default"));
+        assertFalse(this.underTest.isTenantEntry(1L, "default"));
+    }
+
+    @Test
+    void evictingTenantLeavesTenantsWithSamePrefixAlone() {
+        given(this.jCacheCacheManager.getCacheManager()).willReturn(this.cacheManager);
+        given(this.cacheManager.getCache("offices")).willReturn(this.cache);
+        final Iterator<Cache.Entry<Object, Object>> entries = entries("default|.1.of", "default|.1.ofd", "default2|.1.of", "default2",
+                "default");
+        given(this.cache.iterator()).willReturn(entries);
+
+        final int evicted = this.underTest.evictTenantEntries("offices", "default");
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Set<Object>> removed = ArgumentCaptor.forClass(Set.class);
+        verify(this.cache).removeAll(removed.capture());
+        assertEquals(3, evicted);
+        assertEquals(Set.of("default|.1.of", "default|.1.ofd", "default"), removed.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterator<Cache.Entry<Object, Object>> entries(final String... keys) {
+        final List<Cache.Entry<Object, Object>> entries = new ArrayList<>();
+        for (final String key : Arrays.asList(keys)) {
+            final Cache.Entry<Object, Object> entry = mock(Cache.Entry.class);
+            given(entry.getKey()).willReturn(key);
+            entries.add(entry);
+        }
+        return entries.iterator();
+    }
+}
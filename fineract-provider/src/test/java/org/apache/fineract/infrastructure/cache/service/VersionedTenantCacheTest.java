@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class VersionedTenantCacheTest {
+
+    private static final String VERSION_SQL = "select v.version from x_version v where v.id = 1";
+    private static final String INCREMENT_SQL = "update x_version set version = version + 1 where id = 1";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> loadedVersions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        setTenant("default");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void valueIsKeptWithoutVersionCheckWithinInterval() {
+        given(this.jdbcTemplate.queryForObject(VERSION_SQL, Long.class)).willReturn(3L);
+        final VersionedTenantCache<String> cache = cache(60_000L);
+
+        final String first = cache.current(this::load);
+        final String second = cache.current(this::load);
+
+        assertSame(first, second);
+        assertEquals(List.of(3L), this.loadedVersions);
+        verify(this.jdbcTemplate, times(1)).queryForObject(VERSION_SQL, Long.class);
+    }
+
+    @Test
+    void valueIsReloadedOnceStoredVersionMovesOn() {
+        given(this.jdbcTemplate.queryForObject(VERSION_SQL, Long.class)).willReturn(3L, 3L, 4L, 4L);
+        final VersionedTenantCache<String> cache = cache(0L);
+
+        final String loaded = cache.current(this::load);
+        assertSame(loaded, cache.current(this::load));
+        final String reloaded = cache.current(this::load);
+
+        assertEquals("v4", reloaded);
+        assertEquals(List.of(3L, 4L), this.loadedVersions);
+    }
+
+    @Test
+    void changeOutsideTransactionDropsValueRightAway() {
+        given(this.jdbcTemplate.queryForObject(VERSION_SQL, Long.class)).willReturn(3L, 4L);
+        final VersionedTenantCache<String> cache = cache(60_000L);
+        cache.current(this::load);
+
+        cache.changed();
+
+        verify(this.jdbcTemplate).update(INCREMENT_SQL);
+        assertEquals("v4", cache.current(this::load));
+    }
+
+    @Test
+    void changeWithinTransactionDropsValueAgainAfterCompletion() {
+        given(this.jdbcTemplate.queryForObject(VERSION_SQL, Long.class)).willReturn(3L, 3L, 4L);
+        final VersionedTenantCache<String> cache = cache(60_000L);
+        cache.current(this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.changed();
+        // reloaded by the changing transaction itself before it commits, still at the old version
+        assertEquals("v3", cache.current(this::load));
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals("v4", cache.current(this::load));
+        assertEquals(List.of(3L, 3L, 4L), this.loadedVersions);
+    }
+
+    @Test
+    void tenantsHaveTheirOwnValues() {
+        given(this.jdbcTemplate.queryForObject(VERSION_SQL, Long.class)).willReturn(3L, 7L);
+        final VersionedTenantCache<String> cache = cache(60_000L);
+
+        assertEquals("v3", cache.current(this::load));
+        setTenant("other");
+        assertEquals("v7", cache.current(this::load));
+        cache.changed();
+        setTenant("default");
+
+        assertEquals("v3", cache.current(this::load));
+        assertEquals(List.of(3L, 7L), this.loadedVersions);
+    }
+
+    private VersionedTenantCache<String> cache(final long versionCheckIntervalMillis) {
+        return new VersionedTenantCache<>(this.jdbcTemplate, "Test", "x_version", versionCheckIntervalMillis);
+    }
+
+    private String load(final long version) {
+        this.loadedVersions.add(version);
+        return "v" + version;
+    }
+
+    private static void setTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, "Default", "Asia/Kolkata", null));
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.serialization;
+
+import com.google.gson.Gson;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.api.ParameterListInclusionStrategy;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.fineract.portfolio.loanaccount.data.LoanAccountData;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares serializing a page of loan and savings accounts with a partial response field set through a Gson built for
+ * the request (the previous behaviour of {@link GoogleGsonSerializerHelper}) against the cached serializers.
+ *
+ * Run with the test classpath, e.g. from an IDE, through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GsonSerializerBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final Set<String> LOAN_FIELDS = Set.of("id", "accountNo", "clientId", "clientName", "expectedDisbursementDate");
+    private static final Set<String> SAVINGS_FIELDS = Set.of("id", "accountNo", "depositType");
+
+    private GoogleGsonSerializerHelper helper;
+    private Object[] loans;
+    private Object[] savings;
+
+    @Setup
+    public void setUp() {
+        this.helper = new GoogleGsonSerializerHelper();
+        final List<LoanAccountData> loanPage = new ArrayList<>();
+        final List<SavingsAccountData> savingsPage = new ArrayList<>();
+        final EnumOptionData depositType = new EnumOptionData(100L, "depositAccountType.savingsDeposit", "Savings");
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            loanPage.add(LoanAccountData.clientDefaults(i, String.format("%09d", i), "Client " + i, 1L, LocalDate.of(2022, 1, 1)));
+            savingsPage.add(SavingsAccountData.lookup(i, String.format("%09d", i), depositType));
+        }
+        this.loans = loanPage.toArray();
+        this.savings = savingsPage.toArray();
+    }
+
+    @Benchmark
+    public String loansWithGsonPerRequest() {
+        return perRequestSerializer(LOAN_FIELDS).toJson(this.loans);
+    }
+
+    @Benchmark
+    public String loansWithCachedGson() {
+        return this.helper.createGsonBuilderForPartialResponseFiltering(false, LOAN_FIELDS).toJson(this.loans);
+    }
+
+    @Benchmark
+    public String savingsWithGsonPerRequest() {
+        return perRequestSerializer(SAVINGS_FIELDS).toJson(this.savings);
+    }
+
+    @Benchmark
+    public String savingsWithCachedGson() {
+        return this.helper.createGsonBuilderForPartialResponseFiltering(false, SAVINGS_FIELDS).toJson(this.savings);
+    }
+
+    private static Gson perRequestSerializer(final Set<String> responseParameters) {
+        return GoogleGsonSerializerHelper.createGsonBuilder()
+                .addSerializationExclusionStrategy(new ParameterListInclusionStrategy(responseParameters)).create();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GsonSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
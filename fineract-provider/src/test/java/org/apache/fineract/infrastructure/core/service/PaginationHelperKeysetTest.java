@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class PaginationHelperKeysetTest {
+
+    private static final String SQL = "select c.id as id from m_client c where c.office_id = ?";
+    private static final Object[] ARGS = new Object[] { 1L };
+    private static final RowMapper<Long> KEY_MAPPER = (rs, rowNum) -> rs.getLong("id");
+
+    private PaginationHelper underTest;
+
+    @BeforeEach
+    void setUp() {
+        final DatabaseTypeResolver databaseTypeResolver = mock(DatabaseTypeResolver.class);
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        this.underTest = new PaginationHelper(new DatabaseSpecificSQLGenerator(databaseTypeResolver), databaseTypeResolver);
+    }
+
+    @Test
+    void emptyFirstPageHasNoCursorAndNoCount() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate();
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, KEY_MAPPER, keyset("", 3, null, null), "c.id");
+
+        assertTrue(page.getPageItems().isEmpty());
+        assertNull(page.getNextAfter());
+        assertNull(page.getTotalFilteredRecords());
+        assertEquals(SQL + " order by c.id asc LIMIT 0,3", jt.sql);
+        assertArrayEquals(ARGS, jt.args);
+        assertNull(jt.countSql);
+    }
+
+    @Test
+    void fullPageReturnsCursorOfItsLastRow() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate(11L, 12L, 15L);
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, KEY_MAPPER, keyset("", 3, null, null), "c.id");
+
+        assertEquals(Arrays.asList(11L, 12L, 15L), page.getPageItems());
+        assertNotNull(page.getNextAfter());
+        assertEquals(15L, keyset(page.getNextAfter(), 3, null, null).getAfterKey());
+    }
+
+    @Test
+    void nextPageSeeksPastTheCursorKey() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate(16L, 20L);
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, KEY_MAPPER, keyset(KeysetParameters.encode(15L), 3, null, null),
+                "c.id");
+
+        assertEquals(SQL + " and c.id > ? order by c.id asc LIMIT 0,3", jt.sql);
+        assertArrayEquals(new Object[] { 1L, 15L }, jt.args);
+        assertEquals(Arrays.asList(16L, 20L), page.getPageItems());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate(16L, 20L);
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, KEY_MAPPER, keyset(KeysetParameters.encode(15L), 3, null, null),
+                "c.id");
+
+        assertNull(page.getNextAfter());
+    }
+
+    @Test
+    void descendingPageSeeksBelowTheCursorKey() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate(14L, 12L, 11L);
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, KEY_MAPPER, keyset(KeysetParameters.encode(15L), 3, null, "DESC"),
+                "c.id");
+
+        assertEquals(SQL + " and c.id < ? order by c.id desc LIMIT 0,3", jt.sql);
+        assertEquals(11L, keyset(page.getNextAfter(), 3, null, "DESC").getAfterKey());
+    }
+
+    @Test
+    void totalIsCountedWithoutTheSeekPredicateOnlyWhenRequested() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate(16L);
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+        queryParameters.putSingle(KeysetParameters.AFTER_PARAMETER, KeysetParameters.encode(15L));
+        queryParameters.putSingle(KeysetParameters.WITH_TOTAL_COUNT_PARAMETER, "true");
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, KEY_MAPPER,
+                KeysetParameters.fromQueryParameters(queryParameters, 3, null, null), "c.id");
+
+        assertEquals("SELECT COUNT(*) FROM (" + SQL + ") AS temp", jt.countSql);
+        assertArrayEquals(ARGS, jt.countArgs);
+        assertEquals(KeysetJdbcTemplate.TOTAL, page.getTotalFilteredRecords());
+    }
+
+    @Test
+    void keyIsReadUnderItsLabel() {
+        final KeysetJdbcTemplate jt = new KeysetJdbcTemplate(7L, 9L);
+        final RowMapper<Long> mapper = (rs, rowNum) -> rs.getLong("transactionId");
+
+        final Page<Long> page = this.underTest.fetchPage(jt, SQL, ARGS, mapper, keyset("", 2, null, null), "tr.id", "transactionId");
+
+        assertEquals(9L, keyset(page.getNextAfter(), 2, null, null).getAfterKey());
+    }
+
+    @Test
+    void requestWithoutAfterIsNotKeyset() {
+        assertNull(KeysetParameters.fromQueryParameters(new MultivaluedHashMap<>(), 3, "displayName", null));
+    }
+
+    @Test
+    void nonUniqueOrderingIsRejected() {
+        // keyset pages are only stable on a unique key, ties on e.g. displayName would skip or repeat rows
+        assertThrows(PlatformApiDataValidationException.class, () -> keyset("", 3, "displayName", null));
+        assertThrows(PlatformApiDataValidationException.class, () -> keyset(KeysetParameters.encode(15L), 3, "id", null));
+    }
+
+    @Test
+    void unsupportedSortOrderIsRejected() {
+        assertThrows(PlatformApiDataValidationException.class, () -> keyset("", 3, null, "sideways"));
+    }
+
+    @Test
+    void foreignCursorIsRejected() {
+        assertThrows(PlatformApiDataValidationException.class, () -> keyset("15", 3, null, null));
+        assertThrows(PlatformApiDataValidationException.class, () -> keyset("not base64!", 3, null, null));
+    }
+
+    private static KeysetParameters keyset(final String after, final Integer limit, final String orderBy, final String sortOrder) {
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+        queryParameters.putSingle(KeysetParameters.AFTER_PARAMETER, after);
+        return KeysetParameters.fromQueryParameters(queryParameters, limit, orderBy, sortOrder);
+    }
+
+    /**
+     * Returns the given keys as the rows of the page query and records the statements it was asked to run.
+     */
+    private static final class KeysetJdbcTemplate extends JdbcTemplate {
+
+        static final Integer TOTAL = 42;
+
+        private final List<Long> keys;
+        private String sql;
+        private Object[] args;
+        private String countSql;
+        private Object[] countArgs;
+
+        KeysetJdbcTemplate(final Long... keys) {
+            this.keys = Arrays.asList(keys);
+        }
+
+        @Override
+        public <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            this.sql = sql;
+            this.args = args;
+            final List<T> rows = new ArrayList<>();
+            try {
+                for (int i = 0; i < this.keys.size(); i++) {
+                    final ResultSet rs = mock(ResultSet.class);
+                    given(rs.getLong("id")).willReturn(this.keys.get(i));
+                    given(rs.getLong("transactionId")).willReturn(this.keys.get(i));
+                    rows.add(rowMapper.mapRow(rs, i));
+                }
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return rows;
+        }
+
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            this.countSql = sql;
+            this.countArgs = args;
+            return requiredType.cast(TOTAL);
+        }
+    }
+}
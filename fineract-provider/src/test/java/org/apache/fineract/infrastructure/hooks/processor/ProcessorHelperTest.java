@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.hooks.exception.HookEndpointBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+
+class ProcessorHelperTest {
+
+    private ProcessorHelper underTest;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final FineractProperties fineractProperties = new FineractProperties();
+        final FineractProperties.FineractHookProperties hook = new FineractProperties.FineractHookProperties();
+        hook.setMaxConcurrentRequestsPerEndpoint(1);
+        fineractProperties.setHook(hook);
+        this.underTest = new ProcessorHelper(fineractProperties);
+        this.executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executorService.shutdownNow();
+        this.underTest.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void busyEndpointFailsFastWithoutBlockingOtherEndpoints() throws Exception {
+        final CountDownLatch slowRequestStarted = new CountDownLatch(1);
+        final CountDownLatch slowRequestReleased = new CountDownLatch(1);
+        final Call<String> slowCall = mock(Call.class);
+        given(slowCall.execute()).willAnswer(invocation -> {
+            slowRequestStarted.countDown();
+            slowRequestReleased.await();
+            return Response.success("slow");
+        });
+        final Future<String> slowResult = this.executorService
+                .submit(() -> this.underTest.execute("http://slow.example.org:8080/hook", slowCall));
+        assertTrue(slowRequestStarted.await(10, TimeUnit.SECONDS));
+
+        final Call<String> queuedCall = mock(Call.class);
+        assertThrows(HookEndpointBusyException.class, () -> this.underTest.execute("http://slow.example.org:8080/other", queuedCall));
+        verify(queuedCall, never()).execute();
+
+        final Call<String> otherCall = mock(Call.class);
+        given(otherCall.execute()).willReturn(Response.success("other"));
+        assertEquals("other", this.underTest.execute("http://other.example.org/hook", otherCall));
+
+        slowRequestReleased.countDown();
+        assertEquals("slow", slowResult.get(10, TimeUnit.SECONDS));
+
+        // the permit of the slow request has been given back
+        final Call<String> laterCall = mock(Call.class);
+        given(laterCall.execute()).willReturn(Response.success("later"));
+        assertEquals("later", this.underTest.execute("http://slow.example.org:8080/hook", laterCall));
+    }
+}
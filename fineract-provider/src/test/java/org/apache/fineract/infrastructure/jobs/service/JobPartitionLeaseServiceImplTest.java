@@ -0,0 +1,379 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.config.FineractProperties.FineractPartitionedJobProperties;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.apache.fineract.infrastructure.jobs.data.JobPartitionData;
+import org.apache.fineract.infrastructure.jobs.domain.JobPartitionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Lets two nodes compete for the partitions of a clustered job run. The nodes share one {@link JobPartitionLeaseService}
+ * over an in-memory job_partition table, which applies every statement atomically like a row lock of the database.
+ */
+class JobPartitionLeaseServiceImplTest {
+
+    private static final String STEP = "TEST_STEP";
+    private static final int LEASE_SECONDS = 60;
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata",
+            mock(FineractPlatformTenantConnection.class));
+    private JobPartitionTable table;
+    private JobPartitionLeaseService leaseService;
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(this.tenant);
+        final DatabaseTypeResolver databaseTypeResolver = mock(DatabaseTypeResolver.class);
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        this.table = new JobPartitionTable();
+        this.leaseService = new JobPartitionLeaseServiceImpl(this.table, new DatabaseSpecificSQLGenerator(databaseTypeResolver));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void nodeLosingTheRaceForAPartitionLeasesTheNextOne() {
+        this.leaseService.createPartitions("run", STEP, Arrays.asList(new Long[] { 1L, 10L }, new Long[] { 11L, 20L }));
+        final JobPartitionData[] leasedByOther = new JobPartitionData[1];
+        // the other node leases the first candidate after this node has selected it, before its update
+        this.table.afterCandidatesSelected = () -> leasedByOther[0] = this.leaseService.leaseNext("run", List.of(STEP), "other",
+                LEASE_SECONDS);
+
+        final JobPartitionData leased = this.leaseService.leaseNext("run", List.of(STEP), "node", LEASE_SECONDS);
+
+        assertEquals(1L, leasedByOther[0].getFromId());
+        assertEquals("other", leasedByOther[0].getNodeId());
+        assertEquals(11L, leased.getFromId());
+        assertEquals("node", leased.getNodeId());
+        assertEquals(1, leased.getAttempts());
+        assertNull(this.leaseService.leaseNext("run", List.of(STEP), "third", LEASE_SECONDS));
+        assertEquals(1, this.table.lostLeaseUpdates.get());
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverAndTheFormerOwnerCannotCompleteIt() throws Exception {
+        this.leaseService.createPartitions("run", STEP, Collections.singletonList(new Long[] { 1L, 10L }));
+        final JobPartitionData abandoned = this.leaseService.leaseNext("run", List.of(STEP), "stalled", 0);
+        // lease times are taken to the second
+        Thread.sleep(1_100);
+
+        final JobPartitionData takenOver = this.leaseService.leaseNext("run", List.of(STEP), "node", LEASE_SECONDS);
+
+        assertEquals(abandoned.getId(), takenOver.getId());
+        assertEquals(2, takenOver.getAttempts());
+        assertFalse(this.leaseService.renewLease(abandoned.getId(), "stalled", LEASE_SECONDS));
+        assertFalse(this.leaseService.completePartition(abandoned.getId(), "stalled"));
+        assertEquals(1, this.leaseService.countUnfinishedPartitions("run"));
+        assertTrue(this.leaseService.completePartition(takenOver.getId(), "node"));
+        assertEquals(0, this.leaseService.countUnfinishedPartitions("run"));
+    }
+
+    @Test
+    void twoNodesShareARunWithoutExecutingAnIdTwice() throws Exception {
+        final RecordingStep step = new RecordingStep();
+        final PartitionedJobExecutor triggeringNode = newNode();
+        final PartitionedJobExecutor otherNode = newNode();
+        assertNotEquals(triggeringNode.getLeaseOwner(), otherNode.getLeaseOwner());
+        final List<Long> ids = LongStream.rangeClosed(1, 40).boxed().collect(Collectors.toList());
+
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            // the poll loop of the JobPartitionWorker of the other node
+            final Future<?> polling = worker.submit(() -> {
+                ThreadLocalContextUtil.setTenant(this.tenant);
+                try {
+                    while (!stopped.get()) {
+                        final JobPartitionData partition = this.leaseService.leaseNext(null, List.of(STEP), otherNode.getLeaseOwner(),
+                                LEASE_SECONDS);
+                        if (partition != null) {
+                            otherNode.executeLeasedPartition(step, partition);
+                        } else {
+                            Thread.sleep(1);
+                        }
+                    }
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+                return null;
+            });
+
+            triggeringNode.execute(step, ids);
+
+            stopped.set(true);
+            polling.get(10, TimeUnit.SECONDS);
+        } finally {
+            stopped.set(true);
+            worker.shutdownNow();
+            triggeringNode.shutdown();
+            otherNode.shutdown();
+        }
+
+        assertEquals(new HashSet<>(ids), step.executions.keySet());
+        for (final Map.Entry<Long, AtomicInteger> execution : step.executions.entrySet()) {
+            assertEquals(1, execution.getValue().get(), "executions of id " + execution.getKey());
+        }
+        final Set<String> owners = new HashSet<>();
+        for (final Partition partition : this.table.partitions) {
+            assertEquals(JobPartitionStatus.COMPLETED.name(), partition.status, partition.fromId + "-" + partition.toId);
+            assertEquals(1, partition.attempts);
+            owners.add(partition.nodeId);
+        }
+        assertEquals(Set.of(triggeringNode.getLeaseOwner(), otherNode.getLeaseOwner()), owners);
+    }
+
+    private PartitionedJobExecutor newNode() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        // both nodes are started with the same configuration
+        fineractProperties.setNodeId("1");
+        final FineractPartitionedJobProperties partitionedJob = new FineractPartitionedJobProperties();
+        partitionedJob.setClusterEnabled(true);
+        partitionedJob.setThreadPoolSize(1);
+        partitionedJob.setChunkSize(2);
+        partitionedJob.setLeaseSeconds(LEASE_SECONDS);
+        partitionedJob.setPollIntervalSeconds(0);
+        fineractProperties.setPartitionedJob(partitionedJob);
+        return new PartitionedJobExecutor(new DirectTransactionTemplate(), fineractProperties, this.leaseService);
+    }
+
+    /**
+     * Counts the executions per id and, as required of a {@link PartitionedJobStep}, only returns the ids not executed
+     * yet.
+     */
+    private static final class RecordingStep implements PartitionedJobStep {
+
+        private final Map<Long, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+        @Override
+        public String getName() {
+            return STEP;
+        }
+
+        @Override
+        public List<Long> retrieveIds(final Long fromId, final Long toId) {
+            return LongStream.rangeClosed(fromId, toId).boxed().filter(id -> !this.executions.containsKey(id)).collect(Collectors.toList());
+        }
+
+        @Override
+        public void execute(final Long id) throws Exception {
+            this.executions.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public <T> T execute(final TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+
+    private static final class Partition {
+
+        private final Long id;
+        private final String runId;
+        private final String jobName;
+        private final Long fromId;
+        private final Long toId;
+        private String status;
+        private String nodeId;
+        private LocalDateTime leaseExpiresAt;
+        private int attempts;
+        private String errorLog;
+
+        Partition(final Long id, final Object[] args) {
+            this.id = id;
+            this.runId = (String) args[0];
+            this.jobName = (String) args[1];
+            this.fromId = (Long) args[2];
+            this.toId = (Long) args[3];
+            this.status = (String) args[4];
+        }
+
+        boolean isLeasable(final LocalDateTime now) {
+            return JobPartitionStatus.PENDING.name().equals(this.status)
+                    || (JobPartitionStatus.LEASED.name().equals(this.status) && this.leaseExpiresAt.isBefore(now));
+        }
+
+        boolean isLeasedBy(final String owner) {
+            return JobPartitionStatus.LEASED.name().equals(this.status) && owner.equals(this.nodeId);
+        }
+
+        JobPartitionData toData() {
+            return new JobPartitionData(this.id, this.runId, this.jobName, this.fromId, this.toId, this.status, this.nodeId,
+                    this.attempts, this.errorLog);
+        }
+    }
+
+    /**
+     * Runs the statements of {@link JobPartitionLeaseServiceImpl} against rows held in memory, one statement at a time.
+     */
+    private static final class JobPartitionTable extends JdbcTemplate {
+
+        private final List<Partition> partitions = new ArrayList<>();
+        private final AtomicInteger lostLeaseUpdates = new AtomicInteger();
+        private Runnable afterCandidatesSelected;
+
+        @Override
+        public synchronized int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            assertTrue(sql.startsWith("insert into job_partition"), sql);
+            for (final Object[] args : batchArgs) {
+                this.partitions.add(new Partition((long) this.partitions.size() + 1, args));
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            final List<T> candidates;
+            synchronized (this) {
+                assertTrue(sql.startsWith("select id from job_partition where job_name in ("), sql);
+                // ..., [runId,] PENDING, LEASED, now
+                final LocalDateTime now = (LocalDateTime) args[args.length - 1];
+                final boolean byRun = sql.contains("run_id = ?");
+                final String runId = byRun ? (String) args[args.length - 4] : null;
+                final List<Object> jobNames = Arrays.asList(args).subList(0, args.length - (byRun ? 4 : 3));
+                candidates = this.partitions.stream()
+                        .filter(partition -> jobNames.contains(partition.jobName) && (runId == null || runId.equals(partition.runId))
+                                && partition.isLeasable(now))
+                        .limit(10).map(partition -> elementType.cast(partition.id)).collect(Collectors.toList());
+            }
+            final Runnable hook = this.afterCandidatesSelected;
+            if (hook != null) {
+                this.afterCandidatesSelected = null;
+                hook.run();
+            }
+            return candidates;
+        }
+
+        @Override
+        public synchronized int update(final String sql, final Object... args) {
+            if (sql.startsWith("update job_partition set status = ?, node_id = ?")) {
+                final Partition partition = partition(args[4]);
+                if (!partition.isLeasable((LocalDateTime) args[7])) {
+                    this.lostLeaseUpdates.incrementAndGet();
+                    return 0;
+                }
+                partition.status = (String) args[0];
+                partition.nodeId = (String) args[1];
+                partition.leaseExpiresAt = (LocalDateTime) args[2];
+                partition.attempts++;
+                return 1;
+            }
+            if (sql.startsWith("update job_partition set lease_expires_at = ?")) {
+                final Partition partition = partition(args[2]);
+                if (!partition.isLeasedBy((String) args[3])) {
+                    return 0;
+                }
+                partition.leaseExpiresAt = (LocalDateTime) args[0];
+                return 1;
+            }
+            if (sql.startsWith("update job_partition set status = ?, lease_expires_at = null, lastmodified_date = ?")) {
+                final Partition partition = partition(args[2]);
+                if (!partition.isLeasedBy((String) args[3])) {
+                    return 0;
+                }
+                partition.status = (String) args[0];
+                return 1;
+            }
+            if (sql.startsWith("update job_partition set status = ?, lease_expires_at = null, error_log = ?")) {
+                final Partition partition = partition(args[3]);
+                if (!partition.isLeasedBy((String) args[4])) {
+                    return 0;
+                }
+                partition.status = (String) args[0];
+                partition.errorLog = (String) args[1];
+                return 1;
+            }
+            throw new IllegalArgumentException(sql);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T queryForObject(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            assertTrue(sql.endsWith(" where jp.id = ?"), sql);
+            return (T) partition(args[0]).toData();
+        }
+
+        @Override
+        public synchronized <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            assertTrue(sql.startsWith("select count(*) from job_partition where run_id = ? and status in (?, ?)"), sql);
+            final List<Object> statuses = Arrays.asList(args[1], args[2]);
+            return requiredType.cast((int) this.partitions.stream()
+                    .filter(partition -> args[0].equals(partition.runId) && statuses.contains(partition.status)).count());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            assertTrue(sql.endsWith(" where jp.run_id = ? and jp.status = ? order by jp.id"), sql);
+            return (List<T>) this.partitions.stream()
+                    .filter(partition -> args[0].equals(partition.runId) && args[1].equals(partition.status)).map(Partition::toData)
+                    .collect(Collectors.toList());
+        }
+
+        private Partition partition(final Object id) {
+            return this.partitions.get((int) ((Long) id - 1));
+        }
+    }
+}
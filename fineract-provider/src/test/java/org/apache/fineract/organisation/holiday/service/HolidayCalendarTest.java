@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.holiday.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the lookups of {@link HolidayCalendar} with {@link HolidayUtil#getApplicableHoliday(LocalDate, List)} over
+ * the holidays that {@code HolidayRepository.findByOfficeIdAndGreaterThanDate} would return.
+ */
+class HolidayCalendarTest {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+
+    @Test
+    void holidayCoveringADateBeforeTheCutoffStillApplies() {
+        // e.g. a holiday spanning the disbursement date of the loan
+        final Holiday holiday = holiday(10, 20);
+        final HolidayCalendar calendar = HolidayCalendar.of(List.of(holiday(1, 5), holiday), null).endingOnOrAfter(START.plusDays(15));
+
+        assertSame(holiday, calendar.getApplicableHoliday(START.plusDays(12)));
+        assertNull(calendar.getApplicableHoliday(START.plusDays(3)));
+        assertNull(calendar.getApplicableHoliday(START.plusDays(21)));
+    }
+
+    @Test
+    void overlappingHolidaysMatchTheListScan() {
+        final Random random = new Random(17);
+        for (int run = 0; run < 200; run++) {
+            final List<Holiday> holidays = new ArrayList<>();
+            final int count = random.nextInt(25);
+            for (int i = 0; i < count; i++) {
+                final int from = random.nextInt(120);
+                // mostly short holidays, some long ones spanning many of the others
+                final int length = random.nextInt(10) == 0 ? random.nextInt(60) : random.nextInt(5);
+                holidays.add(holiday(from, from + length));
+            }
+            final HolidayCalendar full = HolidayCalendar.of(holidays, null);
+            final LocalDate cutoff = START.plusDays(random.nextInt(140) - 10);
+            final HolidayCalendar calendar = full.endingOnOrAfter(cutoff);
+            final List<Holiday> ending = holidays.stream().filter(holiday -> !holiday.getToDateLocalDate().isBefore(cutoff))
+                    .collect(Collectors.toList());
+
+            assertEquals(ending, calendar.getHolidays());
+            for (int day = -5; day < 200; day++) {
+                final LocalDate date = START.plusDays(day);
+                assertSame(HolidayUtil.getApplicableHoliday(date, holidays), full.getApplicableHoliday(date), "run " + run + " " + date);
+                assertSame(HolidayUtil.getApplicableHoliday(date, ending), calendar.getApplicableHoliday(date),
+                        "run " + run + " " + date + " cutoff " + cutoff);
+            }
+        }
+    }
+
+    private static Holiday holiday(final int fromDay, final int toDay) {
+        final Holiday holiday = mock(Holiday.class);
+        given(holiday.getFromDateLocalDate()).willReturn(START.plusDays(fromDay));
+        given(holiday.getToDateLocalDate()).willReturn(START.plusDays(toDay));
+        return holiday;
+    }
+}
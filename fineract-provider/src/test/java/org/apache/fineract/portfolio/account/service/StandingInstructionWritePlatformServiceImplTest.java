@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseSpecificSQLGenerator;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.account.PortfolioAccountType;
+import org.apache.fineract.portfolio.account.data.AccountTransferDTO;
+import org.apache.fineract.portfolio.account.data.PortfolioAccountData;
+import org.apache.fineract.portfolio.account.data.StandingInstructionData;
+import org.apache.fineract.portfolio.account.domain.AccountTransferRecurrenceType;
+import org.apache.fineract.portfolio.account.domain.AccountTransferType;
+import org.apache.fineract.portfolio.account.domain.StandingInstructionStatus;
+import org.apache.fineract.portfolio.account.domain.StandingInstructionType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class StandingInstructionWritePlatformServiceImplTest {
+
+    private final Map<StandingInstructionData, AccountTransferDTO> transfers = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void transfersFromOneAccountAreGroupedInPriorityOrder() {
+        add(1L, PortfolioAccountType.SAVINGS, 1L, PortfolioAccountType.SAVINGS, 2L);
+        add(2L, PortfolioAccountType.SAVINGS, 3L, PortfolioAccountType.SAVINGS, 4L);
+        add(3L, PortfolioAccountType.SAVINGS, 1L, PortfolioAccountType.LOAN, 5L);
+        add(4L, PortfolioAccountType.SAVINGS, 1L, PortfolioAccountType.SAVINGS, 6L);
+
+        assertEquals(List.of(List.of(1L, 3L, 4L), List.of(2L)), partitions());
+    }
+
+    @Test
+    void transfersToOneAccountAreGrouped() {
+        add(1L, PortfolioAccountType.SAVINGS, 1L, PortfolioAccountType.LOAN, 9L);
+        add(2L, PortfolioAccountType.SAVINGS, 2L, PortfolioAccountType.SAVINGS, 3L);
+        add(3L, PortfolioAccountType.SAVINGS, 4L, PortfolioAccountType.LOAN, 9L);
+
+        assertEquals(List.of(List.of(1L, 3L), List.of(2L)), partitions());
+    }
+
+    @Test
+    void chainedTransfersAreGrouped() {
+        // A -> B, C -> D, B -> C
+        add(1L, PortfolioAccountType.SAVINGS, 1L, PortfolioAccountType.SAVINGS, 2L);
+        add(2L, PortfolioAccountType.SAVINGS, 3L, PortfolioAccountType.SAVINGS, 4L);
+        add(3L, PortfolioAccountType.SAVINGS, 2L, PortfolioAccountType.SAVINGS, 3L);
+        add(4L, PortfolioAccountType.SAVINGS, 5L, PortfolioAccountType.SAVINGS, 6L);
+
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L)), partitions());
+    }
+
+    @Test
+    void accountsOfDifferentTypesAreNotGrouped() {
+        add(1L, PortfolioAccountType.SAVINGS, 1L, PortfolioAccountType.SAVINGS, 2L);
+        add(2L, PortfolioAccountType.SAVINGS, 3L, PortfolioAccountType.LOAN, 1L);
+
+        assertEquals(List.of(List.of(1L), List.of(2L)), partitions());
+    }
+
+    @Test
+    void historyOfFailedTransfersIsWrittenInBatches() {
+        final int instructionCount = 1001;
+        final Long completedInstructionId = 7L;
+        final List<StandingInstructionData> instructions = new ArrayList<>();
+        for (long id = 1; id <= instructionCount; id++) {
+            // every instruction between two accounts of its own
+            instructions.add(instruction(id, PortfolioAccountType.SAVINGS, 2 * id, PortfolioAccountType.SAVINGS, 2 * id + 1));
+        }
+        final StandingInstructionReadPlatformService readPlatformService = mock(StandingInstructionReadPlatformService.class);
+        given(readPlatformService.retrieveAll(StandingInstructionStatus.ACTIVE.getValue())).willReturn(instructions);
+        final AccountTransfersWritePlatformService transfersWritePlatformService = mock(AccountTransfersWritePlatformService.class);
+        willAnswer(invocation -> {
+            final AccountTransferDTO transfer = invocation.getArgument(0);
+            if (transfer.getFromAccountId() != 2 * completedInstructionId) {
+                throw new IllegalStateException("account " + transfer.getFromAccountId() + " is closed");
+            }
+            return null;
+        }).given(transfersWritePlatformService).transferFunds(any(AccountTransferDTO.class));
+        final DatabaseSpecificSQLGenerator sqlGenerator = mock(DatabaseSpecificSQLGenerator.class);
+        given(sqlGenerator.escape("status")).willReturn("`status`");
+        final InstructionTables database = new InstructionTables();
+
+        final StandingInstructionWritePlatformServiceImpl underTest = new StandingInstructionWritePlatformServiceImpl(null, null, null,
+                null, readPlatformService, transfersWritePlatformService, database, sqlGenerator, new FineractProperties());
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, underTest::executeStandingInstructions);
+
+        assertEquals(List.of(500, 500, 1), database.historyBatches.stream().map(List::size).collect(Collectors.toList()));
+        final List<Object[]> history = database.historyBatches.stream().flatMap(List::stream).collect(Collectors.toList());
+        assertEquals(instructionCount, history.stream().map(row -> row[0]).distinct().count());
+        assertEquals(instructionCount - 1, history.stream().filter(row -> "failed".equals(row[1])).count());
+        for (final Object[] row : history) {
+            if (completedInstructionId.equals(row[0])) {
+                assertEquals("success", row[1]);
+                assertEquals("", row[4]);
+            } else {
+                assertEquals("Exception while trasfering funds account " + (2 * (Long) row[0]) + " is closed", row[4]);
+            }
+        }
+        assertEquals(List.of(completedInstructionId), database.lastRunDateUpdates);
+        assertEquals(instructionCount - 1, exception.getCauses().size());
+    }
+
+    private List<List<Long>> partitions() {
+        return StandingInstructionWritePlatformServiceImpl.partitionByAccounts(this.transfers).stream()
+                .map(partition -> partition.stream().map(transfer -> transfer.getKey().getId()).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private void add(final Long id, final PortfolioAccountType fromAccountType, final Long fromAccountId,
+            final PortfolioAccountType toAccountType, final Long toAccountId) {
+        this.transfers.put(instruction(id, fromAccountType, fromAccountId, toAccountType, toAccountId),
+                new AccountTransferDTO(LocalDate.of(2022, 3, 1), BigDecimal.TEN, fromAccountType, toAccountType, fromAccountId,
+                        toAccountId, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, true,
+                        false));
+    }
+
+    /**
+     * A fixed daily transfer that is due today.
+     */
+    private static StandingInstructionData instruction(final Long id, final PortfolioAccountType fromAccountType,
+            final Long fromAccountId, final PortfolioAccountType toAccountType, final Long toAccountId) {
+        return StandingInstructionData.instance(id, id, "instruction " + id, null, null, null, null, option(fromAccountType.getValue()),
+                PortfolioAccountData.lookup(fromAccountId, null), option(toAccountType.getValue()),
+                PortfolioAccountData.lookup(toAccountId, null), option(AccountTransferType.ACCOUNT_TRANSFER.getValue()), null,
+                option(StandingInstructionType.FIXED.getValue()), option(StandingInstructionStatus.ACTIVE.getValue()), BigDecimal.TEN,
+                LocalDate.now(DateUtils.getDateTimeZoneOfTenant()), null, option(AccountTransferRecurrenceType.PERIODIC.getValue()),
+                option(PeriodFrequencyType.DAYS.getValue()), 1, null);
+    }
+
+    private static EnumOptionData option(final Integer value) {
+        return new EnumOptionData(value.longValue(), null, null);
+    }
+
+    /**
+     * m_account_transfer_standing_instructions and m_account_transfer_standing_instructions_history.
+     */
+    private static final class InstructionTables extends JdbcTemplate {
+
+        private final List<List<Object[]>> historyBatches = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> lastRunDateUpdates = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            assertEquals("INSERT INTO m_account_transfer_standing_instructions_history (standing_instruction_id, `status`, amount, "
+                    + "execution_time, error_log) VALUES (?, ?, ?, ?, ?)", sql);
+            // the service clears and reuses its list after the batch update
+            this.historyBatches.add(new ArrayList<>(batchArgs));
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            assertEquals("UPDATE m_account_transfer_standing_instructions SET last_run_date = ? where id = ?", sql);
+            this.lastRunDateUpdates.add((Long) args[1]);
+            return 1;
+        }
+    }
+}
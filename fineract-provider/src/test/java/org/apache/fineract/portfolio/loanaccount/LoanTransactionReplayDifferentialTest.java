@@ -0,0 +1,333 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.charge.domain.Charge;
+import org.apache.fineract.portfolio.charge.domain.ChargeCalculationType;
+import org.apache.fineract.portfolio.charge.domain.ChargePaymentMode;
+import org.apache.fineract.portfolio.charge.domain.ChargeTimeType;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionComparator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionToRepaymentScheduleMapping;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.EarlyPaymentLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.FineractStyleLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test of the checkpointed replay of loan transactions: for random schedules, charges and transaction
+ * histories a backdated repayment (or the adjustment of an earlier one) is processed once with a full replay and once
+ * replaying only from its date, and the resulting installments, transactions and charges must be identical.
+ */
+public class LoanTransactionReplayDifferentialTest {
+
+    private static final int SCENARIOS = 200;
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+    private final LocalDate disbursementDate = LocalDate.of(2021, 1, 4);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void checkpointedReplayMatchesFullReplay() {
+        final List<Supplier<LoanRepaymentScheduleTransactionProcessor>> processors = List.of(
+                FineractStyleLoanRepaymentScheduleTransactionProcessor::new, CreocoreLoanRepaymentScheduleTransactionProcessor::new,
+                InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor::new,
+                PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor::new,
+                EarlyPaymentLoanRepaymentScheduleTransactionProcessor::new, HeavensFamilyLoanRepaymentScheduleTransactionProcessor::new);
+        for (final Supplier<LoanRepaymentScheduleTransactionProcessor> processor : processors) {
+            for (int seed = 0; seed < SCENARIOS; seed++) {
+                final String full = replay(processor.get(), seed, false);
+                final String checkpointed = replay(processor.get(), seed, true);
+                assertEquals(full, checkpointed, processor.get().getClass().getSimpleName() + " scenario " + seed);
+            }
+        }
+    }
+
+    @Test
+    public void checkpointedReplayOnlyAllocatesTransactionsFromTheCheckpoint() {
+        final int[] allocations = new int[1];
+        final LoanRepaymentScheduleTransactionProcessor countingProcessor = new FineractStyleLoanRepaymentScheduleTransactionProcessor() {
+
+            @Override
+            protected Money handleTransactionThatIsOnTimePaymentOfInstallment(final LoanRepaymentScheduleInstallment currentInstallment,
+                    final LoanTransaction loanTransaction, final Money transactionAmountUnprocessed,
+                    final List<LoanTransactionToRepaymentScheduleMapping> transactionMappings) {
+                allocations[0]++;
+                return super.handleTransactionThatIsOnTimePaymentOfInstallment(currentInstallment, loanTransaction,
+                        transactionAmountUnprocessed, transactionMappings);
+            }
+        };
+        final List<LoanRepaymentScheduleInstallment> installments = schedule(new Random(1), 60, 1);
+        final List<LoanTransaction> transactions = new ArrayList<>();
+        for (int day = 1; day <= 50; day++) {
+            transactions.add(repayment(this.disbursementDate.plusDays(day), "20.00", day));
+        }
+        final Set<LoanCharge> charges = new HashSet<>();
+        countingProcessor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges);
+
+        transactions.add(repayment(this.disbursementDate.plusDays(45), "5.00", 51));
+        Collections.sort(transactions, new LoanTransactionComparator());
+        allocations[0] = 0;
+        countingProcessor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges,
+                this.disbursementDate.plusDays(45));
+        final int checkpointedAllocations = allocations[0];
+        allocations[0] = 0;
+        countingProcessor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges);
+
+        assertTrue(checkpointedAllocations > 0);
+        assertTrue(checkpointedAllocations * 5 < allocations[0], checkpointedAllocations + " of " + allocations[0] + " allocations");
+    }
+
+    @Test
+    public void checkpointedReplayRestoresPaidAndWaivedCharges() {
+        final String full = replayWithCharges(new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor(), false);
+        final String checkpointed = replayWithCharges(new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor(),
+                true);
+
+        assertEquals(full, checkpointed);
+        // the penalty is paid in part before the checkpoint, so the backdated repayment only pays the rest of it
+        assertTrue(full.contains("2021-01-25 USD 125.00 principal USD 100.00 interest USD 10.00 fees USD 10.00 penalties USD 5.00"), full);
+        assertTrue(full.contains("2021-02-01 USD 40.00 principal USD 30.00 interest USD 0.00 fees USD 0.00 penalties USD 10.00"), full);
+        assertTrue(full.contains("charge 2021-01-18 fee paid 30.00 outstanding 0.00 waived 0.00"), full);
+        assertTrue(full.contains("charge 2021-01-25 penalty paid 15.00 outstanding 0.00 waived 0.00"), full);
+        assertTrue(full.contains("charge 2021-01-17 fee paid 0.00 outstanding 0.00 waived 12.00"), full);
+        assertTrue(full.contains("charge 2021-02-08 fee paid 60.00 outstanding 140.00 waived 0.00"), full);
+    }
+
+    private String replay(final LoanRepaymentScheduleTransactionProcessor processor, final int seed, final boolean checkpointed) {
+        final Random random = new Random(seed);
+        final int periodDays = random.nextBoolean() ? 1 : 7;
+        final List<LoanRepaymentScheduleInstallment> installments = schedule(random, 20 + random.nextInt(100), periodDays);
+        final LocalDate lastDueDate = installments.get(installments.size() - 1).getDueDate();
+        final int days = (int) (lastDueDate.toEpochDay() - this.disbursementDate.toEpochDay());
+        final List<LoanCharge> loanCharges = random.nextInt(3) == 0 ? new ArrayList<>() : charges(random, days);
+        final Set<LoanCharge> charges = new HashSet<>(loanCharges);
+
+        // keep the history well below the total due, so that interest is left to waive and nothing is overpaid
+        Money remaining = Money.zero(this.usDollars);
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            remaining = remaining.plus(installment.getTotalOutstanding(this.usDollars));
+        }
+        remaining = remaining.multipliedBy(6).dividedBy(10, RoundingMode.HALF_EVEN);
+
+        final List<LoanTransaction> transactions = new ArrayList<>();
+        int sequence = 0;
+        final int count = 10 + random.nextInt(60);
+        for (int i = 0; i < count; i++) {
+            final LocalDate date = this.disbursementDate.plusDays(1 + random.nextInt(days));
+            final Money amount = Money.of(this.usDollars, BigDecimal.valueOf(100 + random.nextInt(30000), 2));
+            if (amount.isGreaterThan(remaining)) {
+                break;
+            }
+            remaining = remaining.minus(amount);
+            if (random.nextInt(10) == 0) {
+                transactions.add(waiver(date, Money.of(this.usDollars, BigDecimal.valueOf(1 + random.nextInt(300), 2)), sequence++));
+            } else {
+                transactions.add(repayment(date, amount.getAmount().toPlainString(), sequence++));
+            }
+        }
+        Collections.sort(transactions, new LoanTransactionComparator());
+        processor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges);
+
+        // a backdated repayment, or the adjustment of an earlier one to another amount and date
+        LocalDate replayFromDate = this.disbursementDate.plusDays(1 + random.nextInt(days));
+        final LoanTransaction backdated = repayment(replayFromDate, BigDecimal.valueOf(100 + random.nextInt(20000), 2).toPlainString(),
+                sequence++);
+        if (!transactions.isEmpty() && random.nextBoolean()) {
+            final LoanTransaction adjusted = transactions.remove(random.nextInt(transactions.size()));
+            if (adjusted.getTransactionDate().isBefore(replayFromDate)) {
+                replayFromDate = adjusted.getTransactionDate();
+            }
+        }
+        transactions.add(backdated);
+        Collections.sort(transactions, new LoanTransactionComparator());
+        processor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges,
+                checkpointed ? replayFromDate : null);
+
+        return describe(installments, transactions, loanCharges);
+    }
+
+    /**
+     * Ten weekly installments of 100.00 principal and 10.00 interest with fees, a penalty and a waived fee due. The
+     * repayments before the checkpoint pay the penalty in part, the last one pays a fee in part.
+     */
+    private String replayWithCharges(final LoanRepaymentScheduleTransactionProcessor processor, final boolean checkpointed) {
+        final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>();
+        LocalDate fromDate = this.disbursementDate;
+        for (int number = 1; number <= 10; number++) {
+            installments.add(new LoanRepaymentScheduleInstallment(null, number, fromDate, fromDate.plusWeeks(1), new BigDecimal("100.00"),
+                    new BigDecimal("10.00"), BigDecimal.ZERO, BigDecimal.ZERO, false, null));
+            fromDate = fromDate.plusWeeks(1);
+        }
+        final List<LoanCharge> loanCharges = new ArrayList<>();
+        loanCharges.add(loanCharge(LocalDate.of(2021, 1, 18), "30.00", false));
+        loanCharges.add(loanCharge(LocalDate.of(2021, 1, 25), "15.00", true));
+        loanCharges.add(loanCharge(LocalDate.of(2021, 1, 17), "12.00", false));
+        loanCharges.add(loanCharge(LocalDate.of(2021, 2, 8), "200.00", false));
+        loanCharges.get(2).waive(this.usDollars, null);
+        final Set<LoanCharge> charges = new HashSet<>(loanCharges);
+
+        final List<LoanTransaction> transactions = new ArrayList<>();
+        transactions.add(repayment(LocalDate.of(2021, 1, 11), "110.00", 0));
+        transactions.add(repayment(LocalDate.of(2021, 1, 18), "130.00", 1));
+        transactions.add(repayment(LocalDate.of(2021, 1, 25), "125.00", 2));
+        transactions.add(repayment(LocalDate.of(2021, 2, 8), "250.00", 3));
+        processor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges);
+
+        transactions.add(repayment(LocalDate.of(2021, 2, 1), "40.00", 4));
+        Collections.sort(transactions, new LoanTransactionComparator());
+        processor.handleTransaction(this.disbursementDate, transactions, this.usDollars, installments, charges,
+                checkpointed ? LocalDate.of(2021, 2, 1) : null);
+
+        return describe(installments, transactions, loanCharges);
+    }
+
+    /**
+     * Fees and penalties due on distinct dates, so that the order in which they are paid does not depend on the iteration
+     * order of the charges; some of them are waived.
+     */
+    private List<LoanCharge> charges(final Random random, final int days) {
+        final List<LoanCharge> charges = new ArrayList<>();
+        final Set<LocalDate> dueDates = new HashSet<>();
+        final int count = 1 + random.nextInt(6);
+        for (int i = 0; i < count; i++) {
+            final LocalDate dueDate = this.disbursementDate.plusDays(1 + random.nextInt(days));
+            if (!dueDates.add(dueDate)) {
+                continue;
+            }
+            final LoanCharge charge = loanCharge(dueDate, BigDecimal.valueOf(100 + random.nextInt(5000), 2).toPlainString(),
+                    random.nextBoolean());
+            if (random.nextInt(4) == 0) {
+                charge.waive(this.usDollars, null);
+            }
+            charges.add(charge);
+        }
+        return charges;
+    }
+
+    private LoanCharge loanCharge(final LocalDate dueDate, final String amount, final boolean penalty) {
+        final Charge chargeDefinition = mock(Charge.class);
+        given(chargeDefinition.isPenalty()).willReturn(penalty);
+        return LoanCharge.createNewWithoutLoan(chargeDefinition, null, new BigDecimal(amount), ChargeTimeType.SPECIFIED_DUE_DATE,
+                ChargeCalculationType.FLAT, dueDate, ChargePaymentMode.REGULAR, null);
+    }
+
+    private List<LoanRepaymentScheduleInstallment> schedule(final Random random, final int numberOfInstallments, final int periodDays) {
+        final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>();
+        LocalDate fromDate = this.disbursementDate;
+        for (int number = 1; number <= numberOfInstallments; number++) {
+            final LocalDate dueDate = fromDate.plusDays(periodDays);
+            installments.add(new LoanRepaymentScheduleInstallment(null, number, fromDate, dueDate,
+                    BigDecimal.valueOf(5000 + random.nextInt(10000), 2), BigDecimal.valueOf(100 + random.nextInt(2000), 2),
+                    BigDecimal.ZERO, BigDecimal.ZERO, false, null));
+            fromDate = dueDate;
+        }
+        return installments;
+    }
+
+    private LoanTransaction repayment(final LocalDate date, final String amount, final int sequence) {
+        return LoanTransaction.repayment(null, Money.of(this.usDollars, new BigDecimal(amount)), null, date, null, createdDate(sequence),
+                null);
+    }
+
+    private LoanTransaction waiver(final LocalDate date, final Money amount, final int sequence) {
+        return LoanTransaction.waiver(null, null, amount, date, amount, amount.zero(), createdDate(sequence), null);
+    }
+
+    private LocalDateTime createdDate(final int sequence) {
+        return LocalDateTime.of(2021, 1, 1, 0, 0).plusMinutes(sequence);
+    }
+
+    private String describe(final List<LoanRepaymentScheduleInstallment> installments, final List<LoanTransaction> transactions,
+            final List<LoanCharge> charges) {
+        final StringBuilder description = new StringBuilder();
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            description.append(installment.getInstallmentNumber()).append(' ').append(installment.getDueDate()).append(" principal ")
+                    .append(installment.getPrincipalCompleted(this.usDollars)).append(" interest ")
+                    .append(installment.getInterestPaid(this.usDollars)).append(" waived ")
+                    .append(installment.getInterestWaived(this.usDollars)).append(" fees ")
+                    .append(installment.getFeeChargesPaid(this.usDollars)).append(" fees waived ")
+                    .append(installment.getFeeChargesWaived(this.usDollars)).append(" penalties ")
+                    .append(installment.getPenaltyChargesPaid(this.usDollars)).append(" penalties waived ")
+                    .append(installment.getPenaltyChargesWaived(this.usDollars)).append(" advance ")
+                    .append(installment.getTotalPaidInAdvance(this.usDollars)).append(" late ")
+                    .append(installment.getTotalPaidLate(this.usDollars)).append(" met ").append(installment.isObligationsMet())
+                    .append(' ').append(installment.getObligationsMetOnDate()).append('\n');
+        }
+        for (final LoanTransaction transaction : transactions) {
+            description.append(transaction.getTransactionDate()).append(' ').append(transaction.getAmount(this.usDollars))
+                    .append(" principal ").append(transaction.getPrincipalPortion(this.usDollars)).append(" interest ")
+                    .append(transaction.getInterestPortion(this.usDollars)).append(" fees ")
+                    .append(transaction.getFeeChargesPortion(this.usDollars)).append(" penalties ")
+                    .append(transaction.getPenaltyChargesPortion(this.usDollars)).append(" overpaid ")
+                    .append(transaction.getOverPaymentPortion(this.usDollars)).append(" reversed ").append(transaction.isReversed());
+            final List<LoanTransactionToRepaymentScheduleMapping> mappings = new ArrayList<>(
+                    transaction.getLoanTransactionToRepaymentScheduleMappings());
+            mappings.sort(Comparator.comparing(mapping -> mapping.getLoanRepaymentScheduleInstallment().getDueDate()));
+            for (final LoanTransactionToRepaymentScheduleMapping mapping : mappings) {
+                description.append(" [").append(mapping.getLoanRepaymentScheduleInstallment().getDueDate()).append(' ')
+                        .append(mapping.getPrincipalPortion(this.usDollars)).append(' ').append(mapping.getInterestPortion(this.usDollars))
+                        .append(' ').append(mapping.getFeeChargesPortion(this.usDollars)).append(' ')
+                        .append(mapping.getPenaltyChargesPortion(this.usDollars)).append(']');
+            }
+            description.append('\n');
+        }
+        for (final LoanCharge charge : charges) {
+            description.append("charge ").append(charge.getDueLocalDate()).append(charge.isPenaltyCharge() ? " penalty" : " fee")
+                    .append(" paid ").append(charge.getAmountPaid(this.usDollars).getAmount()).append(" outstanding ")
+                    .append(charge.getAmountOutstanding(this.usDollars).getAmount()).append(" waived ")
+                    .append(charge.getAmountWaived(this.usDollars).getAmount()).append('\n');
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.config.FineractProperties;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the Apply Holidays To Loans job over ten loans, three per page, failing one loan on the first run.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LoanSchedularServiceImplTest {
+
+    private static final Long HOLIDAY_ID = 1L;
+    private static final int PAGE_SIZE = 3;
+    private static final List<Long> LOAN_IDS = LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList());
+
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+    @Mock
+    private LoanReadPlatformService loanReadPlatformService;
+    @Mock
+    private LoanWritePlatformService loanWritePlatformService;
+    @Mock
+    private OfficeReadPlatformService officeReadPlatformService;
+    @Mock
+    private PartitionedJobExecutor partitionedJobExecutor;
+    @Mock
+    private LoanInterestRecalculationJobStep loanInterestRecalculationJobStep;
+    @Mock
+    private HolidayRepositoryWrapper holidayRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final Set<Long> rescheduledLoanIds = new HashSet<>();
+    private final Set<Long> failingLoanIds = new HashSet<>();
+    private Holiday holiday;
+    private LoanSchedularServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.holiday = newHoliday(HOLIDAY_ID);
+
+        given(this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled()).willReturn(true);
+        given(this.holidayRepository.findUnprocessed())
+                .willAnswer(invocation -> this.holiday.isProcessed() ? Collections.emptyList() : Collections.singletonList(this.holiday));
+        given(this.holidayRepository.findOneWithNotFoundDetection(HOLIDAY_ID)).willReturn(this.holiday);
+        given(this.loanReadPlatformService.fetchLoansForHoliday(eq(HOLIDAY_ID), anyInt(), anyLong())).willAnswer(invocation -> {
+            final int pageSize = invocation.getArgument(1);
+            final long maxLoanIdInList = invocation.getArgument(2);
+            return LOAN_IDS.stream().filter(loanId -> loanId > maxLoanIdInList).limit(pageSize).collect(Collectors.toList());
+        });
+        willAnswer(invocation -> {
+            final Long loanId = invocation.getArgument(1);
+            if (this.failingLoanIds.contains(loanId)) {
+                throw new IllegalStateException("loan " + loanId + " failed");
+            }
+            this.rescheduledLoanIds.add(loanId);
+            return null;
+        }).given(this.loanWritePlatformService).applyHolidayToLoan(eq(HOLIDAY_ID), anyLong());
+        willAnswer(invocation -> {
+            final Collection<Long> loanIds = invocation.getArgument(1);
+            final PartitionedJobExecutor.ItemTask<Long> task = invocation.getArgument(2);
+            final List<Throwable> errors = new ArrayList<>();
+            for (final Long loanId : loanIds) {
+                try {
+                    task.execute(loanId);
+                } catch (Exception e) {
+                    errors.add(e);
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new JobExecutionException(errors);
+            }
+            return null;
+        }).given(this.partitionedJobExecutor).execute(anyString(), anyCollection(), any());
+        willAnswer(invocation -> {
+            final Consumer<Object> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).given(this.transactionTemplate).executeWithoutResult(any());
+
+        final FineractProperties fineractProperties = new FineractProperties();
+        final FineractProperties.FineractPartitionedJobProperties partitionedJob = new FineractProperties.FineractPartitionedJobProperties();
+        partitionedJob.setThreadPoolSize(1);
+        partitionedJob.setChunkSize(PAGE_SIZE);
+        fineractProperties.setPartitionedJob(partitionedJob);
+
+        this.underTest = new LoanSchedularServiceImpl(this.configurationDomainService, this.loanReadPlatformService,
+                this.loanWritePlatformService, this.officeReadPlatformService, this.partitionedJobExecutor,
+                this.loanInterestRecalculationJobStep, this.holidayRepository, this.transactionTemplate, fineractProperties);
+    }
+
+    @Test
+    void holidayIsAppliedToEveryLoanWhenRerunAfterFailure() throws Exception {
+        this.failingLoanIds.add(5L);
+
+        assertThrows(JobExecutionException.class, () -> this.underTest.applyHolidaysToLoans());
+
+        // the pages after the failed loan are still applied, but the holiday stays at the last page before it
+        assertFalse(this.holiday.isProcessed());
+        assertEquals(3L, this.holiday.getProcessedUpToLoanId());
+        assertFalse(this.rescheduledLoanIds.contains(5L));
+        assertTrue(this.rescheduledLoanIds.contains(10L));
+
+        this.failingLoanIds.clear();
+        clearInvocations(this.loanReadPlatformService);
+        this.underTest.applyHolidaysToLoans();
+
+        // the rerun resumes with the page of the failed loan
+        verify(this.loanReadPlatformService).fetchLoansForHoliday(HOLIDAY_ID, PAGE_SIZE, 3L);
+        assertEquals(new HashSet<>(LOAN_IDS), this.rescheduledLoanIds);
+        assertTrue(this.holiday.isProcessed());
+    }
+
+    @Test
+    void holidayIsProcessedOnceAllLoansSucceeded() throws Exception {
+        this.underTest.applyHolidaysToLoans();
+
+        assertEquals(new HashSet<>(LOAN_IDS), this.rescheduledLoanIds);
+        assertTrue(this.holiday.isProcessed());
+    }
+
+    private static Holiday newHoliday(final Long id) throws Exception {
+        final Constructor<Holiday> constructor = Holiday.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        final Holiday holiday = constructor.newInstance();
+        final Field idField = AbstractPersistableCustom.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(holiday, id);
+        return holiday;
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Feeds more batches through the interest posting pipeline than its queues can hold while a stage fails, the job must
+ * report the failures instead of hanging on a full queue.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SavingsSchedularServiceImplTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+
+    @Mock
+    private SavingsAccountAssembler savingAccountAssembler;
+    @Mock
+    private SavingsAccountWritePlatformService savingsAccountWritePlatformService;
+    @Mock
+    private SavingsAccountReadPlatformService savingAccountReadPlatformService;
+    @Mock
+    private SavingsAccountRepositoryWrapper savingsAccountRepository;
+    @Mock
+    private ApplicationContext applicationContext;
+    @Mock
+    private ConfigurationDomainService configurationDomainService;
+    @Mock
+    private RoutingDataSource dataSource;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SavingsSchedularServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        final List<SavingsAccountData> accounts = LongStream.rangeClosed(1, ACCOUNTS)
+                .mapToObj(id -> SavingsAccountData.lookup(id, String.valueOf(id), null)).collect(Collectors.toList());
+        given(this.savingAccountReadPlatformService.retrieveAllSavingsDataForInterestPosting(anyBoolean(), anyInt(), any(), eq(0L)))
+                .willReturn(accounts);
+        given(this.savingAccountReadPlatformService.retrieveAllSavingsDataForInterestPosting(anyBoolean(), anyInt(), any(),
+                eq((long) ACCOUNTS))).willReturn(Collections.emptyList());
+        given(this.savingAccountReadPlatformService.getAccountsIdsByStatusPaged(any(), anyInt(), anyLong()))
+                .willReturn(Collections.emptyList());
+
+        this.underTest = new SavingsSchedularServiceImpl(this.savingAccountAssembler, this.savingsAccountWritePlatformService,
+                this.savingAccountReadPlatformService, this.savingsAccountRepository, this.applicationContext,
+                this.configurationDomainService, this.dataSource, this.transactionTemplate);
+    }
+
+    @Test
+    void failingPostersDoNotBlockThePipeline() {
+        given(this.applicationContext.getBean("savingsSchedularInterestPoster"))
+                .willAnswer(invocation -> new StubPoster(new IllegalStateException("poster failed")));
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> assertTimeoutPreemptively(TIMEOUT, this::postInterest));
+
+        // every batch of one account failed on its own
+        assertEquals(ACCOUNTS, exception.getCauses().size());
+    }
+
+    @Test
+    void failingWriterDoesNotBlockThePipeline() {
+        given(this.applicationContext.getBean("savingsSchedularInterestPoster")).willAnswer(invocation -> new StubPoster(null));
+        willThrow(new OutOfMemoryError("writer failed")).given(this.transactionTemplate).executeWithoutResult(any());
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class,
+                () -> assertTimeoutPreemptively(TIMEOUT, this::postInterest));
+
+        // one failed write per write batch of two accounts
+        assertEquals(ACCOUNTS / 2, exception.getCauses().size());
+    }
+
+    // runs on the thread of assertTimeoutPreemptively, which has to be given the tenant
+    private void postInterest() throws JobExecutionException {
+        ThreadLocalContextUtil.setTenant(TENANT);
+        try {
+            this.underTest.postInterestForAccounts(jobParameters());
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private static Map<String, String> jobParameters() {
+        final Map<String, String> jobParameters = new HashMap<>();
+        jobParameters.put("thread-pool-size", "2");
+        jobParameters.put("batch-size", "1");
+        jobParameters.put("queue-size", "1");
+        jobParameters.put("write-batch-size", "2");
+        return jobParameters;
+    }
+
+    /**
+     * Either fails or hands the accounts it was given straight over to the writer.
+     */
+    private static final class StubPoster extends SavingsSchedularInterestPoster {
+
+        private final RuntimeException failure;
+        private Collection<SavingsAccountData> savingsAccounts;
+        private BlockingQueue<List<SavingsAccountData>> postedAccountsQueue;
+
+        StubPoster(final RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void setSavings(final Collection<SavingsAccountData> savingsAccounts) {
+            this.savingsAccounts = savingsAccounts;
+        }
+
+        @Override
+        public void setPostedAccountsQueue(final BlockingQueue<List<SavingsAccountData>> postedAccountsQueue) {
+            this.postedAccountsQueue = postedAccountsQueue;
+        }
+
+        @Override
+        public Void call() throws JobExecutionException {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            try {
+                this.postedAccountsQueue.put(new ArrayList<>(this.savingsAccounts));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JobExecutionException(Collections.singletonList(e));
+            }
+            return null;
+        }
+    }
+}
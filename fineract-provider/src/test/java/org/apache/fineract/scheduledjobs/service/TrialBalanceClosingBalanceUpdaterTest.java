@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.scheduledjobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
+import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Generates a ledger of trial balance rows, some already closed and some new, and checks that the per office and
+ * account update computes the same closing balances as the window function statement defines: the last known closing
+ * balance of the office and account plus the running sum of the new amounts ordered by created and entry date.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TrialBalanceClosingBalanceUpdaterTest {
+
+    private static final Comparator<LedgerRow> BY_CREATED_AND_ENTRY_DATE = Comparator.comparing((LedgerRow row) -> row.createdDate)
+            .thenComparing(row -> row.entryDate);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    @Mock
+    private DatabaseTypeResolver databaseTypeResolver;
+
+    private final List<LedgerRow> ledger = new ArrayList<>();
+
+    private TrialBalanceClosingBalanceUpdater underTest;
+
+    @BeforeEach
+    public void setUp() {
+        underTest = new TrialBalanceClosingBalanceUpdater(jdbcTemplate, trialBalanceRepositoryWrapper, databaseTypeResolver);
+        stubLedgerQueries();
+    }
+
+    @Test
+    public void testPerOfficeAndAccountUpdateMatchesWindowFunction() {
+        final Random random = new Random(20131);
+        for (int i = 0; i < 20; i++) {
+            ledger.clear();
+            generateLedger(random);
+            final Map<LedgerRow, BigDecimal> expected = windowFunctionClosingBalances();
+
+            final int updated = underTest.updatePerOfficeAndAccount();
+
+            assertEquals(expected.size(), updated);
+            for (final LedgerRow row : ledger) {
+                if (expected.containsKey(row)) {
+                    assertEquals(0, expected.get(row).compareTo(row.closingBalance), "closing balance of " + row);
+                } else {
+                    assertTrue(row.closedBefore, "row not updated: " + row);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWindowFunctionUsedOnMySQLAndPostgreSQL() {
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        given(jdbcTemplate.update(anyString())).willReturn(7);
+
+        assertEquals(7, underTest.update());
+        verify(jdbcTemplate).update(startsWith("update m_trial_balance tb join ("));
+        verify(trialBalanceRepositoryWrapper, never()).save(anyList());
+
+        given(databaseTypeResolver.isMySQL()).willReturn(false);
+        given(databaseTypeResolver.isPostgreSQL()).willReturn(true);
+        assertTrue(underTest.closingBalanceUpdateStatement().startsWith("update m_trial_balance tb set closing_balance ="));
+    }
+
+    @Test
+    public void testFallsBackToPerOfficeAndAccountUpdate() {
+        generateLedger(new Random(7));
+        final int newRows = windowFunctionClosingBalances().size();
+        given(databaseTypeResolver.isMySQL()).willReturn(true);
+        given(jdbcTemplate.update(anyString())).willThrow(new DataAccessResourceFailureException("window functions not supported"));
+
+        assertEquals(newRows, underTest.update());
+        assertTrue(ledger.stream().allMatch(row -> row.closingBalance != null));
+    }
+
+    /**
+     * Reference for the set based statement: opening balance from the latest closed row (by created then entry date),
+     * then a running sum over the new rows of each office and account.
+     */
+    private Map<LedgerRow, BigDecimal> windowFunctionClosingBalances() {
+        final Map<LedgerRow, BigDecimal> closingBalances = new IdentityHashMap<>();
+        final Map<List<Long>, List<LedgerRow>> partitions = ledger.stream()
+                .collect(Collectors.groupingBy(row -> List.of(row.officeId, row.accountId)));
+        for (final List<LedgerRow> partition : partitions.values()) {
+            final BigDecimal opening = partition.stream().filter(row -> row.closedBefore).max(BY_CREATED_AND_ENTRY_DATE)
+                    .map(row -> row.closingBalance).orElse(BigDecimal.ZERO);
+            BigDecimal runningSum = opening;
+            for (final LedgerRow row : partition.stream().filter(row -> !row.closedBefore).sorted(BY_CREATED_AND_ENTRY_DATE)
+                    .collect(Collectors.toList())) {
+                runningSum = runningSum.add(row.amount);
+                closingBalances.put(row, runningSum);
+            }
+        }
+        return closingBalances;
+    }
+
+    private void generateLedger(final Random random) {
+        final LocalDate start = LocalDate.of(2021, 1, 1);
+        for (long officeId = 1; officeId <= 3; officeId++) {
+            for (long accountId = 1; accountId <= 1 + random.nextInt(6); accountId++) {
+                final int closedDays = random.nextInt(4);
+                final int newDays = random.nextInt(5);
+                BigDecimal balance = BigDecimal.ZERO;
+                for (int day = 0; day < closedDays + newDays; day++) {
+                    final LocalDate createdDate = start.plusDays(day * 3L);
+                    // entry dates may lag behind the transaction date
+                    for (int lag = 0; lag <= random.nextInt(2); lag++) {
+                        final BigDecimal amount = BigDecimal.valueOf(random.nextInt(200_000) - 100_000, 2);
+                        final LedgerRow row = new LedgerRow(officeId, accountId, amount, createdDate.minusDays(lag), createdDate);
+                        if (day < closedDays) {
+                            balance = balance.add(amount);
+                            row.closingBalance = balance;
+                            row.closedBefore = true;
+                        }
+                        ledger.add(row);
+                    }
+                }
+            }
+        }
+        // insertion order must not matter
+        Collections.shuffle(ledger, random);
+    }
+
+    private void stubLedgerQueries() {
+        given(jdbcTemplate.queryForList(startsWith("select distinct(office_id)"), eq(Long.class)))
+                .willAnswer(invocation -> ledger.stream().filter(row -> row.closingBalance == null).map(row -> row.officeId).distinct()
+                        .collect(Collectors.toList()));
+        given(jdbcTemplate.queryForList(startsWith("select distinct(account_id)"), eq(Long.class), any()))
+                .willAnswer(invocation -> ledger.stream()
+                        .filter(row -> row.closingBalance == null && row.officeId.equals(invocation.getArgument(2)))
+                        .map(row -> row.accountId).distinct().collect(Collectors.toList()));
+        given(jdbcTemplate.queryForList(startsWith("select closing_balance"), eq(BigDecimal.class), any(), any()))
+                .willAnswer(invocation -> ledger.stream()
+                        .filter(row -> row.closingBalance != null && row.officeId.equals(invocation.getArgument(2))
+                                && row.accountId.equals(invocation.getArgument(3)))
+                        .sorted(BY_CREATED_AND_ENTRY_DATE.reversed()).limit(1).map(row -> row.closingBalance).collect(Collectors.toList()));
+
+        final Map<TrialBalance, LedgerRow> loaded = new IdentityHashMap<>();
+        given(trialBalanceRepositoryWrapper.findNewByOfficeAndAccount(anyLong(), anyLong())).willAnswer(invocation -> {
+            final List<TrialBalance> trialBalances = new ArrayList<>();
+            ledger.stream().filter(row -> row.closingBalance == null && row.officeId.equals(invocation.getArgument(0))
+                    && row.accountId.equals(invocation.getArgument(1))).sorted(BY_CREATED_AND_ENTRY_DATE).forEach(row -> {
+                        final TrialBalance trialBalance = TrialBalance.getInstance(row.officeId, row.accountId, row.amount,
+                                Date.valueOf(row.entryDate), Date.valueOf(row.createdDate));
+                        loaded.put(trialBalance, row);
+                        trialBalances.add(trialBalance);
+                    });
+            return trialBalances;
+        });
+        doAnswer(invocation -> {
+            final List<TrialBalance> saved = invocation.getArgument(0);
+            for (final TrialBalance trialBalance : saved) {
+                loaded.get(trialBalance).closingBalance = trialBalance.getClosingBalance();
+            }
+            return null;
+        }).when(trialBalanceRepositoryWrapper).save(anyList());
+    }
+
+    private static final class LedgerRow {
+
+        private final Long officeId;
+        private final Long accountId;
+        private final BigDecimal amount;
+        private final LocalDate entryDate;
+        private final LocalDate createdDate;
+        private BigDecimal closingBalance;
+        private boolean closedBefore;
+
+        LedgerRow(final Long officeId, final Long accountId, final BigDecimal amount, final LocalDate entryDate,
+                final LocalDate createdDate) {
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.amount = amount;
+            this.entryDate = entryDate;
+            this.createdDate = createdDate;
+        }
+
+        @Override
+        public String toString() {
+            return "office " + officeId + ", account " + accountId + ", created " + createdDate + ", entry " + entryDate;
+        }
+    }
+}
@@ -44,13 +44,25 @@ import org.apache.fineract.portfolio.loanaccount.MonetaryCurrencyBuilder;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateMapper;
+import org.apache.fineract.template.service.TemplateMapperResolver;
 import org.apache.fineract.template.service.TemplateMergeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 public class TemplateMergeServiceTest {
 
-    private TemplateMergeService tms = new TemplateMergeService();
+    private final List<String> resolvedUrls = new ArrayList<>();
+
+    private TemplateMergeService tms = new TemplateMergeService(new TemplateMapperResolver(null) {
+
+        @Override
+        public Map<String, Object> resolve(final String url, final Object baseUri) {
+            resolvedUrls.add(url);
+            final Map<String, Object> data = new HashMap<>();
+            data.put("displayName", "Client " + url.substring(url.lastIndexOf('/') + 1));
+            return data;
+        }
+    });
 
     @BeforeEach
     public void setUpForEachTestCase() throws Exception {
@@ -114,6 +126,30 @@ public class TemplateMergeServiceTest {
         assertEquals(expectedOutput, output);
     }
 
+    @Test
+    public void batchMergeFetchesEachMapperUrlOnce() throws Exception {
+        List<TemplateMapper> mappers = new ArrayList<>();
+        mappers.add(new TemplateMapper(0, "client", "clients/{{clientId}}"));
+        Template template = new Template("TemplateName", "Dear {{client.displayName}}, loan {{loanId}}", null, null, mappers);
+
+        List<Map<String, Object>> scopes = new ArrayList<>();
+        scopes.add(scope("1", "10"));
+        scopes.add(scope("2", "11"));
+        scopes.add(scope("1", "12"));
+
+        List<String> output = tms.compile(template, scopes);
+        assertEquals(List.of("Dear Client 1, loan 10", "Dear Client 2, loan 11", "Dear Client 1, loan 12"), output);
+        assertEquals(List.of("http://localhost/api/v1/clients/1", "http://localhost/api/v1/clients/2"), resolvedUrls);
+    }
+
+    private Map<String, Object> scope(final String clientId, final String loanId) {
+        Map<String, Object> scope = new HashMap<>();
+        scope.put("BASE_URI", "http://localhost/api/v1/");
+        scope.put("clientId", clientId);
+        scope.put("loanId", loanId);
+        return scope;
+    }
+
     protected String compileTemplateText(String templateText, Map<String, Object> scope) throws MalformedURLException, IOException {
         List<TemplateMapper> mappers = new ArrayList<>();
         Template template = new Template("TemplateName", templateText, null, null, mappers);
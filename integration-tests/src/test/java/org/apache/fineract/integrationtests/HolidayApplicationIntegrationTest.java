@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.integrationtests;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.fineract.integrationtests.common.ClientHelper;
+import org.apache.fineract.integrationtests.common.GlobalConfigurationHelper;
+import org.apache.fineract.integrationtests.common.HolidayHelper;
+import org.apache.fineract.integrationtests.common.SchedulerJobHelper;
+import org.apache.fineract.integrationtests.common.Utils;
+import org.apache.fineract.integrationtests.common.loans.LoanApplicationTestBuilder;
+import org.apache.fineract.integrationtests.common.loans.LoanProductTestBuilder;
+import org.apache.fineract.integrationtests.common.loans.LoanTransactionHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the Apply Holidays To Loans job over more loans than fit in one page of the job (4 threads with chunks of 100
+ * loans by default) and checks the repayment schedule of every one of them, after the first and after a second run.
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class HolidayApplicationIntegrationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HolidayApplicationIntegrationTest.class);
+    private static final String RESCHEDULE_ON_HOLIDAYS = "reschedule-repayments-on-holidays";
+    private static final String APPLY_HOLIDAYS_TO_LOANS = "Apply Holidays To Loans";
+    private static final String SUBMITTED_ON_DATE = "10 January 2013";
+    private static final int LOAN_COUNT = Integer.getInteger("holidayApplication.loanCount", 450);
+
+    private RequestSpecification requestSpec;
+    private ResponseSpecification responseSpec;
+    private LoanTransactionHelper loanTransactionHelper;
+    private SchedulerJobHelper schedulerJobHelper;
+
+    @BeforeEach
+    public void setup() {
+        Utils.initializeRESTAssured();
+        this.requestSpec = new RequestSpecBuilder().setContentType(ContentType.JSON).build();
+        this.requestSpec.header("Authorization", "Basic " + Utils.loginIntoServerAndGetBase64EncodedAuthenticationKey());
+        this.requestSpec.header("Fineract-Platform-TenantId", "default");
+        this.responseSpec = new ResponseSpecBuilder().expectStatusCode(200).build();
+        this.loanTransactionHelper = new LoanTransactionHelper(this.requestSpec, this.responseSpec);
+        this.schedulerJobHelper = new SchedulerJobHelper(this.requestSpec);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        GlobalConfigurationHelper.resetAllDefaultGlobalConfigurations(this.requestSpec, this.responseSpec);
+        GlobalConfigurationHelper.verifyAllDefaultGlobalConfigurations(this.requestSpec, this.responseSpec);
+    }
+
+    @Test
+    public void testApplyHolidayReschedulesEveryLoan() {
+        final Integer clientId = ClientHelper.createClient(this.requestSpec, this.responseSpec);
+        Assertions.assertNotNull(clientId);
+
+        final Integer loanProductId = createLoanProduct();
+        Assertions.assertNotNull(loanProductId);
+
+        final List<Integer> loanIds = new ArrayList<>(LOAN_COUNT);
+        for (int i = 0; i < LOAN_COUNT; i++) {
+            loanIds.add(applyForLoanApplication(clientId, loanProductId));
+        }
+        LOG.info("Submitted {} loans for client {}", LOAN_COUNT, clientId);
+
+        enableRescheduleRepaymentsOnHolidays();
+
+        // the third repayment of every loan falls on the holiday
+        final Integer holidayId = HolidayHelper.createHolidays(this.requestSpec, this.responseSpec, "10 April 2013", "10 April 2013",
+                "11 April 2013");
+        Assertions.assertNotNull(holidayId);
+        HolidayHelper.activateHolidays(this.requestSpec, this.responseSpec, holidayId.toString());
+
+        this.schedulerJobHelper.executeAndAwaitJob(APPLY_HOLIDAYS_TO_LOANS);
+        verifyRescheduled(loanIds);
+
+        // a second run must neither fail nor move any repayment again
+        this.schedulerJobHelper.executeAndAwaitJob(APPLY_HOLIDAYS_TO_LOANS);
+        verifyRescheduled(loanIds);
+    }
+
+    private void verifyRescheduled(final List<Integer> loanIds) {
+        for (final Integer loanId : loanIds) {
+            final ArrayList<HashMap> periods = this.loanTransactionHelper.getLoanRepaymentSchedule(this.requestSpec, this.responseSpec,
+                    loanId);
+            // period 0 is the disbursement
+            Assertions.assertEquals(Arrays.asList(2013, 3, 10), periods.get(2).get("dueDate"),
+                    "Verifying the repayment before the holiday was kept for loan " + loanId);
+            Assertions.assertEquals(Arrays.asList(2013, 4, 11), periods.get(3).get("dueDate"),
+                    "Verifying the repayment on the holiday was rescheduled for loan " + loanId);
+            Assertions.assertEquals(Arrays.asList(2013, 5, 10), periods.get(4).get("dueDate"),
+                    "Verifying the repayment after the holiday was kept for loan " + loanId);
+        }
+    }
+
+    private Integer createLoanProduct() {
+        final String loanProductJSON = new LoanProductTestBuilder() //
+                .withPrincipal("10,000.00") //
+                .withNumberOfRepayments("4") //
+                .withRepaymentAfterEvery("1") //
+                .withRepaymentTypeAsMonth() //
+                .withinterestRatePerPeriod("1") //
+                .withInterestRateFrequencyTypeAsMonths() //
+                .withAmortizationTypeAsEqualInstallments() //
+                .withInterestTypeAsDecliningBalance() //
+                .build(null);
+        return this.loanTransactionHelper.getLoanProductId(loanProductJSON);
+    }
+
+    private Integer applyForLoanApplication(final Integer clientId, final Integer loanProductId) {
+        final String loanApplicationJSON = new LoanApplicationTestBuilder() //
+                .withPrincipal("10,000.00") //
+                .withLoanTermFrequency("4") //
+                .withLoanTermFrequencyAsMonths() //
+                .withNumberOfRepayments("4") //
+                .withRepaymentEveryAfter("1") //
+                .withRepaymentFrequencyTypeAsMonths() //
+                .withInterestRatePerPeriod("1") //
+                .withAmortizationTypeAsEqualInstallments() //
+                .withInterestTypeAsDecliningBalance() //
+                .withInterestCalculationPeriodTypeSameAsRepaymentPeriod() //
+                .withExpectedDisbursementDate(SUBMITTED_ON_DATE) //
+                .withSubmittedOnDate(SUBMITTED_ON_DATE) //
+                .build(clientId.toString(), loanProductId.toString(), null);
+        return this.loanTransactionHelper.getLoanId(loanApplicationJSON);
+    }
+
+    private void enableRescheduleRepaymentsOnHolidays() {
+        final ArrayList<HashMap> globalConfig = GlobalConfigurationHelper.getAllGlobalConfigurations(this.requestSpec, this.responseSpec);
+        for (final HashMap config : globalConfig) {
+            if (RESCHEDULE_ON_HOLIDAYS.equals(config.get("name"))) {
+                GlobalConfigurationHelper.updateEnabledFlagForGlobalConfiguration(this.requestSpec, this.responseSpec,
+                        config.get("id").toString(), true);
+                return;
+            }
+        }
+        Assertions.fail("Global configuration " + RESCHEDULE_ON_HOLIDAYS + " not found");
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.integrationtests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.zaxxer.hikari.HikariConfig;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
+import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
+import org.apache.fineract.infrastructure.core.service.database.DatabaseTypeResolver;
+import org.apache.fineract.scheduledjobs.service.TrialBalanceClosingBalanceUpdater;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Runs the window function update of {@link TrialBalanceClosingBalanceUpdater} and its per office and account update
+ * on the same ledger in the tenant database and compares the closing balances they fill in.
+ *
+ * The ledger is written to an m_trial_balance in a schema of its own, which the connection of the test uses instead of
+ * the tenant schema, so the trial balance of the running server is not touched. Unlike the tenant table its
+ * closing_balance is nullable, as the new rows are those without one, and it has an id, which the per office and account
+ * update saves its rows by.
+ */
+public class TrialBalanceClosingBalanceIntegrationTest {
+
+    private static final String SCHEMA = "fineract_it_trial_balance";
+    private static final String ROWS = "select office_id, account_id, created_date, entry_date, amount, closing_balance "
+            + "from m_trial_balance order by office_id, account_id, created_date, entry_date";
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TrialBalanceClosingBalanceUpdater updater;
+    private boolean postgreSQL;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        final String driverClassName = System.getProperty("fineract.it.jdbc.driver", "org.mariadb.jdbc.Driver");
+        final HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDriverClassName(driverClassName);
+        final DatabaseTypeResolver databaseTypeResolver = new DatabaseTypeResolver(hikariConfig);
+        databaseTypeResolver.afterPropertiesSet();
+
+        this.dataSource = new SingleConnectionDataSource(
+                System.getProperty("fineract.it.jdbc.url", "jdbc:mariadb://localhost:3306/fineract_default"),
+                System.getProperty("fineract.it.jdbc.username", "root"), System.getProperty("fineract.it.jdbc.password", "mysql"), true);
+        this.dataSource.setDriverClassName(driverClassName);
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.updater = new TrialBalanceClosingBalanceUpdater(this.jdbcTemplate, new JdbcTrialBalanceRepositoryWrapper(this.jdbcTemplate),
+                databaseTypeResolver);
+
+        this.postgreSQL = databaseTypeResolver.isPostgreSQL();
+        // left behind by an earlier run that did not get to tearDown
+        dropSchema();
+        if (this.postgreSQL) {
+            this.jdbcTemplate.execute("create schema " + SCHEMA);
+            this.jdbcTemplate.execute("set search_path to " + SCHEMA);
+        } else {
+            this.jdbcTemplate.execute("create database " + SCHEMA);
+            this.jdbcTemplate.execute("use " + SCHEMA);
+        }
+        final String id = this.postgreSQL ? "id bigserial primary key" : "id bigint auto_increment primary key";
+        this.jdbcTemplate.execute("create table m_trial_balance (" + id + ", office_id bigint not null, "
+                + "account_id bigint not null, amount decimal(19, 6) not null, entry_date date not null, created_date date, "
+                + "closing_balance decimal(19, 6))");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dropSchema();
+        this.dataSource.destroy();
+    }
+
+    private void dropSchema() {
+        this.jdbcTemplate.execute(this.postgreSQL ? "drop schema if exists " + SCHEMA + " cascade" : "drop database if exists " + SCHEMA);
+    }
+
+    @Test
+    public void windowFunctionUpdateFillsInTheClosingBalancesOfThePerOfficeAndAccountUpdate() {
+        seedLedger();
+        final int updatedPerOfficeAndAccount = this.updater.updatePerOfficeAndAccount();
+        final List<String> perOfficeAndAccount = rows();
+
+        this.jdbcTemplate.update("delete from m_trial_balance");
+        seedLedger();
+        final int updatedWithWindowFunction = this.updater.updateWithWindowFunction();
+        final List<String> withWindowFunction = rows();
+
+        assertEquals(17, updatedPerOfficeAndAccount);
+        assertEquals(updatedPerOfficeAndAccount, updatedWithWindowFunction);
+        assertEquals(perOfficeAndAccount, withWindowFunction);
+        assertEquals(0, this.jdbcTemplate.queryForObject("select count(*) from m_trial_balance where closing_balance is null", Long.class));
+    }
+
+    @Test
+    public void windowFunctionUpdateContinuesFromTheLastClosingBalanceAcrossDateGaps() {
+        seedLedger();
+
+        this.updater.updateWithWindowFunction();
+
+        // office 1, account 10: closed at 100 on 2022-02-28, then +25, -5 and, after the gap, +7.5 and +2.5
+        assertEquals(List.of("125.000000", "120.000000", "127.500000", "130.000000"), closingBalances(1L, 10L, "2022-03-01"));
+        // office 2, account 10 has no closed row, so it starts from zero
+        assertEquals(List.of("40.000000", "30.000000", "31.000000"), closingBalances(2L, 10L, "2022-03-01"));
+        // office 2, account 11 continues from 12.25, the new rows of one created date in the order of their entry dates
+        assertEquals(List.of("13.000000", "1.000000", "101.000000"), closingBalances(2L, 11L, "2022-03-01"));
+        // office 1, account 12 has no new rows and keeps its closing balance
+        assertEquals(List.of("55.000000"), closingBalances(1L, 12L, "2022-02-28"));
+    }
+
+    @Test
+    public void updateWithoutNewRowsChangesNothing() {
+        seedClosed(1L, 10L, "2022-02-28", "2022-02-28", "100", "100");
+        final List<String> before = rows();
+
+        assertEquals(0, this.updater.updateWithWindowFunction());
+        assertEquals(0, this.updater.updatePerOfficeAndAccount());
+        assertEquals(before, rows());
+    }
+
+    /**
+     * Two offices and three GL accounts, with closed rows for some office and account pairs only, several entry dates per
+     * created date and no trial balance rows between 2022-03-02 and 2022-03-07.
+     */
+    private void seedLedger() {
+        seedClosed(1L, 10L, "2022-02-27", "2022-02-27", "60", "60");
+        seedClosed(1L, 10L, "2022-02-28", "2022-02-28", "40", "100");
+        seedClosed(1L, 11L, "2022-02-28", "2022-02-28", "-30", "-30");
+        seedClosed(1L, 12L, "2022-02-28", "2022-02-28", "55", "55");
+        seedClosed(2L, 11L, "2022-02-28", "2022-02-27", "12.25", "12.25");
+
+        seedNew(1L, 10L, "2022-03-01", "2022-03-01", "25");
+        seedNew(1L, 10L, "2022-03-02", "2022-03-01", "-5");
+        seedNew(1L, 10L, "2022-03-07", "2022-03-07", "7.5");
+        seedNew(1L, 10L, "2022-03-07", "2022-03-08", "2.5");
+
+        seedNew(1L, 11L, "2022-03-01", "2022-03-01", "-10");
+        seedNew(1L, 11L, "2022-03-01", "2022-03-02", "-0.125");
+        seedNew(1L, 11L, "2022-03-08", "2022-03-08", "3");
+
+        seedNew(2L, 10L, "2022-03-01", "2022-03-01", "40");
+        seedNew(2L, 10L, "2022-03-02", "2022-03-02", "-10");
+        seedNew(2L, 10L, "2022-03-07", "2022-03-02", "1");
+
+        seedNew(2L, 11L, "2022-03-01", "2022-02-28", "0.75");
+        seedNew(2L, 11L, "2022-03-01", "2022-03-01", "-12");
+        seedNew(2L, 11L, "2022-03-08", "2022-03-08", "100");
+
+        seedNew(2L, 12L, "2022-03-01", "2022-03-01", "-1");
+        seedNew(2L, 12L, "2022-03-02", "2022-03-02", "-1");
+        seedNew(2L, 12L, "2022-03-07", "2022-03-07", "-1");
+        seedNew(2L, 12L, "2022-03-08", "2022-03-08", "-1");
+    }
+
+    private void seedClosed(final Long officeId, final Long accountId, final String createdDate, final String entryDate,
+            final String amount, final String closingBalance) {
+        this.jdbcTemplate.update(
+                "insert into m_trial_balance (office_id, account_id, amount, entry_date, created_date, closing_balance) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                officeId, accountId, new BigDecimal(amount), Date.valueOf(LocalDate.parse(entryDate)),
+                Date.valueOf(LocalDate.parse(createdDate)), new BigDecimal(closingBalance));
+    }
+
+    private void seedNew(final Long officeId, final Long accountId, final String createdDate, final String entryDate,
+            final String amount) {
+        this.jdbcTemplate.update(
+                "insert into m_trial_balance (office_id, account_id, amount, entry_date, created_date) values (?, ?, ?, ?, ?)", officeId,
+                accountId, new BigDecimal(amount), Date.valueOf(LocalDate.parse(entryDate)), Date.valueOf(LocalDate.parse(createdDate)));
+    }
+
+    private List<String> rows() {
+        return this.jdbcTemplate.query(ROWS,
+                (rs, rowNum) -> rs.getLong("office_id") + "/" + rs.getLong("account_id") + " " + rs.getDate("created_date") + " "
+                        + rs.getDate("entry_date") + " " + rs.getBigDecimal("amount").toPlainString() + " "
+                        + rs.getBigDecimal("closing_balance").toPlainString());
+    }
+
+    private List<String> closingBalances(final Long officeId, final Long accountId, final String createdFrom) {
+        final List<String> closingBalances = new ArrayList<>();
+        for (final BigDecimal closingBalance : this.jdbcTemplate.queryForList("select closing_balance from m_trial_balance "
+                + "where office_id = ? and account_id = ? and created_date >= ? order by created_date, entry_date", BigDecimal.class,
+                officeId, accountId, Date.valueOf(LocalDate.parse(createdFrom)))) {
+            assertNotNull(closingBalance);
+            closingBalances.add(closingBalance.toPlainString());
+        }
+        return closingBalances;
+    }
+
+    /**
+     * Loads and saves the rows of the per office and account update with plain JDBC. The JPA repository it is given in the
+     * server needs the application context, and the rows it loads are those of the same native query.
+     */
+    private static final class JdbcTrialBalanceRepositoryWrapper extends TrialBalanceRepositoryWrapper {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final Map<TrialBalance, Long> ids = new IdentityHashMap<>();
+
+        JdbcTrialBalanceRepositoryWrapper(final JdbcTemplate jdbcTemplate) {
+            super(null);
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public List<TrialBalance> findNewByOfficeAndAccount(final Long officeId, final Long accountId) {
+            return this.jdbcTemplate.query("select * from m_trial_balance where office_id=? and account_id=? and closing_balance is null "
+                    + "order by created_date, entry_date", (rs, rowNum) -> {
+                        final TrialBalance row = TrialBalance.getInstance(rs.getLong("office_id"), rs.getLong("account_id"),
+                                rs.getBigDecimal("amount"), rs.getDate("entry_date"), rs.getDate("created_date"));
+                        this.ids.put(row, rs.getLong("id"));
+                        return row;
+                    }, officeId, accountId);
+        }
+
+        @Override
+        public void save(final List<TrialBalance> tbRows) {
+            for (final TrialBalance tbRow : tbRows) {
+                this.jdbcTemplate.update("update m_trial_balance set closing_balance = ? where id = ?", tbRow.getClosingBalance(),
+                        this.ids.remove(tbRow));
+            }
+        }
+    }
+}
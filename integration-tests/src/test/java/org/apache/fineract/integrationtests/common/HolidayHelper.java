@@ -45,6 +45,10 @@ public class HolidayHelper {
     }
 
     public static String getCreateHolidayDataAsJSON() {
+        return getCreateHolidayDataAsJSON("01 April 2013", "01 April 2013", "08 April 2013");
+    }
+
+    public static String getCreateHolidayDataAsJSON(final String fromDate, final String toDate, final String repaymentsRescheduledTo) {
         final HashMap<String, Object> map = new HashMap<>();
         List<HashMap<String, String>> offices = new ArrayList<HashMap<String, String>>();
         HashMap<String, String> officeMap = new HashMap<>();
@@ -55,9 +59,9 @@ public class HolidayHelper {
         map.put("locale", "en");
         map.put("dateFormat", "dd MMMM yyyy");
         map.put("name", Utils.randomNameGenerator("HOLIDAY_", 5));
-        map.put("fromDate", "01 April 2013");
-        map.put("toDate", "01 April 2013");
-        map.put("repaymentsRescheduledTo", "08 April 2013");
+        map.put("fromDate", fromDate);
+        map.put("toDate", toDate);
+        map.put("repaymentsRescheduledTo", repaymentsRescheduledTo);
         map.put("reschedulingType", 2);
         String HolidayCreateJson = new Gson().toJson(map);
         LOG.info("{}", HolidayCreateJson);
@@ -75,6 +79,12 @@ public class HolidayHelper {
         return Utils.performServerPost(requestSpec, responseSpec, CREATE_HOLIDAY_URL, getCreateHolidayDataAsJSON(), "resourceId");
     }
 
+    public static Integer createHolidays(final RequestSpecification requestSpec, final ResponseSpecification responseSpec,
+            final String fromDate, final String toDate, final String repaymentsRescheduledTo) {
+        return Utils.performServerPost(requestSpec, responseSpec, CREATE_HOLIDAY_URL,
+                getCreateHolidayDataAsJSON(fromDate, toDate, repaymentsRescheduledTo), "resourceId");
+    }
+
     public static Integer activateHolidays(final RequestSpecification requestSpec, final ResponseSpecification responseSpec,
             final String holidayID) {
         final String ACTIVATE_HOLIDAY_URL = HOLIDAYS_URL + "/" + holidayID + "?command=activate&" + Utils.TENANT_IDENTIFIER;